@@ -0,0 +1,7 @@
+package com.checkproof.entity;
+
+public enum ChangeKind {
+  CREATED,
+  UPDATED,
+  DELETED
+}
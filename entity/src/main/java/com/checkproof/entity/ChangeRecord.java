@@ -0,0 +1,43 @@
+package com.checkproof.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * One create, update or delete of an item, a variant or a variant's stock, written in the same
+ * transaction as the change. The position is its change sequence in the feed, given after it
+ * committed; createdAt is when the change was made.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "change_records", indexes = @Index(name = "idx_change_records_created_at", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeRecord extends BaseEntity {
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ChangeSubject subject;
+  @Column(nullable = false)
+  private Long subjectId;
+  // The item of an item or variant change; stock changes only name their variant.
+  private Long itemId;
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ChangeKind kind;
+  // Null until the change sequencer numbers the committed change.
+  @Column(unique = true)
+  private Long position;
+
+  public ChangeRecord(ChangeSubject subject, Long subjectId, Long itemId, ChangeKind kind) {
+    this(subject, subjectId, itemId, kind, null);
+  }
+}
@@ -0,0 +1,7 @@
+package com.checkproof.entity;
+
+public enum ChangeSubject {
+  ITEM,
+  VARIANT,
+  STOCK
+}
@@ -0,0 +1,37 @@
+package com.checkproof.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord extends BaseEntity {
+  @Column(nullable = false, unique = true, length = 128)
+  private String idempotencyKey;
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+  // When the request holding the key claimed it; an in-flight claim older than the in-flight
+  // timeout is left over from a request that died and can be taken over.
+  @Column(nullable = false)
+  private LocalDateTime claimedAt;
+  // Null while the request holding the key is still in flight.
+  private Integer responseStatus;
+  @Column(length = 100)
+  private String contentType;
+  @Column(length = 8192)
+  private String responseBody;
+  @Column(nullable = false)
+  private LocalDateTime expiresAt;
+}
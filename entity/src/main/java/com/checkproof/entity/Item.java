@@ -3,18 +3,25 @@ package com.checkproof.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+    @Index(name = "idx_items_item_name_id", columnList = "item_name, id"),
+    @Index(name = "idx_items_category_id", columnList = "category, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,6 +31,8 @@ public class Item extends BaseEntity {
   @Column(nullable = false, unique = true)
   private String description;
   private String category;
+  // The variant ids are cached with the item; writes to a variant evict them.
   @OneToMany(mappedBy = "item", cascade = CascadeType.ALL, orphanRemoval = true)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "variants-by-item")
   private List<ItemVariant> itemVariants;
 }
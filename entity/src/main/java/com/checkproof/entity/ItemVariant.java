@@ -2,6 +2,8 @@ package com.checkproof.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -10,15 +12,21 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "item_variants")
+@Table(name = "item_variants", indexes = {
+    @Index(name = "idx_item_variants_item_id_name_id", columnList = "item_id, name, id"),
+    @Index(name = "idx_item_variants_item_id_price_id", columnList = "item_id, price, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "variants")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemVariant extends BaseEntity {
-  @ManyToOne(optional = false)
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
   @JoinColumn(name="item_id")
   private Item item;
   @Column(nullable = false)
@@ -25,6 +25,10 @@ public class ItemVariantStock extends BaseEntity {
   private Integer availableStock = 0;
   @Column(nullable = false)
   private Integer allocatedStock = 0;
+  // 0 for a plain row; otherwise the counters live in that many item_variant_stock_buckets rows
+  // and this row only holds the totals as of the last rebalance.
+  @Column(nullable = false)
+  private Integer bucketCount = 0;
   @Version
   private Long version;
 }
@@ -0,0 +1,34 @@
+package com.checkproof.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "item_variant_stock_buckets",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"variant_id", "bucket_index"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemVariantStockBucket extends BaseEntity {
+  @ManyToOne(optional = false)
+  @JoinColumn(name="variant_id")
+  private ItemVariant itemVariant;
+  @Column(nullable = false)
+  private Integer bucketIndex;
+  @Column(nullable = false)
+  private Integer availableStock = 0;
+  @Column(nullable = false)
+  private Integer allocatedStock = 0;
+  @Version
+  private Long version;
+}
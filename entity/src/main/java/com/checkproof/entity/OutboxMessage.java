@@ -0,0 +1,26 @@
+package com.checkproof.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** An event written in the transaction that caused it and deleted once the relay delivered it. */
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "outbox_messages")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessage extends BaseEntity {
+  @Column(nullable = false, length = 64)
+  private String topic;
+  @Column(nullable = false, length = 128)
+  private String messageKey;
+  // JSON.
+  @Column(nullable = false, length = 4096)
+  private String payload;
+}
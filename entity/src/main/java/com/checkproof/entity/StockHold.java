@@ -0,0 +1,38 @@
+package com.checkproof.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "stock_holds", indexes = @Index(name = "idx_stock_holds_status", columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHold extends BaseEntity {
+  @ManyToOne(optional = false)
+  @JoinColumn(name="variant_id")
+  private ItemVariant itemVariant;
+  @Column(nullable = false)
+  private Integer quantity;
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private StockHoldStatus status = StockHoldStatus.ACTIVE;
+  @Column(nullable = false)
+  private LocalDateTime expiresAt;
+  @Version
+  private Long version;
+}
@@ -0,0 +1,8 @@
+package com.checkproof.entity;
+
+public enum StockHoldStatus {
+  ACTIVE,
+  COMMITTED,
+  RELEASED,
+  EXPIRED
+}
@@ -0,0 +1,10 @@
+package com.checkproof.helper.converter;
+
+import com.checkproof.servicemodel.CacheRegionStatsResult;
+import com.checkproof.webmodel.CacheRegionStatsResponse;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface CacheConverter {
+  CacheRegionStatsResponse toCacheRegionStatsResponse(CacheRegionStatsResult result);
+}
@@ -0,0 +1,10 @@
+package com.checkproof.helper.converter;
+
+import com.checkproof.servicemodel.CatalogItemResult;
+import com.checkproof.webmodel.CatalogItemResponse;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface CatalogConverter {
+  CatalogItemResponse toCatalogItemResponse(CatalogItemResult result);
+}
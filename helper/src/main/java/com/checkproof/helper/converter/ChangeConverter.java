@@ -0,0 +1,17 @@
+package com.checkproof.helper.converter;
+
+import com.checkproof.entity.ChangeRecord;
+import com.checkproof.servicemodel.ChangeFeedResult;
+import com.checkproof.servicemodel.ChangeResult;
+import com.checkproof.webmodel.ChangeFeedResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ChangeConverter {
+  @Mapping(target = "sequence", source = "position")
+  @Mapping(target = "changedAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
+  ChangeResult toChangeResult(ChangeRecord entity);
+
+  ChangeFeedResponse toChangeFeedResponse(ChangeFeedResult result);
+}
@@ -1,16 +1,21 @@
 package com.checkproof.helper.converter;
 
 import com.checkproof.entity.Item;
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.repository.model.ItemRow;
+import com.checkproof.servicemodel.ItemDetailResult;
 import com.checkproof.servicemodel.ItemResult;
 import com.checkproof.servicemodel.ItemSpec;
 import com.checkproof.servicemodel.UpdateItemSpec;
+import com.checkproof.servicemodel.VariantDetailResult;
+import com.checkproof.webmodel.ItemDetailResponse;
 import com.checkproof.webmodel.ItemRequest;
 import com.checkproof.webmodel.ItemResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = StockConverter.class)
 public interface ItemConverter {
   ItemResponse toItemResponse(ItemResult spec);
   
@@ -18,6 +23,25 @@ public interface ItemConverter {
   @Mapping(target = "createdAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
   @Mapping(target = "updatedAt", expression = "java(entity.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(entity.getUpdatedAt()) : null)")
   ItemResult toItemResult(Item entity);
+
+  @Mapping(target = "name", source = "itemName")
+  @Mapping(target = "createdAt", expression = "java(row.getCreatedAt() != null ? java.sql.Timestamp.valueOf(row.getCreatedAt()) : null)")
+  @Mapping(target = "updatedAt", expression = "java(row.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(row.getUpdatedAt()) : null)")
+  ItemResult toItemResult(ItemRow row);
+
+  ItemDetailResponse toItemDetailResponse(ItemDetailResult result);
+
+  // Variants are left to the caller, so the lazy collection is only touched when it was fetched.
+  @Mapping(target = "name", source = "itemName")
+  @Mapping(target = "variants", ignore = true)
+  @Mapping(target = "createdAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
+  @Mapping(target = "updatedAt", expression = "java(entity.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(entity.getUpdatedAt()) : null)")
+  ItemDetailResult toItemDetailResult(Item entity);
+
+  @Mapping(target = "stock", ignore = true)
+  @Mapping(target = "createdAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
+  @Mapping(target = "updatedAt", expression = "java(entity.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(entity.getUpdatedAt()) : null)")
+  VariantDetailResult toVariantDetailResult(ItemVariant entity);
   
   ItemSpec toItemSpec(ItemRequest request);
 
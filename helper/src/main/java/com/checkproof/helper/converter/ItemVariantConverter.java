@@ -1,24 +1,33 @@
 package com.checkproof.helper.converter;
 
 import com.checkproof.entity.ItemVariant;
+import com.checkproof.repository.model.ItemVariantRow;
 import com.checkproof.servicemodel.ItemVariantResult;
 import com.checkproof.servicemodel.ItemVariantSpec;
 import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
 import com.checkproof.webmodel.ItemVariantRequest;
 import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.webmodel.VariantBatchEntryResponse;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring", uses = ItemConverter.class)
+@Mapper(componentModel = "spring", uses = {ItemConverter.class, StockConverter.class})
 public interface ItemVariantConverter {
   @Mapping(target = "itemId", ignore = true)
   ItemVariantSpec toItemVariantSpec(ItemVariantRequest request);
   
   ItemVariantResponse toItemVariantResponse(ItemVariantResult result);
+
+  VariantBatchEntryResponse toVariantBatchEntryResponse(VariantBatchEntryResult result);
   
   @Mapping(target = "createdAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
   @Mapping(target = "updatedAt", expression = "java(entity.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(entity.getUpdatedAt()) : null)")
   ItemVariantResult toItemVariantResult(ItemVariant entity);
+
+  @Mapping(target = "createdAt", expression = "java(row.getCreatedAt() != null ? java.sql.Timestamp.valueOf(row.getCreatedAt()) : null)")
+  @Mapping(target = "updatedAt", expression = "java(row.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(row.getUpdatedAt()) : null)")
+  ItemVariantResult toItemVariantResult(ItemVariantRow row);
   
   @Mapping(target = "itemId", ignore = true)
   @Mapping(target = "id", ignore = true)
@@ -0,0 +1,13 @@
+package com.checkproof.helper.converter;
+
+import com.checkproof.entity.OutboxMessage;
+import com.checkproof.servicemodel.OutboundMessage;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface OutboxConverter {
+  @Mapping(target = "key", source = "messageKey")
+  @Mapping(target = "createdAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
+  OutboundMessage toOutboundMessage(OutboxMessage entity);
+}
@@ -0,0 +1,10 @@
+package com.checkproof.helper.converter;
+
+import com.checkproof.servicemodel.SearchHitResult;
+import com.checkproof.webmodel.SearchHitResponse;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface SearchConverter {
+  SearchHitResponse toSearchHitResponse(SearchHitResult result);
+}
@@ -0,0 +1,38 @@
+package com.checkproof.helper.converter;
+
+import com.checkproof.entity.StockHold;
+import com.checkproof.servicemodel.StockCommandResult;
+import com.checkproof.servicemodel.StockHoldResult;
+import com.checkproof.servicemodel.StockMovementResult;
+import com.checkproof.servicemodel.StockStripesResult;
+import com.checkproof.servicemodel.VariantContentionResult;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.webmodel.StockCommandResponse;
+import com.checkproof.webmodel.StockHoldResponse;
+import com.checkproof.webmodel.StockMovementResponse;
+import com.checkproof.webmodel.StockStripesResponse;
+import com.checkproof.webmodel.VariantContentionResponse;
+import com.checkproof.webmodel.VariantStockResponse;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface StockConverter {
+  VariantContentionResponse toVariantContentionResponse(VariantContentionResult result);
+
+  StockStripesResponse toStockStripesResponse(StockStripesResult result);
+
+  @Mapping(target = "variantId", source = "itemVariant.id")
+  @Mapping(target = "expiresAt", expression = "java(java.sql.Timestamp.valueOf(entity.getExpiresAt()))")
+  @Mapping(target = "createdAt", expression = "java(entity.getCreatedAt() != null ? java.sql.Timestamp.valueOf(entity.getCreatedAt()) : null)")
+  @Mapping(target = "updatedAt", expression = "java(entity.getUpdatedAt() != null ? java.sql.Timestamp.valueOf(entity.getUpdatedAt()) : null)")
+  StockHoldResult toStockHoldResult(StockHold entity);
+
+  StockHoldResponse toStockHoldResponse(StockHoldResult result);
+
+  StockMovementResponse toStockMovementResponse(StockMovementResult result);
+
+  VariantStockResponse toVariantStockResponse(VariantStockResult result);
+
+  StockCommandResponse toStockCommandResponse(StockCommandResult result);
+}
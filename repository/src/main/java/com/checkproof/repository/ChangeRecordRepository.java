@@ -0,0 +1,24 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.ChangeRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChangeRecordRepository extends JpaRepository<ChangeRecord, Long> {
+  List<ChangeRecord> findByPositionGreaterThanOrderByPositionAsc(Long since, Limit limit);
+
+  List<ChangeRecord> findByPositionIsNullOrderByIdAsc(Limit limit);
+
+  @Query("select coalesce(max(c.position), 0) from ChangeRecord c")
+  long findMaxPosition();
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from ChangeRecord c where c.createdAt < :before and c.position < :below")
+  int deleteCreatedBefore(@Param("before") LocalDateTime before, @Param("below") long below);
+}
@@ -0,0 +1,35 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+  Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update IdempotencyRecord r set r.responseStatus = :status, r.contentType = :contentType, "
+      + "r.responseBody = :body, r.updatedAt = local datetime "
+      + "where r.idempotencyKey = :key and r.responseStatus is null")
+  int complete(@Param("key") String key, @Param("status") int status, @Param("contentType") String contentType,
+      @Param("body") String body);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.responseStatus is null")
+  int deleteInFlight(@Param("key") String key);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key "
+      + "and (r.expiresAt <= :now or (r.responseStatus is null and r.claimedAt <= :claimedBefore))")
+  int deleteReclaimable(@Param("key") String key, @Param("now") LocalDateTime now,
+      @Param("claimedBefore") LocalDateTime claimedBefore);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+  int deleteAllExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,6 @@
+package com.checkproof.repository;
+
+public interface ItemCacheRepository {
+  /** Whether the item and its variant ids are both in the second-level cache of this node. */
+  boolean isCachedWithVariants(Long id);
+}
@@ -0,0 +1,19 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.Item;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+
+@AllArgsConstructor
+public class ItemCacheRepositoryImpl implements ItemCacheRepository {
+  private static final String VARIANTS_ROLE = Item.class.getName() + ".itemVariants";
+
+  private final EntityManager entityManager;
+
+  @Override
+  public boolean isCachedWithVariants(Long id) {
+    var cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+    return cache.containsEntity(Item.class, id) && cache.containsCollection(VARIANTS_ROLE, id);
+  }
+}
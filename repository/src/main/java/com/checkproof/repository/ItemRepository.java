@@ -1,7 +1,70 @@
 package com.checkproof.repository;
 
 import com.checkproof.entity.Item;
+import com.checkproof.repository.model.CatalogRow;
+import com.checkproof.repository.model.ItemTextRow;
+import com.checkproof.repository.model.VersionSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>, ItemRowRepository,
+    ItemCacheRepository {
+  String ITEM_TEXT = "select new com.checkproof.repository.model.ItemTextRow(i.id, i.itemName, i.description, "
+      + "i.category, v.name) from Item i left join i.itemVariants v "
+      + "where i.id >= :fromId and i.id < :toId order by i.id, v.id";
+
+  @EntityGraph(attributePaths = "itemVariants")
+  Optional<Item> findWithVariantsById(Long id);
+
+  @Query("select i.updatedAt from Item i where i.id = :id")
+  Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+  // Items carry no version; an update moves updatedAt past the latest one.
+  @Query("select new com.checkproof.repository.model.VersionSummary(count(i), coalesce(sum(i.id), 0), 0L, "
+      + "max(i.updatedAt)) from Item i")
+  VersionSummary summarizeVersions();
+
+  // One row per variant (one with null variant columns for an item without variants), ordered so
+  // an item's rows are adjacent. Striped variants are summed from their buckets, since the totals
+  // on their stock row are only as fresh as the last rebalance. The stream is a forward-only
+  // cursor and must be consumed and closed inside a transaction.
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select new com.checkproof.repository.model.CatalogRow(i.id, i.itemName, i.description, i.category, "
+      + "v.id, v.name, v.sku, v.price, "
+      + "case when s.bucketCount > 0 then (select cast(sum(b.availableStock) as Integer) "
+      + "from ItemVariantStockBucket b where b.itemVariant.id = v.id) else s.availableStock end, "
+      + "case when s.bucketCount > 0 then (select cast(sum(b.allocatedStock) as Integer) "
+      + "from ItemVariantStockBucket b where b.itemVariant.id = v.id) else s.allocatedStock end) "
+      + "from Item i left join i.itemVariants v left join ItemVariantStock s on s.itemVariant.id = v.id "
+      + "order by i.id, v.id")
+  Stream<CatalogRow> streamCatalog();
+
+  // The searchable text of the items with ids in [fromId, toId), one row per variant, an item's
+  // rows adjacent. The stream must be consumed and closed inside a transaction.
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(ITEM_TEXT)
+  Stream<ItemTextRow> streamItemText(@Param("fromId") long fromId, @Param("toId") long toId);
+
+  @Query(ITEM_TEXT)
+  List<ItemTextRow> findItemText(@Param("fromId") long fromId, @Param("toId") long toId);
+
+  @Query("select coalesce(max(i.id), 0) from Item i")
+  long findMaxId();
 }
@@ -0,0 +1,13 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.Item;
+import com.checkproof.repository.model.ItemRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ItemRowRepository {
+  /** The first {@code limit} items matching the specification in the given order, as read-only rows. */
+  List<ItemRow> findRows(Specification<Item> where, Sort sort, int limit);
+}
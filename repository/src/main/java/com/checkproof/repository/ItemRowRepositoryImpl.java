@@ -0,0 +1,24 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.Item;
+import com.checkproof.repository.model.ItemRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Selection;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class ItemRowRepositoryImpl implements ItemRowRepository {
+  private final EntityManager entityManager;
+
+  @Override
+  public List<ItemRow> findRows(Specification<Item> where, Sort sort, int limit) {
+    return ProjectedRows.find(entityManager, Item.class, ItemRow.class, item -> new Selection<?>[] {
+        item.get("id"), item.get("itemName"), item.get("description"), item.get("category"),
+        item.get("createdAt"), item.get("createdBy"), item.get("updatedAt"), item.get("updatedBy")
+    }, where, sort, limit);
+  }
+}
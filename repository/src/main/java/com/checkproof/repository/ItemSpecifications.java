@@ -0,0 +1,32 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.Item;
+import com.checkproof.entity.ItemVariant;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters for item listings. Conditions on variants are EXISTS probes through the item_id index
+ * of item_variants.
+ */
+public final class ItemSpecifications {
+  private ItemSpecifications() {
+  }
+
+  public static Specification<Item> inCategory(String category) {
+    return (root, query, cb) -> cb.equal(root.get("category"), category);
+  }
+
+  public static Specification<Item> nameStartsWith(String prefix) {
+    return (root, query, cb) -> cb.like(root.get("itemName"), ItemVariantSpecifications.prefixPattern(prefix), '\\');
+  }
+
+  public static Specification<Item> hasVariant(Specification<ItemVariant> variantSpecification) {
+    return (root, query, cb) -> {
+      var variants = query.subquery(Long.class);
+      var variant = variants.from(ItemVariant.class);
+      variants.select(variant.get("id"))
+          .where(cb.equal(variant.get("item"), root), variantSpecification.toPredicate(variant, query, cb));
+      return cb.exists(variants);
+    };
+  }
+}
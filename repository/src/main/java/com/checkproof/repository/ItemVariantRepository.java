@@ -1,10 +1,58 @@
 package com.checkproof.repository;
 
 import com.checkproof.entity.ItemVariant;
+import com.checkproof.repository.model.SkuEntry;
+import com.checkproof.repository.model.VersionSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemVariantRepository extends JpaRepository<ItemVariant, Long> {
-  List<ItemVariant> findByItem_Id(Long itemId);
+public interface ItemVariantRepository extends JpaRepository<ItemVariant, Long>, JpaSpecificationExecutor<ItemVariant>,
+    ItemVariantRowRepository {
+  // The item is lazy; lookups whose result is rendered with its item fetch it in the same query.
+  @EntityGraph(attributePaths = "item")
+  Optional<ItemVariant> findWithItemById(Long id);
+
+  @EntityGraph(attributePaths = "item")
+  Optional<ItemVariant> findBySku(String sku);
+
+  @Query("select new com.checkproof.repository.model.VersionSummary(count(v), coalesce(sum(v.id), 0), "
+      + "coalesce(sum(v.version), 0), max(v.updatedAt)) from ItemVariant v where v.item.id = :itemId")
+  VersionSummary summarizeVersionsByItemId(@Param("itemId") Long itemId);
+
+  @Query("select new com.checkproof.repository.model.VersionSummary(count(v), coalesce(sum(v.id), 0), "
+      + "coalesce(sum(v.version), 0), max(v.updatedAt)) from ItemVariant v")
+  VersionSummary summarizeVersions();
+
+  // The variant with the last update of its item, which is rendered along with it.
+  @Query("select new com.checkproof.repository.model.VersionSummary(1L, v.id, v.version, v.item.updatedAt) "
+      + "from ItemVariant v where v.sku = :sku")
+  Optional<VersionSummary> findVersionBySku(@Param("sku") String sku);
+
+  @Query("select v.id from ItemVariant v where v.sku = :sku")
+  Optional<Long> findIdBySku(@Param("sku") String sku);
+
+  @Query("select v from ItemVariant v join fetch v.item where v.id in :ids")
+  List<ItemVariant> findWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query("select v from ItemVariant v join fetch v.item where v.sku in :skus")
+  List<ItemVariant> findWithItemBySkuIn(@Param("skus") Collection<String> skus);
+
+  // Must be consumed and closed inside a transaction.
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select new com.checkproof.repository.model.SkuEntry(v.sku, v.id) from ItemVariant v")
+  Stream<SkuEntry> streamSkus();
 }
@@ -0,0 +1,16 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.repository.model.ItemVariantRow;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ItemVariantRowRepository {
+  /**
+   * The first {@code limit} variants matching the specification in the given order, as read-only
+   * rows carrying their item's columns from the same query.
+   */
+  List<ItemVariantRow> findRows(Specification<ItemVariant> where, Sort sort, int limit);
+}
@@ -0,0 +1,30 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.Item;
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.repository.model.ItemVariantRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Selection;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@AllArgsConstructor
+public class ItemVariantRowRepositoryImpl implements ItemVariantRowRepository {
+  private final EntityManager entityManager;
+
+  @Override
+  public List<ItemVariantRow> findRows(Specification<ItemVariant> where, Sort sort, int limit) {
+    return ProjectedRows.find(entityManager, ItemVariant.class, ItemVariantRow.class, variant -> {
+      var item = variant.<ItemVariant, Item>join("item");
+      return new Selection<?>[] {
+          variant.get("id"), variant.get("name"), variant.get("sku"), variant.get("price"),
+          variant.get("createdAt"), variant.get("createdBy"), variant.get("updatedAt"), variant.get("updatedBy"),
+          item.get("id"), item.get("itemName"), item.get("description"), item.get("category"),
+          item.get("createdAt"), item.get("createdBy"), item.get("updatedAt"), item.get("updatedBy")
+      };
+    }, where, sort, limit);
+  }
+}
@@ -0,0 +1,65 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.entity.ItemVariantStock;
+import com.checkproof.entity.ItemVariantStockBucket;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+
+/**
+ * Filters for variant listings. Each one is a sargable predicate on an indexed column, or an
+ * EXISTS probe on a unique key, so the database can answer it from an index.
+ */
+public final class ItemVariantSpecifications {
+  private ItemVariantSpecifications() {
+  }
+
+  public static Specification<ItemVariant> ofItem(Long itemId) {
+    return (root, query, cb) -> cb.equal(root.get("item").get("id"), itemId);
+  }
+
+  public static Specification<ItemVariant> nameStartsWith(String prefix) {
+    return (root, query, cb) -> cb.like(root.get("name"), prefixPattern(prefix), '\\');
+  }
+
+  // Either bound may be null for an open range.
+  public static Specification<ItemVariant> priceBetween(Double minPrice, Double maxPrice) {
+    if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+      throw new IllegalArgumentException("minPrice cannot be greater than maxPrice");
+    }
+    return (root, query, cb) -> {
+      var predicates = new ArrayList<Predicate>();
+      if (minPrice != null) {
+        predicates.add(cb.greaterThanOrEqualTo(root.get("price"), minPrice));
+      }
+      if (maxPrice != null) {
+        predicates.add(cb.lessThanOrEqualTo(root.get("price"), maxPrice));
+      }
+      return cb.and(predicates.toArray(Predicate[]::new));
+    };
+  }
+
+  // Sellable stock above zero. A striped variant is in stock when any of its buckets is, since the
+  // totals on its stock row are only as fresh as the last rebalance.
+  public static Specification<ItemVariant> inStock() {
+    return (root, query, cb) -> {
+      var stock = query.subquery(Long.class);
+      var s = stock.from(ItemVariantStock.class);
+      var bucket = query.subquery(Long.class);
+      var b = bucket.from(ItemVariantStockBucket.class);
+      bucket.select(b.get("id")).where(cb.equal(b.get("itemVariant"), root),
+          cb.greaterThan(b.get("availableStock"), b.get("allocatedStock")));
+      stock.select(s.get("id")).where(cb.equal(s.get("itemVariant"), root), cb.or(
+          cb.and(cb.equal(s.get("bucketCount"), 0), cb.greaterThan(s.get("availableStock"), s.get("allocatedStock"))),
+          cb.and(cb.greaterThan(s.get("bucketCount"), 0), cb.exists(bucket))));
+      return cb.exists(stock);
+    };
+  }
+
+  // LIKE pattern matching values that start with prefix literally, so it can use an index.
+  static String prefixPattern(String prefix) {
+    return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+  }
+}
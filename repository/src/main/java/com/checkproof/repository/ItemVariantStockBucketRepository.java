@@ -0,0 +1,86 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.ItemVariantStockBucket;
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.repository.model.StockLevel;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemVariantStockBucketRepository extends JpaRepository<ItemVariantStockBucket, Long> {
+  // Same guarded mutations as ItemVariantStockRepository, applied to one bucket of a striped variant.
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStockBucket b set b.availableStock = :base "
+      + "+ case when b.bucketIndex < :remainder then 1 else 0 end, b.allocatedStock = 0, "
+      + "b.version = b.version + 1, b.updatedAt = local datetime "
+      + "where b.itemVariant.id = :variantId")
+  int setStock(@Param("variantId") Long variantId, @Param("base") int base, @Param("remainder") int remainder);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStockBucket b set b.availableStock = b.availableStock + :quantity, "
+      + "b.version = b.version + 1, b.updatedAt = local datetime "
+      + "where b.itemVariant.id = :variantId and b.bucketIndex = :bucketIndex")
+  int increaseStock(@Param("variantId") Long variantId, @Param("bucketIndex") int bucketIndex,
+      @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStockBucket b set b.availableStock = b.availableStock - :quantity, "
+      + "b.version = b.version + 1, b.updatedAt = local datetime "
+      + "where b.itemVariant.id = :variantId and b.bucketIndex = :bucketIndex "
+      + "and b.availableStock - b.allocatedStock >= :quantity")
+  int decreaseStock(@Param("variantId") Long variantId, @Param("bucketIndex") int bucketIndex,
+      @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStockBucket b set b.allocatedStock = b.allocatedStock + :quantity, "
+      + "b.version = b.version + 1, b.updatedAt = local datetime "
+      + "where b.itemVariant.id = :variantId and b.bucketIndex = :bucketIndex "
+      + "and b.availableStock - b.allocatedStock >= :quantity")
+  int reserveStock(@Param("variantId") Long variantId, @Param("bucketIndex") int bucketIndex,
+      @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStockBucket b set b.availableStock = b.availableStock - :quantity, "
+      + "b.allocatedStock = b.allocatedStock - :quantity, "
+      + "b.version = b.version + 1, b.updatedAt = local datetime "
+      + "where b.itemVariant.id = :variantId and b.bucketIndex = :bucketIndex "
+      + "and b.allocatedStock >= :quantity")
+  int commitStock(@Param("variantId") Long variantId, @Param("bucketIndex") int bucketIndex,
+      @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStockBucket b set b.allocatedStock = b.allocatedStock - :quantity, "
+      + "b.version = b.version + 1, b.updatedAt = local datetime "
+      + "where b.itemVariant.id = :variantId and b.bucketIndex = :bucketIndex "
+      + "and b.allocatedStock >= :quantity")
+  int releaseStock(@Param("variantId") Long variantId, @Param("bucketIndex") int bucketIndex,
+      @Param("quantity") int quantity);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b from ItemVariantStockBucket b where b.itemVariant.id = :variantId order by b.bucketIndex")
+  List<ItemVariantStockBucket> lockByVariantId(@Param("variantId") Long variantId);
+
+  @Query("select new com.checkproof.repository.model.StockCounters(b.itemVariant.id, "
+      + "cast(sum(b.availableStock) as Integer), cast(sum(b.allocatedStock) as Integer)) "
+      + "from ItemVariantStockBucket b where b.itemVariant.id = :variantId group by b.itemVariant.id")
+  Optional<StockCounters> sumByVariantId(@Param("variantId") Long variantId);
+
+  // Every bucket update bumps its bucket's version, and rebalancing bumps the stock row's, so the
+  // sum changes whenever the counters do.
+  @Query("select new com.checkproof.repository.model.StockLevel(s.itemVariant.id, "
+      + "cast(sum(b.availableStock) as Integer), cast(sum(b.allocatedStock) as Integer), s.version + sum(b.version)) "
+      + "from ItemVariantStockBucket b join ItemVariantStock s on s.itemVariant.id = b.itemVariant.id "
+      + "where b.itemVariant.id = :variantId group by s.itemVariant.id, s.version")
+  Optional<StockLevel> sumLevelByVariantId(@Param("variantId") Long variantId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from ItemVariantStockBucket b where b.itemVariant.id = :variantId")
+  int deleteByVariantId(@Param("variantId") Long variantId);
+}
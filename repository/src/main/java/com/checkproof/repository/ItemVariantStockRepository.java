@@ -1,11 +1,112 @@
 package com.checkproof.repository;
 
 import com.checkproof.entity.ItemVariantStock;
+import com.checkproof.repository.model.StockLevel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface ItemVariantStockRepository extends JpaRepository<ItemVariantStock, Long> {
+public interface ItemVariantStockRepository extends JpaRepository<ItemVariantStock, Long>,
+    StockCounterBatchRepository {
+  // Stock levels as reported to clients: striped variants are summed from their buckets, with the
+  // version as in ItemVariantStockBucketRepository.sumLevelByVariantId.
+  String CURRENT_LEVEL = "select new com.checkproof.repository.model.StockLevel(s.itemVariant.id, "
+      + "case when s.bucketCount > 0 then (select cast(sum(b.availableStock) as Integer) "
+      + "from ItemVariantStockBucket b where b.itemVariant.id = s.itemVariant.id) else s.availableStock end, "
+      + "case when s.bucketCount > 0 then (select cast(sum(b.allocatedStock) as Integer) "
+      + "from ItemVariantStockBucket b where b.itemVariant.id = s.itemVariant.id) else s.allocatedStock end, "
+      + "case when s.bucketCount > 0 then s.version + (select sum(b.version) "
+      + "from ItemVariantStockBucket b where b.itemVariant.id = s.itemVariant.id) else s.version end) "
+      + "from ItemVariantStock s ";
+
   Optional<ItemVariantStock> findByItemVariant_Id(Long variantId);
-}
 
+  // Guarded single-statement mutations: the WHERE clause carries the stock check, so an
+  // affected row count of 0 means either the check failed, the stock row does not exist or the
+  // variant is striped across buckets. The version is bumped by hand because bulk updates bypass
+  // @Version.
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.availableStock = :quantity, s.allocatedStock = 0, "
+      + "s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount = 0")
+  int setStock(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.availableStock = s.availableStock + :quantity, "
+      + "s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount = 0")
+  int increaseStock(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.availableStock = s.availableStock - :quantity, "
+      + "s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount = 0 "
+      + "and s.availableStock - s.allocatedStock >= :quantity")
+  int decreaseStock(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.allocatedStock = s.allocatedStock + :quantity, "
+      + "s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount = 0 "
+      + "and s.availableStock - s.allocatedStock >= :quantity")
+  int reserveStock(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.availableStock = s.availableStock - :quantity, "
+      + "s.allocatedStock = s.allocatedStock - :quantity, "
+      + "s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount = 0 "
+      + "and s.allocatedStock >= :quantity")
+  int commitStock(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.allocatedStock = s.allocatedStock - :quantity, "
+      + "s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount = 0 "
+      + "and s.allocatedStock >= :quantity")
+  int releaseStock(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+  @Query("select new com.checkproof.repository.model.StockLevel(s.itemVariant.id, s.availableStock, "
+      + "s.allocatedStock, s.version) from ItemVariantStock s where s.itemVariant.id = :variantId")
+  Optional<StockLevel> findLevelByVariantId(@Param("variantId") Long variantId);
+
+  @Query("select new com.checkproof.repository.model.StockLevel(s.itemVariant.id, s.availableStock, "
+      + "s.allocatedStock, s.version) from ItemVariantStock s where s.itemVariant.id in :variantIds")
+  List<StockLevel> findLevelsByVariantIds(@Param("variantIds") Collection<Long> variantIds);
+
+  @Query(CURRENT_LEVEL + "where s.itemVariant.id in :variantIds")
+  List<StockLevel> findCurrentLevelsByVariantIds(@Param("variantIds") Collection<Long> variantIds);
+
+  @Query(CURRENT_LEVEL + "where s.itemVariant.item.id = :itemId")
+  List<StockLevel> findCurrentLevelsByItemId(@Param("itemId") Long itemId);
+
+  @Query("select s.bucketCount from ItemVariantStock s where s.itemVariant.id = :variantId")
+  Optional<Integer> findBucketCount(@Param("variantId") Long variantId);
+
+  List<ItemVariantStock> findByBucketCountGreaterThan(int bucketCount);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.availableStock = :availableStock, "
+      + "s.allocatedStock = :allocatedStock, s.version = s.version + 1, s.updatedAt = local datetime "
+      + "where s.itemVariant.id = :variantId and s.bucketCount > 0 "
+      + "and (s.availableStock <> :availableStock or s.allocatedStock <> :allocatedStock)")
+  int refreshStripedTotals(@Param("variantId") Long variantId,
+      @Param("availableStock") int availableStock, @Param("allocatedStock") int allocatedStock);
+
+  // Folds the versions of deleted buckets into the row's, so the variant's version, which sums
+  // them while it is striped, never goes down.
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update ItemVariantStock s set s.version = s.version + :versions where s.itemVariant.id = :variantId")
+  int addVersions(@Param("variantId") Long variantId, @Param("versions") long versions);
+
+  // Native so the lock is taken on the stock rows alone, in variant id order.
+  @Query(value = "select id from item_variant_stocks where variant_id in (:variantIds) "
+      + "order by variant_id for update", nativeQuery = true)
+  List<Long> lockByVariantIds(@Param("variantIds") Collection<Long> variantIds);
+}
@@ -0,0 +1,22 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+  // A lock timeout of -2 is SKIP LOCKED: rows claimed by a relay on another node are passed over
+  // instead of waited for, so concurrent relays take disjoint batches.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+  @Query("select m from OutboxMessage m order by m.id")
+  List<OutboxMessage> claimBatch(Limit limit);
+}
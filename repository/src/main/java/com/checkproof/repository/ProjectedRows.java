@@ -0,0 +1,35 @@
+package com.checkproof.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads the rows matching a specification as DTOs built by a constructor expression. Only the
+ * selected columns are fetched, and no entity is instantiated, put in the persistence context
+ * or dirty-checked at flush.
+ */
+final class ProjectedRows {
+  private ProjectedRows() {
+  }
+
+  static <T, P> List<P> find(EntityManager entityManager, Class<T> entityType, Class<P> rowType,
+      Function<Root<T>, Selection<?>[]> columns, Specification<T> where, Sort sort, int limit) {
+    var cb = entityManager.getCriteriaBuilder();
+    var query = cb.createQuery(rowType);
+    var root = query.from(entityType);
+    query.select(cb.construct(rowType, columns.apply(root)));
+    var predicate = where != null ? where.toPredicate(root, query, cb) : null;
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+}
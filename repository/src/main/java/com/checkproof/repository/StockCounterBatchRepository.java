@@ -0,0 +1,17 @@
+package com.checkproof.repository;
+
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.repository.model.StockDelta;
+
+import java.util.List;
+
+public interface StockCounterBatchRepository {
+  int[] writeCounters(List<StockCounters> counters);
+
+  /**
+   * Applies the deltas in order as one JDBC batch; an update count of 0 means the guard failed.
+   * Throws, leaving the transaction to be rolled back, if the driver does not report the counts;
+   * later calls then run the updates one by one.
+   */
+  int[] applyDeltas(List<StockDelta> deltas);
+}
@@ -0,0 +1,78 @@
+package com.checkproof.repository;
+
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.repository.model.StockDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockCounterBatchRepositoryImpl implements StockCounterBatchRepository {
+  private static final String WRITE_COUNTERS_SQL = "update item_variant_stocks "
+      + "set available_stock = ?, allocated_stock = ?, version = version + 1, updated_at = ? "
+      + "where variant_id = ?";
+  private static final String APPLY_DELTA_SQL = "update item_variant_stocks "
+      + "set available_stock = available_stock + ?, allocated_stock = allocated_stock + ?, "
+      + "version = version + 1, updated_at = ? "
+      + "where variant_id = ? and bucket_count = 0 "
+      + "and available_stock - allocated_stock >= ? and allocated_stock >= ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // Cleared the first time the driver answers a batch with SUCCESS_NO_INFO; from then on every
+  // statement runs on its own, so each update count is exact.
+  private volatile boolean batchCountsReported = true;
+
+  @Override
+  @Transactional
+  public int[] writeCounters(List<StockCounters> counters) {
+    var now = Timestamp.valueOf(LocalDateTime.now());
+    return update(WRITE_COUNTERS_SQL, counters, (ps, row) -> {
+      ps.setInt(1, row.getAvailableStock());
+      ps.setInt(2, row.getAllocatedStock());
+      ps.setTimestamp(3, now);
+      ps.setLong(4, row.getVariantId());
+    });
+  }
+
+  @Override
+  @Transactional
+  public int[] applyDeltas(List<StockDelta> deltas) {
+    var now = Timestamp.valueOf(LocalDateTime.now());
+    return update(APPLY_DELTA_SQL, deltas, (ps, row) -> {
+      ps.setInt(1, row.getAvailableDelta());
+      ps.setInt(2, row.getAllocatedDelta());
+      ps.setTimestamp(3, now);
+      ps.setLong(4, row.getVariantId());
+      ps.setInt(5, row.getMinFreeStock());
+      ps.setInt(6, row.getMinAllocatedStock());
+    });
+  }
+
+  // A batch whose counts are unknown cannot be told apart from one whose guards failed, and
+  // retrying its rows would apply them twice; it is failed instead, so the caller's transaction
+  // rolls the whole batch back.
+  private <T> int[] update(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+    if (rows.isEmpty()) {
+      return new int[0];
+    }
+    if (!batchCountsReported) {
+      return rows.stream().mapToInt(row -> jdbcTemplate.update(sql, ps -> setter.setValues(ps, row))).toArray();
+    }
+    var counts = jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter)[0];
+    if (Arrays.stream(counts).anyMatch(count -> count == Statement.SUCCESS_NO_INFO)) {
+      batchCountsReported = false;
+      throw new IncorrectUpdateSemanticsDataAccessException(
+          "The JDBC driver did not report the rows changed by a batched stock update");
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,57 @@
+package com.checkproof.repository;
+
+import com.checkproof.entity.StockHold;
+import com.checkproof.entity.StockHoldStatus;
+import com.checkproof.repository.model.HoldDeadline;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+  // Status transitions only apply to active holds, so a commit, a release and the expiry of the
+  // same hold can race and exactly one of them takes effect.
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update StockHold h set h.status = com.checkproof.entity.StockHoldStatus.COMMITTED, "
+      + "h.version = h.version + 1, h.updatedAt = local datetime "
+      + "where h.id = :holdId and h.status = com.checkproof.entity.StockHoldStatus.ACTIVE "
+      + "and h.expiresAt > :now")
+  int commitIfActive(@Param("holdId") Long holdId, @Param("now") LocalDateTime now);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update StockHold h set h.status = com.checkproof.entity.StockHoldStatus.RELEASED, "
+      + "h.version = h.version + 1, h.updatedAt = local datetime "
+      + "where h.id = :holdId and h.status = com.checkproof.entity.StockHoldStatus.ACTIVE")
+  int releaseIfActive(@Param("holdId") Long holdId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select h from StockHold h where h.id in :holdIds "
+      + "and h.status = com.checkproof.entity.StockHoldStatus.ACTIVE and h.expiresAt <= :now order by h.id")
+  List<StockHold> lockExpired(@Param("holdIds") Collection<Long> holdIds, @Param("now") LocalDateTime now);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update StockHold h set h.status = com.checkproof.entity.StockHoldStatus.EXPIRED, "
+      + "h.version = h.version + 1, h.updatedAt = local datetime "
+      + "where h.id in :holdIds and h.status = com.checkproof.entity.StockHoldStatus.ACTIVE")
+  int expire(@Param("holdIds") Collection<Long> holdIds);
+
+  @Query("select new com.checkproof.repository.model.HoldDeadline(h.id, h.expiresAt) from StockHold h "
+      + "where h.status = :status")
+  List<HoldDeadline> findDeadlinesByStatus(@Param("status") StockHoldStatus status);
+
+  @Query("select new com.checkproof.repository.model.HoldDeadline(h.id, h.expiresAt) from StockHold h "
+      + "where h.id in :holdIds and h.status = :status")
+  List<HoldDeadline> findDeadlinesByIdsAndStatus(@Param("holdIds") Collection<Long> holdIds,
+      @Param("status") StockHoldStatus status);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from StockHold h where h.itemVariant.id = :variantId")
+  int deleteByVariantId(@Param("variantId") Long variantId);
+}
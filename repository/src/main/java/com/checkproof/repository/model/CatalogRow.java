@@ -0,0 +1,19 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CatalogRow {
+  private Long itemId;
+  private String itemName;
+  private String description;
+  private String category;
+  private Long variantId;
+  private String variantName;
+  private String sku;
+  private Double price;
+  private Integer availableStock;
+  private Integer allocatedStock;
+}
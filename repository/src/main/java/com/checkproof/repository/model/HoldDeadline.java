@@ -0,0 +1,13 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class HoldDeadline {
+  private Long holdId;
+  private LocalDateTime expiresAt;
+}
@@ -0,0 +1,19 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemRow implements KeyedRow {
+  private Long id;
+  private String itemName;
+  private String description;
+  private String category;
+  private LocalDateTime createdAt;
+  private String createdBy;
+  private LocalDateTime updatedAt;
+  private String updatedBy;
+}
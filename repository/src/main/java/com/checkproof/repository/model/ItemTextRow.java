@@ -0,0 +1,14 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemTextRow {
+  private Long itemId;
+  private String itemName;
+  private String description;
+  private String category;
+  private String variantName;
+}
@@ -0,0 +1,28 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemVariantRow implements KeyedRow {
+  private Long id;
+  private ItemRow item;
+  private String name;
+  private String sku;
+  private Double price;
+  private LocalDateTime createdAt;
+  private String createdBy;
+  private LocalDateTime updatedAt;
+  private String updatedBy;
+
+  // Constructor expressions cannot nest, so the item's columns come in flat after the variant's.
+  public ItemVariantRow(Long id, String name, String sku, Double price, LocalDateTime createdAt, String createdBy,
+      LocalDateTime updatedAt, String updatedBy, Long itemId, String itemName, String description, String category,
+      LocalDateTime itemCreatedAt, String itemCreatedBy, LocalDateTime itemUpdatedAt, String itemUpdatedBy) {
+    this(id, new ItemRow(itemId, itemName, description, category, itemCreatedAt, itemCreatedBy, itemUpdatedAt,
+        itemUpdatedBy), name, sku, price, createdAt, createdBy, updatedAt, updatedBy);
+  }
+}
@@ -0,0 +1,6 @@
+package com.checkproof.repository.model;
+
+/** A projected row that can be paged through by id, as entities are through BaseEntity. */
+public interface KeyedRow {
+  Long getId();
+}
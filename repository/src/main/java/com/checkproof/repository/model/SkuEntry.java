@@ -0,0 +1,11 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SkuEntry {
+  private String sku;
+  private Long variantId;
+}
@@ -0,0 +1,12 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockCounters {
+  private Long variantId;
+  private int availableStock;
+  private int allocatedStock;
+}
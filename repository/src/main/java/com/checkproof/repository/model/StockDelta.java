@@ -0,0 +1,18 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A guarded change to one stock row: applied only if the row's free stock and allocated stock
+ * are at least the given minimums.
+ */
+@Data
+@AllArgsConstructor
+public class StockDelta {
+  private Long variantId;
+  private int availableDelta;
+  private int allocatedDelta;
+  private int minFreeStock;
+  private int minAllocatedStock;
+}
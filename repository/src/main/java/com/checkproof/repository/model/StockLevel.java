@@ -0,0 +1,13 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StockLevel {
+  private Long variantId;
+  private int availableStock;
+  private int allocatedStock;
+  private long version;
+}
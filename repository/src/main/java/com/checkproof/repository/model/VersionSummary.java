@@ -0,0 +1,17 @@
+package com.checkproof.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Changes whenever a row of the summarized set is added, removed or updated: ids only grow, so
+// a set of the same size with other rows has a larger id sum, and versions only grow too.
+@Data
+@AllArgsConstructor
+public class VersionSummary {
+  private long count;
+  private long idSum;
+  private long versionSum;
+  private LocalDateTime lastUpdatedAt;
+}
@@ -0,0 +1,76 @@
+package com.checkproof.repository;
+
+import com.checkproof.repository.model.StockDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockCounterBatchRepository Unit Tests")
+class StockCounterBatchRepositoryImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private StockCounterBatchRepositoryImpl repository;
+
+    private final List<StockDelta> deltas = List.of(
+            new StockDelta(1L, 0, 5, 5, Integer.MIN_VALUE),
+            new StockDelta(2L, 0, 4, 4, Integer.MIN_VALUE));
+
+    @BeforeEach
+    void setUp() {
+        repository = new StockCounterBatchRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should return the batch's update counts when the driver reports them")
+    void testApplyDeltas_CountsReported() {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<StockDelta>>any()))
+                .thenReturn(new int[][] {{1, 0}});
+
+        // When
+        int[] counts = repository.applyDeltas(deltas);
+
+        // Then
+        assertArrayEquals(new int[] {1, 0}, counts);
+    }
+
+    @Test
+    @DisplayName("Should fail a batch without update counts and run later updates one by one")
+    void testApplyDeltas_SuccessNoInfo() {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<StockDelta>>any()))
+                .thenReturn(new int[][] {{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}});
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(1, 0);
+
+        // When & Then
+        assertThrows(IncorrectUpdateSemanticsDataAccessException.class, () -> repository.applyDeltas(deltas));
+        assertArrayEquals(new int[] {1, 0}, repository.applyDeltas(deltas));
+        verify(jdbcTemplate, times(1))
+                .batchUpdate(anyString(), anyList(), anyInt(),
+                        ArgumentMatchers.<ParameterizedPreparedStatementSetter<StockDelta>>any());
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+    }
+}
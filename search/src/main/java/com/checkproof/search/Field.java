@@ -0,0 +1,10 @@
+package com.checkproof.search;
+
+/** Text indexed for a document; every term found in it counts {@code weight} times. */
+public record Field(String text, int weight) {
+  public Field {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Field weight must be at least 1");
+    }
+  }
+}
@@ -0,0 +1,5 @@
+package com.checkproof.search;
+
+/** A document matching a query, with its relevance score. */
+public record Hit<T>(long key, T document, float score) {
+}
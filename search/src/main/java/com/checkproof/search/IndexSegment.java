@@ -0,0 +1,50 @@
+package com.checkproof.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Documents indexed on their own, so a large index can be built by several threads at once, one
+ * segment each, and then merged with {@link InvertedIndex#merge}. Not thread-safe.
+ */
+public final class IndexSegment<T> {
+  final List<Long> keys = new ArrayList<>();
+  final List<T> documents = new ArrayList<>();
+  final IntList lengths = new IntList(16);
+  // Per term, pairs of (document number within this segment, frequency).
+  final Map<String, IntList> postings = new HashMap<>();
+
+  public void add(long key, T document, List<Field> fields) {
+    int doc = keys.size();
+    var terms = TermFrequencies.of(fields);
+    terms.frequencies().forEach((term, frequency) -> {
+      var entries = postings.computeIfAbsent(term, t -> new IntList(4));
+      entries.add(doc);
+      entries.add(frequency);
+    });
+    keys.add(key);
+    documents.add(document);
+    lengths.add(terms.length());
+  }
+
+  public int size() {
+    return keys.size();
+  }
+
+  /** Terms of a document with how often they occur, weighted by field, and its weighted length. */
+  record TermFrequencies(Map<String, Integer> frequencies, int length) {
+    static TermFrequencies of(List<Field> fields) {
+      var frequencies = new HashMap<String, Integer>();
+      int length = 0;
+      for (var field : fields) {
+        for (var term : Tokenizer.tokenize(field.text())) {
+          frequencies.merge(term, field.weight(), Integer::sum);
+          length += field.weight();
+        }
+      }
+      return new TermFrequencies(frequencies, length);
+    }
+  }
+}
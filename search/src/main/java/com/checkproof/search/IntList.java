@@ -0,0 +1,28 @@
+package com.checkproof.search;
+
+import java.util.Arrays;
+
+/** Growable array of primitive ints. */
+final class IntList {
+  private int[] values;
+  private int size;
+
+  IntList(int capacity) {
+    values = new int[Math.max(capacity, 4)];
+  }
+
+  void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    values[size++] = value;
+  }
+
+  int get(int index) {
+    return values[index];
+  }
+
+  int size() {
+    return size;
+  }
+}
@@ -0,0 +1,260 @@
+package com.checkproof.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index of documents identified by a long key. Each term maps to a
+ * {@link PostingList} of the documents containing it. A query matches the documents containing
+ * all of its terms, found by walking the posting lists from the rarest term up, and ranks them by
+ * BM25 over the field-weighted term frequencies.
+ *
+ * <p>Writes are serialised and readers never lock. Replacing or removing a document only marks
+ * its old entry dead, and dead entries stay in the posting lists until the index is rebuilt; see
+ * {@link #deadRatio()}.
+ */
+public final class InvertedIndex<T> {
+  private static final float K1 = 1.2f;
+  private static final float B = 0.75f;
+
+  private final ConcurrentHashMap<String, PostingList> postings;
+  private final Map<Long, Integer> docsByKey;
+  private volatile Documents documents;
+  private volatile int docCount;
+  private volatile int liveCount;
+  private volatile long liveLength;
+
+  public InvertedIndex() {
+    this(new ConcurrentHashMap<>(), new HashMap<>(), new Documents(16), 0, 0, 0);
+  }
+
+  private InvertedIndex(ConcurrentHashMap<String, PostingList> postings, Map<Long, Integer> docsByKey,
+      Documents documents, int docCount, int liveCount, long liveLength) {
+    this.postings = postings;
+    this.docsByKey = docsByKey;
+    this.documents = documents;
+    this.docCount = docCount;
+    this.liveCount = liveCount;
+    this.liveLength = liveLength;
+  }
+
+  /**
+   * Builds an index from segments, numbering their documents in segment order; a key found in
+   * several segments keeps its last document. The posting lists of different terms are merged in
+   * parallel.
+   */
+  public static <T> InvertedIndex<T> merge(List<IndexSegment<T>> segments) {
+    int total = segments.stream().mapToInt(IndexSegment::size).sum();
+    var documents = new Documents(total);
+    var docsByKey = new HashMap<Long, Integer>(Math.max(16, total * 4 / 3));
+    var bases = new int[segments.size()];
+    int liveCount = 0;
+    long liveLength = 0;
+    int doc = 0;
+    for (int s = 0; s < segments.size(); s++) {
+      var segment = segments.get(s);
+      bases[s] = doc;
+      for (int i = 0; i < segment.size(); i++, doc++) {
+        long key = segment.keys.get(i);
+        documents.set(doc, key, segment.documents.get(i), segment.lengths.get(i));
+        var previous = docsByKey.put(key, doc);
+        if (previous != null) {
+          liveLength -= documents.lengths[previous];
+          documents.stored[previous] = null;
+        } else {
+          liveCount++;
+        }
+        liveLength += segment.lengths.get(i);
+      }
+    }
+
+    var terms = new HashSet<String>();
+    segments.forEach(segment -> terms.addAll(segment.postings.keySet()));
+    var postings = new ConcurrentHashMap<String, PostingList>(Math.max(16, terms.size() * 4 / 3));
+    terms.parallelStream().forEach(term -> {
+      var list = new PostingList();
+      for (int s = 0; s < segments.size(); s++) {
+        var entries = segments.get(s).postings.get(term);
+        for (int i = 0; entries != null && i < entries.size(); i += 2) {
+          list.add(bases[s] + entries.get(i), entries.get(i + 1));
+        }
+      }
+      list.trim();
+      postings.put(term, list);
+    });
+    return new InvertedIndex<>(postings, docsByKey, documents, doc, liveCount, liveLength);
+  }
+
+  /** Indexes a document, replacing the one with the same key if there is one. */
+  public synchronized void put(long key, T document, List<Field> fields) {
+    var terms = IndexSegment.TermFrequencies.of(fields);
+    remove(key);
+    int doc = docCount;
+    if (doc == Integer.MAX_VALUE) {
+      throw new IllegalStateException("Index is full, it has to be rebuilt");
+    }
+    var target = documents.ensureCapacity(doc + 1);
+    target.set(doc, key, document, terms.length());
+    documents = target;
+    terms.frequencies().forEach((term, frequency) ->
+        postings.computeIfAbsent(term, t -> new PostingList()).add(doc, frequency));
+    docsByKey.put(key, doc);
+    liveLength = liveLength + terms.length();
+    liveCount = liveCount + 1;
+    docCount = doc + 1;
+  }
+
+  public synchronized boolean remove(long key) {
+    var doc = docsByKey.remove(key);
+    if (doc == null) {
+      return false;
+    }
+    var current = documents;
+    current.stored[doc] = null;
+    liveLength = liveLength - current.lengths[doc];
+    liveCount = liveCount - 1;
+    return true;
+  }
+
+  /** Documents containing every term of the query, best first. */
+  public List<Hit<T>> search(String query, int limit) {
+    var terms = new ArrayList<PostingList>();
+    for (var term : new HashSet<>(Tokenizer.tokenize(query))) {
+      var list = postings.get(term);
+      if (list == null) {
+        return List.of();
+      }
+      terms.add(list);
+    }
+    if (terms.isEmpty() || limit < 1) {
+      return List.of();
+    }
+    terms.sort(Comparator.comparingInt(PostingList::size));
+
+    // Documents added after these reads are ignored, so everything below sees one consistent table.
+    int live = liveCount;
+    float averageLength = (float) liveLength / Math.max(1, live);
+    int docLimit = docCount;
+    var table = documents;
+
+    int[] docs = null;
+    float[] scores = null;
+    int count = 0;
+    for (var list : terms) {
+      var cursor = list.cursor();
+      float idf = (float) Math.log(1 + (Math.max(0, live - cursor.size()) + 0.5) / (cursor.size() + 0.5));
+      if (docs == null) {
+        docs = new int[cursor.size()];
+        scores = new float[cursor.size()];
+        while (cursor.next() && cursor.doc() < docLimit) {
+          if (table.stored[cursor.doc()] != null) {
+            docs[count] = cursor.doc();
+            scores[count++] = score(idf, cursor.frequency(), table.lengths[cursor.doc()], averageLength);
+          }
+        }
+      } else {
+        int kept = 0;
+        int i = 0;
+        while (i < count && cursor.next()) {
+          int doc = cursor.doc();
+          while (i < count && docs[i] < doc) {
+            i++;
+          }
+          if (i < count && docs[i] == doc) {
+            docs[kept] = doc;
+            scores[kept++] = scores[i++] + score(idf, cursor.frequency(), table.lengths[doc], averageLength);
+          }
+        }
+        count = kept;
+      }
+      if (count == 0) {
+        return List.of();
+      }
+    }
+    return top(docs, scores, count, limit, table);
+  }
+
+  /** Number of live documents. */
+  public int size() {
+    return liveCount;
+  }
+
+  /** Share of the indexed documents that were removed or replaced since the index was built. */
+  public double deadRatio() {
+    int total = docCount;
+    return total == 0 ? 0 : (double) (total - liveCount) / total;
+  }
+
+  private static float score(float idf, int frequency, int length, float averageLength) {
+    return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+  }
+
+  // Min-heap of the best candidates so far; equal scores rank the older document first.
+  @SuppressWarnings("unchecked")
+  private List<Hit<T>> top(int[] docs, float[] scores, int count, int limit, Documents table) {
+    var heap = new PriorityQueue<Integer>(Math.min(limit, count) + 1,
+        (a, b) -> ranksBefore(a, b, docs, scores) ? 1 : ranksBefore(b, a, docs, scores) ? -1 : 0);
+    for (int i = 0; i < count; i++) {
+      if (heap.size() < limit) {
+        heap.add(i);
+      } else if (ranksBefore(i, heap.peek(), docs, scores)) {
+        heap.poll();
+        heap.add(i);
+      }
+    }
+    var hits = new ArrayList<Hit<T>>(heap.size());
+    while (!heap.isEmpty()) {
+      int i = heap.poll();
+      var document = table.stored[docs[i]];
+      if (document != null) {
+        hits.add(new Hit<>(table.keys[docs[i]], (T) document, scores[i]));
+      }
+    }
+    Collections.reverse(hits);
+    return hits;
+  }
+
+  private static boolean ranksBefore(int a, int b, int[] docs, float[] scores) {
+    return scores[a] > scores[b] || (scores[a] == scores[b] && docs[a] < docs[b]);
+  }
+
+  private static final class Documents {
+    final long[] keys;
+    final Object[] stored;
+    final int[] lengths;
+
+    Documents(int capacity) {
+      keys = new long[capacity];
+      stored = new Object[capacity];
+      lengths = new int[capacity];
+    }
+
+    private Documents(long[] keys, Object[] stored, int[] lengths) {
+      this.keys = keys;
+      this.stored = stored;
+      this.lengths = lengths;
+    }
+
+    Documents ensureCapacity(int capacity) {
+      if (capacity <= keys.length) {
+        return this;
+      }
+      int grown = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, keys.length * 2L));
+      return new Documents(Arrays.copyOf(keys, grown), Arrays.copyOf(stored, grown), Arrays.copyOf(lengths, grown));
+    }
+
+    void set(int doc, long key, Object document, int length) {
+      keys[doc] = key;
+      stored[doc] = document;
+      lengths[doc] = length;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.checkproof.search;
+
+import java.util.Arrays;
+
+/**
+ * The documents containing one term, in increasing document order, packed into a byte array of
+ * variable-length ints: for each document the gap to the previous one, then the term's weighted
+ * frequency in it. Most gaps and frequencies fit in a single byte.
+ *
+ * <p>One writer appends while any number of readers iterate: a cursor reads the length before
+ * the array, and the writer publishes the array before the length, so a cursor always sees a
+ * complete prefix of the list.
+ */
+final class PostingList {
+  private static final int MAX_ENTRY_BYTES = 10;
+
+  private volatile byte[] bytes;
+  private volatile int size;
+  private volatile int length;
+  private int lastDoc = -1;
+
+  PostingList() {
+    bytes = new byte[2 * MAX_ENTRY_BYTES];
+  }
+
+  /** Appends a document; {@code doc} must be greater than every document already in the list. */
+  void add(int doc, int frequency) {
+    if (doc <= lastDoc) {
+      throw new IllegalArgumentException("Documents must be added in increasing order");
+    }
+    var target = bytes;
+    int position = length;
+    if (position + MAX_ENTRY_BYTES > target.length) {
+      target = Arrays.copyOf(target, Math.max(target.length * 2, position + MAX_ENTRY_BYTES));
+    }
+    position = writeVarint(target, position, doc - lastDoc);
+    position = writeVarint(target, position, frequency);
+    lastDoc = doc;
+    bytes = target;
+    size = size + 1;
+    length = position;
+  }
+
+  /** Drops the spare capacity once the list is not expected to grow much. */
+  void trim() {
+    if (bytes.length > length) {
+      bytes = Arrays.copyOf(bytes, length);
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  Cursor cursor() {
+    int snapshotLength = length;
+    int snapshotSize = size;
+    return new Cursor(bytes, snapshotLength, snapshotSize);
+  }
+
+  private static int writeVarint(byte[] target, int position, int value) {
+    while ((value & ~0x7f) != 0) {
+      target[position++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    target[position++] = (byte) value;
+    return position;
+  }
+
+  /** Forward-only iteration over a snapshot of the list. */
+  static final class Cursor {
+    private final byte[] bytes;
+    private final int length;
+    private final int size;
+    private int position;
+    private int doc = -1;
+    private int frequency;
+
+    private Cursor(byte[] bytes, int length, int size) {
+      this.bytes = bytes;
+      this.length = length;
+      this.size = size;
+    }
+
+    boolean next() {
+      if (position >= length) {
+        return false;
+      }
+      doc += readVarint();
+      frequency = readVarint();
+      return true;
+    }
+
+    int doc() {
+      return doc;
+    }
+
+    int frequency() {
+      return frequency;
+    }
+
+    /** Upper bound of the number of documents this cursor returns. */
+    int size() {
+      return size;
+    }
+
+    private int readVarint() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[position++];
+        value |= (b & 0x7f) << shift;
+        shift += 7;
+      } while (b < 0);
+      return value;
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkproof.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into terms: runs of letters and digits, lower-cased and stripped of accents, so
+ * "Café-Crème" and "cafe creme" produce the same terms. Terms longer than {@link #MAX_TERM_LENGTH}
+ * characters are cut.
+ */
+public final class Tokenizer {
+  public static final int MAX_TERM_LENGTH = 64;
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+  private Tokenizer() {
+  }
+
+  public static List<String> tokenize(String text) {
+    var terms = new ArrayList<String>();
+    if (text == null || text.isEmpty()) {
+      return terms;
+    }
+    var folded = fold(text);
+    int start = -1;
+    int position = 0;
+    while (position <= folded.length()) {
+      int codePoint = position < folded.length() ? folded.codePointAt(position) : ' ';
+      if (Character.isLetterOrDigit(codePoint)) {
+        if (start < 0) {
+          start = position;
+        }
+      } else if (start >= 0) {
+        terms.add(folded.substring(start, Math.min(position, start + MAX_TERM_LENGTH)));
+        start = -1;
+      }
+      position += Character.charCount(codePoint);
+    }
+    return terms;
+  }
+
+  static String fold(String text) {
+    var lower = text.toLowerCase(Locale.ROOT);
+    for (int i = 0; i < lower.length(); i++) {
+      if (lower.charAt(i) > 0x7f) {
+        return MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+      }
+    }
+    return lower;
+  }
+}
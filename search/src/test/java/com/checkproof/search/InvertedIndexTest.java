@@ -0,0 +1,116 @@
+package com.checkproof.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InvertedIndex Unit Tests")
+class InvertedIndexTest {
+
+    private InvertedIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex<>();
+        index.put(1L, "Shirt", List.of(new Field("Cotton Shirt", 3), new Field("A soft red shirt", 1)));
+        index.put(2L, "Mug", List.of(new Field("Coffee Mug", 3), new Field("Red ceramic mug for coffee", 1)));
+        index.put(3L, "Red Mug", List.of(new Field("Red Mug", 3), new Field("Large red mug", 1)));
+    }
+
+    @Test
+    @DisplayName("Should only match documents containing every query term")
+    void testSearch_AllTerms() {
+        // When
+        List<Hit<String>> hits = index.search("red MUG", 10);
+
+        // Then
+        assertEquals(List.of(3L, 2L), hits.stream().map(Hit::key).toList());
+        assertEquals("Red Mug", hits.get(0).document());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Should return nothing when a query term is unknown")
+    void testSearch_UnknownTerm() {
+        // When & Then
+        assertTrue(index.search("red teapot", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return at most limit hits, best first")
+    void testSearch_Limit() {
+        // When
+        List<Hit<String>> hits = index.search("red", 2);
+
+        // Then
+        assertEquals(List.of(3L, 1L), hits.stream().map(Hit::key).toList());
+    }
+
+    @Test
+    @DisplayName("Should forget the old terms of a replaced document")
+    void testPut_Replaces() {
+        // When
+        index.put(2L, "Teapot", List.of(new Field("Teapot", 3)));
+
+        // Then
+        assertEquals(List.of(3L), index.search("mug", 10).stream().map(Hit::key).toList());
+        assertEquals(List.of(2L), index.search("teapot", 10).stream().map(Hit::key).toList());
+        assertEquals(3, index.size());
+        assertEquals(0.25, index.deadRatio());
+    }
+
+    @Test
+    @DisplayName("Should no longer match a removed document")
+    void testRemove() {
+        // When
+        boolean removed = index.remove(3L);
+
+        // Then
+        assertTrue(removed);
+        assertFalse(index.remove(3L));
+        assertEquals(List.of(2L), index.search("mug", 10).stream().map(Hit::key).toList());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should rank merged segments the same as documents put one by one")
+    void testMerge_SameAsPut() {
+        // Given
+        IndexSegment<String> first = new IndexSegment<>();
+        first.add(1L, "Shirt", List.of(new Field("Cotton Shirt", 3), new Field("A soft red shirt", 1)));
+        first.add(2L, "Mug", List.of(new Field("Coffee Mug", 3), new Field("Red ceramic mug for coffee", 1)));
+        IndexSegment<String> second = new IndexSegment<>();
+        second.add(3L, "Red Mug", List.of(new Field("Red Mug", 3), new Field("Large red mug", 1)));
+
+        // When
+        InvertedIndex<String> merged = InvertedIndex.merge(List.of(first, second));
+
+        // Then
+        assertEquals(index.search("red mug", 10), merged.search("red mug", 10));
+        merged.put(4L, "Red Shirt", List.of(new Field("Red Shirt", 3)));
+        assertEquals(List.of(4L, 1L), merged.search("shirt", 10).stream().map(Hit::key).toList());
+        assertEquals(4, merged.size());
+    }
+
+    @Test
+    @DisplayName("Should keep posting lists intact across many documents")
+    void testPut_ManyDocuments() {
+        // Given
+        InvertedIndex<Integer> large = new InvertedIndex<>();
+        for (int i = 0; i < 5000; i++) {
+            large.put(i * 1000L, i, List.of(new Field("item " + (i % 7 == 0 ? "seven" : "other"), 1)));
+        }
+
+        // When
+        List<Hit<Integer>> hits = large.search("seven item", 1000);
+
+        // Then
+        assertEquals(715, hits.size());
+        assertTrue(hits.stream().allMatch(hit -> hit.document() % 7 == 0 && hit.key() == hit.document() * 1000L));
+    }
+}
@@ -0,0 +1,40 @@
+package com.checkproof.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Tokenizer Unit Tests")
+class TokenizerTest {
+
+    @Test
+    @DisplayName("Should split on anything but letters and digits and fold case and accents")
+    void testTokenize_FoldsCaseAndAccents() {
+        // When
+        List<String> terms = Tokenizer.tokenize("Café-Crème, 250ml  MUG!");
+
+        // Then
+        assertEquals(List.of("cafe", "creme", "250ml", "mug"), terms);
+    }
+
+    @Test
+    @DisplayName("Should return no terms for blank or missing text")
+    void testTokenize_Blank() {
+        // When & Then
+        assertTrue(Tokenizer.tokenize(null).isEmpty());
+        assertTrue(Tokenizer.tokenize(" - ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should cut overly long terms")
+    void testTokenize_LongTerm() {
+        // When
+        List<String> terms = Tokenizer.tokenize("x".repeat(100));
+
+        // Then
+        assertEquals(Tokenizer.MAX_TERM_LENGTH, terms.get(0).length());
+    }
+}
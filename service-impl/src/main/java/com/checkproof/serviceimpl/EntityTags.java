@@ -0,0 +1,57 @@
+package com.checkproof.serviceimpl;
+
+import com.checkproof.repository.model.VersionSummary;
+import com.checkproof.servicemodel.VariantStockResult;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Entity tags of catalog responses, built from versions, update times and version summaries so
+ * they can be checked without loading the entities. A tag changes whenever the response would.
+ */
+public final class EntityTags {
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private EntityTags() {
+  }
+
+  public static String of(String kind, Object... parts) {
+    var tag = new StringBuilder(kind);
+    for (var part : parts) {
+      tag.append('-').append(encode(part));
+    }
+    return tag.toString();
+  }
+
+  // The counters go into the hash along with the version, so the tag follows exactly what the
+  // levels render.
+  public static long hash(List<VariantStockResult> levels) {
+    long hash = FNV_OFFSET;
+    for (var level : levels.stream().sorted(Comparator.comparing(VariantStockResult::getVariantId)).toList()) {
+      for (long value : new long[] {level.getVariantId(), level.getAvailableStock(), level.getAllocatedStock(),
+          level.getVersion()}) {
+        hash = (hash ^ value) * FNV_PRIME;
+      }
+    }
+    return hash;
+  }
+
+  private static String encode(Object part) {
+    if (part instanceof LocalDateTime time) {
+      var instant = time.toInstant(ZoneOffset.UTC);
+      return Long.toString(instant.getEpochSecond(), 36) + "." + Long.toString(instant.getNano(), 36);
+    }
+    if (part instanceof Long number) {
+      return Long.toUnsignedString(number, 36);
+    }
+    if (part instanceof VersionSummary summary) {
+      return String.join(".", encode(summary.getCount()), encode(summary.getIdSum()),
+          encode(summary.getVersionSum()), encode(summary.getLastUpdatedAt()));
+    }
+    return part == null ? "_" : part.toString();
+  }
+}
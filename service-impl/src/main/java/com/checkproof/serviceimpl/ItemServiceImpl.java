@@ -1,27 +1,64 @@
 package com.checkproof.serviceimpl;
 
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeSubject;
+import com.checkproof.entity.Item;
+import com.checkproof.entity.ItemVariant;
 import com.checkproof.helper.converter.ItemConverter;
 import com.checkproof.repository.ItemRepository;
+import com.checkproof.repository.ItemSpecifications;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.ItemVariantSpecifications;
+import com.checkproof.repository.model.ItemRow;
 import com.checkproof.service.ItemService;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.servicemodel.CatalogChangedEvent;
+import com.checkproof.servicemodel.ItemDetailResult;
+import com.checkproof.servicemodel.ItemDetailSpec;
+import com.checkproof.servicemodel.ItemFilterSpec;
 import com.checkproof.servicemodel.ItemResult;
 import com.checkproof.servicemodel.ItemSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
 import com.checkproof.servicemodel.UpdateItemSpec;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.serviceimpl.changes.ChangeRecorder;
+import com.checkproof.serviceimpl.page.KeysetPaginator;
+import com.checkproof.serviceimpl.page.SortKey;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+  private static final List<SortKey<ItemRow>> SORT_KEYS = List.of(
+      SortKey.id(),
+      SortKey.of("name", "itemName", ItemRow::getItemName, name -> name),
+      SortKey.nullable("category", "category", ItemRow::getCategory, category -> category));
+  private static final Set<String> EXPANSIONS = Set.of("variants", "stock");
+
   private final ItemRepository itemRepository;
+  private final ItemVariantRepository itemVariantRepository;
   private final ItemConverter itemConverter;
+  private final KeysetPaginator keysetPaginator;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ItemVariantService itemVariantService;
+  private final ChangeRecorder changeRecorder;
 
   @Override
-  public List<ItemResult> getListItem() {
-    var items = itemRepository.findAll();
-    return items.stream().map(itemConverter::toItemResult).toList();
+  public PageResult<ItemResult> getListItem(ItemFilterSpec filter, PageSpec spec) {
+    return keysetPaginator.page(itemRepository::findRows, toSpecification(filter), spec, SORT_KEYS, itemConverter::toItemResult);
   }
 
   @Override
@@ -30,27 +67,137 @@ public class ItemServiceImpl implements ItemService {
     return itemConverter.toItemResult(item);
   }
 
+  // The item comes with its variants in one query, or none while both are in the second-level
+  // cache, and their stock takes one more, however many variants the item has. Stock is never
+  // cached. Stock implies variants, as it is reported per variant.
+  @Override
+  @Transactional(readOnly = true)
+  public ItemDetailResult getItemDetail(ItemDetailSpec spec) {
+    var expand = expansions(spec);
+    boolean withStock = expand.contains("stock");
+    if (!withStock && !expand.contains("variants")) {
+      var item = itemRepository.findById(spec.getId()).orElseThrow(() -> new EntityNotFoundException("Item Not Found"));
+      return itemConverter.toItemDetailResult(item);
+    }
+    var item = (itemRepository.isCachedWithVariants(spec.getId())
+        ? itemRepository.findById(spec.getId()) : itemRepository.findWithVariantsById(spec.getId()))
+        .orElseThrow(() -> new EntityNotFoundException("Item Not Found"));
+    var variants = item.getItemVariants().stream()
+        .sorted(Comparator.comparing(ItemVariant::getId))
+        .map(itemConverter::toVariantDetailResult)
+        .toList();
+    if (withStock) {
+      var levels = itemVariantService.getStockOfItem(item.getId()).stream()
+          .collect(Collectors.toMap(VariantStockResult::getVariantId, Function.identity()));
+      variants.forEach(variant -> variant.setStock(levels.get(variant.getId())));
+    }
+    var result = itemConverter.toItemDetailResult(item);
+    result.setVariants(variants);
+    return result;
+  }
+
+  // Tags are read from update times and version summaries, so a matching one is answered
+  // without loading the item. No tag is given for an item that does not exist.
+  @Override
+  @Transactional(readOnly = true)
+  public String getItemTag(ItemDetailSpec spec) {
+    var expand = expansions(spec);
+    var id = spec.getId();
+    var updatedAt = itemRepository.findUpdatedAtById(id);
+    if (updatedAt.isEmpty()) {
+      return null;
+    }
+    if (!expand.contains("stock") && !expand.contains("variants")) {
+      return EntityTags.of("item", id, updatedAt.get());
+    }
+    var variants = itemVariantRepository.summarizeVersionsByItemId(id);
+    if (!expand.contains("stock")) {
+      return EntityTags.of("item", id, updatedAt.get(), variants);
+    }
+    return EntityTags.of("item", id, updatedAt.get(), variants, EntityTags.hash(itemVariantService.getStockOfItem(id)));
+  }
+
+  // Listings are tagged by summaries of whole tables; which rows a filter picks is not worked out.
+  // In-stock filters depend on every stock row and get no tag.
   @Override
+  @Transactional(readOnly = true)
+  public String getListItemTag(ItemFilterSpec filter) {
+    if (filter.getInStock() != null) {
+      return null;
+    }
+    if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+      return EntityTags.of("items", itemRepository.summarizeVersions(), itemVariantRepository.summarizeVersions());
+    }
+    return EntityTags.of("items", itemRepository.summarizeVersions());
+  }
+
+  @Override
+  @Transactional
   public ItemResult createItem(ItemSpec spec) {
     var item = itemConverter.toItemEntity(spec);
     itemRepository.save(item);
+    changeRecorder.record(ChangeSubject.ITEM, item.getId(), item.getId(), ChangeKind.CREATED);
+    eventPublisher.publishEvent(new CatalogChangedEvent(item.getId()));
     return itemConverter.toItemResult(item);
   }
 
   @Override
+  @Transactional
   public ItemResult updateItem(UpdateItemSpec spec) {
     var item = itemRepository.findById(spec.getId()).orElseThrow(() -> new EntityNotFoundException("Item Not Found"));
     item.setItemName(spec.getItemName());
     item.setDescription(spec.getDescription());
     item.setCategory(spec.getCategory());
     itemRepository.save(item);
+    changeRecorder.record(ChangeSubject.ITEM, item.getId(), item.getId(), ChangeKind.UPDATED);
+    eventPublisher.publishEvent(new CatalogChangedEvent(item.getId()));
     return itemConverter.toItemResult(item);
   }
 
+  // The item's variants go first, the way a single variant is deleted, so their stock, holds and
+  // buckets go with them and each variant and its stock get a tombstone of their own. That can
+  // clear the persistence context, so the item is then deleted by id rather than as loaded.
   @Override
+  @Transactional
   public Void deleteItem(Long id) {
     var item = itemRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Item Not Found"));
-    itemRepository.delete(item);
+    if (item.getItemVariants() != null) {
+      item.getItemVariants().forEach(variant -> itemVariantService.deleteVariant(variant.getId()));
+    }
+    itemRepository.deleteById(id);
+    changeRecorder.record(ChangeSubject.ITEM, id, id, ChangeKind.DELETED);
+    eventPublisher.publishEvent(new CatalogChangedEvent(id));
     return null;
   }
+
+  private static List<String> expansions(ItemDetailSpec spec) {
+    var expand = spec.getExpand() != null ? spec.getExpand() : List.<String>of();
+    expand.stream().filter(expansion -> !EXPANSIONS.contains(expansion)).findFirst().ifPresent(expansion -> {
+      throw new IllegalArgumentException(String.format("Unknown expansion %s, expected variants or stock", expansion));
+    });
+    return expand;
+  }
+
+  // Price and stock conditions apply to the same variant: an in-stock item in a price range has
+  // an in-stock variant in that range.
+  private static Specification<Item> toSpecification(ItemFilterSpec filter) {
+    var specifications = new ArrayList<Specification<Item>>();
+    if (filter.getCategory() != null) {
+      specifications.add(ItemSpecifications.inCategory(filter.getCategory()));
+    }
+    if (filter.getNamePrefix() != null) {
+      specifications.add(ItemSpecifications.nameStartsWith(filter.getNamePrefix()));
+    }
+    boolean priced = filter.getMinPrice() != null || filter.getMaxPrice() != null;
+    Specification<ItemVariant> priceRange = ItemVariantSpecifications.priceBetween(filter.getMinPrice(), filter.getMaxPrice());
+    if (priced && !Boolean.TRUE.equals(filter.getInStock())) {
+      specifications.add(ItemSpecifications.hasVariant(priceRange));
+    }
+    if (filter.getInStock() != null) {
+      var inStock = ItemSpecifications.hasVariant(priced ? priceRange.and(ItemVariantSpecifications.inStock())
+          : ItemVariantSpecifications.inStock());
+      specifications.add(filter.getInStock() ? inStock : Specification.not(inStock));
+    }
+    return specifications.isEmpty() ? null : Specification.allOf(specifications);
+  }
 }
@@ -1,38 +1,82 @@
 package com.checkproof.serviceimpl;
 
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeSubject;
 import com.checkproof.entity.Item;
 import com.checkproof.entity.ItemVariant;
 import com.checkproof.entity.ItemVariantStock;
 import com.checkproof.helper.converter.ItemVariantConverter;
 import com.checkproof.repository.ItemRepository;
 import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.ItemVariantSpecifications;
 import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.StockHoldRepository;
+import com.checkproof.repository.model.ItemVariantRow;
+import com.checkproof.repository.model.StockLevel;
 import com.checkproof.service.ItemVariantService;
+import com.checkproof.servicemodel.CatalogChangedEvent;
 import com.checkproof.servicemodel.ItemVariantResult;
 import com.checkproof.servicemodel.ItemVariantSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
 import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
+import com.checkproof.servicemodel.VariantStockResult;
 import com.checkproof.servicemodel.VariantStockSpec;
 import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.serviceimpl.changes.ChangeRecorder;
+import com.checkproof.serviceimpl.page.KeysetPaginator;
+import com.checkproof.serviceimpl.page.SortKey;
+import com.checkproof.serviceimpl.sku.SkuIndex;
+import com.checkproof.serviceimpl.stock.StockStripes;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
 
 @Service
 @AllArgsConstructor
 public class ItemVariantServiceImpl implements ItemVariantService {
+  private static final List<SortKey<ItemVariantRow>> SORT_KEYS = List.of(
+      SortKey.id(),
+      SortKey.of("name", "name", ItemVariantRow::getName, name -> name),
+      SortKey.of("price", "price", ItemVariantRow::getPrice, Double::valueOf));
+
   private final ItemVariantRepository itemVariantRepository;
   private final ItemVariantStockRepository itemVariantStockRepository;
   private final ItemVariantConverter itemVariantConverter;
   private final ItemRepository itemRepository;
+  private final StockStripes stockStripes;
+  private final StockHoldRepository stockHoldRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final KeysetPaginator keysetPaginator;
+  private final SkuIndex skuIndex;
+  private final VariantBatchProperties batchProperties;
+  private final ChangeRecorder changeRecorder;
 
   @Override
   @Transactional
   public ItemVariantResult createVariant(ItemVariantSpec spec) {
     var item = itemRepository.findById(spec.getItemId())
         .orElseThrow(() -> new EntityNotFoundException("Item not found"));
+    checkSkuAvailable(spec.getSku(), null);
     var entity = itemVariantConverter.toItemVariantEntity(spec);
     entity.setItem(item);
     var result = itemVariantRepository.save(entity);
@@ -42,25 +86,120 @@ public class ItemVariantServiceImpl implements ItemVariantService {
     stock.setAvailableStock(0);
     stock.setAllocatedStock(0);
     itemVariantStockRepository.save(stock);
+    changeRecorder.record(ChangeSubject.VARIANT, result.getId(), item.getId(), ChangeKind.CREATED);
+    changeRecorder.record(ChangeSubject.STOCK, result.getId(), null, ChangeKind.CREATED);
+    eventPublisher.publishEvent(new CatalogChangedEvent(item.getId()));
+    TransactionHooks.afterCommit(() -> skuIndex.add(result.getSku(), result.getId()));
     
     return itemVariantConverter.toItemVariantResult(result);
   }
 
+  // The SKU index is a per-node hint: a hit is confirmed against the variant, and a miss or a
+  // stale hit falls back to the unique SKU index of the database. A hit is loaded by id, so the
+  // variant and its item usually come from the second-level cache without a query.
+  @Override
+  @Transactional(readOnly = true)
+  public ItemVariantResult getVariantBySku(String sku) {
+    var variant = skuIndex.find(sku)
+        .flatMap(itemVariantRepository::findById)
+        .filter(candidate -> sku.equals(candidate.getSku()))
+        .or(() -> itemVariantRepository.findBySku(sku))
+        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
+    return itemVariantConverter.toItemVariantResult(variant);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public String getVariantTagBySku(String sku) {
+    return itemVariantRepository.findVersionBySku(sku).map(version -> EntityTags.of("variant", version)).orElse(null);
+  }
+
+  // Entries follow the request, ids first, with repeated ids or SKUs reported once. Each chunk
+  // of ids or SKUs costs one query for the variants with their items and one for their stock.
+  @Override
+  @Transactional(readOnly = true)
+  public List<VariantBatchEntryResult> getVariants(VariantBatchSpec spec) {
+    var ids = new LinkedHashSet<Long>(spec.getIds() != null ? spec.getIds() : List.of());
+    var skus = new LinkedHashSet<String>(spec.getSkus() != null ? spec.getSkus() : List.of());
+    if (ids.isEmpty() && skus.isEmpty()) {
+      throw new IllegalArgumentException("At least one variant id or SKU is required");
+    }
+    if (ids.size() + skus.size() > batchProperties.getMaxEntries()) {
+      throw new IllegalArgumentException(
+          String.format("At most %d variant ids and SKUs are allowed", batchProperties.getMaxEntries()));
+    }
+    var byId = new HashMap<Long, ItemVariant>();
+    var bySku = new HashMap<String, ItemVariant>();
+    inChunks(ids, chunk -> itemVariantRepository.findWithItemByIdIn(chunk)
+        .forEach(variant -> byId.put(variant.getId(), variant)));
+    inChunks(skus, chunk -> itemVariantRepository.findWithItemBySkuIn(chunk)
+        .forEach(variant -> bySku.put(variant.getSku(), variant)));
+    var found = new LinkedHashSet<Long>(byId.keySet());
+    bySku.values().forEach(variant -> found.add(variant.getId()));
+    var levels = new HashMap<Long, StockLevel>();
+    inChunks(found, chunk -> itemVariantStockRepository.findCurrentLevelsByVariantIds(chunk)
+        .forEach(level -> levels.put(level.getVariantId(), level)));
+
+    var entries = new ArrayList<VariantBatchEntryResult>(ids.size() + skus.size());
+    ids.forEach(id -> entries.add(toEntry(byId.get(id), id, null, levels)));
+    skus.forEach(sku -> entries.add(toEntry(bySku.get(sku), null, sku, levels)));
+    return entries;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public PageResult<ItemVariantResult> getVariantsOfItem(Long itemId, VariantFilterSpec filter, PageSpec spec) {
+    var specification = ItemVariantSpecifications.ofItem(itemId);
+    if (filter.getNamePrefix() != null) {
+      specification = specification.and(ItemVariantSpecifications.nameStartsWith(filter.getNamePrefix()));
+    }
+    if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+      specification = specification.and(ItemVariantSpecifications.priceBetween(filter.getMinPrice(), filter.getMaxPrice()));
+    }
+    if (filter.getInStock() != null) {
+      var inStock = ItemVariantSpecifications.inStock();
+      specification = specification.and(filter.getInStock() ? inStock : Specification.not(inStock));
+    }
+    return keysetPaginator.page(itemVariantRepository::findRows, specification, spec, SORT_KEYS,
+        itemVariantConverter::toItemVariantResult);
+  }
+
+  // Every variant is rendered with its item. In-stock filters add the stock of the item's variants.
   @Override
-  public List<ItemVariantResult> getVariantsOfItem(Long itemId) {
-    var variants = itemVariantRepository.findByItem_Id(itemId);
-    return variants.stream().map(itemVariantConverter::toItemVariantResult).toList();
+  @Transactional(readOnly = true)
+  public String getVariantsOfItemTag(Long itemId, VariantFilterSpec filter) {
+    var updatedAt = itemRepository.findUpdatedAtById(itemId);
+    if (updatedAt.isEmpty()) {
+      return null;
+    }
+    var variants = itemVariantRepository.summarizeVersionsByItemId(itemId);
+    if (filter.getInStock() == null) {
+      return EntityTags.of("variants", itemId, updatedAt.get(), variants);
+    }
+    return EntityTags.of("variants", itemId, updatedAt.get(), variants, EntityTags.hash(getStockOfItem(itemId)));
   }
 
   @Override
   @Transactional
   public ItemVariantResult updateVariant(UpdateItemVariantSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getId())
+    var variant = itemVariantRepository.findWithItemById(spec.getId())
         .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
+    var previousSku = variant.getSku();
+    if (!previousSku.equals(spec.getSku())) {
+      checkSkuAvailable(spec.getSku(), variant.getId());
+    }
     variant.setName(spec.getName());
     variant.setPrice(spec.getPrice());
     variant.setSku(spec.getSku());
     itemVariantRepository.save(variant);
+    changeRecorder.record(ChangeSubject.VARIANT, variant.getId(), variant.getItem().getId(), ChangeKind.UPDATED);
+    if (!previousSku.equals(spec.getSku())) {
+      TransactionHooks.afterCommit(() -> {
+        skuIndex.remove(previousSku, variant.getId());
+        skuIndex.add(variant.getSku(), variant.getId());
+      });
+    }
+    eventPublisher.publishEvent(new CatalogChangedEvent(variant.getItem().getId()));
     return itemVariantConverter.toItemVariantResult(variant);
   }
 
@@ -70,139 +209,257 @@ public class ItemVariantServiceImpl implements ItemVariantService {
     var variant = itemVariantRepository.findById(variantId)
         .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
     
-    itemVariantStockRepository.findByItemVariant_Id(variantId)
-        .ifPresent(itemVariantStockRepository::delete);
+    stockHoldRepository.deleteByVariantId(variantId);
+    stockStripes.deleteBuckets(variantId);
+    itemVariantStockRepository.findByItemVariant_Id(variantId).ifPresent(stock -> {
+      itemVariantStockRepository.delete(stock);
+      changeRecorder.record(ChangeSubject.STOCK, variantId, null, ChangeKind.DELETED);
+    });
     
     itemVariantRepository.delete(variant);
+    changeRecorder.record(ChangeSubject.VARIANT, variantId, variant.getItem().getId(), ChangeKind.DELETED);
+    eventPublisher.publishEvent(new CatalogChangedEvent(variant.getItem().getId()));
+    TransactionHooks.afterCommit(() -> skuIndex.remove(variant.getSku(), variantId));
     return null;
   }
 
   @Override
-  @Transactional
-  public ItemVariantResult setManualStock(VariantStockSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
-    
-    var stock = itemVariantStockRepository.findByItemVariant_Id(spec.getVariantId())
-        .orElseGet(() -> {
-          var newStock = new ItemVariantStock();
-          newStock.setItemVariant(variant);
-          return newStock;
-        });
-    
-    stock.setAvailableStock(spec.getQuantity());
-    stock.setAllocatedStock(0);
-    itemVariantStockRepository.save(stock);
-    
-    return itemVariantConverter.toItemVariantResult(variant);
+  @Transactional(readOnly = true)
+  public VariantStockResult getStock(Long variantId) {
+    return StockLevels.toResult(findLevel(variantId).orElseThrow(() -> stockNotFound(variantId)));
   }
 
   @Override
-  @Transactional
-  public ItemVariantResult increaseStock(VariantStockSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
-    
-    var stock = itemVariantStockRepository.findByItemVariant_Id(spec.getVariantId())
-        .orElseGet(() -> {
-          var newStock = new ItemVariantStock();
-          newStock.setItemVariant(variant);
-          newStock.setAvailableStock(0);
-          newStock.setAllocatedStock(0);
-          return newStock;
-        });
-    
-    stock.setAvailableStock(stock.getAvailableStock() + spec.getQuantity());
-    itemVariantStockRepository.save(stock);
-    
-    return itemVariantConverter.toItemVariantResult(variant);
+  @Transactional(readOnly = true)
+  public List<VariantStockResult> getStockOfItem(Long itemId) {
+    return itemVariantStockRepository.findCurrentLevelsByItemId(itemId).stream().map(StockLevels::toResult).toList();
   }
 
   @Override
   @Transactional
-  public ItemVariantResult decreaseStock(VariantStockSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
-    
-    var stock = itemVariantStockRepository.findByItemVariant_Id(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("stock not found for variant"));
-    
-    int availableQuantity = stock.getAvailableStock() - stock.getAllocatedStock();
-    if (availableQuantity < spec.getQuantity()) {
-      throw new OutOfStockException(
-          String.format("Insufficient stock. Available: %d, Requested: %d", 
-              availableQuantity, spec.getQuantity()));
+  public VariantStockResult setManualStock(VariantStockSpec spec) {
+    var level = applyUpdate(spec, StockOperation.SET, itemVariantStockRepository::setStock, stockStripes::setStock);
+    if (level == null) {
+      createStock(spec.getVariantId(), spec.getQuantity());
+      level = publishChange(StockOperation.SET, spec);
     }
-    
-    stock.setAvailableStock(stock.getAvailableStock() - spec.getQuantity());
-    itemVariantStockRepository.save(stock);
-    
-    return itemVariantConverter.toItemVariantResult(variant);
+    return StockLevels.toResult(level);
   }
 
   @Override
   @Transactional
-  public ItemVariantResult reserveStock(VariantStockSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
-    
-    var stock = itemVariantStockRepository.findByItemVariant_Id(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("stock not found for variant"));
-    
-    int availableQuantity = stock.getAvailableStock() - stock.getAllocatedStock();
-    if (availableQuantity < spec.getQuantity()) {
-      throw new OutOfStockException(
-          String.format("Insufficient stock to reserve. Available: %d, Requested: %d", 
-              availableQuantity, spec.getQuantity()));
+  public VariantStockResult increaseStock(VariantStockSpec spec) {
+    var level = applyUpdate(spec, StockOperation.INCREASE, itemVariantStockRepository::increaseStock,
+        stockStripes::increaseStock);
+    if (level == null) {
+      createStock(spec.getVariantId(), spec.getQuantity());
+      level = publishChange(StockOperation.INCREASE, spec);
     }
-    
-    stock.setAllocatedStock(stock.getAllocatedStock() + spec.getQuantity());
-    itemVariantStockRepository.save(stock);
-    
-    return itemVariantConverter.toItemVariantResult(variant);
+    return StockLevels.toResult(level);
   }
 
   @Override
   @Transactional
-  public ItemVariantResult commitStock(VariantStockSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
-    
-    var stock = itemVariantStockRepository.findByItemVariant_Id(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("stock not found for variant"));
-    
-    if (stock.getAllocatedStock() < spec.getQuantity()) {
+  public VariantStockResult decreaseStock(VariantStockSpec spec) {
+    return StockLevels.toResult(applyDecrease(spec));
+  }
+
+  @Override
+  @Transactional
+  public VariantStockResult reserveStock(VariantStockSpec spec) {
+    return StockLevels.toResult(applyReserve(spec));
+  }
+
+  @Override
+  @Transactional
+  public VariantStockResult commitStock(VariantStockSpec spec) {
+    return StockLevels.toResult(applyCommit(spec));
+  }
+
+  @Override
+  @Transactional
+  public VariantStockResult releaseStock(VariantStockSpec spec) {
+    return StockLevels.toResult(applyRelease(spec));
+  }
+
+  @Override
+  @Transactional
+  public List<VariantStockResult> reserveStockLines(List<VariantStockSpec> lines) {
+    return applyLines(lines, this::applyReserve);
+  }
+
+  @Override
+  @Transactional
+  public List<VariantStockResult> commitStockLines(List<VariantStockSpec> lines) {
+    return applyLines(lines, this::applyCommit);
+  }
+
+  @Override
+  @Transactional
+  public List<VariantStockResult> releaseStockLines(List<VariantStockSpec> lines) {
+    return applyLines(lines, this::applyRelease);
+  }
+
+  private StockLevel applyDecrease(VariantStockSpec spec) {
+    var level = applyUpdate(spec, StockOperation.DECREASE, itemVariantStockRepository::decreaseStock,
+        stockStripes::decreaseStock);
+    if (level == null) {
+      var stock = findCounters(spec.getVariantId());
+      throw new OutOfStockException(
+          String.format("Insufficient stock. Available: %d, Requested: %d",
+              stock.getAvailableStock() - stock.getAllocatedStock(), spec.getQuantity()));
+    }
+    return level;
+  }
+
+  private StockLevel applyReserve(VariantStockSpec spec) {
+    var level = applyUpdate(spec, StockOperation.RESERVE, itemVariantStockRepository::reserveStock,
+        stockStripes::reserveStock);
+    if (level == null) {
+      var stock = findCounters(spec.getVariantId());
+      throw new OutOfStockException(
+          String.format("Insufficient stock to reserve. Available: %d, Requested: %d",
+              stock.getAvailableStock() - stock.getAllocatedStock(), spec.getQuantity()));
+    }
+    return level;
+  }
+
+  private StockLevel applyCommit(VariantStockSpec spec) {
+    // Commit: decrease both availableStock and allocatedStock
+    var level = applyUpdate(spec, StockOperation.COMMIT, itemVariantStockRepository::commitStock,
+        stockStripes::commitStock);
+    if (level == null) {
+      var stock = findCounters(spec.getVariantId());
       throw new IllegalArgumentException(
-          String.format("Cannot commit more stock than allocated. Allocated: %d, Requested: %d", 
+          String.format("Cannot commit more stock than allocated. Allocated: %d, Requested: %d",
               stock.getAllocatedStock(), spec.getQuantity()));
     }
-    
-    // Commit: decrease both availableStock and allocatedStock
-    stock.setAvailableStock(stock.getAvailableStock() - spec.getQuantity());
-    stock.setAllocatedStock(stock.getAllocatedStock() - spec.getQuantity());
-    itemVariantStockRepository.save(stock);
-    
-    return itemVariantConverter.toItemVariantResult(variant);
+    return level;
   }
 
-  @Override
-  @Transactional
-  public ItemVariantResult releaseStock(VariantStockSpec spec) {
-    var variant = itemVariantRepository.findById(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
-    
-    var stock = itemVariantStockRepository.findByItemVariant_Id(spec.getVariantId())
-        .orElseThrow(() -> new EntityNotFoundException("stock not found for variant"));
-    
-    if (stock.getAllocatedStock() < spec.getQuantity()) {
+  private StockLevel applyRelease(VariantStockSpec spec) {
+    var level = applyUpdate(spec, StockOperation.RELEASE, itemVariantStockRepository::releaseStock,
+        stockStripes::releaseStock);
+    if (level == null) {
+      var stock = findCounters(spec.getVariantId());
       throw new IllegalArgumentException(
-          String.format("Cannot release more stock than allocated. Allocated: %d, Requested: %d", 
+          String.format("Cannot release more stock than allocated. Allocated: %d, Requested: %d",
               stock.getAllocatedStock(), spec.getQuantity()));
     }
-    
-    stock.setAllocatedStock(stock.getAllocatedStock() - spec.getQuantity());
+    return level;
+  }
+
+  // Lines are merged per variant and applied in ascending variant id order, so concurrent
+  // multi-line transactions always take row locks in the same order and cannot deadlock.
+  // Any failing line throws and rolls the whole transaction back.
+  private List<VariantStockResult> applyLines(List<VariantStockSpec> lines, Function<VariantStockSpec, StockLevel> operation) {
+    var ordered = StockLines.mergeAndSort(lines);
+    var results = new ArrayList<VariantStockResult>(ordered.size());
+    for (var line : ordered) {
+      try {
+        results.add(StockLevels.toResult(operation.apply(line)));
+      } catch (OutOfStockException e) {
+        throw new OutOfStockException(String.format("Variant %d: %s", line.getVariantId(), e.getMessage()));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(String.format("Variant %d: %s", line.getVariantId(), e.getMessage()));
+      }
+    }
+    return results;
+  }
+
+  // Striped variants are served from their bucket rows. Which path to take is a per-node hint,
+  // so when the chosen path changes nothing and the stock row disagrees, the other one is tried.
+  // Returns the resulting stock level, or null when nothing changed.
+  private StockLevel applyUpdate(VariantStockSpec spec, StockOperation operation,
+      ToIntBiFunction<Long, Integer> rowUpdate, ToIntBiFunction<Long, Integer> bucketUpdate) {
+    var variantId = spec.getVariantId();
+    var striped = stockStripes.isStriped(variantId);
+    if ((striped ? bucketUpdate : rowUpdate).applyAsInt(variantId, spec.getQuantity()) > 0) {
+      return publishChange(operation, spec);
+    }
+    int bucketCount = itemVariantStockRepository.findBucketCount(variantId).orElse(0);
+    if ((bucketCount > 0) == striped) {
+      return null;
+    }
+    stockStripes.refresh(variantId, bucketCount);
+    if ((striped ? rowUpdate : bucketUpdate).applyAsInt(variantId, spec.getQuantity()) > 0) {
+      return publishChange(operation, spec);
+    }
+    return null;
+  }
+
+  // The guarded updates do not return the counters they produced, so they are read back from the
+  // row this transaction just changed. Bucket totals of a striped variant may include concurrent
+  // changes to its other buckets.
+  private StockLevel publishChange(StockOperation operation, VariantStockSpec spec) {
+    var variantId = spec.getVariantId();
+    var level = findLevel(variantId).orElseThrow(() -> stockNotFound(variantId));
+    eventPublisher.publishEvent(new StockChangedEvent(variantId, operation, spec.getQuantity(),
+        level.getAvailableStock(), level.getAllocatedStock(), level.getVersion()));
+    return level;
+  }
+
+  // A SKU the Bloom filter has never seen is free without a query. The unique constraint still
+  // catches a duplicate created concurrently or on another node.
+  private void checkSkuAvailable(String sku, Long variantId) {
+    if (sku == null || !skuIndex.mightExist(sku)) {
+      return;
+    }
+    itemVariantRepository.findIdBySku(sku)
+        .filter(existing -> !existing.equals(variantId))
+        .ifPresent(existing -> {
+          throw new IllegalArgumentException(String.format("SKU %s is already used by variant %d", sku, existing));
+        });
+  }
+
+  private <T> void inChunks(Collection<T> keys, Consumer<List<T>> query) {
+    var list = List.copyOf(keys);
+    for (int from = 0; from < list.size(); from += batchProperties.getChunkSize()) {
+      query.accept(list.subList(from, Math.min(list.size(), from + batchProperties.getChunkSize())));
+    }
+  }
+
+  private VariantBatchEntryResult toEntry(ItemVariant variant, Long id, String sku, Map<Long, StockLevel> levels) {
+    if (variant == null) {
+      return VariantBatchEntryResult.builder().variantId(id).sku(sku).found(false).build();
+    }
+    var level = levels.get(variant.getId());
+    return VariantBatchEntryResult.builder()
+        .variantId(variant.getId())
+        .sku(variant.getSku())
+        .found(true)
+        .variant(itemVariantConverter.toItemVariantResult(variant))
+        .stock(level != null ? StockLevels.toResult(level) : null)
+        .build();
+  }
+
+  private Optional<StockLevel> findLevel(Long variantId) {
+    if (stockStripes.isStriped(variantId)) {
+      var level = stockStripes.level(variantId);
+      if (level.isPresent()) {
+        return level;
+      }
+    }
+    return itemVariantStockRepository.findLevelByVariantId(variantId);
+  }
+
+  private void createStock(Long variantId, int quantity) {
+    var variant = itemVariantRepository.findById(variantId)
+        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
+    var stock = new ItemVariantStock();
+    stock.setItemVariant(variant);
+    stock.setAvailableStock(quantity);
+    stock.setAllocatedStock(0);
     itemVariantStockRepository.save(stock);
-    
-    return itemVariantConverter.toItemVariantResult(variant);
+  }
+
+  // Only reached after a guarded update touched no row, to tell a failed check from a missing row.
+  private StockLevel findCounters(Long variantId) {
+    return findLevel(variantId).orElseThrow(() -> stockNotFound(variantId));
+  }
+
+  private EntityNotFoundException stockNotFound(Long variantId) {
+    return new EntityNotFoundException(itemVariantRepository.existsById(variantId)
+        ? "stock not found for variant" : "item_variant not found");
   }
 }
@@ -0,0 +1,19 @@
+package com.checkproof.serviceimpl;
+
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.servicemodel.VariantStockResult;
+
+public final class StockLevels {
+  private StockLevels() {
+  }
+
+  public static VariantStockResult toResult(StockLevel level) {
+    return VariantStockResult.builder()
+        .variantId(level.getVariantId())
+        .availableStock(level.getAvailableStock())
+        .allocatedStock(level.getAllocatedStock())
+        .sellableStock(level.getAvailableStock() - level.getAllocatedStock())
+        .version(level.getVersion())
+        .build();
+  }
+}
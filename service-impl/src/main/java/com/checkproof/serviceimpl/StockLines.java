@@ -0,0 +1,29 @@
+package com.checkproof.serviceimpl;
+
+import com.checkproof.servicemodel.VariantStockSpec;
+
+import java.util.List;
+import java.util.TreeMap;
+
+public final class StockLines {
+  private StockLines() {
+  }
+
+  // Lines of one variant whose quantities overflow an int are rejected as a bad request.
+  public static List<VariantStockSpec> mergeAndSort(List<VariantStockSpec> lines) {
+    var quantities = new TreeMap<Long, Integer>();
+    for (var line : lines) {
+      quantities.merge(line.getVariantId(), line.getQuantity(), (merged, quantity) -> {
+        long total = (long) merged + quantity;
+        if (total > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException(String.format(
+              "Variant %d: quantities add up to more than %d", line.getVariantId(), Integer.MAX_VALUE));
+        }
+        return (int) total;
+      });
+    }
+    return quantities.entrySet().stream()
+        .map(entry -> new VariantStockSpec(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+}
@@ -0,0 +1,11 @@
+package com.checkproof.serviceimpl;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.variants.batch-get")
+public class VariantBatchProperties {
+  private int maxEntries = 500;
+  private int chunkSize = 100;
+}
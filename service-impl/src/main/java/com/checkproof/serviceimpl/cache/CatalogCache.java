@@ -0,0 +1,105 @@
+package com.checkproof.serviceimpl.cache;
+
+import com.checkproof.service.CacheStatsService;
+import com.checkproof.servicemodel.CacheRegionStatsResult;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate's second-level cache for the catalog: the items, the variants and the variant ids of
+ * an item, each region a local Caffeine cache bounded in size whose entries expire a fixed time
+ * after they were written. The cache is per node, so the TTL bounds how long a change made
+ * through another node stays invisible. Stock is never cached.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogCache implements HibernatePropertiesCustomizer, CacheStatsService {
+  // Last update time per table, which cached query results are checked against: never evicted.
+  private static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+  private final CatalogCacheProperties properties;
+
+  private final Map<String, CatalogCacheProperties.Region> regions = new LinkedHashMap<>();
+  private CacheManager cacheManager;
+
+  // Hibernate closes the cache manager along with the session factory.
+  @Override
+  public void customize(Map<String, Object> hibernateProperties) {
+    if (!properties.isEnabled()) {
+      hibernateProperties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, false);
+      hibernateProperties.put(CacheSettings.USE_QUERY_CACHE, false);
+      return;
+    }
+    cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager(URI.create("warehouse-catalog-" + System.identityHashCode(this)), getClass().getClassLoader());
+    regions.putAll(properties.getRegions());
+    regions.putIfAbsent(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, new CatalogCacheProperties.Region());
+    regions.forEach((name, region) -> cacheManager.createCache(name, configuration(region)));
+    cacheManager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>().setNativeStatisticsEnabled(true));
+    log.info("Second-level cache regions {}", regions.keySet());
+
+    hibernateProperties.put(CacheSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+    hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    // An entity or query naming a region that is not configured fails startup instead of
+    // getting an unbounded cache.
+    hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    hibernateProperties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+    hibernateProperties.put(CacheSettings.USE_QUERY_CACHE, true);
+    // Variants are written through their own side of the association, which would otherwise leave
+    // the cached variant ids of their item stale.
+    hibernateProperties.put(CacheSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+    // Cached query results hold the entities' state, so a result outliving the entries of its
+    // entities does not turn into one query per entity.
+    hibernateProperties.put(CacheSettings.QUERY_CACHE_LAYOUT, CacheLayout.FULL);
+  }
+
+  @Override
+  public List<CacheRegionStatsResult> getRegionStats() {
+    if (cacheManager == null) {
+      return List.of();
+    }
+    return regions.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .map(entry -> toResult(entry.getKey(), entry.getValue()))
+        .toList();
+  }
+
+  private CacheRegionStatsResult toResult(String name, CatalogCacheProperties.Region region) {
+    var cache = cacheManager.getCache(name).unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+    var stats = cache.stats();
+    return CacheRegionStatsResult.builder()
+        .region(name)
+        .size(cache.estimatedSize())
+        .maxSize(region.getMaxSize())
+        .ttlSeconds(region.getTtl().toSeconds())
+        .hits(stats.hitCount())
+        .misses(stats.missCount())
+        .hitRatio(stats.hitRate())
+        .evictions(stats.evictionCount())
+        .build();
+  }
+
+  private static CaffeineConfiguration<Object, Object> configuration(CatalogCacheProperties.Region region) {
+    return new CaffeineConfiguration<>()
+        .setMaximumSize(OptionalLong.of(region.getMaxSize()))
+        .setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()))
+        .setNativeStatisticsEnabled(true);
+  }
+}
@@ -0,0 +1,24 @@
+package com.checkproof.serviceimpl.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.cache")
+public class CatalogCacheProperties {
+  private boolean enabled = true;
+  private Map<String, Region> regions = new LinkedHashMap<>(Map.of(
+      "items", new Region(),
+      "variants", new Region(),
+      "variants-by-item", new Region()));
+
+  @Data
+  public static class Region {
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+  }
+}
@@ -0,0 +1,17 @@
+package com.checkproof.serviceimpl.changes;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.changes")
+public class ChangeFeedProperties {
+  private int defaultLimit = 100;
+  private int maxLimit = 1000;
+  private int sequenceBatchSize = 500;
+  private Duration sequenceInterval = Duration.ofMillis(100);
+  private Duration retention = Duration.ofDays(7);
+  private Duration purgeInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,96 @@
+package com.checkproof.serviceimpl.changes;
+
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeRecord;
+import com.checkproof.entity.ChangeSubject;
+import com.checkproof.helper.converter.ChangeConverter;
+import com.checkproof.repository.ChangeRecordRepository;
+import com.checkproof.service.ChangeFeedService;
+import com.checkproof.servicemodel.ChangeFeedResult;
+import com.checkproof.servicemodel.ChangeFeedSpec;
+import com.checkproof.servicemodel.StockChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Change feed over change_records. Writers record their changes in their own transaction, so a
+ * change is in the feed exactly when it committed, and readers page through it by position.
+ *
+ * <p>Positions are given by {@link ChangeSequencer} once a change has committed, in batches that
+ * become visible at once, so a reader never passes a position that a later commit could still take.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedServiceImpl implements ChangeFeedService, ChangeRecorder {
+  private final ChangeRecordRepository changeRecordRepository;
+  private final ChangeConverter changeConverter;
+  private final TransactionTemplate transactionTemplate;
+  private final ChangeFeedProperties properties;
+
+  @Override
+  @Transactional(readOnly = true)
+  public ChangeFeedResult getChanges(ChangeFeedSpec spec) {
+    long since = spec.getSince() != null ? spec.getSince() : 0L;
+    int limit = spec.getLimit() != null ? spec.getLimit() : properties.getDefaultLimit();
+    if (since < 0) {
+      throw new IllegalArgumentException("Cursor must not be negative");
+    }
+    if (limit < 1 || limit > properties.getMaxLimit()) {
+      throw new IllegalArgumentException(String.format("Limit must be between 1 and %d", properties.getMaxLimit()));
+    }
+    var records = changeRecordRepository.findByPositionGreaterThanOrderByPositionAsc(since, Limit.of(limit + 1));
+    var page = records.subList(0, Math.min(limit, records.size()));
+    long cursor = page.isEmpty() ? since : page.get(page.size() - 1).getPosition();
+    return ChangeFeedResult.builder()
+        .changes(page.stream().map(changeConverter::toChangeResult).toList())
+        .cursor(cursor)
+        .hasMore(records.size() > limit)
+        .build();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void record(ChangeSubject subject, Long subjectId, Long itemId, ChangeKind kind) {
+    changeRecordRepository.save(new ChangeRecord(subject, subjectId, itemId, kind));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void recordStockUpdates(Collection<Long> variantIds) {
+    changeRecordRepository.saveAll(variantIds.stream()
+        .map(variantId -> new ChangeRecord(ChangeSubject.STOCK, variantId, null, ChangeKind.UPDATED))
+        .toList());
+  }
+
+  // Every stock engine publishes its mutations; those made in a transaction are recorded in it.
+  // The in-memory engine mutates outside of one and records its changes when it flushes them.
+  @EventListener
+  public void onStockChanged(StockChangedEvent event) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      record(ChangeSubject.STOCK, event.getVariantId(), null, ChangeKind.UPDATED);
+    }
+  }
+
+  // The change with the highest position is kept, so the sequencer numbers on from it even when
+  // everything else has expired.
+  @Scheduled(fixedDelayString = "${warehouse.changes.purge-interval:1h}")
+  public void purgeExpired() {
+    var purged = transactionTemplate.execute(status -> changeRecordRepository.deleteCreatedBefore(
+        LocalDateTime.now().minus(properties.getRetention()), changeRecordRepository.findMaxPosition()));
+    if (purged != null && purged > 0) {
+      log.info("Purged {} changes older than {}", purged, properties.getRetention());
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.checkproof.serviceimpl.changes;
+
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeSubject;
+
+import java.util.Collection;
+
+/**
+ * Writes changes to the change feed. It must be called inside the writer's transaction, so a
+ * change is recorded exactly when it commits.
+ */
+public interface ChangeRecorder {
+  void record(ChangeSubject subject, Long subjectId, Long itemId, ChangeKind kind);
+
+  void recordStockUpdates(Collection<Long> variantIds);
+}
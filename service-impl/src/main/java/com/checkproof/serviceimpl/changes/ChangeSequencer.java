@@ -0,0 +1,81 @@
+package com.checkproof.serviceimpl.changes;
+
+import com.checkproof.repository.ChangeRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives committed changes their position in the change feed. Each round reads the highest position
+ * taken so far and then up to {@code sequence-batch-size} of the oldest changes without one, and
+ * numbers them on from there, all in one transaction. Uncommitted changes are not seen, and the
+ * positions of a round become visible together, so the feed never has a hole that a later commit
+ * fills. Full batches are numbered back to back; otherwise the sequencer sleeps for
+ * {@code sequence-interval}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeSequencer {
+  private final ChangeRecordRepository changeRecordRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ChangeFeedProperties properties;
+
+  private Thread sequencer;
+  private volatile boolean running;
+
+  @PostConstruct
+  void start() {
+    running = true;
+    sequencer = new Thread(this::run, "change-sequencer");
+    sequencer.setDaemon(true);
+    sequencer.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    sequencer.interrupt();
+    sequencer.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        if (sequenceBatch() < properties.getSequenceBatchSize()) {
+          Thread.sleep(properties.getSequenceInterval().toMillis());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  }
+
+  /** Numbers one batch and returns its size, 0 when there was nothing to number or it failed. */
+  int sequenceBatch() {
+    try {
+      // Sequencers on several nodes would number on from the same position; the unique position
+      // fails all but one of them, and the others retry with the next round.
+      var sequenced = transactionTemplate.execute(status -> {
+        long position = changeRecordRepository.findMaxPosition();
+        var pending = changeRecordRepository.findByPositionIsNullOrderByIdAsc(
+            Limit.of(properties.getSequenceBatchSize()));
+        for (var change : pending) {
+          change.setPosition(++position);
+        }
+        return pending.size();
+      });
+      return sequenced != null ? sequenced : 0;
+    } catch (RuntimeException e) {
+      log.warn("Sequencing changes failed, retrying in {}", properties.getSequenceInterval(), e);
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.checkproof.serviceimpl.command;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.commands")
+public class StockCommandProperties {
+  private int threads = 2;
+  private int queueDepth = 100;
+  private int maxLines = 1000;
+  private Duration retention = Duration.ofMinutes(15);
+  private Duration purgeInterval = Duration.ofMinutes(1);
+}
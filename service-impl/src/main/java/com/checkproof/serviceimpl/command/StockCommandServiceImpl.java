@@ -0,0 +1,208 @@
+package com.checkproof.serviceimpl.command;
+
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockCommandService;
+import com.checkproof.service.exception.CapacityExceededException;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.servicemodel.StockCommandResult;
+import com.checkproof.servicemodel.StockCommandSpec;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs stock commands off the request thread. Commands wait in a queue of bounded depth for a
+ * small pool of workers; a command that finds the queue full is refused rather than queued, so
+ * bulk work cannot pile up behind the pool. Commands and their results live in memory only, until
+ * the retention after their completion has passed; queued commands are lost on shutdown.
+ *
+ * <p>RESERVE, COMMIT and RELEASE apply all lines or none of them. SET, INCREASE and DECREASE
+ * apply line by line and stop at the first line that fails, reporting the lines applied before.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockCommandServiceImpl implements StockCommandService {
+  private final ItemVariantService itemVariantService;
+  private final StockCommandProperties properties;
+
+  private final Map<String, StockCommand> commands = new ConcurrentHashMap<>();
+  private ThreadPoolExecutor executor;
+
+  @PostConstruct
+  void start() {
+    var threads = new AtomicInteger();
+    executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(properties.getQueueDepth()), runnable -> {
+          var thread = new Thread(runnable, "stock-command-" + threads.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public StockCommandResult submitCommand(StockCommandSpec spec) {
+    if (spec.getLines().isEmpty() || spec.getLines().size() > properties.getMaxLines()) {
+      throw new IllegalArgumentException(
+          String.format("A command must have between 1 and %d lines", properties.getMaxLines()));
+    }
+    var command = new StockCommand(UUID.randomUUID().toString(), spec);
+    // Taken before a worker can pick the command up, so the caller always sees it queued.
+    var queued = command.toResult();
+    commands.put(command.id, command);
+    try {
+      executor.execute(() -> run(command));
+    } catch (RejectedExecutionException e) {
+      commands.remove(command.id);
+      throw new CapacityExceededException("Too many queued stock commands, retry later");
+    }
+    log.info("Queued {} command {} of {} lines", spec.getOperation(), command.id, spec.getLines().size());
+    return queued;
+  }
+
+  @Override
+  public StockCommandResult getCommand(String commandId) {
+    return findCommand(commandId).toResult();
+  }
+
+  @Override
+  public CompletableFuture<StockCommandResult> awaitCommand(String commandId) {
+    return findCommand(commandId).done;
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.commands.purge-interval:1m}")
+  public void purgeCompleted() {
+    var cutoff = Instant.now().minus(properties.getRetention());
+    commands.values().removeIf(command -> command.isCompletedBefore(cutoff));
+  }
+
+  private void run(StockCommand command) {
+    command.start();
+    var results = new ArrayList<VariantStockResult>(command.lines.size());
+    try {
+      apply(command.operation, command.lines, results);
+      command.complete(results, null);
+      log.info("Stock command {} succeeded", command.id);
+    } catch (RuntimeException e) {
+      command.complete(results, describe(e));
+      log.info("Stock command {} failed after {} lines: {}", command.id, results.size(), e.getMessage());
+    }
+  }
+
+  private void apply(StockOperation operation, List<VariantStockSpec> lines, List<VariantStockResult> results) {
+    switch (operation) {
+      case RESERVE -> results.addAll(itemVariantService.reserveStockLines(lines));
+      case COMMIT -> results.addAll(itemVariantService.commitStockLines(lines));
+      case RELEASE -> results.addAll(itemVariantService.releaseStockLines(lines));
+      case SET -> lines.forEach(line -> results.add(itemVariantService.setManualStock(line)));
+      case INCREASE -> lines.forEach(line -> results.add(itemVariantService.increaseStock(line)));
+      case DECREASE -> lines.forEach(line -> results.add(itemVariantService.decreaseStock(line)));
+    }
+  }
+
+  // The messages GlobalExceptionHandler would answer the same failure with.
+  private static String describe(RuntimeException e) {
+    if (e instanceof EntityNotFoundException || e instanceof IllegalArgumentException
+        || e instanceof OutOfStockException) {
+      return e.getMessage();
+    }
+    if (e instanceof ConcurrencyFailureException) {
+      return "The resource was modified concurrently, please retry";
+    }
+    log.error("Stock command failed unexpectedly", e);
+    return "An unexpected error occurred";
+  }
+
+  private StockCommand findCommand(String commandId) {
+    var command = commands.get(commandId);
+    if (command == null) {
+      throw new EntityNotFoundException("stock command not found");
+    }
+    return command;
+  }
+
+  enum Status {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+  }
+
+  private static final class StockCommand {
+    private final String id;
+    private final StockOperation operation;
+    private final List<VariantStockSpec> lines;
+    private final Instant submittedAt = Instant.now();
+    private final CompletableFuture<StockCommandResult> done = new CompletableFuture<>();
+    // Guarded by this.
+    private Status status = Status.QUEUED;
+    private List<VariantStockResult> results = List.of();
+    private String error;
+    private Instant completedAt;
+
+    private StockCommand(String id, StockCommandSpec spec) {
+      this.id = id;
+      this.operation = spec.getOperation();
+      this.lines = List.copyOf(spec.getLines());
+    }
+
+    synchronized void start() {
+      status = Status.RUNNING;
+    }
+
+    void complete(List<VariantStockResult> results, String error) {
+      StockCommandResult result;
+      synchronized (this) {
+        this.status = error == null ? Status.SUCCEEDED : Status.FAILED;
+        this.results = List.copyOf(results);
+        this.error = error;
+        this.completedAt = Instant.now();
+        result = toResult();
+      }
+      done.complete(result);
+    }
+
+    synchronized boolean isCompletedBefore(Instant cutoff) {
+      return completedAt != null && completedAt.isBefore(cutoff);
+    }
+
+    synchronized StockCommandResult toResult() {
+      return StockCommandResult.builder()
+          .id(id)
+          .operation(operation.name())
+          .status(status.name())
+          .results(results)
+          .error(error)
+          .submittedAt(Date.from(submittedAt))
+          .completedAt(completedAt != null ? Date.from(completedAt) : null)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.checkproof.serviceimpl.concurrency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.concurrency")
+public class ConcurrencyControlProperties {
+  private int maxAttempts = 5;
+  private Duration initialBackoff = Duration.ofMillis(5);
+  private Duration maxBackoff = Duration.ofMillis(200);
+  // Conflict rate (exponentially weighted over recent attempts) at which a variant switches
+  // to pessimistic locking, and the rate below which it switches back.
+  private double pessimisticEnterRate = 0.2;
+  private double pessimisticExitRate = 0.02;
+  private double rateSmoothing = 0.1;
+  private int minSamples = 20;
+  // Variants whose statistics are kept; the least recently used are dropped past it.
+  private int maxTrackedVariants = 10_000;
+}
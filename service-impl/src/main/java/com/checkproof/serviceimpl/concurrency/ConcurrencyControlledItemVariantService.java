@@ -0,0 +1,140 @@
+package com.checkproof.serviceimpl.concurrency;
+
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.serviceimpl.ItemVariantServiceImpl;
+import com.checkproof.serviceimpl.groupcommit.StockGroupCommitter;
+import com.checkproof.servicemodel.ItemVariantResult;
+import com.checkproof.servicemodel.ItemVariantSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Service
+@Primary
+@AllArgsConstructor
+@ConditionalOnProperty(name = "warehouse.stock.engine.type", havingValue = "jpa", matchIfMissing = true)
+public class ConcurrencyControlledItemVariantService implements ItemVariantService {
+  private final ItemVariantServiceImpl delegate;
+  private final StockConcurrencyControl concurrencyControl;
+  private final Optional<StockGroupCommitter> groupCommitter;
+
+  @Override
+  public ItemVariantResult createVariant(ItemVariantSpec spec) {
+    return delegate.createVariant(spec);
+  }
+
+  @Override
+  public PageResult<ItemVariantResult> getVariantsOfItem(Long itemId, VariantFilterSpec filter, PageSpec spec) {
+    return delegate.getVariantsOfItem(itemId, filter, spec);
+  }
+
+  @Override
+  public String getVariantsOfItemTag(Long itemId, VariantFilterSpec filter) {
+    return delegate.getVariantsOfItemTag(itemId, filter);
+  }
+
+  @Override
+  public ItemVariantResult getVariantBySku(String sku) {
+    return delegate.getVariantBySku(sku);
+  }
+
+  @Override
+  public String getVariantTagBySku(String sku) {
+    return delegate.getVariantTagBySku(sku);
+  }
+
+  @Override
+  public List<VariantBatchEntryResult> getVariants(VariantBatchSpec spec) {
+    return delegate.getVariants(spec);
+  }
+
+  @Override
+  public ItemVariantResult updateVariant(UpdateItemVariantSpec spec) {
+    return delegate.updateVariant(spec);
+  }
+
+  @Override
+  public Void deleteVariant(Long variantId) {
+    return delegate.deleteVariant(variantId);
+  }
+
+  @Override
+  public VariantStockResult getStock(Long variantId) {
+    return delegate.getStock(variantId);
+  }
+
+  @Override
+  public List<VariantStockResult> getStockOfItem(Long itemId) {
+    return delegate.getStockOfItem(itemId);
+  }
+
+  @Override
+  public VariantStockResult setManualStock(VariantStockSpec spec) {
+    return concurrencyControl.execute(spec.getVariantId(), () -> delegate.setManualStock(spec));
+  }
+
+  @Override
+  public VariantStockResult increaseStock(VariantStockSpec spec) {
+    return mutate(StockOperation.INCREASE, spec, () -> delegate.increaseStock(spec));
+  }
+
+  @Override
+  public VariantStockResult decreaseStock(VariantStockSpec spec) {
+    return mutate(StockOperation.DECREASE, spec, () -> delegate.decreaseStock(spec));
+  }
+
+  @Override
+  public VariantStockResult reserveStock(VariantStockSpec spec) {
+    return mutate(StockOperation.RESERVE, spec, () -> delegate.reserveStock(spec));
+  }
+
+  @Override
+  public VariantStockResult commitStock(VariantStockSpec spec) {
+    return mutate(StockOperation.COMMIT, spec, () -> delegate.commitStock(spec));
+  }
+
+  @Override
+  public VariantStockResult releaseStock(VariantStockSpec spec) {
+    return mutate(StockOperation.RELEASE, spec, () -> delegate.releaseStock(spec));
+  }
+
+  @Override
+  public List<VariantStockResult> reserveStockLines(List<VariantStockSpec> lines) {
+    return concurrencyControl.execute(variantIds(lines), () -> delegate.reserveStockLines(lines));
+  }
+
+  @Override
+  public List<VariantStockResult> commitStockLines(List<VariantStockSpec> lines) {
+    return concurrencyControl.execute(variantIds(lines), () -> delegate.commitStockLines(lines));
+  }
+
+  @Override
+  public List<VariantStockResult> releaseStockLines(List<VariantStockSpec> lines) {
+    return concurrencyControl.execute(variantIds(lines), () -> delegate.releaseStockLines(lines));
+  }
+
+  private VariantStockResult mutate(StockOperation operation, VariantStockSpec spec,
+      Supplier<VariantStockResult> direct) {
+    Supplier<VariantStockResult> individually = () -> concurrencyControl.execute(spec.getVariantId(), direct);
+    return groupCommitter.map(committer -> committer.submit(operation, spec, individually))
+        .orElseGet(individually);
+  }
+
+  private List<Long> variantIds(List<VariantStockSpec> lines) {
+    return lines.stream().map(VariantStockSpec::getVariantId).toList();
+  }
+}
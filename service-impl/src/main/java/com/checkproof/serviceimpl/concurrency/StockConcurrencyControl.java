@@ -0,0 +1,147 @@
+package com.checkproof.serviceimpl.concurrency;
+
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.service.StockContentionService;
+import com.checkproof.servicemodel.VariantContentionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs stock operations with bounded, jittered retries on concurrency failures (optimistic lock
+ * conflicts, lock timeouts, deadlocks) and tracks the conflict rate per variant. Once a variant's
+ * rate crosses the configured threshold, operations spanning several variants including it first
+ * take SELECT ... FOR UPDATE on their stock rows in id order, so contenders queue on the row locks
+ * instead of deadlocking, until the rate subsides. A single-variant operation is one guarded
+ * UPDATE, which queues on the row lock by itself, so it is never locked up front.
+ *
+ * <p>Statistics are kept for a bounded number of variants; past it, the variants used least
+ * recently are dropped, hot ones last.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockConcurrencyControl implements StockContentionService {
+  private final ItemVariantStockRepository itemVariantStockRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ConcurrencyControlProperties properties;
+
+  private final ConcurrentHashMap<Long, VariantContention> contentions = new ConcurrentHashMap<>();
+  private final AtomicBoolean evicting = new AtomicBoolean();
+
+  public <T> T execute(Long variantId, Supplier<T> operation) {
+    return execute(List.of(variantId), operation);
+  }
+
+  public <T> T execute(Collection<Long> variantIds, Supplier<T> operation) {
+    // Retrying inside a caller's transaction is pointless, it is already marked rollback-only.
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return operation.get();
+    }
+    var sortedIds = variantIds.stream().distinct().sorted().toList();
+    var tracked = sortedIds.stream()
+        .map(variantId -> contentions.computeIfAbsent(variantId, VariantContention::new))
+        .toList();
+    if (contentions.size() > properties.getMaxTrackedVariants()) {
+      evictColdest();
+    }
+    for (int attempt = 1; ; attempt++) {
+      boolean pessimistic = sortedIds.size() > 1 && tracked.stream().anyMatch(VariantContention::isPessimistic);
+      try {
+        var result = pessimistic ? lockAndRun(sortedIds, operation) : operation.get();
+        tracked.forEach(contention -> contention.record(false, properties));
+        return result;
+      } catch (ConcurrencyFailureException e) {
+        tracked.forEach(contention -> contention.record(true, properties));
+        if (attempt >= properties.getMaxAttempts()) {
+          log.warn("Giving up on variants {} after {} conflicting attempts", sortedIds, attempt);
+          throw e;
+        }
+        tracked.forEach(VariantContention::recordRetry);
+        backoff(attempt);
+      }
+    }
+  }
+
+  @Override
+  public VariantContentionResult getContention(Long variantId) {
+    var contention = contentions.get(variantId);
+    return contention == null
+        ? VariantContentionResult.builder().variantId(variantId).lockMode(LockMode.OPTIMISTIC.name()).build()
+        : toResult(contention);
+  }
+
+  @Override
+  public List<VariantContentionResult> getMostContended(int limit) {
+    return contentions.values().stream()
+        .sorted(Comparator.comparingLong(VariantContention::getConflicts).reversed())
+        .limit(limit)
+        .map(this::toResult)
+        .toList();
+  }
+
+  private <T> T lockAndRun(List<Long> variantIds, Supplier<T> operation) {
+    return transactionTemplate.execute(status -> {
+      itemVariantStockRepository.lockByVariantIds(variantIds);
+      return operation.get();
+    });
+  }
+
+  // Trims the statistics to nine tenths of the bound in one go, so the sort is paid once for every
+  // tenth of the bound in new variants. Pessimistic variants go after all optimistic ones.
+  private void evictColdest() {
+    if (!evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      int excess = contentions.size() - properties.getMaxTrackedVariants() * 9 / 10;
+      contentions.values().stream()
+          .sorted(Comparator.comparing(VariantContention::isPessimistic)
+              .thenComparingLong(VariantContention::getLastUsedNanos))
+          .limit(Math.max(excess, 0))
+          .toList()
+          .forEach(contention -> contentions.remove(contention.getVariantId(), contention));
+    } finally {
+      evicting.set(false);
+    }
+  }
+
+  private void backoff(int attempt) {
+    long ceiling = Math.min(properties.getMaxBackoff().toNanos(),
+        properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+    long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+    try {
+      Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while backing off a conflicting stock operation", e);
+    }
+  }
+
+  private VariantContentionResult toResult(VariantContention contention) {
+    return VariantContentionResult.builder()
+        .variantId(contention.getVariantId())
+        .lockMode((contention.isPessimistic() ? LockMode.PESSIMISTIC : LockMode.OPTIMISTIC).name())
+        .attempts(contention.getAttempts())
+        .conflicts(contention.getConflicts())
+        .retries(contention.getRetries())
+        .modeSwitches(contention.getModeSwitches())
+        .conflictRate(contention.getConflictRate())
+        .build();
+  }
+
+  enum LockMode {
+    OPTIMISTIC, PESSIMISTIC
+  }
+}
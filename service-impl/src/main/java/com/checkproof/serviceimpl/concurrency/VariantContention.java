@@ -0,0 +1,80 @@
+package com.checkproof.serviceimpl.concurrency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class VariantContention {
+  private final Long variantId;
+  private final LongAdder attempts = new LongAdder();
+  private final LongAdder conflicts = new LongAdder();
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder modeSwitches = new LongAdder();
+  private final AtomicLong conflictRateBits = new AtomicLong(Double.doubleToLongBits(0d));
+  private volatile boolean pessimistic;
+  private volatile long lastUsedNanos = System.nanoTime();
+
+  VariantContention(Long variantId) {
+    this.variantId = variantId;
+  }
+
+  Long getVariantId() {
+    return variantId;
+  }
+
+  boolean isPessimistic() {
+    return pessimistic;
+  }
+
+  long getAttempts() {
+    return attempts.sum();
+  }
+
+  long getConflicts() {
+    return conflicts.sum();
+  }
+
+  long getRetries() {
+    return retries.sum();
+  }
+
+  long getModeSwitches() {
+    return modeSwitches.sum();
+  }
+
+  long getLastUsedNanos() {
+    return lastUsedNanos;
+  }
+
+  double getConflictRate() {
+    return Double.longBitsToDouble(conflictRateBits.get());
+  }
+
+  void recordRetry() {
+    retries.increment();
+  }
+
+  void record(boolean conflict, ConcurrencyControlProperties properties) {
+    lastUsedNanos = System.nanoTime();
+    attempts.increment();
+    if (conflict) {
+      conflicts.increment();
+    }
+    double sample = conflict ? 1d : 0d;
+    long current;
+    double rate;
+    do {
+      current = conflictRateBits.get();
+      double previous = Double.longBitsToDouble(current);
+      rate = previous + properties.getRateSmoothing() * (sample - previous);
+    } while (!conflictRateBits.compareAndSet(current, Double.doubleToLongBits(rate)));
+
+    if (!pessimistic && rate >= properties.getPessimisticEnterRate()
+        && attempts.sum() >= properties.getMinSamples()) {
+      pessimistic = true;
+      modeSwitches.increment();
+    } else if (pessimistic && rate <= properties.getPessimisticExitRate()) {
+      pessimistic = false;
+      modeSwitches.increment();
+    }
+  }
+}
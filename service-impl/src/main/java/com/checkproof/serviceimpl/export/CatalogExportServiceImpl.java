@@ -0,0 +1,79 @@
+package com.checkproof.serviceimpl.export;
+
+import com.checkproof.repository.ItemRepository;
+import com.checkproof.repository.model.CatalogRow;
+import com.checkproof.service.CatalogExportService;
+import com.checkproof.servicemodel.CatalogItemResult;
+import com.checkproof.servicemodel.CatalogVariantResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Streams the whole catalog, item by item with its variants and stock, to a sink. Rows come off a
+ * forward-only cursor as projections, so nothing enters the persistence context and only the item
+ * being assembled is held in memory; the sink is expected to write each item out right away.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogExportServiceImpl implements CatalogExportService {
+  private final ItemRepository itemRepository;
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportCatalog(Consumer<CatalogItemResult> sink) {
+    long items = 0;
+    try (var rows = itemRepository.streamCatalog()) {
+      CatalogItemResult current = null;
+      for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+        var row = iterator.next();
+        if (current == null || !current.getId().equals(row.getItemId())) {
+          if (current != null) {
+            sink.accept(current);
+            items++;
+          }
+          current = toItem(row);
+        }
+        if (row.getVariantId() != null) {
+          current.getVariants().add(toVariant(row));
+        }
+      }
+      if (current != null) {
+        sink.accept(current);
+        items++;
+      }
+    }
+    log.info("Exported {} catalog items", items);
+    return items;
+  }
+
+  private static CatalogItemResult toItem(CatalogRow row) {
+    return CatalogItemResult.builder()
+        .id(row.getItemId())
+        .name(row.getItemName())
+        .description(row.getDescription())
+        .category(row.getCategory())
+        .variants(new ArrayList<>())
+        .build();
+  }
+
+  // A variant whose stock row is missing exports zero stock.
+  private static CatalogVariantResult toVariant(CatalogRow row) {
+    int available = row.getAvailableStock() != null ? row.getAvailableStock() : 0;
+    int allocated = row.getAllocatedStock() != null ? row.getAllocatedStock() : 0;
+    return CatalogVariantResult.builder()
+        .id(row.getVariantId())
+        .name(row.getVariantName())
+        .sku(row.getSku())
+        .price(row.getPrice())
+        .availableStock(available)
+        .allocatedStock(allocated)
+        .sellableStock(available - allocated)
+        .build();
+  }
+}
@@ -0,0 +1,15 @@
+package com.checkproof.serviceimpl.groupcommit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.group-commit")
+public class GroupCommitProperties {
+  private boolean enabled = false;
+  private Duration window = Duration.ofNanos(500_000);
+  private int maxBatchSize = 256;
+  private int queueCapacity = 4096;
+}
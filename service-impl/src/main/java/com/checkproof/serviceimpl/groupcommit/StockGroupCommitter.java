@@ -0,0 +1,206 @@
+package com.checkproof.serviceimpl.groupcommit;
+
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.model.StockDelta;
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.serviceimpl.StockLevels;
+import com.checkproof.serviceimpl.stock.StockStripes;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Group commit for single-variant stock mutations. Callers queue their mutation and wait; one
+ * committer thread gathers whatever arrives within {@code window} (or up to
+ * {@code max-batch-size} mutations) and applies it as one JDBC batch of guarded updates in one
+ * transaction, so concurrent checkouts share a commit. Every mutation has its own guard, so one
+ * failing its stock check does not affect the others; mutations that did not apply, for whatever
+ * reason, are handed back to their callers to run on their own, which also produces the usual
+ * error for them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warehouse.stock.group-commit.enabled", havingValue = "true")
+public class StockGroupCommitter {
+  private final ItemVariantStockRepository itemVariantStockRepository;
+  private final StockStripes stockStripes;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final GroupCommitProperties properties;
+
+  private BlockingQueue<PendingMutation> queue;
+  private Thread committer;
+  private volatile boolean running;
+
+  @PostConstruct
+  void start() {
+    queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    running = true;
+    committer = new Thread(this::run, "stock-group-commit");
+    committer.setDaemon(true);
+    committer.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    committer.interrupt();
+    committer.join(TimeUnit.SECONDS.toMillis(5));
+    // Whatever is still queued runs on its callers' threads.
+    var remaining = new ArrayList<PendingMutation>();
+    queue.drainTo(remaining);
+    remaining.forEach(mutation -> mutation.future().complete(Optional.empty()));
+  }
+
+  /**
+   * Applies the mutation as part of the next group commit, or through {@code individually} when
+   * it cannot be grouped (inside a caller's transaction, striped variant, full queue) or did not
+   * apply in the group.
+   */
+  public VariantStockResult submit(StockOperation operation, VariantStockSpec spec,
+      Supplier<VariantStockResult> individually) {
+    if (operation == StockOperation.SET || !running
+        || TransactionSynchronizationManager.isActualTransactionActive()
+        || stockStripes.isStriped(spec.getVariantId())) {
+      return individually.get();
+    }
+    var mutation = new PendingMutation(operation, spec, new CompletableFuture<>());
+    if (!queue.offer(mutation)) {
+      return individually.get();
+    }
+    try {
+      return mutation.future().join().orElseGet(individually);
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+  }
+
+  private void run() {
+    var batch = new ArrayList<PendingMutation>(properties.getMaxBatchSize());
+    while (running) {
+      try {
+        var first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + properties.getWindow().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+          var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        commit(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (RuntimeException e) {
+        log.error("Group commit of {} stock mutations failed unexpectedly", batch.size(), e);
+        batch.forEach(mutation -> mutation.future().complete(Optional.empty()));
+      } finally {
+        batch.clear();
+      }
+    }
+    batch.forEach(mutation -> mutation.future().complete(Optional.empty()));
+  }
+
+  void commit(List<PendingMutation> batch) {
+    Map<PendingMutation, VariantStockResult> applied;
+    try {
+      applied = transactionTemplate.execute(status -> apply(batch));
+    } catch (RuntimeException e) {
+      // Nothing of the batch was committed; each caller retries its mutation on its own.
+      log.warn("Group commit of {} stock mutations failed, applying them individually", batch.size(), e);
+      applied = Map.of();
+    }
+    for (var mutation : batch) {
+      mutation.future().complete(Optional.ofNullable(applied.get(mutation)));
+    }
+  }
+
+  // Applied in variant id order, like multi-line operations, so row locks are always taken in
+  // the same order; the sort is stable, so mutations of one variant keep their arrival order.
+  private Map<PendingMutation, VariantStockResult> apply(List<PendingMutation> batch) {
+    var ordered = batch.stream()
+        .sorted(Comparator.comparing(mutation -> mutation.spec().getVariantId()))
+        .toList();
+    var counts = itemVariantStockRepository.applyDeltas(ordered.stream().map(StockGroupCommitter::toDelta).toList());
+
+    var appliedMutations = new ArrayList<PendingMutation>(ordered.size());
+    for (int i = 0; i < ordered.size(); i++) {
+      if (counts[i] > 0) {
+        appliedMutations.add(ordered.get(i));
+      }
+    }
+    if (appliedMutations.isEmpty()) {
+      return Map.of();
+    }
+    var variantIds = appliedMutations.stream().map(mutation -> mutation.spec().getVariantId()).distinct().toList();
+    var current = new HashMap<Long, StockLevel>();
+    itemVariantStockRepository.findLevelsByVariantIds(variantIds).forEach(level -> current.put(level.getVariantId(), level));
+
+    // Only the final level of each row is read back; the level after each mutation is derived by
+    // undoing the later mutations of the same variant, each of which bumped the version by one.
+    var levels = new StockLevel[appliedMutations.size()];
+    for (int i = appliedMutations.size() - 1; i >= 0; i--) {
+      var variantId = appliedMutations.get(i).spec().getVariantId();
+      var level = current.get(variantId);
+      var delta = toDelta(appliedMutations.get(i));
+      levels[i] = level;
+      current.put(variantId, new StockLevel(variantId, level.getAvailableStock() - delta.getAvailableDelta(),
+          level.getAllocatedStock() - delta.getAllocatedDelta(), level.getVersion() - 1));
+    }
+    var results = new HashMap<PendingMutation, VariantStockResult>();
+    for (int i = 0; i < appliedMutations.size(); i++) {
+      var mutation = appliedMutations.get(i);
+      eventPublisher.publishEvent(new StockChangedEvent(mutation.spec().getVariantId(), mutation.operation(),
+          mutation.spec().getQuantity(), levels[i].getAvailableStock(), levels[i].getAllocatedStock(),
+          levels[i].getVersion()));
+      results.put(mutation, StockLevels.toResult(levels[i]));
+    }
+    return results;
+  }
+
+  private static StockDelta toDelta(PendingMutation mutation) {
+    var variantId = mutation.spec().getVariantId();
+    int quantity = mutation.spec().getQuantity();
+    return switch (mutation.operation()) {
+      case INCREASE -> new StockDelta(variantId, quantity, 0, Integer.MIN_VALUE, Integer.MIN_VALUE);
+      case DECREASE -> new StockDelta(variantId, -quantity, 0, quantity, Integer.MIN_VALUE);
+      case RESERVE -> new StockDelta(variantId, 0, quantity, quantity, Integer.MIN_VALUE);
+      case COMMIT -> new StockDelta(variantId, -quantity, -quantity, Integer.MIN_VALUE, quantity);
+      case RELEASE -> new StockDelta(variantId, 0, -quantity, Integer.MIN_VALUE, quantity);
+      case SET -> throw new IllegalArgumentException("Setting stock is not a delta");
+    };
+  }
+
+  record PendingMutation(StockOperation operation, VariantStockSpec spec,
+      CompletableFuture<Optional<VariantStockResult>> future) {
+  }
+}
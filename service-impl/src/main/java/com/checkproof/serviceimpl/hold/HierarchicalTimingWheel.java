@@ -0,0 +1,105 @@
+package com.checkproof.serviceimpl.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} slots of one tick each, and every
+ * further level has slots as wide as a full turn of the level below. A deadline is placed on
+ * the lowest level whose span covers it, and cascades down a level each time the wheel reaches
+ * its slot, so scheduling is O(1) and each advance only touches the slots that became due.
+ * Deadlines are rounded up to whole ticks, so nothing is returned early. Not thread-safe on its
+ * own; callers synchronise.
+ */
+final class HierarchicalTimingWheel<T> {
+  private final long tickMillis;
+  private final int wheelSize;
+  private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+  private final List<T> overdue = new ArrayList<>();
+  private long currentTick;
+  private int size;
+
+  HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+    if (tickMillis <= 0 || wheelSize < 2) {
+      throw new IllegalArgumentException("Tick must be positive and the wheel must have at least 2 slots");
+    }
+    this.tickMillis = tickMillis;
+    this.wheelSize = wheelSize;
+    this.currentTick = startMillis / tickMillis;
+  }
+
+  void schedule(T item, long deadlineMillis) {
+    place(new Entry<>(item, -Math.floorDiv(-deadlineMillis, tickMillis)));
+    size++;
+  }
+
+  /** Moves the wheel up to {@code nowMillis} and returns everything that became due. */
+  List<T> advance(long nowMillis) {
+    var due = new ArrayList<>(overdue);
+    overdue.clear();
+    long targetTick = nowMillis / tickMillis;
+    while (currentTick < targetTick) {
+      currentTick++;
+      // Cascade from the top so entries can fall through several levels in one tick.
+      for (int level = levels.size() - 1; level > 0; level--) {
+        long span = span(level);
+        if (currentTick % span == 0) {
+          var slot = levels.get(level)[(int) ((currentTick / span) % wheelSize)];
+          var cascading = new ArrayList<>(slot);
+          slot.clear();
+          cascading.forEach(this::place);
+        }
+      }
+      if (!levels.isEmpty()) {
+        var slot = levels.get(0)[(int) (currentTick % wheelSize)];
+        slot.forEach(entry -> due.add(entry.item()));
+        slot.clear();
+      }
+      due.addAll(overdue);
+      overdue.clear();
+    }
+    size -= due.size();
+    return due;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void place(Entry<T> entry) {
+    long delay = entry.deadlineTick() - currentTick;
+    if (delay <= 0) {
+      overdue.add(entry.item());
+      return;
+    }
+    int level = 0;
+    while (delay >= span(level + 1)) {
+      level++;
+    }
+    level(level)[(int) ((entry.deadlineTick() / span(level)) % wheelSize)].add(entry);
+  }
+
+  // Ticks covered by one slot of the given level.
+  private long span(int level) {
+    long span = 1;
+    for (int i = 0; i < level; i++) {
+      span = Math.multiplyExact(span, wheelSize);
+    }
+    return span;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Entry<T>>[] level(int level) {
+    while (levels.size() <= level) {
+      List<Entry<T>>[] slots = new List[wheelSize];
+      for (int i = 0; i < wheelSize; i++) {
+        slots[i] = new ArrayList<>();
+      }
+      levels.add(slots);
+    }
+    return levels.get(level);
+  }
+
+  private record Entry<T>(T item, long deadlineTick) {
+  }
+}
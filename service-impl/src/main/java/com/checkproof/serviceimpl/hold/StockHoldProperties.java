@@ -0,0 +1,17 @@
+package com.checkproof.serviceimpl.hold;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.holds")
+public class StockHoldProperties {
+  private Duration defaultTtl = Duration.ofMinutes(15);
+  private Duration maxTtl = Duration.ofHours(24);
+  private Duration tickDuration = Duration.ofMillis(100);
+  private int wheelSize = 64;
+  private int expiryBatchSize = 200;
+  private Duration expiryRetryDelay = Duration.ofSeconds(5);
+}
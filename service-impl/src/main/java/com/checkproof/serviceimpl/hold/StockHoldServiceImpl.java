@@ -0,0 +1,177 @@
+package com.checkproof.serviceimpl.hold;
+
+import com.checkproof.entity.StockHold;
+import com.checkproof.entity.StockHoldStatus;
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.StockHoldRepository;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockHoldService;
+import com.checkproof.servicemodel.StockHoldResult;
+import com.checkproof.servicemodel.StockHoldSpec;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.serviceimpl.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reservations as holds with an expiry. Every active hold's deadline sits on a hierarchical
+ * timing wheel; expired holds are released in batches as the wheel advances, and the wheel is
+ * rebuilt from the active holds on startup, so the table is never scanned for expired rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockHoldServiceImpl implements StockHoldService {
+  private final StockHoldRepository stockHoldRepository;
+  private final ItemVariantRepository itemVariantRepository;
+  private final ItemVariantService itemVariantService;
+  private final StockConverter stockConverter;
+  private final TransactionTemplate transactionTemplate;
+  private final StockHoldProperties properties;
+
+  private HierarchicalTimingWheel<Long> expiryWheel;
+
+  @PostConstruct
+  void loadActiveHolds() {
+    expiryWheel = new HierarchicalTimingWheel<>(properties.getTickDuration().toMillis(),
+        properties.getWheelSize(), System.currentTimeMillis());
+    var deadlines = stockHoldRepository.findDeadlinesByStatus(StockHoldStatus.ACTIVE);
+    deadlines.forEach(deadline -> scheduleExpiry(deadline.getHoldId(), deadline.getExpiresAt()));
+    log.info("Scheduled expiry of {} active stock holds", deadlines.size());
+  }
+
+  @Override
+  @Transactional
+  public StockHoldResult placeHold(StockHoldSpec spec) {
+    var ttl = spec.getTtl() != null ? spec.getTtl() : properties.getDefaultTtl();
+    if (ttl.compareTo(properties.getMaxTtl()) > 0) {
+      throw new IllegalArgumentException(
+          String.format("Hold TTL cannot exceed %d seconds", properties.getMaxTtl().toSeconds()));
+    }
+    var variant = itemVariantRepository.findById(spec.getVariantId())
+        .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
+    itemVariantService.reserveStock(new VariantStockSpec(spec.getVariantId(), spec.getQuantity()));
+
+    var hold = new StockHold();
+    hold.setItemVariant(variant);
+    hold.setQuantity(spec.getQuantity());
+    hold.setStatus(StockHoldStatus.ACTIVE);
+    hold.setExpiresAt(LocalDateTime.now().plus(ttl));
+    var saved = stockHoldRepository.save(hold);
+    TransactionHooks.afterCommit(() -> scheduleExpiry(saved.getId(), saved.getExpiresAt()));
+    return stockConverter.toStockHoldResult(saved);
+  }
+
+  @Override
+  public StockHoldResult getHold(Long holdId) {
+    return stockConverter.toStockHoldResult(findHold(holdId));
+  }
+
+  @Override
+  @Transactional
+  public StockHoldResult commitHold(Long holdId) {
+    if (stockHoldRepository.commitIfActive(holdId, LocalDateTime.now()) == 0) {
+      throw notActive(findHold(holdId));
+    }
+    var hold = findHold(holdId);
+    itemVariantService.commitStock(new VariantStockSpec(hold.getItemVariant().getId(), hold.getQuantity()));
+    return stockConverter.toStockHoldResult(hold);
+  }
+
+  @Override
+  @Transactional
+  public StockHoldResult releaseHold(Long holdId) {
+    if (stockHoldRepository.releaseIfActive(holdId) == 0) {
+      throw notActive(findHold(holdId));
+    }
+    var hold = findHold(holdId);
+    itemVariantService.releaseStock(new VariantStockSpec(hold.getItemVariant().getId(), hold.getQuantity()));
+    return stockConverter.toStockHoldResult(hold);
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.stock.holds.tick-duration:100ms}")
+  public void expireDueHolds() {
+    List<Long> due;
+    synchronized (this) {
+      due = expiryWheel.advance(System.currentTimeMillis());
+    }
+    int batchSize = properties.getExpiryBatchSize();
+    for (int from = 0; from < due.size(); from += batchSize) {
+      var batch = due.subList(from, Math.min(due.size(), from + batchSize));
+      try {
+        transactionTemplate.executeWithoutResult(status -> expire(batch));
+      } catch (RuntimeException e) {
+        log.warn("Expiring {} stock holds as one batch failed, expiring them one by one", batch.size(), e);
+        batch.forEach(this::expireAlone);
+      }
+    }
+  }
+
+  // Holds committed or released in the meantime are skipped by lockExpired, which is how
+  // entries on the wheel are cancelled. A hold that is still active but not yet due, because the
+  // system clock was set back, goes back on the wheel.
+  void expire(List<Long> holdIds) {
+    var holds = stockHoldRepository.lockExpired(holdIds, LocalDateTime.now());
+    if (holds.size() < holdIds.size()) {
+      rescheduleNotDue(holdIds, holds);
+    }
+    if (holds.isEmpty()) {
+      return;
+    }
+    stockHoldRepository.expire(holds.stream().map(StockHold::getId).toList());
+    itemVariantService.releaseStockLines(holds.stream()
+        .map(hold -> new VariantStockSpec(hold.getItemVariant().getId(), hold.getQuantity()))
+        .toList());
+    log.debug("Expired {} stock holds", holds.size());
+  }
+
+  private void rescheduleNotDue(List<Long> holdIds, List<StockHold> expired) {
+    var expiredIds = expired.stream().map(StockHold::getId).collect(Collectors.toSet());
+    var notDue = holdIds.stream().filter(holdId -> !expiredIds.contains(holdId)).toList();
+    stockHoldRepository.findDeadlinesByIdsAndStatus(notDue, StockHoldStatus.ACTIVE)
+        .forEach(deadline -> scheduleExpiry(deadline.getHoldId(), deadline.getExpiresAt()));
+  }
+
+  private void expireAlone(Long holdId) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> expire(List.of(holdId)));
+    } catch (IllegalArgumentException e) {
+      // The allocation this hold stood for is gone (e.g. stock was set manually), so only the
+      // hold itself can be expired.
+      log.error("Releasing stock of expired hold {} failed, expiring the hold alone", holdId, e);
+      transactionTemplate.executeWithoutResult(status -> stockHoldRepository.expire(List.of(holdId)));
+    } catch (RuntimeException e) {
+      log.warn("Expiring stock hold {} failed, retrying in {}", holdId, properties.getExpiryRetryDelay(), e);
+      scheduleExpiry(holdId, LocalDateTime.now().plus(properties.getExpiryRetryDelay()));
+    }
+  }
+
+  // Rounded up to the next millisecond, so a hold is never handed over before its deadline.
+  private synchronized void scheduleExpiry(Long holdId, LocalDateTime expiresAt) {
+    var deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant();
+    long deadlineMillis = deadline.toEpochMilli() + (deadline.getNano() % 1_000_000 > 0 ? 1 : 0);
+    expiryWheel.schedule(holdId, deadlineMillis);
+  }
+
+  private StockHold findHold(Long holdId) {
+    return stockHoldRepository.findById(holdId)
+        .orElseThrow(() -> new EntityNotFoundException("stock hold not found"));
+  }
+
+  private IllegalArgumentException notActive(StockHold hold) {
+    var state = hold.getStatus() == StockHoldStatus.ACTIVE ? "expired" : hold.getStatus().name().toLowerCase();
+    return new IllegalArgumentException(String.format("Hold %d is %s", hold.getId(), state));
+  }
+}
@@ -0,0 +1,51 @@
+package com.checkproof.serviceimpl.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded cache that evicts the least recently used entry when full and drops entries
+ * once they expire. Thread-safe.
+ */
+final class ExpiringLruCache<K, V> {
+  private final LinkedHashMap<K, Entry<V>> entries;
+
+  ExpiringLruCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Cache capacity must be positive");
+    }
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  synchronized V get(K key, long nowMillis) {
+    var entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAtMillis() <= nowMillis) {
+      entries.remove(key);
+      return null;
+    }
+    return entry.value();
+  }
+
+  synchronized void put(K key, V value, long expiresAtMillis) {
+    entries.put(key, new Entry<>(value, expiresAtMillis));
+  }
+
+  synchronized void remove(K key) {
+    entries.remove(key);
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private record Entry<V>(V value, long expiresAtMillis) {
+  }
+}
@@ -0,0 +1,15 @@
+package com.checkproof.serviceimpl.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.idempotency")
+public class IdempotencyProperties {
+  private Duration ttl = Duration.ofHours(24);
+  private Duration inFlightTimeout = Duration.ofSeconds(30);
+  private int cacheSize = 10_000;
+  private Duration purgeInterval = Duration.ofMinutes(10);
+}
@@ -0,0 +1,138 @@
+package com.checkproof.serviceimpl.idempotency;
+
+import com.checkproof.entity.IdempotencyRecord;
+import com.checkproof.repository.IdempotencyRecordRepository;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.exception.IdempotencyKeyInUseException;
+import com.checkproof.servicemodel.IdempotentResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Idempotency keys of stock mutations. A key is claimed by inserting its row, so a unique
+ * constraint decides between concurrent requests with the same key; the winner's response is
+ * recorded on that row and kept in a bounded in-memory cache, so replays are usually answered
+ * without touching the database at all. Keys of requests that did not succeed are given up, so
+ * they can be retried. A claim still in flight after the in-flight timeout is taken to belong to a
+ * request that died before it could record or give up the key, and is taken over.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyStore implements IdempotencyService {
+  private final IdempotencyRecordRepository idempotencyRecordRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final IdempotencyProperties properties;
+
+  private ExpiringLruCache<String, IdempotentResponse> responses;
+
+  @PostConstruct
+  void createCache() {
+    responses = new ExpiringLruCache<>(properties.getCacheSize());
+  }
+
+  @Override
+  public Optional<IdempotentResponse> claim(String key, String fingerprint) {
+    var cached = responses.get(key, System.currentTimeMillis());
+    if (cached != null) {
+      return Optional.of(replay(key, cached, fingerprint));
+    }
+    if (insert(key, fingerprint)) {
+      return Optional.empty();
+    }
+    var existing = idempotencyRecordRepository.findByIdempotencyKey(key);
+    var now = LocalDateTime.now();
+    var claimedBefore = now.minus(properties.getInFlightTimeout());
+    if (existing.isPresent() && isReclaimable(existing.get(), now, claimedBefore)) {
+      // Expired but not purged yet, or claimed by a request that never finished: the key is free
+      // again.
+      transactionTemplate.executeWithoutResult(status ->
+          idempotencyRecordRepository.deleteReclaimable(key, now, claimedBefore));
+      if (insert(key, fingerprint)) {
+        return Optional.empty();
+      }
+      existing = idempotencyRecordRepository.findByIdempotencyKey(key);
+    }
+    var record = existing.filter(r -> r.getResponseStatus() != null)
+        .orElseThrow(() -> inUse(key));
+    var response = new IdempotentResponse(record.getFingerprint(), record.getResponseStatus(),
+        record.getContentType(), record.getResponseBody());
+    responses.put(key, response, toMillis(record.getExpiresAt()));
+    return Optional.of(replay(key, response, fingerprint));
+  }
+
+  @Override
+  @Transactional
+  public void complete(String key, IdempotentResponse response) {
+    if (idempotencyRecordRepository.complete(key, response.getStatus(), response.getContentType(),
+        response.getBody()) == 0) {
+      log.warn("Idempotency key {} was no longer in flight when its response was recorded", key);
+      return;
+    }
+    var expiresAt = System.currentTimeMillis() + properties.getTtl().toMillis();
+    responses.put(key, response, expiresAt);
+  }
+
+  @Override
+  @Transactional
+  public void abandon(String key) {
+    idempotencyRecordRepository.deleteInFlight(key);
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.idempotency.purge-interval:10m}")
+  public void purgeExpired() {
+    var purged = transactionTemplate.execute(status ->
+        idempotencyRecordRepository.deleteAllExpired(LocalDateTime.now()));
+    if (purged != null && purged > 0) {
+      log.info("Purged {} expired idempotency keys", purged);
+    }
+  }
+
+  private static boolean isReclaimable(IdempotencyRecord record, LocalDateTime now, LocalDateTime claimedBefore) {
+    return !record.getExpiresAt().isAfter(now)
+        || (record.getResponseStatus() == null && !record.getClaimedAt().isAfter(claimedBefore));
+  }
+
+  private boolean insert(String key, String fingerprint) {
+    var now = LocalDateTime.now();
+    var record = new IdempotencyRecord();
+    record.setIdempotencyKey(key);
+    record.setFingerprint(fingerprint);
+    record.setClaimedAt(now);
+    record.setExpiresAt(now.plus(properties.getTtl()));
+    try {
+      idempotencyRecordRepository.saveAndFlush(record);
+      return true;
+    } catch (DataIntegrityViolationException e) {
+      return false;
+    }
+  }
+
+  private IdempotentResponse replay(String key, IdempotentResponse response, String fingerprint) {
+    if (!response.getFingerprint().equals(fingerprint)) {
+      throw new IllegalArgumentException(
+          String.format("Idempotency key %s was already used for a different request", key));
+    }
+    log.debug("Replaying recorded response for idempotency key {}", key);
+    return response;
+  }
+
+  private IdempotencyKeyInUseException inUse(String key) {
+    return new IdempotencyKeyInUseException(
+        String.format("A request with idempotency key %s is still in progress", key));
+  }
+
+  private static long toMillis(LocalDateTime dateTime) {
+    return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,161 @@
+package com.checkproof.serviceimpl.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped journal file of fixed-size records, named after the sequence number of its
+ * first record. Record layout (little endian, 40 bytes):
+ *
+ * <pre>
+ *   0  long sequence      (written last, 0 marks the unused tail of the segment)
+ *   8  long timestamp     (epoch millis, never decreasing)
+ *  16  long variantId
+ *  24  int  operation     (StockOperation ordinal)
+ *  28  int  quantity
+ *  32  int  availableStock
+ *  36  int  allocatedStock
+ * </pre>
+ */
+final class JournalSegment {
+  static final int RECORD_SIZE = 40;
+  private static final String SUFFIX = ".journal";
+
+  private final Path path;
+  private final long firstSequence;
+  private final int capacity;
+  private final MappedByteBuffer buffer;
+
+  private JournalSegment(Path path, long firstSequence, int capacity, MappedByteBuffer buffer) {
+    this.path = path;
+    this.firstSequence = firstSequence;
+    this.capacity = capacity;
+    this.buffer = buffer;
+  }
+
+  static JournalSegment create(Path directory, long firstSequence, int capacity) throws IOException {
+    return map(directory.resolve(String.format("%020d%s", firstSequence, SUFFIX)), firstSequence, capacity,
+        FileChannel.MapMode.READ_WRITE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  static JournalSegment openForWrite(Path path) throws IOException {
+    return map(path, firstSequenceOf(path), capacityOf(path), FileChannel.MapMode.READ_WRITE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  static JournalSegment openForRead(Path path) throws IOException {
+    return map(path, firstSequenceOf(path), capacityOf(path), FileChannel.MapMode.READ_ONLY, StandardOpenOption.READ);
+  }
+
+  static boolean isSegment(Path path) {
+    return path.getFileName().toString().endsWith(SUFFIX);
+  }
+
+  static long firstSequenceOf(Path path) {
+    var name = path.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+  }
+
+  private static int capacityOf(Path path) throws IOException {
+    return (int) (path.toFile().length() / RECORD_SIZE);
+  }
+
+  private static JournalSegment map(Path path, long firstSequence, int capacity, FileChannel.MapMode mode,
+      StandardOpenOption... options) throws IOException {
+    try (var channel = FileChannel.open(path, options)) {
+      var buffer = channel.map(mode, 0, (long) capacity * RECORD_SIZE);
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      return new JournalSegment(path, firstSequence, capacity, buffer);
+    }
+  }
+
+  void write(int index, long sequence, long timestamp, long variantId, int operation, int quantity,
+      int availableStock, int allocatedStock) {
+    int offset = index * RECORD_SIZE;
+    buffer.putLong(offset + 8, timestamp);
+    buffer.putLong(offset + 16, variantId);
+    buffer.putInt(offset + 24, operation);
+    buffer.putInt(offset + 28, quantity);
+    buffer.putInt(offset + 32, availableStock);
+    buffer.putInt(offset + 36, allocatedStock);
+    buffer.putLong(offset, sequence);
+  }
+
+  /** Number of records written, found by binary search for the first unused slot. */
+  int countRecords() {
+    int low = 0;
+    int high = capacity;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sequence(mid) != 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Index of the first of {@code count} records stamped at or after {@code timestamp}. */
+  int firstIndexAtOrAfter(long timestamp, int count) {
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestamp(mid) < timestamp) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  long sequence(int index) {
+    return buffer.getLong(index * RECORD_SIZE);
+  }
+
+  long timestamp(int index) {
+    return buffer.getLong(index * RECORD_SIZE + 8);
+  }
+
+  long variantId(int index) {
+    return buffer.getLong(index * RECORD_SIZE + 16);
+  }
+
+  int operation(int index) {
+    return buffer.getInt(index * RECORD_SIZE + 24);
+  }
+
+  int quantity(int index) {
+    return buffer.getInt(index * RECORD_SIZE + 28);
+  }
+
+  int availableStock(int index) {
+    return buffer.getInt(index * RECORD_SIZE + 32);
+  }
+
+  int allocatedStock(int index) {
+    return buffer.getInt(index * RECORD_SIZE + 36);
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  long getFirstSequence() {
+    return firstSequence;
+  }
+
+  int getCapacity() {
+    return capacity;
+  }
+}
@@ -0,0 +1,191 @@
+package com.checkproof.serviceimpl.journal;
+
+import com.checkproof.service.StockJournalService;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockMovementResult;
+import com.checkproof.servicemodel.StockMovementsSpec;
+import com.checkproof.servicemodel.StockOperation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only journal of stock movements. Every committed stock mutation is written as a
+ * fixed-size record into the active memory-mapped segment, so an append is a handful of stores
+ * into the page cache; a new segment is started when the active one is full, and segments are
+ * forced to disk every {@code force-interval}. Records carry a gapless sequence and never
+ * decreasing timestamps, so readers binary search to the start of a time range and scan from
+ * there.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockJournal implements StockJournalService {
+  private static final int DEFAULT_READ_LIMIT = 1000;
+
+  private final StockJournalProperties properties;
+
+  // Oldest first; the last one is the active segment.
+  private final List<JournalSegment> segments = new CopyOnWriteArrayList<>();
+  private volatile JournalSegment active;
+  private int activeCount;
+  private long lastTimestamp;
+  // Highest sequence whose record is completely written; readers never look past it.
+  private volatile long lastSequence;
+
+  @PostConstruct
+  void open() throws IOException {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    var directory = Path.of(properties.getDirectory());
+    Files.createDirectories(directory);
+    List<Path> paths;
+    try (var files = Files.list(directory)) {
+      paths = files.filter(JournalSegment::isSegment)
+          .sorted(Comparator.comparingLong(JournalSegment::firstSequenceOf))
+          .toList();
+    }
+    for (int i = 0; i < paths.size() - 1; i++) {
+      segments.add(JournalSegment.openForRead(paths.get(i)));
+    }
+    if (paths.isEmpty()) {
+      startSegment(1);
+    } else {
+      var last = JournalSegment.openForWrite(paths.get(paths.size() - 1));
+      segments.add(last);
+      active = last;
+      activeCount = last.countRecords();
+      lastSequence = last.getFirstSequence() + activeCount - 1;
+      lastTimestamp = activeCount > 0 ? last.timestamp(activeCount - 1) : 0;
+    }
+    log.info("Opened stock journal in {} at sequence {} ({} segments)", directory.toAbsolutePath(),
+        lastSequence, segments.size());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onStockChanged(StockChangedEvent event) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    try {
+      append(event);
+    } catch (IOException | RuntimeException e) {
+      // The mutation is already committed; losing its journal record must not fail the request.
+      log.error("Journaling {} of variant {} failed", event.getOperation(), event.getVariantId(), e);
+    }
+  }
+
+  synchronized void append(StockChangedEvent event) throws IOException {
+    if (activeCount == active.getCapacity()) {
+      active.force();
+      startSegment(lastSequence + 1);
+    }
+    long sequence = lastSequence + 1;
+    long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+    active.write(activeCount, sequence, timestamp, event.getVariantId(), event.getOperation().ordinal(),
+        event.getQuantity(), event.getAvailableStock(), event.getAllocatedStock());
+    activeCount++;
+    lastTimestamp = timestamp;
+    lastSequence = sequence;
+  }
+
+  @Override
+  public List<StockMovementResult> findMovements(StockMovementsSpec spec) {
+    if (!properties.isEnabled()) {
+      throw new IllegalArgumentException("The stock journal is disabled");
+    }
+    int limit = spec.getLimit() != null ? spec.getLimit() : DEFAULT_READ_LIMIT;
+    if (limit < 1 || limit > properties.getMaxReadLimit()) {
+      throw new IllegalArgumentException(
+          String.format("Limit must be between 1 and %d", properties.getMaxReadLimit()));
+    }
+    long from = spec.getFrom() != null ? spec.getFrom().toEpochMilli() : Long.MIN_VALUE;
+    long to = spec.getTo() != null ? spec.getTo().toEpochMilli() : Long.MAX_VALUE;
+    long last = lastSequence;
+    var snapshot = List.copyOf(segments);
+
+    // Segments are in time order, so the range starts in the last segment that begins before it.
+    int start = 0;
+    for (int i = snapshot.size() - 1; i > 0; i--) {
+      var segment = snapshot.get(i);
+      if (recordsOf(segment, last) > 0 && segment.timestamp(0) <= from) {
+        start = i;
+        break;
+      }
+    }
+    var movements = new ArrayList<StockMovementResult>();
+    for (int i = start; i < snapshot.size(); i++) {
+      var segment = snapshot.get(i);
+      int count = recordsOf(segment, last);
+      for (int index = segment.firstIndexAtOrAfter(from, count); index < count; index++) {
+        if (segment.timestamp(index) > to) {
+          return movements;
+        }
+        if (spec.getVariantId() == null || segment.variantId(index) == spec.getVariantId()) {
+          movements.add(toResult(segment, index));
+          if (movements.size() == limit) {
+            return movements;
+          }
+        }
+      }
+    }
+    return movements;
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.stock.journal.force-interval:1s}")
+  public void force() {
+    var segment = active;
+    if (segment != null) {
+      segment.force();
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    force();
+  }
+
+  private void startSegment(long firstSequence) throws IOException {
+    int capacity = Math.toIntExact(properties.getSegmentSize().toBytes() / JournalSegment.RECORD_SIZE);
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Journal segments must hold at least one record");
+    }
+    var segment = JournalSegment.create(Path.of(properties.getDirectory()), firstSequence, capacity);
+    segments.add(segment);
+    active = segment;
+    activeCount = 0;
+  }
+
+  private static int recordsOf(JournalSegment segment, long lastSequence) {
+    return (int) Math.min(segment.getCapacity(), Math.max(0, lastSequence - segment.getFirstSequence() + 1));
+  }
+
+  private static StockMovementResult toResult(JournalSegment segment, int index) {
+    var operations = StockOperation.values();
+    int operation = segment.operation(index);
+    return StockMovementResult.builder()
+        .sequence(segment.sequence(index))
+        .variantId(segment.variantId(index))
+        .operation(operation < operations.length ? operations[operation].name() : "UNKNOWN")
+        .quantity(segment.quantity(index))
+        .availableStock(segment.availableStock(index))
+        .allocatedStock(segment.allocatedStock(index))
+        .timestamp(new Date(segment.timestamp(index)))
+        .build();
+  }
+}
@@ -0,0 +1,17 @@
+package com.checkproof.serviceimpl.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.journal")
+public class StockJournalProperties {
+  private boolean enabled = true;
+  private String directory = "data/stock-journal";
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+  private Duration forceInterval = Duration.ofSeconds(1);
+  private int maxReadLimit = 10_000;
+}
@@ -0,0 +1,59 @@
+package com.checkproof.serviceimpl.outbox;
+
+import com.checkproof.service.MessagePublisher;
+import com.checkproof.servicemodel.OutboundMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stand-in broker that appends every message as one JSON line to a local file, with its payload
+ * embedded as JSON. A batch is one append.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warehouse.outbox.publisher", havingValue = "file", matchIfMissing = true)
+public class FileMessagePublisher implements MessagePublisher {
+  private final ObjectMapper objectMapper;
+  private final OutboxProperties properties;
+
+  private Path file;
+
+  @PostConstruct
+  void open() throws IOException {
+    file = Path.of(properties.getFile());
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+  }
+
+  @Override
+  public synchronized void publish(List<OutboundMessage> messages) {
+    var lines = new StringBuilder();
+    try {
+      for (var message : messages) {
+        var line = objectMapper.createObjectNode()
+            .put("id", message.getId())
+            .put("topic", message.getTopic())
+            .put("key", message.getKey())
+            .set("payload", objectMapper.readTree(message.getPayload()));
+        lines.append(objectMapper.writeValueAsString(line)).append('\n');
+      }
+      Files.writeString(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Outbox message is not valid JSON", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
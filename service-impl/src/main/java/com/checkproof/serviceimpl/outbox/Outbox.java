@@ -0,0 +1,71 @@
+package com.checkproof.serviceimpl.outbox;
+
+import com.checkproof.entity.OutboxMessage;
+import com.checkproof.repository.OutboxMessageRepository;
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.servicemodel.CatalogChangedEvent;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Writes catalog and stock events into outbox_messages in the transaction that raised them, so
+ * an event is relayed exactly when its change committed and the request never waits for a
+ * broker. Catalog events are keyed by item id, stock events by variant id.
+ */
+@Service
+@RequiredArgsConstructor
+public class Outbox {
+  static final String CATALOG_TOPIC = "catalog";
+  static final String STOCK_TOPIC = "stock";
+
+  private final OutboxMessageRepository outboxMessageRepository;
+  private final ObjectMapper objectMapper;
+  private final OutboxProperties properties;
+
+  // Raised by the write methods of ItemServiceImpl and ItemVariantServiceImpl, inside their
+  // transactions.
+  @EventListener
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    if (properties.isEnabled() && TransactionSynchronizationManager.isActualTransactionActive()) {
+      outboxMessageRepository.save(toMessage(CATALOG_TOPIC, event.getItemId(), event));
+    }
+  }
+
+  // The in-memory engine mutates outside of a transaction and writes its events when it flushes.
+  @EventListener
+  public void onStockChanged(StockChangedEvent event) {
+    if (properties.isEnabled() && TransactionSynchronizationManager.isActualTransactionActive()) {
+      outboxMessageRepository.save(toMessage(STOCK_TOPIC, event.getVariantId(), event));
+    }
+  }
+
+  /** Stock events for flushed counters, which carry no operation, quantity or version. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void writeStockCounters(List<StockCounters> counters) {
+    if (!properties.isEnabled()) {
+      return;
+    }
+    outboxMessageRepository.saveAll(counters.stream()
+        .map(level -> toMessage(STOCK_TOPIC, level.getVariantId(), new StockChangedEvent(level.getVariantId(),
+            null, null, level.getAvailableStock(), level.getAllocatedStock(), null)))
+        .toList());
+  }
+
+  private OutboxMessage toMessage(String topic, Long key, Object event) {
+    try {
+      return new OutboxMessage(topic, String.valueOf(key), objectMapper.writeValueAsString(event));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
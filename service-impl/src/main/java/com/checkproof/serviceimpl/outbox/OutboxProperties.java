@@ -0,0 +1,16 @@
+package com.checkproof.serviceimpl.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.outbox")
+public class OutboxProperties {
+  private boolean enabled = true;
+  private int batchSize = 500;
+  private Duration pollInterval = Duration.ofMillis(200);
+  private String publisher = "file";
+  private String file = "data/outbox/messages.ndjson";
+}
@@ -0,0 +1,85 @@
+package com.checkproof.serviceimpl.outbox;
+
+import com.checkproof.entity.OutboxMessage;
+import com.checkproof.helper.converter.OutboxConverter;
+import com.checkproof.repository.OutboxMessageRepository;
+import com.checkproof.service.MessagePublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves outbox messages to the {@link MessagePublisher}. Each round claims up to
+ * {@code batch-size} of the oldest messages with SKIP LOCKED, publishes them as one batch and
+ * deletes them in one statement, all in one transaction; a failed publish rolls the claim back
+ * and the batch is retried after {@code poll-interval}. Full batches are relayed back to back,
+ * so throughput grows with the batch size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warehouse.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+  private final OutboxMessageRepository outboxMessageRepository;
+  private final OutboxConverter outboxConverter;
+  private final MessagePublisher messagePublisher;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboxProperties properties;
+
+  private Thread relay;
+  private volatile boolean running;
+
+  @PostConstruct
+  void start() {
+    running = true;
+    relay = new Thread(this::run, "outbox-relay");
+    relay.setDaemon(true);
+    relay.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    relay.interrupt();
+    relay.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private void run() {
+    while (running) {
+      try {
+        if (relayBatch() < properties.getBatchSize()) {
+          Thread.sleep(properties.getPollInterval().toMillis());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  }
+
+  /** Relays one batch and returns its size, 0 when there was nothing to relay or it failed. */
+  int relayBatch() {
+    try {
+      var relayed = transactionTemplate.execute(status -> {
+        var claimed = outboxMessageRepository.claimBatch(Limit.of(properties.getBatchSize()));
+        if (claimed.isEmpty()) {
+          return 0;
+        }
+        messagePublisher.publish(claimed.stream().map(outboxConverter::toOutboundMessage).toList());
+        outboxMessageRepository.deleteAllByIdInBatch(claimed.stream().map(OutboxMessage::getId).toList());
+        return claimed.size();
+      });
+      return relayed != null ? relayed : 0;
+    } catch (RuntimeException e) {
+      log.warn("Relaying outbox messages failed, retrying in {}", properties.getPollInterval(), e);
+      return 0;
+    }
+  }
+}
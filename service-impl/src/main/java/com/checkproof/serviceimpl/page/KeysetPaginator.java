@@ -0,0 +1,98 @@
+package com.checkproof.serviceimpl.page;
+
+import com.checkproof.repository.model.KeyedRow;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination. The cursor handed out with a page is the (sort value, id) of its last row,
+ * and the next page is read with a range predicate on that position instead of an offset, so
+ * every page costs the same index range scan of limit + 1 rows however deep a client pages. The
+ * extra row only tells whether there is a next page; no count query is run. Pages are read as
+ * projected rows rather than entities, so only the listed columns are fetched and nothing is
+ * tracked by the persistence context.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetPaginator {
+  private final PaginationProperties properties;
+
+  public <T, P extends KeyedRow, R> PageResult<R> page(RowFinder<T, P> finder, Specification<T> filter,
+      PageSpec spec, List<SortKey<P>> sortKeys, Function<P, R> mapper) {
+    int limit = spec.getLimit() != null ? spec.getLimit() : properties.getDefaultLimit();
+    if (limit < 1 || limit > properties.getMaxLimit()) {
+      throw new IllegalArgumentException(
+          String.format("Limit must be between 1 and %d", properties.getMaxLimit()));
+    }
+    var sortKey = sortKey(spec.getSort(), sortKeys);
+    var condition = filter;
+    if (spec.getCursor() != null && !spec.getCursor().isBlank()) {
+      Specification<T> after = after(sortKey, spec.getCursor());
+      condition = condition != null ? condition.and(after) : after;
+    }
+    var rows = finder.findRows(condition, sortKey.sort(), limit + 1);
+
+    var page = rows.size() > limit ? rows.subList(0, limit) : rows;
+    var nextCursor = rows.size() > limit ? cursor(sortKey, page.get(limit - 1)) : null;
+    return PageResult.<R>builder()
+        .items(page.stream().map(mapper).toList())
+        .nextCursor(nextCursor)
+        .build();
+  }
+
+  private static <P extends KeyedRow> SortKey<P> sortKey(String name, List<SortKey<P>> sortKeys) {
+    if (name == null) {
+      return sortKeys.get(0);
+    }
+    return sortKeys.stream()
+        .filter(key -> key.name().equals(name))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(String.format("Cannot sort by %s, expected one of %s",
+            name, sortKeys.stream().map(SortKey::name).toList())));
+  }
+
+  // A cursor is "<sort>:<id>:<value>" in URL-safe base64, or "<sort>:<id>" when the value is
+  // null; the sort name ties it to the ordering it was issued for, and the value goes last so it
+  // may contain any character.
+  private static <P extends KeyedRow> String cursor(SortKey<P> sortKey, P last) {
+    var value = sortKey.value().apply(last);
+    var position = sortKey.name() + ":" + last.getId() + (value != null ? ":" + value : "");
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static <T> Specification<T> after(SortKey<?> sortKey, String cursor) {
+    String[] parts;
+    try {
+      parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+    if (parts.length < 2 || parts.length == 2 && !sortKey.nullable()) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    if (!parts[0].equals(sortKey.name())) {
+      throw new IllegalArgumentException(String.format("Cursor was issued for sort %s, not %s", parts[0], sortKey.name()));
+    }
+    try {
+      var lastValue = parts.length == 3 ? sortKey.parse().apply(parts[2]) : null;
+      return sortKey.after(lastValue, Long.valueOf(parts[1]));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor", e);
+    }
+  }
+
+  /** Reads the first {@code limit} rows matching a specification, which may be null, in the given order. */
+  @FunctionalInterface
+  public interface RowFinder<T, P> {
+    List<P> findRows(Specification<T> where, Sort sort, int limit);
+  }
+}
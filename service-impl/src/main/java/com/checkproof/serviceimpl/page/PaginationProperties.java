@@ -0,0 +1,11 @@
+package com.checkproof.serviceimpl.page;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.pagination")
+public class PaginationProperties {
+  private int defaultLimit = 50;
+  private int maxLimit = 500;
+}
@@ -0,0 +1,56 @@
+package com.checkproof.serviceimpl.page;
+
+import com.checkproof.repository.model.KeyedRow;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.Function;
+
+/**
+ * A column a listing can be ordered by. The id always follows as tie-breaker, so (value, id)
+ * identifies a row's position and the next page starts strictly after it. Sort columns should be
+ * covered by an index ending in id for pages to be read straight off the index. Nulls of a
+ * nullable column are taken to sort first, which is H2's ascending order; a database that sorts
+ * them last needs hibernate.order_by.default_null_ordering=first.
+ */
+public record SortKey<P extends KeyedRow>(String name, String attribute, Function<P, Comparable<?>> value,
+    Function<String, Comparable<?>> parse, boolean nullable) {
+
+  public static <P extends KeyedRow> SortKey<P> id() {
+    return of("id", "id", KeyedRow::getId, Long::valueOf);
+  }
+
+  public static <P extends KeyedRow> SortKey<P> of(String name, String attribute, Function<P, Comparable<?>> value,
+      Function<String, Comparable<?>> parse) {
+    return new SortKey<>(name, attribute, value, parse, false);
+  }
+
+  public static <P extends KeyedRow> SortKey<P> nullable(String name, String attribute,
+      Function<P, Comparable<?>> value, Function<String, Comparable<?>> parse) {
+    return new SortKey<>(name, attribute, value, parse, true);
+  }
+
+  Sort sort() {
+    if ("id".equals(attribute)) {
+      return Sort.by("id");
+    }
+    return Sort.by(attribute, "id");
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  <T> Specification<T> after(Comparable<?> lastValue, Long lastId) {
+    return (root, query, cb) -> {
+      var idAfter = cb.greaterThan(root.get("id"), lastId);
+      if ("id".equals(attribute)) {
+        return idAfter;
+      }
+      Path<Comparable> path = root.get(attribute);
+      if (lastValue == null) {
+        return cb.or(cb.and(cb.isNull(path), idAfter), cb.isNotNull(path));
+      }
+      var comparable = (Comparable) lastValue;
+      return cb.or(cb.greaterThan(path, comparable), cb.and(cb.equal(path, comparable), idAfter));
+    };
+  }
+}
@@ -0,0 +1,5 @@
+package com.checkproof.serviceimpl.search;
+
+/** What the search index keeps of an item to answer queries without the database. */
+record SearchDocument(String name, String category) {
+}
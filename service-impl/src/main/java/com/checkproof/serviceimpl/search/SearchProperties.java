@@ -0,0 +1,17 @@
+package com.checkproof.serviceimpl.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.search")
+public class SearchProperties {
+  private int defaultLimit = 20;
+  private int maxLimit = 100;
+  // 0 uses one thread per available processor
+  private int rebuildThreads = 0;
+  private double rebuildDeadRatio = 0.3;
+  private Duration rebuildCheckInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,202 @@
+package com.checkproof.serviceimpl.search;
+
+import com.checkproof.repository.ItemRepository;
+import com.checkproof.repository.model.ItemTextRow;
+import com.checkproof.search.Field;
+import com.checkproof.search.IndexSegment;
+import com.checkproof.search.InvertedIndex;
+import com.checkproof.service.SearchService;
+import com.checkproof.servicemodel.CatalogChangedEvent;
+import com.checkproof.servicemodel.SearchHitResult;
+import com.checkproof.servicemodel.SearchSpec;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Full-text search over the catalog, answered from an in-memory inverted index with one document
+ * per item: its name, description and category and the names of its variants. The index is built
+ * at startup by reading slices of the item id range in parallel, kept current by re-reading an
+ * item after every committed change to it or its variants, and rebuilt in the background once too
+ * many of its entries are dead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+  private static final int NAME_WEIGHT = 3;
+  private static final int VARIANT_NAME_WEIGHT = 2;
+  private static final int CATEGORY_WEIGHT = 2;
+  private static final int DESCRIPTION_WEIGHT = 1;
+  private static final int SLICES_PER_THREAD = 4;
+
+  private final ItemRepository itemRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final SearchProperties properties;
+
+  private volatile InvertedIndex<SearchDocument> index = new InvertedIndex<>();
+  // Items changed while a rebuild runs, re-read once the rebuilt index is swapped in.
+  private Set<Long> changedDuringRebuild;
+
+  @PostConstruct
+  void buildIndex() {
+    long started = System.currentTimeMillis();
+    index = build();
+    log.info("Indexed {} items for search in {} ms", index.size(), System.currentTimeMillis() - started);
+  }
+
+  @Override
+  public List<SearchHitResult> search(SearchSpec spec) {
+    if (spec.getQuery() == null || spec.getQuery().isBlank()) {
+      throw new IllegalArgumentException("Query cannot be blank");
+    }
+    int limit = spec.getLimit() != null ? spec.getLimit() : properties.getDefaultLimit();
+    if (limit < 1 || limit > properties.getMaxLimit()) {
+      throw new IllegalArgumentException(String.format("Limit must be between 1 and %d", properties.getMaxLimit()));
+    }
+    return index.search(spec.getQuery(), limit).stream()
+        .map(hit -> SearchHitResult.builder()
+            .itemId(hit.key())
+            .name(hit.document().name())
+            .category(hit.document().category())
+            .score(hit.score())
+            .build())
+        .toList();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCatalogChanged(CatalogChangedEvent event) {
+    try {
+      reindex(event.getItemId());
+    } catch (RuntimeException e) {
+      // The change is already committed; the item is searchable as it was until the next rebuild.
+      log.error("Reindexing item {} for search failed", event.getItemId(), e);
+    }
+  }
+
+  // Reading under the lock means that of two concurrent changes to an item, the state read
+  // last, which includes both, is the one applied last.
+  synchronized void reindex(Long itemId) {
+    if (changedDuringRebuild != null) {
+      changedDuringRebuild.add(itemId);
+    }
+    var found = new AtomicBoolean();
+    collect(itemRepository.findItemText(itemId, itemId + 1).iterator(), (key, document, fields) -> {
+      index.put(key, document, fields);
+      found.set(true);
+    });
+    if (!found.get()) {
+      index.remove(itemId);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.search.rebuild-check-interval:1m}")
+  public void rebuildIfFragmented() {
+    if (index.deadRatio() < properties.getRebuildDeadRatio()) {
+      return;
+    }
+    synchronized (this) {
+      changedDuringRebuild = new HashSet<>();
+    }
+    InvertedIndex<SearchDocument> rebuilt;
+    try {
+      rebuilt = build();
+    } catch (RuntimeException e) {
+      log.warn("Rebuilding the search index failed", e);
+      synchronized (this) {
+        changedDuringRebuild = null;
+      }
+      return;
+    }
+    synchronized (this) {
+      index = rebuilt;
+      var changed = changedDuringRebuild;
+      changedDuringRebuild = null;
+      changed.forEach(this::reindex);
+    }
+    log.info("Rebuilt the search index, {} items", rebuilt.size());
+  }
+
+  private InvertedIndex<SearchDocument> build() {
+    long maxId = itemRepository.findMaxId();
+    int threads = properties.getRebuildThreads() > 0 ? properties.getRebuildThreads()
+        : Runtime.getRuntime().availableProcessors();
+    int slices = (int) Math.max(1, Math.min(maxId, (long) threads * SLICES_PER_THREAD));
+    long width = maxId / slices + 1;
+    var executor = Executors.newFixedThreadPool(Math.min(threads, slices));
+    try {
+      var futures = new ArrayList<Future<IndexSegment<SearchDocument>>>(slices);
+      for (int slice = 0; slice < slices; slice++) {
+        long fromId = slice * width;
+        futures.add(executor.submit(() -> readSegment(fromId, fromId + width)));
+      }
+      var segments = new ArrayList<IndexSegment<SearchDocument>>(slices);
+      for (var future : futures) {
+        segments.add(future.get());
+      }
+      return InvertedIndex.merge(segments);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Building the search index failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Building the search index was interrupted", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private IndexSegment<SearchDocument> readSegment(long fromId, long toId) {
+    var segment = new IndexSegment<SearchDocument>();
+    transactionTemplate.executeWithoutResult(status -> {
+      try (var rows = itemRepository.streamItemText(fromId, toId)) {
+        collect(rows.iterator(), segment::add);
+      }
+    });
+    return segment;
+  }
+
+  // Folds each run of rows of the same item into one document.
+  private static void collect(Iterator<ItemTextRow> rows, ItemSink sink) {
+    ItemTextRow first = null;
+    List<Field> fields = null;
+    while (rows.hasNext()) {
+      var row = rows.next();
+      if (first == null || !first.getItemId().equals(row.getItemId())) {
+        if (first != null) {
+          sink.accept(first.getItemId(), new SearchDocument(first.getItemName(), first.getCategory()), fields);
+        }
+        first = row;
+        fields = new ArrayList<>();
+        fields.add(new Field(row.getItemName(), NAME_WEIGHT));
+        fields.add(new Field(row.getCategory(), CATEGORY_WEIGHT));
+        fields.add(new Field(row.getDescription(), DESCRIPTION_WEIGHT));
+      }
+      if (row.getVariantName() != null) {
+        fields.add(new Field(row.getVariantName(), VARIANT_NAME_WEIGHT));
+      }
+    }
+    if (first != null) {
+      sink.accept(first.getItemId(), new SearchDocument(first.getItemName(), first.getCategory()), fields);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ItemSink {
+    void accept(long itemId, SearchDocument document, List<Field> fields);
+  }
+}
@@ -0,0 +1,54 @@
+package com.checkproof.serviceimpl.sku;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over 64-bit hashes: {@link #mightContain} never misses a hash that was added, and
+ * wrongly reports one that was not at about the configured rate while it holds no more than the
+ * expected number of entries. The bit positions come from double hashing the two halves of the
+ * hash. Entries cannot be removed. Thread-safe.
+ */
+final class BloomFilter {
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  BloomFilter(long expectedEntries, double falsePositiveRate) {
+    long n = Math.max(expectedEntries, 1);
+    long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    words = new AtomicLongArray(Math.toIntExact(Math.max(1, (bits + 63) / 64)));
+    bitCount = words.length() * 64L;
+    hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+  }
+
+  void add(long hash) {
+    for (int i = 0; i < hashCount; i++) {
+      long bit = bit(hash, i);
+      int word = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long current;
+      while (((current = words.get(word)) & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+        // Another bit of the same word was set concurrently; retry.
+      }
+    }
+  }
+
+  boolean mightContain(long hash) {
+    for (int i = 0; i < hashCount; i++) {
+      long bit = bit(hash, i);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int hashCount() {
+    return hashCount;
+  }
+
+  private long bit(long hash, int i) {
+    long combined = (hash & 0xffffffffL) + i * (hash >>> 32);
+    return Math.floorMod(combined, bitCount);
+  }
+}
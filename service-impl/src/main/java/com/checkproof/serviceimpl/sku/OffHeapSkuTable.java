@@ -0,0 +1,139 @@
+package com.checkproof.serviceimpl.sku;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing hash table from SKU hash to variant id, kept outside the Java heap in a direct
+ * buffer of 16-byte slots (hash, variant id) probed linearly. Hash 0 marks an empty slot. Only
+ * the hash is stored, so two SKUs with the same hash share a slot and a hit has to be confirmed
+ * against the variant. Removal shifts the rest of the probe run back rather than leaving
+ * tombstones. Not thread-safe on its own; callers synchronise.
+ */
+final class OffHeapSkuTable {
+  static final long NOT_FOUND = -1;
+
+  private static final int SLOT_BYTES = 16;
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE / SLOT_BYTES + 1;
+  private static final double MAX_LOAD = 0.7;
+
+  private ByteBuffer slots;
+  private int size;
+
+  OffHeapSkuTable(int expectedSize) {
+    slots = allocate(capacityFor(expectedSize));
+  }
+
+  long get(long hash) {
+    // Reads only ever look at the buffer they started with, so a concurrent resize cannot make
+    // them index out of bounds; the caller validates what they return.
+    var buffer = slots;
+    int mask = buffer.capacity() / SLOT_BYTES - 1;
+    hash = nonZero(hash);
+    for (int slot = (int) hash & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+      long stored = buffer.getLong(slot * SLOT_BYTES);
+      if (stored == 0) {
+        return NOT_FOUND;
+      }
+      if (stored == hash) {
+        return buffer.getLong(slot * SLOT_BYTES + 8);
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  void put(long hash, long variantId) {
+    if (size + 1 > capacity() * MAX_LOAD) {
+      resize(capacity() * 2);
+    }
+    hash = nonZero(hash);
+    int mask = capacity() - 1;
+    int slot = (int) hash & mask;
+    while (true) {
+      long stored = slots.getLong(slot * SLOT_BYTES);
+      if (stored == 0 || stored == hash) {
+        slots.putLong(slot * SLOT_BYTES + 8, variantId);
+        slots.putLong(slot * SLOT_BYTES, hash);
+        if (stored == 0) {
+          size++;
+        }
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /** Removes the entry of {@code hash} if it still maps to {@code variantId}. */
+  boolean remove(long hash, long variantId) {
+    hash = nonZero(hash);
+    int mask = capacity() - 1;
+    int slot = (int) hash & mask;
+    while (true) {
+      long stored = slots.getLong(slot * SLOT_BYTES);
+      if (stored == 0) {
+        return false;
+      }
+      if (stored == hash) {
+        if (slots.getLong(slot * SLOT_BYTES + 8) != variantId) {
+          return false;
+        }
+        break;
+      }
+      slot = (slot + 1) & mask;
+    }
+    // Move back every later entry of the run whose home slot is not between the hole and itself.
+    int hole = slot;
+    for (int next = (hole + 1) & mask; ; next = (next + 1) & mask) {
+      long stored = slots.getLong(next * SLOT_BYTES);
+      if (stored == 0) {
+        break;
+      }
+      int home = (int) stored & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        slots.putLong(hole * SLOT_BYTES, stored);
+        slots.putLong(hole * SLOT_BYTES + 8, slots.getLong(next * SLOT_BYTES + 8));
+        hole = next;
+      }
+    }
+    slots.putLong(hole * SLOT_BYTES, 0);
+    slots.putLong(hole * SLOT_BYTES + 8, 0);
+    size--;
+    return true;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return slots.capacity() / SLOT_BYTES;
+  }
+
+  private void resize(int capacity) {
+    if (capacity > MAX_CAPACITY) {
+      throw new IllegalStateException("SKU index cannot grow beyond " + MAX_CAPACITY + " slots");
+    }
+    var old = slots;
+    slots = allocate(capacity);
+    size = 0;
+    for (int offset = 0; offset < old.capacity(); offset += SLOT_BYTES) {
+      long hash = old.getLong(offset);
+      if (hash != 0) {
+        put(hash, old.getLong(offset + 8));
+      }
+    }
+  }
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+  }
+
+  private static int capacityFor(int expectedSize) {
+    long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD);
+    long capacity = Long.highestOneBit(Math.max(needed, 16) - 1) << 1;
+    return (int) Math.min(capacity, MAX_CAPACITY);
+  }
+
+  private static long nonZero(long hash) {
+    return hash == 0 ? 1 : hash;
+  }
+}
@@ -0,0 +1,106 @@
+package com.checkproof.serviceimpl.sku;
+
+import com.checkproof.repository.ItemVariantRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Per-node SKU lookup: an off-heap hash table from SKU to variant id for resolving SKUs, and a
+ * Bloom filter of every SKU this node has seen for ruling out duplicates without a query. Both
+ * are loaded at startup and kept current as this node creates, updates and deletes variants.
+ * Changes made by other nodes are missing, so a hit is a hint to confirm against the variant and
+ * a miss falls back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SkuIndex {
+  private final ItemVariantRepository itemVariantRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final SkuIndexProperties properties;
+
+  private final StampedLock lock = new StampedLock();
+  private OffHeapSkuTable table;
+  private BloomFilter bloomFilter;
+
+  @PostConstruct
+  void load() {
+    long count = itemVariantRepository.count();
+    // Room for the catalog to double before the filter's false positive rate degrades.
+    table = new OffHeapSkuTable((int) Math.min(Integer.MAX_VALUE, Math.max(properties.getExpectedSkus(), count)));
+    bloomFilter = new BloomFilter(Math.max(properties.getExpectedSkus(), 2 * count), properties.getFalsePositiveRate());
+    var loaded = new AtomicInteger();
+    transactionTemplate.executeWithoutResult(status -> {
+      try (var entries = itemVariantRepository.streamSkus()) {
+        entries.forEach(entry -> {
+          add(entry.getSku(), entry.getVariantId());
+          loaded.incrementAndGet();
+        });
+      }
+    });
+    log.info("Loaded {} SKUs into the SKU index", loaded.get());
+  }
+
+  /** The variant this node last saw with the SKU, if any. */
+  public Optional<Long> find(String sku) {
+    long hash = hash(sku);
+    long stamp = lock.tryOptimisticRead();
+    long variantId = table.get(hash);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        variantId = table.get(hash);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return variantId == OffHeapSkuTable.NOT_FOUND ? Optional.empty() : Optional.of(variantId);
+  }
+
+  /** False when no variant with the SKU was ever seen by this node. */
+  public boolean mightExist(String sku) {
+    return bloomFilter.mightContain(hash(sku));
+  }
+
+  public void add(String sku, Long variantId) {
+    long hash = hash(sku);
+    bloomFilter.add(hash);
+    long stamp = lock.writeLock();
+    try {
+      table.put(hash, variantId);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public void remove(String sku, Long variantId) {
+    long stamp = lock.writeLock();
+    try {
+      table.remove(hash(sku), variantId);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // FNV-1a over the UTF-16 code units, then the MurmurHash3 finaliser to spread the bits.
+  static long hash(String sku) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < sku.length(); i++) {
+      hash ^= sku.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,11 @@
+package com.checkproof.serviceimpl.sku;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.sku-index")
+public class SkuIndexProperties {
+  private int expectedSkus = 1_000_000;
+  private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,356 @@
+package com.checkproof.serviceimpl.stock;
+
+import com.checkproof.entity.ItemVariantStock;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.serviceimpl.ItemVariantServiceImpl;
+import com.checkproof.serviceimpl.StockLevels;
+import com.checkproof.serviceimpl.StockLines;
+import com.checkproof.serviceimpl.changes.ChangeRecorder;
+import com.checkproof.serviceimpl.outbox.Outbox;
+import com.checkproof.servicemodel.ItemVariantResult;
+import com.checkproof.servicemodel.ItemVariantSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock engine that keeps the counters of every touched variant in memory and decides stock
+ * operations with a single CAS, persisting the resulting counters to item_variant_stocks in
+ * JDBC batches from a background flush. Catalog operations are delegated to
+ * {@link ItemVariantServiceImpl}. This node must be the only writer of stock rows while enabled.
+ */
+@Slf4j
+@Service
+@Primary
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "warehouse.stock.engine.type", havingValue = "memory")
+public class InMemoryStockEngine implements ItemVariantService {
+  private final ItemVariantServiceImpl delegate;
+  private final ItemVariantRepository itemVariantRepository;
+  private final ItemVariantStockRepository itemVariantStockRepository;
+  private final StockEngineProperties properties;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ChangeRecorder changeRecorder;
+  private final Outbox outbox;
+  private final TransactionTemplate transactionTemplate;
+
+  private final ConcurrentHashMap<Long, StockCell> cells = new ConcurrentHashMap<>();
+  private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+  @Override
+  public ItemVariantResult createVariant(ItemVariantSpec spec) {
+    return delegate.createVariant(spec);
+  }
+
+  @Override
+  public PageResult<ItemVariantResult> getVariantsOfItem(Long itemId, VariantFilterSpec filter, PageSpec spec) {
+    return delegate.getVariantsOfItem(itemId, filter, spec);
+  }
+
+  @Override
+  public String getVariantsOfItemTag(Long itemId, VariantFilterSpec filter) {
+    return delegate.getVariantsOfItemTag(itemId, filter);
+  }
+
+  @Override
+  public ItemVariantResult getVariantBySku(String sku) {
+    return delegate.getVariantBySku(sku);
+  }
+
+  @Override
+  public String getVariantTagBySku(String sku) {
+    return delegate.getVariantTagBySku(sku);
+  }
+
+  // Counters of the variants held in memory replace those read from the database; the others are
+  // current there, as this node is the only writer.
+  @Override
+  public List<VariantBatchEntryResult> getVariants(VariantBatchSpec spec) {
+    var entries = delegate.getVariants(spec);
+    for (var entry : entries) {
+      var cell = entry.isFound() ? cells.get(entry.getVariantId()) : null;
+      if (cell != null) {
+        entry.setStock(toResult(cell, cell.get(), cell.getVersion()));
+      }
+    }
+    return entries;
+  }
+
+  @Override
+  public ItemVariantResult updateVariant(UpdateItemVariantSpec spec) {
+    return delegate.updateVariant(spec);
+  }
+
+  @Override
+  public Void deleteVariant(Long variantId) {
+    delegate.deleteVariant(variantId);
+    cells.remove(variantId);
+    dirty.remove(variantId);
+    return null;
+  }
+
+  @Override
+  public VariantStockResult getStock(Long variantId) {
+    var cell = cell(variantId, false);
+    return toResult(cell, cell.get(), cell.getVersion());
+  }
+
+  @Override
+  public List<VariantStockResult> getStockOfItem(Long itemId) {
+    return delegate.getStockOfItem(itemId).stream()
+        .map(level -> {
+          var cell = cells.get(level.getVariantId());
+          return cell != null ? toResult(cell, cell.get(), cell.getVersion()) : level;
+        })
+        .toList();
+  }
+
+  @Override
+  public VariantStockResult setManualStock(VariantStockSpec spec) {
+    return mutate(spec, true, StockOperation.SET, StockCell::set);
+  }
+
+  @Override
+  public VariantStockResult increaseStock(VariantStockSpec spec) {
+    return mutate(spec, true, StockOperation.INCREASE, StockCell::increase);
+  }
+
+  @Override
+  public VariantStockResult decreaseStock(VariantStockSpec spec) {
+    return mutate(spec, false, StockOperation.DECREASE, StockCell::decrease);
+  }
+
+  @Override
+  public VariantStockResult reserveStock(VariantStockSpec spec) {
+    return mutate(spec, false, StockOperation.RESERVE, StockCell::reserve);
+  }
+
+  @Override
+  public VariantStockResult commitStock(VariantStockSpec spec) {
+    return mutate(spec, false, StockOperation.COMMIT, StockCell::commit);
+  }
+
+  @Override
+  public VariantStockResult releaseStock(VariantStockSpec spec) {
+    return mutate(spec, false, StockOperation.RELEASE, StockCell::release);
+  }
+
+  @Override
+  public List<VariantStockResult> reserveStockLines(List<VariantStockSpec> lines) {
+    return mutateLines(lines, StockOperation.RESERVE, StockCell::reserve);
+  }
+
+  @Override
+  public List<VariantStockResult> commitStockLines(List<VariantStockSpec> lines) {
+    return mutateLines(lines, StockOperation.COMMIT, StockCell::commit);
+  }
+
+  @Override
+  public List<VariantStockResult> releaseStockLines(List<VariantStockSpec> lines) {
+    return mutateLines(lines, StockOperation.RELEASE, StockCell::release);
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.stock.engine.flush-interval:50ms}")
+  public void flush() {
+    var batch = new ArrayList<StockCounters>(properties.getFlushBatchSize());
+    var iterator = dirty.iterator();
+    while (iterator.hasNext()) {
+      // Remove before reading the cell: a concurrent mutation re-marks the variant after its CAS,
+      // so it is either part of this snapshot or picked up by the next flush.
+      var variantId = iterator.next();
+      iterator.remove();
+      var cell = cells.get(variantId);
+      if (cell == null) {
+        continue;
+      }
+      long packed = cell.get();
+      batch.add(new StockCounters(variantId, StockCell.availableStock(packed), StockCell.allocatedStock(packed)));
+      if (batch.size() >= properties.getFlushBatchSize()) {
+        if (!write(batch)) {
+          return;
+        }
+        batch = new ArrayList<>(properties.getFlushBatchSize());
+      }
+    }
+    write(batch);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  private VariantStockResult mutate(VariantStockSpec spec, boolean createIfMissing, StockOperation operation,
+      StockCell.Transition transition) {
+    var cell = cell(spec.getVariantId(), createIfMissing);
+    long packed = cell.update(transition, spec.getQuantity());
+    long version = cell.nextVersion();
+    dirty.add(cell.getVariantId());
+    publishChange(cell.getVariantId(), operation, spec.getQuantity(), packed, version);
+    return toResult(cell, packed, version);
+  }
+
+  // All-or-nothing across lines: the cells are locked in variant id order, every line is checked
+  // against the locked values and the cells only take the new values once all lines have passed.
+  // Other callers wait for the cells instead of seeing lines that end up not applied.
+  private List<VariantStockResult> mutateLines(List<VariantStockSpec> lines, StockOperation operation,
+      StockCell.Transition transition) {
+    var ordered = StockLines.mergeAndSort(lines);
+    var cellsOfLines = new ArrayList<StockCell>(ordered.size());
+    for (var line : ordered) {
+      cellsOfLines.add(cell(line.getVariantId(), false));
+    }
+    var before = new long[ordered.size()];
+    var results = new long[ordered.size()];
+    int locked = 0;
+    boolean applied = false;
+    try {
+      for (; locked < ordered.size(); locked++) {
+        before[locked] = cellsOfLines.get(locked).lock();
+      }
+      for (int i = 0; i < ordered.size(); i++) {
+        results[i] = applyLine(ordered.get(i), before[i], transition);
+      }
+      applied = true;
+    } finally {
+      for (int i = 0; i < locked; i++) {
+        cellsOfLines.get(i).unlock(applied ? results[i] : before[i]);
+      }
+    }
+    cellsOfLines.forEach(cell -> dirty.add(cell.getVariantId()));
+    var stockResults = new ArrayList<VariantStockResult>(ordered.size());
+    for (int i = 0; i < ordered.size(); i++) {
+      var cell = cellsOfLines.get(i);
+      long version = cell.nextVersion();
+      publishChange(cell.getVariantId(), operation, ordered.get(i).getQuantity(), results[i], version);
+      stockResults.add(toResult(cell, results[i], version));
+    }
+    return stockResults;
+  }
+
+  private static long applyLine(VariantStockSpec line, long packed, StockCell.Transition transition) {
+    try {
+      return StockCell.apply(transition, packed, line.getQuantity());
+    } catch (OutOfStockException e) {
+      throw new OutOfStockException(String.format("Variant %d: %s", line.getVariantId(), e.getMessage()));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(String.format("Variant %d: %s", line.getVariantId(), e.getMessage()));
+    }
+  }
+
+  private void publishChange(Long variantId, StockOperation operation, int quantity, long packed, long version) {
+    eventPublisher.publishEvent(new StockChangedEvent(variantId, operation, quantity,
+        StockCell.availableStock(packed), StockCell.allocatedStock(packed), version));
+  }
+
+  // Loading reads (and may create) the stock row, so it runs outside of the map rather than under
+  // one of its bin locks. When two threads load the same variant the first cell put wins.
+  private StockCell cell(Long variantId, boolean createIfMissing) {
+    var cell = cells.get(variantId);
+    if (cell != null) {
+      return cell;
+    }
+    var loaded = load(variantId, createIfMissing);
+    var existing = cells.putIfAbsent(variantId, loaded);
+    return existing != null ? existing : loaded;
+  }
+
+  private StockCell load(Long variantId, boolean createIfMissing) {
+    var level = itemVariantStockRepository.findLevelByVariantId(variantId);
+    if (level.isPresent()) {
+      return new StockCell(variantId, level.get().getAvailableStock(), level.get().getAllocatedStock(),
+          level.get().getVersion());
+    }
+    if (!createIfMissing) {
+      throw new EntityNotFoundException(itemVariantRepository.existsById(variantId)
+          ? "stock not found for variant" : "item_variant not found");
+    }
+    var created = createStock(variantId);
+    return new StockCell(variantId, created.getAvailableStock(), created.getAllocatedStock(), created.getVersion());
+  }
+
+  // The zero row only exists so that the cell has a row to flush to, so it is inserted directly
+  // without publishing a stock change. When a concurrent load inserted it first, that row is used.
+  private StockLevel createStock(Long variantId) {
+    try {
+      var stock = transactionTemplate.execute(status -> {
+        var variant = itemVariantRepository.findById(variantId)
+            .orElseThrow(() -> new EntityNotFoundException("item_variant not found"));
+        var created = new ItemVariantStock();
+        created.setItemVariant(variant);
+        created.setAvailableStock(0);
+        created.setAllocatedStock(0);
+        return itemVariantStockRepository.saveAndFlush(created);
+      });
+      return new StockLevel(variantId, 0, 0, stock.getVersion());
+    } catch (DataIntegrityViolationException e) {
+      return itemVariantStockRepository.findLevelByVariantId(variantId).orElseThrow(() -> e);
+    }
+  }
+
+  private static VariantStockResult toResult(StockCell cell, long packed, long version) {
+    return StockLevels.toResult(new StockLevel(cell.getVariantId(), StockCell.availableStock(packed),
+        StockCell.allocatedStock(packed), version));
+  }
+
+  private boolean write(List<StockCounters> batch) {
+    if (batch.isEmpty()) {
+      return true;
+    }
+    try {
+      // Each written row is one stock change in the feed and one outbox event, however many
+      // mutations it folds in.
+      var counts = transactionTemplate.execute(status -> {
+        var written = itemVariantStockRepository.writeCounters(batch);
+        var changed = new ArrayList<StockCounters>(written.length);
+        for (int i = 0; i < written.length; i++) {
+          if (written[i] > 0) {
+            changed.add(batch.get(i));
+          }
+        }
+        changeRecorder.recordStockUpdates(changed.stream().map(StockCounters::getVariantId).toList());
+        outbox.writeStockCounters(changed);
+        return written;
+      });
+      for (int i = 0; i < counts.length; i++) {
+        if (counts[i] == 0) {
+          // The stock row is gone (e.g. the item was deleted with its variants), drop the cell.
+          cells.remove(batch.get(i).getVariantId());
+        }
+      }
+      return true;
+    } catch (RuntimeException e) {
+      log.error("Failed to flush {} stock rows, retrying on next flush", batch.size(), e);
+      batch.forEach(counters -> dirty.add(counters.getVariantId()));
+      return false;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.checkproof.serviceimpl.stock;
+
+import com.checkproof.service.exception.OutOfStockException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * In-memory (available, allocated) pair of one variant, packed into a single long so that every
+ * stock check and mutation is one compare-and-set. Available stock lives in the high 32 bits and
+ * allocated stock in the low 32 bits. A multi-line operation locks its cells instead, so that its
+ * lines are checked and applied together.
+ */
+final class StockCell {
+  private static final VarHandle VALUE;
+  private static final VarHandle VERSION;
+  // Stands in for the value while a multi-line operation holds the cell. (MIN_VALUE, MIN_VALUE)
+  // is never a stock level, so it cannot be mistaken for one.
+  private static final long LOCKED = pack(Integer.MIN_VALUE, Integer.MIN_VALUE);
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(StockCell.class, "value", long.class);
+      VERSION = MethodHandles.lookup().findVarHandle(StockCell.class, "version", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Long variantId;
+  private volatile long value;
+  // Starts at the stock row's version and counts the mutations applied since. It is bumped after
+  // the CAS, so under concurrent mutations two results may be numbered in the opposite order.
+  private volatile long version;
+
+  StockCell(Long variantId, int availableStock, int allocatedStock, long version) {
+    this.variantId = variantId;
+    this.value = pack(availableStock, allocatedStock);
+    this.version = version;
+  }
+
+  static long pack(int availableStock, int allocatedStock) {
+    return ((long) availableStock << 32) | (allocatedStock & 0xFFFFFFFFL);
+  }
+
+  static int availableStock(long packed) {
+    return (int) (packed >> 32);
+  }
+
+  static int allocatedStock(long packed) {
+    return (int) packed;
+  }
+
+  Long getVariantId() {
+    return variantId;
+  }
+
+  long get() {
+    return unlocked();
+  }
+
+  long getVersion() {
+    return version;
+  }
+
+  long nextVersion() {
+    return (long) VERSION.getAndAdd(this, 1L) + 1;
+  }
+
+  long update(Transition transition, int quantity) {
+    for (;;) {
+      long current = unlocked();
+      long next = apply(transition, current, quantity);
+      if (VALUE.compareAndSet(this, current, next)) {
+        return next;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  // Takes the cell for a multi-line operation and returns its value. Cells are locked in variant
+  // id order and only ever by multi-line operations, so two of them cannot deadlock.
+  long lock() {
+    for (;;) {
+      long current = unlocked();
+      if (VALUE.compareAndSet(this, current, LOCKED)) {
+        return current;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  void unlock(long next) {
+    VALUE.setVolatile(this, next);
+  }
+
+  static long apply(Transition transition, long packed, int quantity) {
+    long next = transition.apply(packed, quantity);
+    if (next == LOCKED) {
+      throw new IllegalArgumentException(String.format("Stock out of range. Available: %d, Allocated: %d",
+          availableStock(next), allocatedStock(next)));
+    }
+    return next;
+  }
+
+  // A locked cell is only held while a multi-line operation checks and applies its lines in
+  // memory, so waiting for it is short.
+  private long unlocked() {
+    for (;;) {
+      long current = value;
+      if (current != LOCKED) {
+        return current;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  static long set(long packed, int availableStock) {
+    return pack(availableStock, 0);
+  }
+
+  static long increase(long packed, int quantity) {
+    if (availableStock(packed) > Integer.MAX_VALUE - quantity) {
+      throw new IllegalArgumentException(
+          String.format("Stock cannot exceed %d. Available: %d, Requested: %d",
+              Integer.MAX_VALUE, availableStock(packed), quantity));
+    }
+    return pack(availableStock(packed) + quantity, allocatedStock(packed));
+  }
+
+  static long decrease(long packed, int quantity) {
+    int availableQuantity = availableStock(packed) - allocatedStock(packed);
+    if (availableQuantity < quantity) {
+      throw new OutOfStockException(
+          String.format("Insufficient stock. Available: %d, Requested: %d", availableQuantity, quantity));
+    }
+    return pack(availableStock(packed) - quantity, allocatedStock(packed));
+  }
+
+  static long reserve(long packed, int quantity) {
+    int availableQuantity = availableStock(packed) - allocatedStock(packed);
+    if (availableQuantity < quantity) {
+      throw new OutOfStockException(
+          String.format("Insufficient stock to reserve. Available: %d, Requested: %d",
+              availableQuantity, quantity));
+    }
+    return pack(availableStock(packed), allocatedStock(packed) + quantity);
+  }
+
+  static long commit(long packed, int quantity) {
+    if (allocatedStock(packed) < quantity) {
+      throw new IllegalArgumentException(
+          String.format("Cannot commit more stock than allocated. Allocated: %d, Requested: %d",
+              allocatedStock(packed), quantity));
+    }
+    return pack(availableStock(packed) - quantity, allocatedStock(packed) - quantity);
+  }
+
+  static long release(long packed, int quantity) {
+    if (allocatedStock(packed) < quantity) {
+      throw new IllegalArgumentException(
+          String.format("Cannot release more stock than allocated. Allocated: %d, Requested: %d",
+              allocatedStock(packed), quantity));
+    }
+    return pack(availableStock(packed), allocatedStock(packed) - quantity);
+  }
+
+  /**
+   * A stock check and mutation of a packed value, throwing when the check fails.
+   */
+  @FunctionalInterface
+  interface Transition {
+    long apply(long packed, int quantity);
+  }
+}
@@ -0,0 +1,11 @@
+package com.checkproof.serviceimpl.stock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.engine")
+public class StockEngineProperties {
+  private String type = "jpa";
+  private int flushBatchSize = 500;
+}
@@ -0,0 +1,10 @@
+package com.checkproof.serviceimpl.stock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.stripes")
+public class StockStripeProperties {
+  private int maxBuckets = 64;
+}
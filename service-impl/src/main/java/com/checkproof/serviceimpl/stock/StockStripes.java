@@ -0,0 +1,284 @@
+package com.checkproof.serviceimpl.stock;
+
+import com.checkproof.entity.ItemVariantStock;
+import com.checkproof.entity.ItemVariantStockBucket;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.ItemVariantStockBucketRepository;
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.service.StockStripeService;
+import com.checkproof.servicemodel.StockStripesResult;
+import com.checkproof.servicemodel.StockStripesSpec;
+import com.checkproof.serviceimpl.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+
+/**
+ * Opt-in striping of a hot variant's stock across N bucket rows. Each operation draws from a
+ * random bucket and spills over to the next ones, so concurrent reservations mostly lock
+ * different rows; when no single bucket can cover a quantity, all buckets are locked and it is
+ * drawn from several. A background rebalancer evens out the free stock of the buckets and
+ * refreshes the totals kept on the item_variant_stocks row.
+ *
+ * <p>The bucket counts held here are a per-node hint; the stock row's bucketCount is the truth.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockStripes implements StockStripeService {
+  private final ItemVariantRepository itemVariantRepository;
+  private final ItemVariantStockRepository itemVariantStockRepository;
+  private final ItemVariantStockBucketRepository bucketRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final StockStripeProperties properties;
+  private final StockEngineProperties engineProperties;
+
+  private final ConcurrentHashMap<Long, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  void loadStripes() {
+    itemVariantStockRepository.findByBucketCountGreaterThan(0)
+        .forEach(stock -> bucketCounts.put(stock.getItemVariant().getId(), stock.getBucketCount()));
+  }
+
+  public boolean isStriped(Long variantId) {
+    return bucketCounts.containsKey(variantId);
+  }
+
+  public void refresh(Long variantId, int bucketCount) {
+    if (bucketCount > 0) {
+      bucketCounts.put(variantId, bucketCount);
+    } else {
+      bucketCounts.remove(variantId);
+    }
+  }
+
+  // The mutations below mirror the guarded updates of ItemVariantStockRepository and return the
+  // number of stock rows they changed, 0 meaning the check failed or the variant has no buckets.
+  // They must run inside the caller's transaction.
+
+  public int setStock(Long variantId, int quantity) {
+    int buckets = bucketRepository.lockByVariantId(variantId).size();
+    if (buckets == 0) {
+      return 0;
+    }
+    return bucketRepository.setStock(variantId, Math.floorDiv(quantity, buckets), Math.floorMod(quantity, buckets));
+  }
+
+  public int increaseStock(Long variantId, int quantity) {
+    int buckets = bucketCounts.getOrDefault(variantId, 1);
+    int updated = bucketRepository.increaseStock(variantId, ThreadLocalRandom.current().nextInt(buckets), quantity);
+    // Bucket 0 exists whenever the variant is striped, even if the hint is ahead of a shrink.
+    return updated > 0 ? updated : bucketRepository.increaseStock(variantId, 0, quantity);
+  }
+
+  public int decreaseStock(Long variantId, int quantity) {
+    return draw(variantId, quantity, bucketRepository::decreaseStock, StockStripes::freeStock);
+  }
+
+  public int reserveStock(Long variantId, int quantity) {
+    return draw(variantId, quantity, bucketRepository::reserveStock, StockStripes::freeStock);
+  }
+
+  public int commitStock(Long variantId, int quantity) {
+    return draw(variantId, quantity, bucketRepository::commitStock, ItemVariantStockBucket::getAllocatedStock);
+  }
+
+  public int releaseStock(Long variantId, int quantity) {
+    return draw(variantId, quantity, bucketRepository::releaseStock, ItemVariantStockBucket::getAllocatedStock);
+  }
+
+  public StockCounters totals(Long variantId) {
+    return bucketRepository.sumByVariantId(variantId).orElseGet(() -> new StockCounters(variantId, 0, 0));
+  }
+
+  public Optional<StockLevel> level(Long variantId) {
+    return bucketRepository.sumLevelByVariantId(variantId);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public StockStripesResult getStripes(Long variantId) {
+    var stock = findStock(variantId);
+    var totals = stock.getBucketCount() > 0 ? totals(variantId)
+        : new StockCounters(variantId, stock.getAvailableStock(), stock.getAllocatedStock());
+    return toResult(stock.getBucketCount(), totals);
+  }
+
+  @Override
+  @Transactional
+  public StockStripesResult enableStripes(StockStripesSpec spec) {
+    if ("memory".equals(engineProperties.getType())) {
+      throw new IllegalArgumentException("Striped stock is only supported by the jpa stock engine");
+    }
+    int bucketCount = spec.getBucketCount();
+    if (bucketCount < 2 || bucketCount > properties.getMaxBuckets()) {
+      throw new IllegalArgumentException(
+          String.format("Bucket count must be between 2 and %d", properties.getMaxBuckets()));
+    }
+    var variantId = spec.getVariantId();
+    var totals = collapse(variantId);
+    var stock = findStock(variantId);
+
+    var buckets = new ArrayList<ItemVariantStockBucket>(bucketCount);
+    long free = (long) totals.getAvailableStock() - totals.getAllocatedStock();
+    for (int index = 0; index < bucketCount; index++) {
+      var bucket = new ItemVariantStockBucket();
+      bucket.setItemVariant(stock.getItemVariant());
+      bucket.setBucketIndex(index);
+      bucket.setAllocatedStock(share(totals.getAllocatedStock(), bucketCount, index));
+      bucket.setAvailableStock(bucket.getAllocatedStock() + share(free, bucketCount, index));
+      buckets.add(bucket);
+    }
+    bucketRepository.saveAll(buckets);
+
+    stock.setBucketCount(bucketCount);
+    stock.setAvailableStock(totals.getAvailableStock());
+    stock.setAllocatedStock(totals.getAllocatedStock());
+    itemVariantStockRepository.save(stock);
+    TransactionHooks.afterCommit(() -> refresh(variantId, bucketCount));
+    log.info("Striped stock of variant {} across {} buckets", variantId, bucketCount);
+    return toResult(bucketCount, totals);
+  }
+
+  @Override
+  @Transactional
+  public StockStripesResult disableStripes(Long variantId) {
+    var totals = collapse(variantId);
+    var stock = findStock(variantId);
+    stock.setBucketCount(0);
+    stock.setAvailableStock(totals.getAvailableStock());
+    stock.setAllocatedStock(totals.getAllocatedStock());
+    itemVariantStockRepository.save(stock);
+    TransactionHooks.afterCommit(() -> refresh(variantId, 0));
+    log.info("Collapsed stock buckets of variant {}", variantId);
+    return toResult(0, totals);
+  }
+
+  public void deleteBuckets(Long variantId) {
+    bucketRepository.deleteByVariantId(variantId);
+    bucketCounts.remove(variantId);
+  }
+
+  @Scheduled(fixedDelayString = "${warehouse.stock.stripes.rebalance-interval:1s}")
+  public void rebalance() {
+    for (var variantId : bucketCounts.keySet()) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> rebalance(variantId));
+      } catch (RuntimeException e) {
+        log.warn("Rebalancing stock buckets of variant {} failed", variantId, e);
+      }
+    }
+  }
+
+  void rebalance(Long variantId) {
+    var buckets = bucketRepository.lockByVariantId(variantId);
+    if (buckets.isEmpty()) {
+      bucketCounts.remove(variantId);
+      return;
+    }
+    int available = buckets.stream().mapToInt(ItemVariantStockBucket::getAvailableStock).sum();
+    int allocated = buckets.stream().mapToInt(ItemVariantStockBucket::getAllocatedStock).sum();
+    var free = buckets.stream().mapToInt(StockStripes::freeStock).summaryStatistics();
+    if (free.getMax() - free.getMin() > 1) {
+      for (int index = 0; index < buckets.size(); index++) {
+        var bucket = buckets.get(index);
+        bucket.setAvailableStock(bucket.getAllocatedStock() + share(free.getSum(), buckets.size(), index));
+      }
+      bucketRepository.saveAll(buckets);
+    }
+    itemVariantStockRepository.refreshStripedTotals(variantId, available, allocated);
+  }
+
+  private int draw(Long variantId, int quantity, BucketUpdate update, ToIntFunction<ItemVariantStockBucket> capacity) {
+    int buckets = bucketCounts.getOrDefault(variantId, 0);
+    int start = buckets > 0 ? ThreadLocalRandom.current().nextInt(buckets) : 0;
+    for (int i = 0; i < buckets; i++) {
+      if (update.apply(variantId, (start + i) % buckets, quantity) > 0) {
+        return 1;
+      }
+    }
+    // No single bucket covers the quantity: lock them all (in index order) and take it from several.
+    var locked = bucketRepository.lockByVariantId(variantId);
+    long total = locked.stream().mapToLong(bucket -> Math.max(0, capacity.applyAsInt(bucket))).sum();
+    if (total < quantity) {
+      return 0;
+    }
+    int remaining = quantity;
+    for (var bucket : locked) {
+      int taken = Math.min(remaining, Math.max(0, capacity.applyAsInt(bucket)));
+      if (taken > 0) {
+        update.apply(variantId, bucket.getBucketIndex(), taken);
+        remaining -= taken;
+      }
+    }
+    return 1;
+  }
+
+  // Folds the variant's buckets, if any, back into one set of counters and deletes them, holding
+  // the stock row and bucket locks so no concurrent operation can land in between. The buckets'
+  // versions move to the stock row, so the variant's version keeps growing.
+  private StockCounters collapse(Long variantId) {
+    if (itemVariantStockRepository.lockByVariantIds(List.of(variantId)).isEmpty()) {
+      throw notFound(variantId);
+    }
+    var buckets = bucketRepository.lockByVariantId(variantId);
+    if (buckets.isEmpty()) {
+      var stock = findStock(variantId);
+      return new StockCounters(variantId, stock.getAvailableStock(), stock.getAllocatedStock());
+    }
+    var totals = new StockCounters(variantId,
+        buckets.stream().mapToInt(ItemVariantStockBucket::getAvailableStock).sum(),
+        buckets.stream().mapToInt(ItemVariantStockBucket::getAllocatedStock).sum());
+    long versions = buckets.stream().mapToLong(ItemVariantStockBucket::getVersion).sum();
+    bucketRepository.deleteByVariantId(variantId);
+    itemVariantStockRepository.addVersions(variantId, versions);
+    return totals;
+  }
+
+  private ItemVariantStock findStock(Long variantId) {
+    return itemVariantStockRepository.findByItemVariant_Id(variantId).orElseThrow(() -> notFound(variantId));
+  }
+
+  private EntityNotFoundException notFound(Long variantId) {
+    return new EntityNotFoundException(itemVariantRepository.existsById(variantId)
+        ? "stock not found for variant" : "item_variant not found");
+  }
+
+  private StockStripesResult toResult(int bucketCount, StockCounters totals) {
+    return StockStripesResult.builder()
+        .variantId(totals.getVariantId())
+        .bucketCount(bucketCount)
+        .availableStock(totals.getAvailableStock())
+        .allocatedStock(totals.getAllocatedStock())
+        .build();
+  }
+
+  private static int freeStock(ItemVariantStockBucket bucket) {
+    return bucket.getAvailableStock() - bucket.getAllocatedStock();
+  }
+
+  // Splits total into parts whose sizes differ by at most one, the larger ones first.
+  private static int share(long total, int parts, int index) {
+    return Math.toIntExact(Math.floorDiv(total, parts) + (index < Math.floorMod(total, parts) ? 1 : 0));
+  }
+
+  @FunctionalInterface
+  private interface BucketUpdate {
+    int apply(Long variantId, int bucketIndex, int quantity);
+  }
+}
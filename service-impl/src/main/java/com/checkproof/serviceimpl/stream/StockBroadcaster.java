@@ -0,0 +1,291 @@
+package com.checkproof.serviceimpl.stream;
+
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockStreamListener;
+import com.checkproof.service.StockStreamService;
+import com.checkproof.service.exception.CapacityExceededException;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.VariantStockResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed stock changes to subscribers of the changed variants. The committing thread
+ * only records the new level in each subscriber's pending map, keyed by variant, so a slow
+ * subscriber never holds it up. One coalesce window after the first pending level arrived, a small
+ * pool moves the pending levels as one batch into the subscriber's bounded send queue; a level
+ * older than one already pending or queued for the variant is dropped, so each subscriber sees the
+ * latest value win. The listener is only called from a separate sender pool, one call per
+ * subscriber at a time, so a stalled socket holds a sender thread and never a broadcaster one. A
+ * subscriber whose queue is full or whose call runs past the send timeout is closed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockBroadcaster implements StockStreamService {
+  private final ItemVariantService itemVariantService;
+  private final StockStreamProperties properties;
+
+  private final Map<Long, Set<Subscriber>> subscribersByVariant = new ConcurrentHashMap<>();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private ScheduledExecutorService scheduler;
+  private ExecutorService sender;
+
+  @PostConstruct
+  void start() {
+    var threads = new AtomicInteger();
+    scheduler = Executors.newScheduledThreadPool(properties.getThreads(), runnable -> {
+      var thread = new Thread(runnable, "stock-stream-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Unbounded, since a send stalled on its socket keeps its thread until the container's write
+    // times out, even after the subscriber was closed. Idle threads are let go after a minute.
+    var senders = new AtomicInteger();
+    sender = Executors.newCachedThreadPool(runnable -> {
+      var thread = new Thread(runnable, "stock-stream-send-" + senders.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    long heartbeat = properties.getHeartbeatInterval().toMillis();
+    scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    long check = Math.max(properties.getSendTimeout().toMillis() / 2, 1);
+    scheduler.scheduleWithFixedDelay(this::expireSends, check, check, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    subscribers.forEach(subscriber -> subscriber.close(true));
+    scheduler.shutdownNow();
+    sender.shutdown();
+  }
+
+  @Override
+  public Runnable subscribe(List<Long> variantIds, StockStreamListener listener) {
+    var ids = new LinkedHashSet<>(variantIds);
+    if (ids.isEmpty() || ids.size() > properties.getMaxVariants()) {
+      throw new IllegalArgumentException(
+          String.format("Between 1 and %d variant ids can be streamed", properties.getMaxVariants()));
+    }
+    if (subscribers.size() >= properties.getMaxSubscribers()) {
+      throw new CapacityExceededException("Too many open stock streams, retry later");
+    }
+    var subscriber = new Subscriber(Set.copyOf(ids), listener);
+    subscribers.add(subscriber);
+    ids.forEach(id -> subscribersByVariant.compute(id, (key, current) -> {
+      var set = current != null ? current : ConcurrentHashMap.<Subscriber>newKeySet();
+      set.add(subscriber);
+      return set;
+    }));
+    // Read after registering, so a change committed in between is either in this level or
+    // delivered as an event; whichever is older gives way to the other.
+    var levels = new ArrayList<VariantStockResult>(ids.size());
+    for (var id : ids) {
+      try {
+        levels.add(itemVariantService.getStock(id));
+      } catch (EntityNotFoundException e) {
+        // No stock yet; its first change is streamed like any other.
+      }
+    }
+    subscriber.offer(levels, 0);
+    log.debug("Opened stock stream of {} variants ({} open)", ids.size(), subscribers.size());
+    return () -> subscriber.close(false);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onStockChanged(StockChangedEvent event) {
+    var subscribed = subscribersByVariant.get(event.getVariantId());
+    if (subscribed == null) {
+      return;
+    }
+    var level = VariantStockResult.builder()
+        .variantId(event.getVariantId())
+        .availableStock(event.getAvailableStock())
+        .allocatedStock(event.getAllocatedStock())
+        .sellableStock(event.getAvailableStock() - event.getAllocatedStock())
+        .version(event.getVersion())
+        .build();
+    long delay = properties.getCoalesceWindow().toMillis();
+    subscribed.forEach(subscriber -> subscriber.offer(List.of(level), delay));
+  }
+
+  int subscriberCount() {
+    return subscribers.size();
+  }
+
+  private void heartbeat() {
+    for (var subscriber : subscribers) {
+      subscriber.requestHeartbeat();
+    }
+  }
+
+  private void expireSends() {
+    long now = System.nanoTime();
+    for (var subscriber : subscribers) {
+      if (subscriber.isSendExpired(now)) {
+        log.debug("Closing stock stream whose send took longer than {}", properties.getSendTimeout());
+        subscriber.close(true);
+      }
+    }
+  }
+
+  private final class Subscriber {
+    private final Set<Long> variantIds;
+    private final StockStreamListener listener;
+    // Guarded by this: levels waiting for the next batch, the version last queued per variant,
+    // batches waiting for the sender, and when the call in progress started.
+    private final Map<Long, VariantStockResult> pending = new HashMap<>();
+    private final Map<Long, Long> sentVersions = new HashMap<>();
+    private final Queue<List<VariantStockResult>> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private boolean sending;
+    private long sendStartedAt;
+    private boolean closed;
+
+    private Subscriber(Set<Long> variantIds, StockStreamListener listener) {
+      this.variantIds = variantIds;
+      this.listener = listener;
+    }
+
+    synchronized void offer(List<VariantStockResult> levels, long delayMillis) {
+      if (closed) {
+        return;
+      }
+      levels.stream().filter(level -> !isStale(level)).forEach(level -> pending.put(level.getVariantId(), level));
+      if (!pending.isEmpty() && !scheduled) {
+        scheduled = true;
+        scheduler.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private boolean isStale(VariantStockResult level) {
+      var queued = pending.get(level.getVariantId());
+      long latest = Math.max(queued != null ? queued.getVersion() : Long.MIN_VALUE,
+          sentVersions.getOrDefault(level.getVariantId(), Long.MIN_VALUE));
+      return level.getVersion() < latest;
+    }
+
+    // Sent as an empty batch, so it is skipped while levels are pending or being sent, which keep
+    // the stream alive too.
+    synchronized void requestHeartbeat() {
+      if (!closed && !scheduled && !sending) {
+        enqueue(List.of());
+      }
+    }
+
+    // Runs on the pool one coalesce window after the first pending level arrived.
+    private void drain() {
+      synchronized (this) {
+        scheduled = false;
+        if (closed || pending.isEmpty()) {
+          return;
+        }
+        var batch = new ArrayList<>(pending.values());
+        pending.clear();
+        batch.forEach(level -> sentVersions.put(level.getVariantId(), level.getVersion()));
+        batch.sort(Comparator.comparing(VariantStockResult::getVariantId));
+        if (enqueue(batch)) {
+          return;
+        }
+      }
+      log.debug("Closing stock stream that fell {} batches behind", properties.getSendQueueSize());
+      close(true);
+    }
+
+    // Holding this. Starts the sender unless it is already working through the queue.
+    private boolean enqueue(List<VariantStockResult> batch) {
+      if (queue.size() >= properties.getSendQueueSize()) {
+        return false;
+      }
+      queue.add(batch);
+      if (!sending) {
+        sending = true;
+        sendStartedAt = System.nanoTime();
+        sender.execute(this::send);
+      }
+      return true;
+    }
+
+    // Runs on the sender pool with sending set, so calls to the listener never overlap.
+    private void send() {
+      for (;;) {
+        List<VariantStockResult> batch;
+        synchronized (this) {
+          batch = closed ? null : queue.poll();
+          if (batch == null) {
+            sending = false;
+            return;
+          }
+          sendStartedAt = System.nanoTime();
+        }
+        if (!deliver(batch.isEmpty() ? listener::onHeartbeat : () -> listener.onLevels(batch))) {
+          return;
+        }
+      }
+    }
+
+    synchronized boolean isSendExpired(long now) {
+      return !closed && sending && now - sendStartedAt > properties.getSendTimeout().toNanos();
+    }
+
+    private boolean deliver(Runnable call) {
+      try {
+        call.run();
+        return true;
+      } catch (RuntimeException e) {
+        log.debug("Closing stock stream whose listener failed", e);
+        close(true);
+        return false;
+      }
+    }
+
+    // The listener is told on the sender pool, since closing the stream may wait for a send that
+    // is still stuck on the socket.
+    void close(boolean notify) {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        pending.clear();
+        queue.clear();
+      }
+      subscribers.remove(this);
+      variantIds.forEach(id -> subscribersByVariant.computeIfPresent(id, (key, set) -> {
+        set.remove(this);
+        return set.isEmpty() ? null : set;
+      }));
+      if (notify) {
+        sender.execute(() -> {
+          try {
+            listener.onClose();
+          } catch (RuntimeException e) {
+            log.debug("Closing stock stream listener failed", e);
+          }
+        });
+      }
+    }
+  }
+}
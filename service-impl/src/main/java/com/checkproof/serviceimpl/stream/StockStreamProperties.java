@@ -0,0 +1,18 @@
+package com.checkproof.serviceimpl.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "warehouse.stock.stream")
+public class StockStreamProperties {
+  private int maxVariants = 100;
+  private int maxSubscribers = 10_000;
+  private Duration coalesceWindow = Duration.ofMillis(100);
+  private Duration heartbeatInterval = Duration.ofSeconds(15);
+  private int threads = 2;
+  private int sendQueueSize = 16;
+  private Duration sendTimeout = Duration.ofSeconds(10);
+}
@@ -1,27 +1,48 @@
 package com.checkproof.serviceimpl;
 
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeSubject;
 import com.checkproof.entity.Item;
+import com.checkproof.entity.ItemVariant;
 import com.checkproof.helper.converter.ItemConverter;
 import com.checkproof.repository.ItemRepository;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.model.ItemRow;
+import com.checkproof.repository.model.VersionSummary;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.servicemodel.CatalogChangedEvent;
+import com.checkproof.servicemodel.ItemDetailResult;
+import com.checkproof.servicemodel.ItemDetailSpec;
+import com.checkproof.servicemodel.ItemFilterSpec;
 import com.checkproof.servicemodel.ItemResult;
 import com.checkproof.servicemodel.ItemSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
 import com.checkproof.servicemodel.UpdateItemSpec;
+import com.checkproof.servicemodel.VariantDetailResult;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.serviceimpl.changes.ChangeRecorder;
+import com.checkproof.serviceimpl.page.KeysetPaginator;
+import com.checkproof.serviceimpl.page.PaginationProperties;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,13 +52,29 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemVariantRepository itemVariantRepository;
+
     @Mock
     private ItemConverter itemConverter;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ItemVariantService itemVariantService;
+
+    @Mock
+    private ChangeRecorder changeRecorder;
+
+    @Spy
+    private KeysetPaginator keysetPaginator = new KeysetPaginator(new PaginationProperties());
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
     private Item testItem;
+    private ItemRow testItemRow;
     private ItemResult testItemResult;
     private ItemSpec testItemSpec;
     private UpdateItemSpec testUpdateItemSpec;
@@ -52,6 +89,8 @@ class ItemServiceImplTest {
         testItem.setCreatedAt(LocalDateTime.now());
         testItem.setUpdatedAt(LocalDateTime.now());
 
+        testItemRow = itemRow(1L, "Test Item", "Test Category");
+
         testItemResult = ItemResult.builder()
                 .id(1L)
                 .name("Test Item")
@@ -72,37 +111,112 @@ class ItemServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should return all items when getListItem is called")
+    @DisplayName("Should return a page of items with a cursor to the next one")
     void testGetListItem_Success() {
         // Given
-        List<Item> items = Arrays.asList(testItem);
-        when(itemRepository.findAll()).thenReturn(items);
-        when(itemConverter.toItemResult(testItem)).thenReturn(testItemResult);
+        ItemRow nextRow = itemRow(2L, null, null);
+        when(itemRepository.findRows(any(), any(), anyInt())).thenReturn(List.of(testItemRow, nextRow));
+        when(itemConverter.toItemResult(testItemRow)).thenReturn(testItemResult);
 
         // When
-        List<ItemResult> result = itemService.getListItem();
+        PageResult<ItemResult> result = itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, 1, null));
 
         // Then
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testItemResult, result.get(0));
-        verify(itemRepository, times(1)).findAll();
-        verify(itemConverter, times(1)).toItemResult(testItem);
+        assertEquals(List.of(testItemResult), result.getItems());
+        assertNotNull(result.getNextCursor());
+        verify(itemConverter, never()).toItemResult(nextRow);
     }
 
     @Test
-    @DisplayName("Should return empty list when no items exist")
-    void testGetListItem_EmptyList() {
+    @DisplayName("Should return the last page without a cursor")
+    void testGetListItem_LastPage() {
         // Given
-        when(itemRepository.findAll()).thenReturn(List.of());
+        when(itemRepository.findRows(any(), any(), anyInt())).thenReturn(List.of(testItemRow));
+        when(itemConverter.toItemResult(testItemRow)).thenReturn(testItemResult);
 
         // When
-        List<ItemResult> result = itemService.getListItem();
+        PageResult<ItemResult> first = itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, null, "name"));
 
         // Then
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(itemRepository, times(1)).findAll();
+        assertEquals(1, first.getItems().size());
+        assertNull(first.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should page on from the position in the cursor")
+    void testGetListItem_FromCursor() {
+        // Given
+        ItemRow nextRow = itemRow(2L, "Test Item: Two", "Test Category");
+        doReturn(List.of(testItemRow, nextRow)).doReturn(List.of(nextRow))
+                .when(itemRepository).findRows(any(), any(), anyInt());
+        String cursor = itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, 1, "name")).getNextCursor();
+
+        // When
+        PageResult<ItemResult> result = itemService.getListItem(new ItemFilterSpec(), new PageSpec(cursor, 1, "name"));
+
+        // Then
+        assertNull(result.getNextCursor());
+        verify(itemRepository, times(2)).findRows(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject a page size above the configured maximum")
+    void testGetListItem_LimitTooLarge() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, 501, null)));
+        assertEquals("Limit must be between 1 and 500", exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another sort order")
+    void testGetListItem_CursorOfOtherSort() {
+        // Given
+        ItemRow nextRow = itemRow(2L, null, null);
+        when(itemRepository.findRows(any(), any(), anyInt())).thenReturn(List.of(testItemRow, nextRow));
+        String cursor = itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, 1, "id")).getNextCursor();
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemService.getListItem(new ItemFilterSpec(), new PageSpec(cursor, 1, "name")));
+        assertEquals("Cursor was issued for sort id, not name", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should page on past items without a category when sorting by category")
+    void testGetListItem_NullCategoryCursor() {
+        // Given
+        testItemRow.setCategory(null);
+        ItemRow nextRow = itemRow(2L, null, null);
+        doReturn(List.of(testItemRow, nextRow)).doReturn(List.of(nextRow))
+                .when(itemRepository).findRows(any(), any(), anyInt());
+        String cursor = itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, 1, "category")).getNextCursor();
+
+        // When
+        PageResult<ItemResult> result = itemService.getListItem(new ItemFilterSpec(), new PageSpec(cursor, 1, "category"));
+
+        // Then
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject a price range whose minimum exceeds its maximum")
+    void testGetListItem_InvalidPriceRange() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemService.getListItem(new ItemFilterSpec(null, null, 50.0, 10.0, null), new PageSpec(null, null, null)));
+        assertEquals("minPrice cannot be greater than maxPrice", exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown sort key")
+    void testGetListItem_UnknownSort() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> itemService.getListItem(new ItemFilterSpec(), new PageSpec(null, null, "price")));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -133,7 +247,120 @@ class ItemServiceImplTest {
         // When & Then
         assertThrows(EntityNotFoundException.class, () -> itemService.getItem(itemId));
         verify(itemRepository, times(1)).findById(itemId);
-        verify(itemConverter, never()).toItemResult(any());
+        verify(itemConverter, never()).toItemResult(any(Item.class));
+    }
+
+    @Test
+    @DisplayName("Should load the item with its variants and their stock in one go")
+    void testGetItemDetail_VariantsAndStock() {
+        // Given
+        ItemVariant second = variant(2L);
+        ItemVariant first = variant(1L);
+        testItem.setItemVariants(List.of(second, first));
+        when(itemRepository.findWithVariantsById(1L)).thenReturn(Optional.of(testItem));
+        when(itemConverter.toItemDetailResult(testItem)).thenReturn(ItemDetailResult.builder().id(1L).build());
+        when(itemConverter.toVariantDetailResult(any())).thenAnswer(invocation ->
+                VariantDetailResult.builder().id(invocation.getArgument(0, ItemVariant.class).getId()).build());
+        when(itemVariantService.getStockOfItem(1L)).thenReturn(List.of(
+                VariantStockResult.builder().variantId(1L).availableStock(5).build(),
+                VariantStockResult.builder().variantId(2L).availableStock(7).build()));
+
+        // When
+        ItemDetailResult result = itemService.getItemDetail(new ItemDetailSpec(1L, List.of("variants", "stock")));
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.getVariants().stream().map(VariantDetailResult::getId).toList());
+        assertEquals(5, result.getVariants().get(0).getStock().getAvailableStock());
+        assertEquals(7, result.getVariants().get(1).getStock().getAvailableStock());
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should take the item and its variants from the cache once both are cached")
+    void testGetItemDetail_Cached() {
+        // Given
+        testItem.setItemVariants(List.of(variant(1L)));
+        when(itemRepository.isCachedWithVariants(1L)).thenReturn(true);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemConverter.toItemDetailResult(testItem)).thenReturn(ItemDetailResult.builder().id(1L).build());
+        when(itemConverter.toVariantDetailResult(any())).thenAnswer(invocation ->
+                VariantDetailResult.builder().id(invocation.getArgument(0, ItemVariant.class).getId()).build());
+
+        // When
+        ItemDetailResult result = itemService.getItemDetail(new ItemDetailSpec(1L, List.of("variants")));
+
+        // Then
+        assertEquals(List.of(1L), result.getVariants().stream().map(VariantDetailResult::getId).toList());
+        verify(itemRepository, never()).findWithVariantsById(any());
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("Should leave variants unloaded when they are not expanded")
+    void testGetItemDetail_NoExpansion() {
+        // Given
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemConverter.toItemDetailResult(testItem)).thenReturn(ItemDetailResult.builder().id(1L).build());
+
+        // When
+        ItemDetailResult result = itemService.getItemDetail(new ItemDetailSpec(1L, List.of()));
+
+        // Then
+        assertNull(result.getVariants());
+        verify(itemRepository, never()).findWithVariantsById(any());
+        verifyNoInteractions(itemVariantRepository);
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown expansion")
+    void testGetItemDetail_UnknownExpansion() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemService.getItemDetail(new ItemDetailSpec(1L, List.of("variants", "prices"))));
+        assertEquals("Unknown expansion prices, expected variants or stock", exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    @DisplayName("Should change the item tag when the stock of a variant changes")
+    void testGetItemTag_Stock() {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(itemRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+        when(itemVariantRepository.summarizeVersionsByItemId(1L)).thenReturn(new VersionSummary(2, 3, 4, updatedAt));
+        doReturn(List.of(VariantStockResult.builder().variantId(1L).availableStock(5).version(1).build()))
+                .doReturn(List.of(VariantStockResult.builder().variantId(1L).availableStock(4).version(2).build()))
+                .when(itemVariantService).getStockOfItem(1L);
+        ItemDetailSpec spec = new ItemDetailSpec(1L, List.of("stock"));
+
+        // When
+        String before = itemService.getItemTag(spec);
+        String after = itemService.getItemTag(spec);
+
+        // Then
+        assertNotEquals(before, after);
+        assertTrue(before.startsWith("item-1-"));
+        verifyNoInteractions(itemConverter);
+    }
+
+    @Test
+    @DisplayName("Should give no item tag for an unknown item")
+    void testGetItemTag_NotFound() {
+        // Given
+        when(itemRepository.findUpdatedAtById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertNull(itemService.getItemTag(new ItemDetailSpec(99L, List.of("variants"))));
+        verifyNoInteractions(itemVariantRepository);
+    }
+
+    @Test
+    @DisplayName("Should give no listing tag for an in-stock filter")
+    void testGetListItemTag_InStock() {
+        // When & Then
+        assertNull(itemService.getListItemTag(new ItemFilterSpec(null, null, null, null, true)));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -159,6 +386,7 @@ class ItemServiceImplTest {
         verify(itemConverter, times(1)).toItemEntity(testItemSpec);
         verify(itemRepository, times(1)).save(newItem);
         verify(itemConverter, times(1)).toItemResult(newItem);
+        verify(eventPublisher, times(1)).publishEvent(new CatalogChangedEvent(1L));
     }
 
     @Test
@@ -180,6 +408,7 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).findById(1L);
         verify(itemRepository, times(1)).save(testItem);
         verify(itemConverter, times(1)).toItemResult(testItem);
+        verify(eventPublisher, times(1)).publishEvent(new CatalogChangedEvent(1L));
     }
 
     @Test
@@ -199,8 +428,11 @@ class ItemServiceImplTest {
     void testDeleteItem_Success() {
         // Given
         Long itemId = 1L;
+        ItemVariant variant = new ItemVariant();
+        variant.setId(7L);
+        testItem.setItemVariants(List.of(variant));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(testItem));
-        doNothing().when(itemRepository).delete(testItem);
+        doNothing().when(itemRepository).deleteById(itemId);
 
         // When
         Void result = itemService.deleteItem(itemId);
@@ -208,7 +440,12 @@ class ItemServiceImplTest {
         // Then
         assertNull(result);
         verify(itemRepository, times(1)).findById(itemId);
-        verify(itemRepository, times(1)).delete(testItem);
+        InOrder inOrder = inOrder(itemVariantService, itemRepository);
+        // Deleting the variant deletes its stock row and records the variant and stock tombstones
+        inOrder.verify(itemVariantService, times(1)).deleteVariant(7L);
+        inOrder.verify(itemRepository, times(1)).deleteById(itemId);
+        verify(eventPublisher, times(1)).publishEvent(new CatalogChangedEvent(1L));
+        verify(changeRecorder, times(1)).record(ChangeSubject.ITEM, 1L, 1L, ChangeKind.DELETED);
     }
 
     @Test
@@ -221,7 +458,17 @@ class ItemServiceImplTest {
         // When & Then
         assertThrows(EntityNotFoundException.class, () -> itemService.deleteItem(itemId));
         verify(itemRepository, times(1)).findById(itemId);
-        verify(itemRepository, never()).delete(any());
+        verify(itemRepository, never()).deleteById(any());
+    }
+
+    private ItemVariant variant(Long id) {
+        ItemVariant variant = new ItemVariant();
+        variant.setId(id);
+        variant.setItem(testItem);
+        return variant;
     }
-}
 
+    private ItemRow itemRow(Long id, String name, String category) {
+        return new ItemRow(id, name, "Description " + id, category, LocalDateTime.now(), null, LocalDateTime.now(), null);
+    }
+}
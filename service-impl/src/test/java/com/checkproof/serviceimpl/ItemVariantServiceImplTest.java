@@ -1,5 +1,7 @@
 package com.checkproof.serviceimpl;
 
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeSubject;
 import com.checkproof.entity.Item;
 import com.checkproof.entity.ItemVariant;
 import com.checkproof.entity.ItemVariantStock;
@@ -7,27 +9,52 @@ import com.checkproof.helper.converter.ItemVariantConverter;
 import com.checkproof.repository.ItemRepository;
 import com.checkproof.repository.ItemVariantRepository;
 import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.StockHoldRepository;
+import com.checkproof.repository.model.ItemRow;
+import com.checkproof.repository.model.ItemVariantRow;
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.repository.model.VersionSummary;
+import com.checkproof.servicemodel.CatalogChangedEvent;
 import com.checkproof.servicemodel.ItemVariantResult;
 import com.checkproof.servicemodel.ItemVariantSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
 import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
+import com.checkproof.servicemodel.VariantStockResult;
 import com.checkproof.servicemodel.VariantStockSpec;
 import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.serviceimpl.changes.ChangeRecorder;
+import com.checkproof.serviceimpl.page.KeysetPaginator;
+import com.checkproof.serviceimpl.page.PaginationProperties;
+import com.checkproof.serviceimpl.sku.SkuIndex;
+import com.checkproof.serviceimpl.stock.StockStripes;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +73,27 @@ class ItemVariantServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private StockStripes stockStripes;
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SkuIndex skuIndex;
+
+    @Mock
+    private ChangeRecorder changeRecorder;
+
+    @Spy
+    private KeysetPaginator keysetPaginator = new KeysetPaginator(new PaginationProperties());
+
+    @Spy
+    private VariantBatchProperties batchProperties = new VariantBatchProperties();
+
     @InjectMocks
     private ItemVariantServiceImpl itemVariantService;
 
@@ -53,6 +101,7 @@ class ItemVariantServiceImplTest {
     private ItemVariant testVariant;
     private ItemVariantStock testStock;
     private ItemVariantResult testVariantResult;
+    private StockLevel testLevel;
     private ItemVariantSpec testVariantSpec;
     private UpdateItemVariantSpec testUpdateVariantSpec;
 
@@ -77,6 +126,7 @@ class ItemVariantServiceImplTest {
         testStock.setItemVariant(testVariant);
         testStock.setAvailableStock(100);
         testStock.setAllocatedStock(0);
+        testLevel = new StockLevel(1L, 100, 0, 1L);
 
         testVariantResult = new ItemVariantResult();
         testVariantResult.setId(1L);
@@ -122,6 +172,7 @@ class ItemVariantServiceImplTest {
         verify(itemVariantRepository, times(1)).save(newVariant);
         verify(itemVariantStockRepository, times(1)).save(any(ItemVariantStock.class));
         verify(itemVariantConverter, times(1)).toItemVariantResult(newVariant);
+        verify(eventPublisher, times(1)).publishEvent(new CatalogChangedEvent(1L));
     }
 
     @Test
@@ -129,25 +180,42 @@ class ItemVariantServiceImplTest {
     void testGetVariantsOfItem_Success() {
         // Given
         Long itemId = 1L;
-        List<ItemVariant> variants = Arrays.asList(testVariant);
-        when(itemVariantRepository.findByItem_Id(itemId)).thenReturn(variants);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        ItemVariantRow row = variantRow();
+        when(itemVariantRepository.findRows(any(), any(), anyInt())).thenReturn(List.of(row));
+        when(itemVariantConverter.toItemVariantResult(row)).thenReturn(testVariantResult);
 
         // When
-        List<ItemVariantResult> result = itemVariantService.getVariantsOfItem(itemId);
+        PageResult<ItemVariantResult> result = itemVariantService.getVariantsOfItem(itemId, new VariantFilterSpec(), new PageSpec(null, 20, "name"));
 
         // Then
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(itemVariantRepository, times(1)).findByItem_Id(itemId);
-        verify(itemVariantConverter, times(1)).toItemVariantResult(testVariant);
+        assertEquals(List.of(testVariantResult), result.getItems());
+        assertNull(result.getNextCursor());
+        verify(itemVariantRepository, times(1)).findRows(any(), any(), eq(21));
+        verify(itemVariantConverter, times(1)).toItemVariantResult(row);
+    }
+
+    @Test
+    @DisplayName("Should return filtered variants of an item sorted by price")
+    void testGetVariantsOfItem_Filtered() {
+        // Given
+        ItemVariantRow row = variantRow();
+        when(itemVariantRepository.findRows(any(), any(), anyInt())).thenReturn(List.of(row));
+        when(itemVariantConverter.toItemVariantResult(row)).thenReturn(testVariantResult);
+
+        // When
+        PageResult<ItemVariantResult> result = itemVariantService.getVariantsOfItem(1L,
+                new VariantFilterSpec("Small", 10.0, 50.0, true), new PageSpec(null, null, "price"));
+
+        // Then
+        assertEquals(List.of(testVariantResult), result.getItems());
     }
 
     @Test
     @DisplayName("Should update variant successfully")
     void testUpdateVariant_Success() {
         // Given
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(itemVariantRepository.findWithItemById(1L)).thenReturn(Optional.of(testVariant));
         when(itemVariantRepository.save(testVariant)).thenReturn(testVariant);
         when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
 
@@ -159,22 +227,208 @@ class ItemVariantServiceImplTest {
         assertEquals("Updated Variant", testVariant.getName());
         assertEquals("UPDATED-SKU-001", testVariant.getSku());
         assertEquals(49.99, testVariant.getPrice());
-        verify(itemVariantRepository, times(1)).findById(1L);
+        verify(itemVariantRepository, times(1)).findWithItemById(1L);
         verify(itemVariantRepository, times(1)).save(testVariant);
+        verify(eventPublisher, times(1)).publishEvent(new CatalogChangedEvent(1L));
+        verify(skuIndex, times(1)).remove("TSHIRT-SM-BLUE-001", 1L);
+        verify(skuIndex, times(1)).add("UPDATED-SKU-001", 1L);
     }
 
     @Test
     @DisplayName("Should throw EntityNotFoundException when updating non-existent variant")
     void testUpdateVariant_NotFound() {
         // Given
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemVariantRepository.findWithItemById(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(EntityNotFoundException.class, () -> itemVariantService.updateVariant(testUpdateVariantSpec));
-        verify(itemVariantRepository, times(1)).findById(1L);
+        verify(itemVariantRepository, times(1)).findWithItemById(1L);
         verify(itemVariantRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should reject an update to a SKU used by another variant")
+    void testUpdateVariant_DuplicateSku() {
+        // Given
+        when(itemVariantRepository.findWithItemById(1L)).thenReturn(Optional.of(testVariant));
+        when(skuIndex.mightExist("UPDATED-SKU-001")).thenReturn(true);
+        when(itemVariantRepository.findIdBySku("UPDATED-SKU-001")).thenReturn(Optional.of(2L));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemVariantService.updateVariant(testUpdateVariantSpec));
+        assertEquals("SKU UPDATED-SKU-001 is already used by variant 2", exception.getMessage());
+        verify(itemVariantRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not look up a SKU the Bloom filter has never seen")
+    void testCreateVariant_UnseenSku() {
+        // Given
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemVariantConverter.toItemVariantEntity(testVariantSpec)).thenReturn(testVariant);
+        when(itemVariantRepository.save(testVariant)).thenReturn(testVariant);
+
+        // When
+        itemVariantService.createVariant(testVariantSpec);
+
+        // Then
+        verify(skuIndex, times(1)).mightExist("NEW-SKU-001");
+        verify(itemVariantRepository, never()).findIdBySku(any());
+        verify(skuIndex, times(1)).add("TSHIRT-SM-BLUE-001", 1L);
+    }
+
+    @Test
+    @DisplayName("Should reject creating a variant with a SKU already in use")
+    void testCreateVariant_DuplicateSku() {
+        // Given
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(skuIndex.mightExist("NEW-SKU-001")).thenReturn(true);
+        when(itemVariantRepository.findIdBySku("NEW-SKU-001")).thenReturn(Optional.of(7L));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> itemVariantService.createVariant(testVariantSpec));
+        verify(itemVariantRepository, never()).save(any());
+        verify(skuIndex, never()).add(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should resolve a SKU through the index")
+    void testGetVariantBySku_IndexHit() {
+        // Given
+        when(skuIndex.find("TSHIRT-SM-BLUE-001")).thenReturn(Optional.of(1L));
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+
+        // When
+        ItemVariantResult result = itemVariantService.getVariantBySku("TSHIRT-SM-BLUE-001");
+
+        // Then
+        assertEquals(testVariantResult, result);
+        verify(itemVariantRepository, never()).findBySku(any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the database when the index points at another variant")
+    void testGetVariantBySku_StaleHit() {
+        // Given
+        ItemVariant other = new ItemVariant();
+        other.setSku("TSHIRT-SM-BLUE-001");
+        when(skuIndex.find("TSHIRT-SM-BLUE-001")).thenReturn(Optional.of(1L));
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        testVariant.setSku("RENAMED-ELSEWHERE");
+        when(itemVariantRepository.findBySku("TSHIRT-SM-BLUE-001")).thenReturn(Optional.of(other));
+        when(itemVariantConverter.toItemVariantResult(other)).thenReturn(testVariantResult);
+
+        // When
+        ItemVariantResult result = itemVariantService.getVariantBySku("TSHIRT-SM-BLUE-001");
+
+        // Then
+        assertEquals(testVariantResult, result);
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException for an unknown SKU")
+    void testGetVariantBySku_NotFound() {
+        // Given
+        when(skuIndex.find("UNKNOWN")).thenReturn(Optional.empty());
+        when(itemVariantRepository.findBySku("UNKNOWN")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(EntityNotFoundException.class, () -> itemVariantService.getVariantBySku("UNKNOWN"));
+    }
+
+    @Test
+    @DisplayName("Should tag a variant by its id, version and the update time of its item")
+    void testGetVariantTagBySku() {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        doReturn(Optional.of(new VersionSummary(1, 1, 3, updatedAt)))
+                .doReturn(Optional.of(new VersionSummary(1, 1, 4, updatedAt)))
+                .when(itemVariantRepository).findVersionBySku("TSHIRT-SM-BLUE-001");
+
+        // When
+        String before = itemVariantService.getVariantTagBySku("TSHIRT-SM-BLUE-001");
+        String after = itemVariantService.getVariantTagBySku("TSHIRT-SM-BLUE-001");
+
+        // Then
+        assertNotEquals(before, after);
+        verifyNoInteractions(itemVariantConverter);
+    }
+
+    @Test
+    @DisplayName("Should include the item's stock in the listing tag only for in-stock filters")
+    void testGetVariantsOfItemTag_InStock() {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(itemRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+        when(itemVariantRepository.summarizeVersionsByItemId(1L)).thenReturn(new VersionSummary(1, 1, 0, updatedAt));
+        when(itemVariantStockRepository.findCurrentLevelsByItemId(1L)).thenReturn(List.of(new StockLevel(1L, 5, 0, 1)));
+
+        // When
+        String plain = itemVariantService.getVariantsOfItemTag(1L, new VariantFilterSpec(null, null, null, null));
+        String inStock = itemVariantService.getVariantsOfItemTag(1L, new VariantFilterSpec(null, null, null, true));
+
+        // Then
+        assertTrue(inStock.startsWith(plain + "-"));
+        verify(itemVariantStockRepository, times(1)).findCurrentLevelsByItemId(1L);
+    }
+
+    @Test
+    @DisplayName("Should report each requested id and SKU, found or not, in request order")
+    void testGetVariants_ReportsMissingEntries() {
+        // Given
+        when(itemVariantRepository.findWithItemByIdIn(List.of(1L, 99L))).thenReturn(List.of(testVariant));
+        when(itemVariantRepository.findWithItemBySkuIn(List.of("UNKNOWN"))).thenReturn(List.of());
+        when(itemVariantStockRepository.findCurrentLevelsByVariantIds(List.of(1L))).thenReturn(List.of(testLevel));
+        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+
+        // When
+        List<VariantBatchEntryResult> result = itemVariantService.getVariants(
+                new VariantBatchSpec(List.of(1L, 99L, 1L), List.of("UNKNOWN")));
+
+        // Then
+        assertEquals(3, result.size());
+        assertTrue(result.get(0).isFound());
+        assertEquals(testVariantResult, result.get(0).getVariant());
+        assertEquals(100, result.get(0).getStock().getSellableStock());
+        assertFalse(result.get(1).isFound());
+        assertEquals(99L, result.get(1).getVariantId());
+        assertFalse(result.get(2).isFound());
+        assertEquals("UNKNOWN", result.get(2).getSku());
+    }
+
+    @Test
+    @DisplayName("Should query ids in chunks of the configured size")
+    void testGetVariants_Chunked() {
+        // Given
+        batchProperties.setChunkSize(2);
+        when(itemVariantRepository.findWithItemByIdIn(any())).thenReturn(List.of());
+
+        // When
+        itemVariantService.getVariants(new VariantBatchSpec(List.of(1L, 2L, 3L, 4L, 5L), null));
+
+        // Then
+        verify(itemVariantRepository, times(1)).findWithItemByIdIn(List.of(1L, 2L));
+        verify(itemVariantRepository, times(1)).findWithItemByIdIn(List.of(3L, 4L));
+        verify(itemVariantRepository, times(1)).findWithItemByIdIn(List.of(5L));
+        verify(itemVariantRepository, never()).findWithItemBySkuIn(any());
+        verify(itemVariantStockRepository, never()).findCurrentLevelsByVariantIds(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with more entries than allowed")
+    void testGetVariants_TooManyEntries() {
+        // Given
+        batchProperties.setMaxEntries(2);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemVariantService.getVariants(new VariantBatchSpec(List.of(1L, 2L), List.of("SKU"))));
+        assertEquals("At most 2 variant ids and SKUs are allowed", exception.getMessage());
+        verifyNoInteractions(itemVariantRepository);
+    }
+
     @Test
     @DisplayName("Should delete variant and associated stock")
     void testDeleteVariant_Success() {
@@ -193,27 +447,28 @@ class ItemVariantServiceImplTest {
         verify(itemVariantRepository, times(1)).findById(variantId);
         verify(itemVariantStockRepository, times(1)).findByItemVariant_Id(variantId);
         verify(itemVariantStockRepository, times(1)).delete(testStock);
+        verify(stockHoldRepository, times(1)).deleteByVariantId(variantId);
         verify(itemVariantRepository, times(1)).delete(testVariant);
+        verify(eventPublisher, times(1)).publishEvent(new CatalogChangedEvent(1L));
+        verify(changeRecorder, times(1)).record(ChangeSubject.STOCK, variantId, null, ChangeKind.DELETED);
+        verify(changeRecorder, times(1)).record(ChangeSubject.VARIANT, variantId, 1L, ChangeKind.DELETED);
     }
 
     @Test
-    @DisplayName("Should set stock manually successfully")
+    @DisplayName("Should set stock manually with a single guarded update")
     void testSetManualStock_Success() {
         // Given
         VariantStockSpec spec = new VariantStockSpec(1L, 150);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
-        when(itemVariantStockRepository.save(testStock)).thenReturn(testStock);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.setStock(1L, 150)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.setManualStock(spec);
+        VariantStockResult result = itemVariantService.setManualStock(spec);
 
         // Then
         assertNotNull(result);
-        assertEquals(150, testStock.getAvailableStock());
-        assertEquals(0, testStock.getAllocatedStock());
-        verify(itemVariantStockRepository, times(1)).save(testStock);
+        verify(itemVariantStockRepository, times(1)).setStock(1L, 150);
+        verify(itemVariantStockRepository, never()).save(any());
     }
 
     @Test
@@ -221,36 +476,37 @@ class ItemVariantServiceImplTest {
     void testSetManualStock_CreateStockIfNotExists() {
         // Given
         VariantStockSpec spec = new VariantStockSpec(1L, 150);
+        when(itemVariantStockRepository.setStock(1L, 150)).thenReturn(0);
         when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.empty());
         when(itemVariantStockRepository.save(any(ItemVariantStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.setManualStock(spec);
+        VariantStockResult result = itemVariantService.setManualStock(spec);
 
         // Then
         assertNotNull(result);
-        verify(itemVariantStockRepository, times(1)).save(any(ItemVariantStock.class));
+        ArgumentCaptor<ItemVariantStock> captor = ArgumentCaptor.forClass(ItemVariantStock.class);
+        verify(itemVariantStockRepository, times(1)).save(captor.capture());
+        assertEquals(150, captor.getValue().getAvailableStock());
+        assertEquals(0, captor.getValue().getAllocatedStock());
     }
 
     @Test
-    @DisplayName("Should increase stock successfully")
+    @DisplayName("Should increase stock with a single guarded update")
     void testIncreaseStock_Success() {
         // Given
         VariantStockSpec spec = new VariantStockSpec(1L, 50);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
-        when(itemVariantStockRepository.save(testStock)).thenReturn(testStock);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.increaseStock(1L, 50)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.increaseStock(spec);
+        VariantStockResult result = itemVariantService.increaseStock(spec);
 
         // Then
         assertNotNull(result);
-        assertEquals(150, testStock.getAvailableStock()); // 100 + 50
-        verify(itemVariantStockRepository, times(1)).save(testStock);
+        verify(itemVariantStockRepository, times(1)).increaseStock(1L, 50);
+        verify(itemVariantStockRepository, never()).save(any());
     }
 
     @Test
@@ -258,39 +514,36 @@ class ItemVariantServiceImplTest {
     void testIncreaseStock_CreateStockIfNotExists() {
         // Given
         VariantStockSpec spec = new VariantStockSpec(1L, 50);
+        when(itemVariantStockRepository.increaseStock(1L, 50)).thenReturn(0);
         when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.empty());
         when(itemVariantStockRepository.save(any(ItemVariantStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.increaseStock(spec);
+        VariantStockResult result = itemVariantService.increaseStock(spec);
 
         // Then
         assertNotNull(result);
-        verify(itemVariantStockRepository, times(1)).save(any(ItemVariantStock.class));
+        ArgumentCaptor<ItemVariantStock> captor = ArgumentCaptor.forClass(ItemVariantStock.class);
+        verify(itemVariantStockRepository, times(1)).save(captor.capture());
+        assertEquals(50, captor.getValue().getAvailableStock());
     }
 
     @Test
     @DisplayName("Should decrease stock successfully when sufficient stock available")
     void testDecreaseStock_Success() {
         // Given
-        testStock.setAvailableStock(100);
-        testStock.setAllocatedStock(10); // 10 reserved
         VariantStockSpec spec = new VariantStockSpec(1L, 30);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
-        when(itemVariantStockRepository.save(testStock)).thenReturn(testStock);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.decreaseStock(1L, 30)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.decreaseStock(spec);
+        VariantStockResult result = itemVariantService.decreaseStock(spec);
 
         // Then
         assertNotNull(result);
-        assertEquals(70, testStock.getAvailableStock()); // 100 - 30
-        assertEquals(10, testStock.getAllocatedStock()); // Unchanged
-        verify(itemVariantStockRepository, times(1)).save(testStock);
+        verify(itemVariantStockRepository, times(1)).decreaseStock(1L, 30);
+        verify(itemVariantStockRepository, never()).findByItemVariant_Id(any());
     }
 
     @Test
@@ -300,8 +553,8 @@ class ItemVariantServiceImplTest {
         testStock.setAvailableStock(100);
         testStock.setAllocatedStock(20); // 20 reserved, so only 80 available
         VariantStockSpec spec = new VariantStockSpec(1L, 90); // Requesting more than available (80)
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
+        when(itemVariantStockRepository.decreaseStock(1L, 90)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
 
         // When & Then
         OutOfStockException exception = assertThrows(OutOfStockException.class, 
@@ -310,7 +563,7 @@ class ItemVariantServiceImplTest {
         assertTrue(exception.getMessage().contains("Insufficient stock"));
         assertTrue(exception.getMessage().contains("Available: 80"));
         assertTrue(exception.getMessage().contains("Requested: 90"));
-        verify(itemVariantStockRepository, never()).save(any());
+        verify(itemVariantRepository, never()).findById(any());
     }
 
     @Test
@@ -318,34 +571,47 @@ class ItemVariantServiceImplTest {
     void testDecreaseStock_StockNotFound() {
         // Given
         VariantStockSpec spec = new VariantStockSpec(1L, 30);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.empty());
+        when(itemVariantStockRepository.decreaseStock(1L, 30)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.empty());
+        when(itemVariantRepository.existsById(1L)).thenReturn(true);
 
         // When & Then
-        assertThrows(EntityNotFoundException.class, () -> itemVariantService.decreaseStock(spec));
-        verify(itemVariantStockRepository, never()).save(any());
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+            () -> itemVariantService.decreaseStock(spec));
+        assertEquals("stock not found for variant", exception.getMessage());
     }
 
     @Test
     @DisplayName("Should reserve stock successfully")
     void testReserveStock_Success() {
         // Given
-        testStock.setAvailableStock(100);
-        testStock.setAllocatedStock(0);
         VariantStockSpec spec = new VariantStockSpec(1L, 30);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
-        when(itemVariantStockRepository.save(testStock)).thenReturn(testStock);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.reserveStock(1L, 30)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.reserveStock(spec);
+        VariantStockResult result = itemVariantService.reserveStock(spec);
 
         // Then
         assertNotNull(result);
-        assertEquals(30, testStock.getAllocatedStock()); // 0 + 30
-        assertEquals(100, testStock.getAvailableStock()); // Unchanged
-        verify(itemVariantStockRepository, times(1)).save(testStock);
+        verify(itemVariantStockRepository, times(1)).reserveStock(1L, 30);
+        verify(itemVariantStockRepository, never()).findByItemVariant_Id(any());
+        verify(itemVariantStockRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should publish a reservation with the counters read back from the stock row")
+    void testReserveStock_PublishesChange() {
+        // Given
+        VariantStockSpec spec = new VariantStockSpec(1L, 30);
+        when(itemVariantStockRepository.reserveStock(1L, 30)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(new StockLevel(1L, 100, 30, 3L)));
+
+        // When
+        itemVariantService.reserveStock(spec);
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(new StockChangedEvent(1L, StockOperation.RESERVE, 30, 100, 30, 3L));
     }
 
     @Test
@@ -355,8 +621,8 @@ class ItemVariantServiceImplTest {
         testStock.setAvailableStock(100);
         testStock.setAllocatedStock(80); // 80 reserved, so only 20 available
         VariantStockSpec spec = new VariantStockSpec(1L, 30); // Requesting more than available (20)
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
+        when(itemVariantStockRepository.reserveStock(1L, 30)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
 
         // When & Then
         OutOfStockException exception = assertThrows(OutOfStockException.class, 
@@ -365,29 +631,24 @@ class ItemVariantServiceImplTest {
         assertTrue(exception.getMessage().contains("Insufficient stock to reserve"));
         assertTrue(exception.getMessage().contains("Available: 20"));
         assertTrue(exception.getMessage().contains("Requested: 30"));
-        verify(itemVariantStockRepository, never()).save(any());
+        verify(itemVariantRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("Should commit stock successfully")
     void testCommitStock_Success() {
         // Given
-        testStock.setAvailableStock(100);
-        testStock.setAllocatedStock(50);
         VariantStockSpec spec = new VariantStockSpec(1L, 20);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
-        when(itemVariantStockRepository.save(testStock)).thenReturn(testStock);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.commitStock(1L, 20)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.commitStock(spec);
+        VariantStockResult result = itemVariantService.commitStock(spec);
 
         // Then
         assertNotNull(result);
-        assertEquals(30, testStock.getAllocatedStock()); // 50 - 20
-        assertEquals(80, testStock.getAvailableStock()); // 100 - 20
-        verify(itemVariantStockRepository, times(1)).save(testStock);
+        verify(itemVariantStockRepository, times(1)).commitStock(1L, 20);
+        verify(itemVariantStockRepository, never()).findByItemVariant_Id(any());
     }
 
     @Test
@@ -397,8 +658,8 @@ class ItemVariantServiceImplTest {
         testStock.setAvailableStock(100);
         testStock.setAllocatedStock(20);
         VariantStockSpec spec = new VariantStockSpec(1L, 30); // Requesting more than allocated (20)
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
+        when(itemVariantStockRepository.commitStock(1L, 30)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
@@ -407,29 +668,23 @@ class ItemVariantServiceImplTest {
         assertTrue(exception.getMessage().contains("Cannot commit more stock than allocated"));
         assertTrue(exception.getMessage().contains("Allocated: 20"));
         assertTrue(exception.getMessage().contains("Requested: 30"));
-        verify(itemVariantStockRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Should release stock successfully")
     void testReleaseStock_Success() {
         // Given
-        testStock.setAvailableStock(100);
-        testStock.setAllocatedStock(50);
         VariantStockSpec spec = new VariantStockSpec(1L, 20);
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
-        when(itemVariantStockRepository.save(testStock)).thenReturn(testStock);
-        when(itemVariantConverter.toItemVariantResult(testVariant)).thenReturn(testVariantResult);
+        when(itemVariantStockRepository.releaseStock(1L, 20)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
 
         // When
-        ItemVariantResult result = itemVariantService.releaseStock(spec);
+        VariantStockResult result = itemVariantService.releaseStock(spec);
 
         // Then
         assertNotNull(result);
-        assertEquals(30, testStock.getAllocatedStock()); // 50 - 20
-        assertEquals(100, testStock.getAvailableStock()); // Unchanged
-        verify(itemVariantStockRepository, times(1)).save(testStock);
+        verify(itemVariantStockRepository, times(1)).releaseStock(1L, 20);
+        verify(itemVariantStockRepository, never()).findByItemVariant_Id(any());
     }
 
     @Test
@@ -439,8 +694,8 @@ class ItemVariantServiceImplTest {
         testStock.setAvailableStock(100);
         testStock.setAllocatedStock(20);
         VariantStockSpec spec = new VariantStockSpec(1L, 30); // Requesting more than allocated (20)
-        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
-        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
+        when(itemVariantStockRepository.releaseStock(1L, 30)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
@@ -449,7 +704,90 @@ class ItemVariantServiceImplTest {
         assertTrue(exception.getMessage().contains("Cannot release more stock than allocated"));
         assertTrue(exception.getMessage().contains("Allocated: 20"));
         assertTrue(exception.getMessage().contains("Requested: 30"));
-        verify(itemVariantStockRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reserve merged lines in ascending variant id order")
+    void testReserveStockLines_Success() {
+        // Given
+        List<VariantStockSpec> lines = List.of(
+                new VariantStockSpec(2L, 5), new VariantStockSpec(1L, 3), new VariantStockSpec(2L, 1));
+        when(itemVariantStockRepository.reserveStock(anyLong(), anyInt())).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(anyLong()))
+                .thenAnswer(invocation -> Optional.of(new StockLevel(invocation.getArgument(0), 10, 5, 1L)));
+
+        // When
+        List<VariantStockResult> result = itemVariantService.reserveStockLines(lines);
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.stream().map(VariantStockResult::getVariantId).toList());
+        InOrder inOrder = inOrder(itemVariantStockRepository);
+        inOrder.verify(itemVariantStockRepository).reserveStock(1L, 3);
+        inOrder.verify(itemVariantStockRepository).reserveStock(2L, 6);
+        verify(itemVariantRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole reservation when one line is out of stock")
+    void testReserveStockLines_InsufficientStock() {
+        // Given
+        testStock.setAvailableStock(10);
+        testStock.setAllocatedStock(8);
+        List<VariantStockSpec> lines = List.of(new VariantStockSpec(3L, 1), new VariantStockSpec(1L, 5));
+        when(itemVariantStockRepository.reserveStock(1L, 5)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+
+        // When & Then
+        OutOfStockException exception = assertThrows(OutOfStockException.class,
+            () -> itemVariantService.reserveStockLines(lines));
+        assertTrue(exception.getMessage().startsWith("Variant 1: Insufficient stock to reserve"));
+        assertTrue(exception.getMessage().contains("Available: 2"));
+        verify(itemVariantStockRepository, never()).reserveStock(eq(3L), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject lines of one variant whose quantities overflow")
+    void testReserveStockLines_QuantityOverflow() {
+        // Given
+        List<VariantStockSpec> lines = List.of(
+                new VariantStockSpec(1L, Integer.MAX_VALUE), new VariantStockSpec(1L, 1));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> itemVariantService.reserveStockLines(lines));
+        assertEquals("Variant 1: quantities add up to more than 2147483647", exception.getMessage());
+        verify(itemVariantStockRepository, never()).reserveStock(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should fail the whole commit when one line exceeds its allocation")
+    void testCommitStockLines_MoreThanAllocated() {
+        // Given
+        testStock.setAllocatedStock(2);
+        List<VariantStockSpec> lines = List.of(new VariantStockSpec(1L, 5));
+        when(itemVariantStockRepository.commitStock(1L, 5)).thenReturn(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> itemVariantService.commitStockLines(lines));
+        assertTrue(exception.getMessage().startsWith("Variant 1: Cannot commit more stock than allocated"));
+    }
+
+    @Test
+    @DisplayName("Should release all lines")
+    void testReleaseStockLines_Success() {
+        // Given
+        List<VariantStockSpec> lines = List.of(new VariantStockSpec(1L, 5));
+        when(itemVariantStockRepository.releaseStock(1L, 5)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
+
+        // When
+        List<VariantStockResult> result = itemVariantService.releaseStockLines(lines);
+
+        // Then
+        assertEquals(List.of(StockLevels.toResult(testLevel)), result);
+        verify(itemVariantStockRepository, times(1)).releaseStock(1L, 5);
     }
 
     @Test
@@ -467,5 +805,109 @@ class ItemVariantServiceImplTest {
         assertThrows(EntityNotFoundException.class, () -> itemVariantService.commitStock(spec));
         assertThrows(EntityNotFoundException.class, () -> itemVariantService.releaseStock(spec));
     }
-}
 
+    @Test
+    @DisplayName("Should reserve striped stock from the buckets without touching the stock row")
+    void testReserveStock_Striped() {
+        // Given
+        VariantStockSpec spec = new VariantStockSpec(1L, 30);
+        when(stockStripes.isStriped(1L)).thenReturn(true);
+        when(stockStripes.reserveStock(1L, 30)).thenReturn(1);
+        when(stockStripes.level(1L)).thenReturn(Optional.of(testLevel));
+
+        // When
+        itemVariantService.reserveStock(spec);
+
+        // Then
+        verify(stockStripes, times(1)).reserveStock(1L, 30);
+        verify(itemVariantStockRepository, never()).reserveStock(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should switch to the buckets when the stock row is striped but the hint is stale")
+    void testReserveStock_StaleStripeHint() {
+        // Given
+        VariantStockSpec spec = new VariantStockSpec(1L, 30);
+        when(itemVariantStockRepository.reserveStock(1L, 30)).thenReturn(0);
+        when(itemVariantStockRepository.findBucketCount(1L)).thenReturn(Optional.of(4));
+        when(stockStripes.reserveStock(1L, 30)).thenReturn(1);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(testLevel));
+
+        // When
+        itemVariantService.reserveStock(spec);
+
+        // Then
+        verify(stockStripes, times(1)).refresh(1L, 4);
+        verify(stockStripes, times(1)).reserveStock(1L, 30);
+    }
+
+    @Test
+    @DisplayName("Should report the bucket totals when striped stock is insufficient")
+    void testReserveStock_StripedInsufficientStock() {
+        // Given
+        VariantStockSpec spec = new VariantStockSpec(1L, 30);
+        when(stockStripes.isStriped(1L)).thenReturn(true);
+        when(stockStripes.reserveStock(1L, 30)).thenReturn(0);
+        when(itemVariantStockRepository.findBucketCount(1L)).thenReturn(Optional.of(4));
+        when(stockStripes.level(1L)).thenReturn(Optional.of(new StockLevel(1L, 50, 25, 7L)));
+
+        // When & Then
+        OutOfStockException exception = assertThrows(OutOfStockException.class,
+            () -> itemVariantService.reserveStock(spec));
+        assertTrue(exception.getMessage().contains("Available: 25"));
+        verify(itemVariantStockRepository, never()).reserveStock(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should read the stock level with one query and without loading the variant")
+    void testGetStock_Success() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(new StockLevel(1L, 100, 30, 4L)));
+
+        // When
+        VariantStockResult result = itemVariantService.getStock(1L);
+
+        // Then
+        assertEquals(VariantStockResult.builder()
+                .variantId(1L).availableStock(100).allocatedStock(30).sellableStock(70).version(4L).build(), result);
+        verify(itemVariantRepository, never()).findById(any());
+        verify(itemVariantStockRepository, never()).findByItemVariant_Id(any());
+    }
+
+    @Test
+    @DisplayName("Should read the stock level of a striped variant from its buckets")
+    void testGetStock_Striped() {
+        // Given
+        when(stockStripes.isStriped(1L)).thenReturn(true);
+        when(stockStripes.level(1L)).thenReturn(Optional.of(new StockLevel(1L, 50, 25, 9L)));
+
+        // When
+        VariantStockResult result = itemVariantService.getStock(1L);
+
+        // Then
+        assertEquals(25, result.getSellableStock());
+        verify(itemVariantStockRepository, never()).findLevelByVariantId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException when reading stock of an unknown variant")
+    void testGetStock_VariantNotFound() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(999L)).thenReturn(Optional.empty());
+        when(itemVariantRepository.existsById(999L)).thenReturn(false);
+
+        // When & Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+            () -> itemVariantService.getStock(999L));
+        assertEquals("item_variant not found", exception.getMessage());
+    }
+
+    private StockLevel levelOf(ItemVariantStock stock) {
+        return new StockLevel(1L, stock.getAvailableStock(), stock.getAllocatedStock(), 1L);
+    }
+
+    private ItemVariantRow variantRow() {
+        ItemRow item = new ItemRow(1L, "Test Item", "Test Description", "Test Category", null, null, null, null);
+        return new ItemVariantRow(1L, item, "Small - Blue", "TSHIRT-SM-BLUE-001", 29.99, null, null, null, null);
+    }
+}
@@ -0,0 +1,106 @@
+package com.checkproof.serviceimpl.cache;
+
+import com.checkproof.servicemodel.CacheRegionStatsResult;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.CacheSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CatalogCache Unit Tests")
+class CatalogCacheTest {
+
+    private CatalogCacheProperties properties;
+
+    private CatalogCache catalogCache;
+
+    private Map<String, Object> hibernateProperties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CatalogCacheProperties();
+        CatalogCacheProperties.Region items = new CatalogCacheProperties.Region();
+        items.setMaxSize(2);
+        items.setTtl(Duration.ofMinutes(1));
+        properties.setRegions(Map.of("items", items));
+        catalogCache = new CatalogCache(properties);
+        hibernateProperties = new HashMap<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hibernateProperties.get(ConfigSettings.CACHE_MANAGER) instanceof CacheManager cacheManager) {
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand Hibernate a cache manager with every configured region")
+    void testCustomize_CreatesRegions() {
+        // When
+        catalogCache.customize(hibernateProperties);
+
+        // Then
+        CacheManager cacheManager = (CacheManager) hibernateProperties.get(ConfigSettings.CACHE_MANAGER);
+        assertEquals(true, hibernateProperties.get(CacheSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals(true, hibernateProperties.get(CacheSettings.USE_QUERY_CACHE));
+        assertNotNull(cacheManager.getCache("items"));
+        assertNotNull(cacheManager.getCache("default-query-results-region"));
+        assertNotNull(cacheManager.getCache("default-update-timestamps-region"));
+    }
+
+    @Test
+    @DisplayName("Should report hits, misses and size evictions per region")
+    void testGetRegionStats() {
+        // Given
+        catalogCache.customize(hibernateProperties);
+        CacheManager cacheManager = (CacheManager) hibernateProperties.get(ConfigSettings.CACHE_MANAGER);
+        var items = cacheManager.getCache("items");
+        for (int id = 1; id <= 5; id++) {
+            items.put(id, "item " + id);
+        }
+        items.get(5);
+        items.get(99);
+        cacheManager.getCache("items").unwrap(com.github.benmanes.caffeine.cache.Cache.class).cleanUp();
+
+        // When
+        List<CacheRegionStatsResult> result = catalogCache.getRegionStats();
+
+        // Then
+        CacheRegionStatsResult stats = result.stream()
+                .filter(region -> region.getRegion().equals("items"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, stats.getMaxSize());
+        assertEquals(60, stats.getTtlSeconds());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio());
+        assertEquals(3, stats.getEvictions());
+        assertEquals(2, stats.getSize());
+    }
+
+    @Test
+    @DisplayName("Should turn the second-level cache off when disabled")
+    void testCustomize_Disabled() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        catalogCache.customize(hibernateProperties);
+
+        // Then
+        assertEquals(false, hibernateProperties.get(CacheSettings.USE_SECOND_LEVEL_CACHE));
+        assertNull(hibernateProperties.get(ConfigSettings.CACHE_MANAGER));
+        assertTrue(catalogCache.getRegionStats().isEmpty());
+    }
+}
@@ -0,0 +1,154 @@
+package com.checkproof.serviceimpl.changes;
+
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeRecord;
+import com.checkproof.entity.ChangeSubject;
+import com.checkproof.helper.converter.ChangeConverter;
+import com.checkproof.repository.ChangeRecordRepository;
+import com.checkproof.servicemodel.ChangeFeedResult;
+import com.checkproof.servicemodel.ChangeFeedSpec;
+import com.checkproof.servicemodel.ChangeResult;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChangeFeedService Unit Tests")
+class ChangeFeedServiceImplTest {
+
+    @Mock
+    private ChangeRecordRepository changeRecordRepository;
+
+    @Mock
+    private ChangeConverter changeConverter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ChangeFeedServiceImpl changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new ChangeFeedServiceImpl(changeRecordRepository, changeConverter, transactionTemplate,
+                new ChangeFeedProperties());
+        lenient().when(changeConverter.toChangeResult(any()))
+                .thenAnswer(invocation -> ChangeResult.builder()
+                        .sequence(invocation.getArgument(0, ChangeRecord.class).getPosition()).build());
+    }
+
+    @Test
+    @DisplayName("Should return a page of changes after the cursor and the cursor to continue from")
+    void testGetChanges_Page() {
+        // Given
+        when(changeRecordRepository.findByPositionGreaterThanOrderByPositionAsc(10L, Limit.of(3)))
+                .thenReturn(List.of(change(11L), change(12L), change(13L)));
+
+        // When
+        ChangeFeedResult result = changeFeed.getChanges(new ChangeFeedSpec(10L, 2));
+
+        // Then
+        assertEquals(List.of(11L, 12L), result.getChanges().stream().map(ChangeResult::getSequence).toList());
+        assertEquals(12L, result.getCursor());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should return the last page of changes without more to read")
+    void testGetChanges_LastPage() {
+        // Given
+        when(changeRecordRepository.findByPositionGreaterThanOrderByPositionAsc(0L, Limit.of(101)))
+                .thenReturn(List.of(change(1L), change(2L)));
+
+        // When
+        ChangeFeedResult result = changeFeed.getChanges(new ChangeFeedSpec(null, null));
+
+        // Then
+        assertEquals(List.of(1L, 2L), result.getChanges().stream().map(ChangeResult::getSequence).toList());
+        assertEquals(2L, result.getCursor());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should keep the cursor when there are no new changes")
+    void testGetChanges_Empty() {
+        // Given
+        when(changeRecordRepository.findByPositionGreaterThanOrderByPositionAsc(42L, Limit.of(101)))
+                .thenReturn(List.of());
+
+        // When
+        ChangeFeedResult result = changeFeed.getChanges(new ChangeFeedSpec(42L, null));
+
+        // Then
+        assertTrue(result.getChanges().isEmpty());
+        assertEquals(42L, result.getCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject limits outside the configured range")
+    void testGetChanges_InvalidLimit() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> changeFeed.getChanges(new ChangeFeedSpec(0L, 1001)));
+        assertEquals("Limit must be between 1 and 1000", exception.getMessage());
+        verifyNoInteractions(changeRecordRepository);
+    }
+
+    @Test
+    @DisplayName("Should record stock changes made in a transaction only")
+    void testOnStockChanged() {
+        // Given
+        StockChangedEvent event = new StockChangedEvent(1L, StockOperation.RESERVE, 2, 10, 2, 3L);
+
+        // When
+        changeFeed.onStockChanged(event);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            changeFeed.onStockChanged(event);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        // Then
+        verify(changeRecordRepository, times(1))
+                .save(new ChangeRecord(ChangeSubject.STOCK, 1L, null, ChangeKind.UPDATED));
+    }
+
+    @Test
+    @DisplayName("Should purge expired changes but keep the one with the highest position")
+    void testPurgeExpired() {
+        // Given
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(changeRecordRepository.findMaxPosition()).thenReturn(40L);
+
+        // When
+        changeFeed.purgeExpired();
+
+        // Then
+        verify(changeRecordRepository, times(1)).deleteCreatedBefore(any(LocalDateTime.class), eq(40L));
+    }
+
+    private ChangeRecord change(Long position) {
+        ChangeRecord record = new ChangeRecord(ChangeSubject.ITEM, 1L, 1L, ChangeKind.UPDATED);
+        record.setId(position + 100);
+        record.setPosition(position);
+        return record;
+    }
+}
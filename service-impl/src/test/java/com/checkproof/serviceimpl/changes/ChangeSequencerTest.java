@@ -0,0 +1,92 @@
+package com.checkproof.serviceimpl.changes;
+
+import com.checkproof.entity.ChangeKind;
+import com.checkproof.entity.ChangeRecord;
+import com.checkproof.entity.ChangeSubject;
+import com.checkproof.repository.ChangeRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChangeSequencer Unit Tests")
+class ChangeSequencerTest {
+
+    @Mock
+    private ChangeRecordRepository changeRecordRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ChangeSequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        ChangeFeedProperties properties = new ChangeFeedProperties();
+        properties.setSequenceBatchSize(2);
+        sequencer = new ChangeSequencer(changeRecordRepository, transactionTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("Should number committed changes on from the highest position in id order")
+    void testSequenceBatch_Success() {
+        // Given
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        ChangeRecord first = change(7L);
+        ChangeRecord second = change(9L);
+        when(changeRecordRepository.findMaxPosition()).thenReturn(40L);
+        when(changeRecordRepository.findByPositionIsNullOrderByIdAsc(Limit.of(2))).thenReturn(List.of(first, second));
+
+        // When
+        int sequenced = sequencer.sequenceBatch();
+
+        // Then
+        assertEquals(2, sequenced);
+        assertEquals(41L, first.getPosition());
+        assertEquals(42L, second.getPosition());
+    }
+
+    @Test
+    @DisplayName("Should report nothing sequenced when there are no new changes")
+    void testSequenceBatch_Empty() {
+        // Given
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        when(changeRecordRepository.findMaxPosition()).thenReturn(0L);
+        when(changeRecordRepository.findByPositionIsNullOrderByIdAsc(Limit.of(2))).thenReturn(List.of());
+
+        // When & Then
+        assertEquals(0, sequencer.sequenceBatch());
+    }
+
+    @Test
+    @DisplayName("Should leave the changes for the next round when numbering them fails")
+    void testSequenceBatch_Fails() {
+        // Given
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate position"));
+
+        // When & Then
+        assertEquals(0, sequencer.sequenceBatch());
+    }
+
+    private ChangeRecord change(Long id) {
+        ChangeRecord record = new ChangeRecord(ChangeSubject.STOCK, 1L, null, ChangeKind.UPDATED);
+        record.setId(id);
+        return record;
+    }
+}
@@ -0,0 +1,154 @@
+package com.checkproof.serviceimpl.command;
+
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.exception.CapacityExceededException;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.servicemodel.StockCommandResult;
+import com.checkproof.servicemodel.StockCommandSpec;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockCommandService Unit Tests")
+class StockCommandServiceImplTest {
+
+    @Mock
+    private ItemVariantService itemVariantService;
+
+    private StockCommandProperties properties;
+
+    private StockCommandServiceImpl stockCommandService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StockCommandProperties();
+        properties.setThreads(1);
+        properties.setQueueDepth(1);
+        properties.setMaxLines(3);
+        stockCommandService = new StockCommandServiceImpl(itemVariantService, properties);
+        stockCommandService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockCommandService.stop();
+    }
+
+    @Test
+    @DisplayName("Should run a queued command and complete it with the stock levels")
+    void testSubmitCommand_Succeeds() throws Exception {
+        // Given
+        VariantStockSpec line = new VariantStockSpec(1L, 5);
+        when(itemVariantService.reserveStockLines(List.of(line))).thenReturn(List.of(level(1L, 5)));
+
+        // When
+        StockCommandResult submitted = stockCommandService.submitCommand(
+                new StockCommandSpec(StockOperation.RESERVE, List.of(line)));
+        StockCommandResult result = stockCommandService.awaitCommand(submitted.getId()).get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("QUEUED", submitted.getStatus());
+        assertEquals("SUCCEEDED", result.getStatus());
+        assertEquals(List.of(level(1L, 5)), result.getResults());
+        assertNotNull(result.getCompletedAt());
+        assertEquals(result, stockCommandService.getCommand(submitted.getId()));
+    }
+
+    @Test
+    @DisplayName("Should stop a line-by-line command at the first failing line")
+    void testSubmitCommand_FailsAtLine() throws Exception {
+        // Given
+        when(itemVariantService.decreaseStock(new VariantStockSpec(1L, 2))).thenReturn(level(1L, 0));
+        when(itemVariantService.decreaseStock(new VariantStockSpec(2L, 9)))
+                .thenThrow(new OutOfStockException("Insufficient stock"));
+
+        // When
+        StockCommandResult submitted = stockCommandService.submitCommand(new StockCommandSpec(StockOperation.DECREASE,
+                List.of(new VariantStockSpec(1L, 2), new VariantStockSpec(2L, 9), new VariantStockSpec(3L, 1))));
+        StockCommandResult result = stockCommandService.awaitCommand(submitted.getId()).get(2, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("FAILED", result.getStatus());
+        assertEquals("Insufficient stock", result.getError());
+        assertEquals(List.of(level(1L, 0)), result.getResults());
+        verify(itemVariantService, never()).decreaseStock(new VariantStockSpec(3L, 1));
+    }
+
+    @Test
+    @DisplayName("Should refuse a command when the queue is full")
+    void testSubmitCommand_QueueFull() throws Exception {
+        // Given: the only worker is busy and the only queue slot is taken
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemVariantService.setManualStock(any())).thenAnswer(invocation -> {
+            running.countDown();
+            release.await();
+            return level(1L, 1);
+        });
+        StockCommandSpec spec = new StockCommandSpec(StockOperation.SET, List.of(new VariantStockSpec(1L, 1)));
+        StockCommandResult first = stockCommandService.submitCommand(spec);
+        assertTrue(running.await(2, TimeUnit.SECONDS));
+        stockCommandService.submitCommand(spec);
+
+        // When & Then
+        try {
+            assertThrows(CapacityExceededException.class, () -> stockCommandService.submitCommand(spec));
+            assertEquals("RUNNING", stockCommandService.getCommand(first.getId()).getStatus());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a command with more lines than allowed")
+    void testSubmitCommand_TooManyLines() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> stockCommandService.submitCommand(new StockCommandSpec(StockOperation.SET, List.of(
+                        new VariantStockSpec(1L, 1), new VariantStockSpec(2L, 1),
+                        new VariantStockSpec(3L, 1), new VariantStockSpec(4L, 1)))));
+        assertEquals("A command must have between 1 and 3 lines", exception.getMessage());
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("Should forget completed commands once their retention has passed")
+    void testPurgeCompleted() throws Exception {
+        // Given
+        properties.setRetention(Duration.ZERO);
+        when(itemVariantService.increaseStock(any())).thenReturn(level(1L, 1));
+        StockCommandResult submitted = stockCommandService.submitCommand(
+                new StockCommandSpec(StockOperation.INCREASE, List.of(new VariantStockSpec(1L, 1))));
+        stockCommandService.awaitCommand(submitted.getId()).get(2, TimeUnit.SECONDS);
+        Thread.sleep(5);
+
+        // When
+        stockCommandService.purgeCompleted();
+
+        // Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> stockCommandService.getCommand(submitted.getId()));
+        assertEquals("stock command not found", exception.getMessage());
+    }
+
+    private VariantStockResult level(Long variantId, int available) {
+        return new VariantStockResult(variantId, available, 0, available, 1L);
+    }
+}
@@ -0,0 +1,213 @@
+package com.checkproof.serviceimpl.concurrency;
+
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.servicemodel.VariantContentionResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockConcurrencyControl Unit Tests")
+class StockConcurrencyControlTest {
+
+    @Mock
+    private ItemVariantStockRepository itemVariantStockRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ConcurrencyControlProperties properties;
+
+    private StockConcurrencyControl concurrencyControl;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyControlProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofNanos(1000));
+        properties.setMaxBackoff(Duration.ofNanos(1000));
+        properties.setMinSamples(4);
+        properties.setRateSmoothing(0.5);
+        properties.setPessimisticEnterRate(0.5);
+        properties.setPessimisticExitRate(0.1);
+        concurrencyControl = new StockConcurrencyControl(itemVariantStockRepository, transactionTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("Should retry a conflicting operation until it succeeds")
+    void testExecute_RetriesConflicts() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        String result = concurrencyControl.execute(1L, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("ItemVariantStock", 1L);
+            }
+            return "done";
+        });
+
+        // Then
+        assertEquals("done", result);
+        VariantContentionResult contention = concurrencyControl.getContention(1L);
+        assertEquals(3, contention.getAttempts());
+        assertEquals(2, contention.getConflicts());
+        assertEquals(2, contention.getRetries());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the conflict once attempts are exhausted")
+    void testExecute_GivesUp() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        assertThrows(CannotAcquireLockException.class, () -> concurrencyControl.execute(1L, () -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("lock wait timeout");
+        }));
+        assertEquals(3, calls.get());
+        assertEquals(2, concurrencyControl.getContention(1L).getRetries());
+    }
+
+    @Test
+    @DisplayName("Should not retry business failures")
+    void testExecute_DoesNotRetryOtherFailures() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> concurrencyControl.execute(1L, () -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("Cannot commit more stock than allocated");
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should switch a hot variant to pessimistic locking and back when contention subsides")
+    void testExecute_SwitchesLockMode() {
+        // Given
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        AtomicInteger calls = new AtomicInteger();
+        List<Long> variantIds = List.of(2L, 1L);
+
+        // When: every other attempt conflicts until the variant turns pessimistic
+        for (int i = 0; i < 3; i++) {
+            concurrencyControl.execute(variantIds, () -> {
+                if (calls.incrementAndGet() % 2 == 1) {
+                    throw new CannotAcquireLockException("lock wait timeout");
+                }
+                return null;
+            });
+        }
+        assertEquals("PESSIMISTIC", concurrencyControl.getContention(1L).getLockMode());
+
+        for (int i = 0; i < 5; i++) {
+            concurrencyControl.execute(variantIds, () -> null);
+        }
+
+        // Then
+        verify(itemVariantStockRepository, atLeastOnce()).lockByVariantIds(List.of(1L, 2L));
+        VariantContentionResult contention = concurrencyControl.getContention(1L);
+        assertEquals("OPTIMISTIC", contention.getLockMode());
+        assertEquals(2, contention.getModeSwitches());
+    }
+
+    @Test
+    @DisplayName("Should not lock a hot variant ahead of a single-variant operation")
+    void testExecute_SingleVariantNeverLocks() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            concurrencyControl.execute(1L, () -> {
+                if (calls.incrementAndGet() % 2 == 1) {
+                    throw new CannotAcquireLockException("lock wait timeout");
+                }
+                return null;
+            });
+        }
+        assertEquals("PESSIMISTIC", concurrencyControl.getContention(1L).getLockMode());
+
+        // When
+        String result = concurrencyControl.execute(1L, () -> "done");
+
+        // Then
+        assertEquals("done", result);
+        verifyNoInteractions(transactionTemplate, itemVariantStockRepository);
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used variants once too many are tracked")
+    void testExecute_BoundsTrackedVariants() {
+        // Given
+        properties.setMaxTrackedVariants(10);
+
+        // When
+        for (long variantId = 1; variantId <= 11; variantId++) {
+            concurrencyControl.execute(variantId, () -> null);
+        }
+
+        // Then
+        assertEquals(9, concurrencyControl.getMostContended(20).size());
+        assertEquals(0, concurrencyControl.getContention(1L).getAttempts());
+        assertEquals(1, concurrencyControl.getContention(11L).getAttempts());
+    }
+
+    @Test
+    @DisplayName("Should not retry inside a caller's transaction")
+    void testExecute_InsideTransaction() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // When & Then
+        try {
+            assertThrows(CannotAcquireLockException.class, () -> concurrencyControl.execute(1L, () -> {
+                calls.incrementAndGet();
+                throw new CannotAcquireLockException("lock wait timeout");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should report the most contended variants first")
+    void testGetMostContended() {
+        // Given
+        concurrencyControl.execute(1L, () -> null);
+        AtomicInteger calls = new AtomicInteger();
+        concurrencyControl.execute(2L, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new CannotAcquireLockException("lock wait timeout");
+            }
+            return null;
+        });
+
+        // When
+        List<VariantContentionResult> result = concurrencyControl.getMostContended(1);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getVariantId());
+    }
+}
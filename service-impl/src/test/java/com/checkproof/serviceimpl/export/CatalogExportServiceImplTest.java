@@ -0,0 +1,108 @@
+package com.checkproof.serviceimpl.export;
+
+import com.checkproof.repository.ItemRepository;
+import com.checkproof.repository.model.CatalogRow;
+import com.checkproof.servicemodel.CatalogItemResult;
+import com.checkproof.servicemodel.CatalogVariantResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogExportService Unit Tests")
+class CatalogExportServiceImplTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private CatalogExportServiceImpl catalogExportService;
+
+    @BeforeEach
+    void setUp() {
+        catalogExportService = new CatalogExportServiceImpl(itemRepository);
+    }
+
+    @Test
+    @DisplayName("Should group adjacent rows into one item with its variants")
+    void testExportCatalog_GroupsVariantsByItem() {
+        // Given
+        when(itemRepository.streamCatalog()).thenReturn(Stream.of(
+                row(1L, 10L, 8, 3),
+                row(1L, 11L, 5, 0),
+                row(2L, 20L, 1, 1)));
+        List<CatalogItemResult> exported = new ArrayList<>();
+
+        // When
+        long count = catalogExportService.exportCatalog(exported::add);
+
+        // Then
+        assertEquals(2, count);
+        assertEquals(List.of(1L, 2L), exported.stream().map(CatalogItemResult::getId).toList());
+        assertEquals(List.of(10L, 11L), exported.get(0).getVariants().stream().map(CatalogVariantResult::getId).toList());
+        assertEquals(5, exported.get(0).getVariants().get(0).getSellableStock());
+        assertEquals(0, exported.get(1).getVariants().get(0).getSellableStock());
+    }
+
+    @Test
+    @DisplayName("Should export an item without variants with an empty variant list")
+    void testExportCatalog_ItemWithoutVariants() {
+        // Given
+        when(itemRepository.streamCatalog()).thenReturn(Stream.of(row(1L, null, null, null)));
+        List<CatalogItemResult> exported = new ArrayList<>();
+
+        // When
+        catalogExportService.exportCatalog(exported::add);
+
+        // Then
+        assertEquals(1, exported.size());
+        assertTrue(exported.get(0).getVariants().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should export zero stock for a variant without a stock row")
+    void testExportCatalog_VariantWithoutStock() {
+        // Given
+        when(itemRepository.streamCatalog()).thenReturn(Stream.of(row(1L, 10L, null, null)));
+        List<CatalogItemResult> exported = new ArrayList<>();
+
+        // When
+        catalogExportService.exportCatalog(exported::add);
+
+        // Then
+        CatalogVariantResult variant = exported.get(0).getVariants().get(0);
+        assertEquals(0, variant.getAvailableStock());
+        assertEquals(0, variant.getSellableStock());
+    }
+
+    @Test
+    @DisplayName("Should close the cursor when the sink fails")
+    void testExportCatalog_ClosesCursorOnFailure() {
+        // Given
+        AtomicBoolean closed = new AtomicBoolean();
+        when(itemRepository.streamCatalog()).thenReturn(Stream.of(row(1L, 10L, 1, 0), row(2L, 20L, 1, 0))
+                .onClose(() -> closed.set(true)));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> catalogExportService.exportCatalog(item -> {
+            throw new IllegalStateException("client went away");
+        }));
+        assertTrue(closed.get());
+    }
+
+    private CatalogRow row(Long itemId, Long variantId, Integer available, Integer allocated) {
+        return new CatalogRow(itemId, "Item " + itemId, "Description " + itemId, "Category",
+                variantId, variantId != null ? "Variant " + variantId : null,
+                variantId != null ? "SKU-" + variantId : null, variantId != null ? 9.99 : null, available, allocated);
+    }
+}
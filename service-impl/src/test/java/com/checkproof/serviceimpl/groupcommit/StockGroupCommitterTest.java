@@ -0,0 +1,184 @@
+package com.checkproof.serviceimpl.groupcommit;
+
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.model.StockDelta;
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.serviceimpl.stock.StockStripes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockGroupCommitter Unit Tests")
+class StockGroupCommitterTest {
+
+    @Mock
+    private ItemVariantStockRepository itemVariantStockRepository;
+
+    @Mock
+    private StockStripes stockStripes;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private StockGroupCommitter groupCommitter;
+
+    private VariantStockResult firstResult;
+
+    @BeforeEach
+    void setUp() {
+        groupCommitter = new StockGroupCommitter(itemVariantStockRepository, stockStripes, transactionTemplate,
+                eventPublisher, new GroupCommitProperties());
+        firstResult = VariantStockResult.builder().variantId(1L).build();
+    }
+
+    @Test
+    @DisplayName("Should apply a batch in variant order and publish each mutation's own counters")
+    void testCommit_Success() {
+        // Given
+        runTransactionsInline();
+        var reserveSecond = pending(StockOperation.RESERVE, 2L, 4);
+        var reserveFirst = pending(StockOperation.RESERVE, 1L, 5);
+        var commitFirst = pending(StockOperation.COMMIT, 1L, 3);
+        when(itemVariantStockRepository.applyDeltas(anyList())).thenReturn(new int[] {1, 1, 1});
+        when(itemVariantStockRepository.findLevelsByVariantIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new StockLevel(1L, 97, 2, 12L), new StockLevel(2L, 50, 4, 3L)));
+
+        // When
+        groupCommitter.commit(List.of(reserveSecond, reserveFirst, commitFirst));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(itemVariantStockRepository, times(1)).applyDeltas(captor.capture());
+        assertEquals(List.of(
+                new StockDelta(1L, 0, 5, 5, Integer.MIN_VALUE),
+                new StockDelta(1L, -3, -3, Integer.MIN_VALUE, 3),
+                new StockDelta(2L, 0, 4, 4, Integer.MIN_VALUE)), captor.getValue());
+        assertEquals(Optional.of(result(1L, 100, 5, 11L)), reserveFirst.future().join());
+        assertEquals(Optional.of(result(1L, 97, 2, 12L)), commitFirst.future().join());
+        assertEquals(Optional.of(result(2L, 50, 4, 3L)), reserveSecond.future().join());
+        var inOrder = inOrder(eventPublisher);
+        inOrder.verify(eventPublisher).publishEvent(new StockChangedEvent(1L, StockOperation.RESERVE, 5, 100, 5, 11L));
+        inOrder.verify(eventPublisher).publishEvent(new StockChangedEvent(1L, StockOperation.COMMIT, 3, 97, 2, 12L));
+        inOrder.verify(eventPublisher).publishEvent(new StockChangedEvent(2L, StockOperation.RESERVE, 4, 50, 4, 3L));
+    }
+
+    @Test
+    @DisplayName("Should hand a mutation that failed its check back to its caller without failing the others")
+    void testCommit_OneMutationFailsCheck() {
+        // Given
+        runTransactionsInline();
+        var reserveFirst = pending(StockOperation.RESERVE, 1L, 500);
+        var reserveSecond = pending(StockOperation.RESERVE, 2L, 4);
+        when(itemVariantStockRepository.applyDeltas(anyList())).thenReturn(new int[] {0, 1});
+        when(itemVariantStockRepository.findLevelsByVariantIds(List.of(2L)))
+                .thenReturn(List.of(new StockLevel(2L, 50, 4, 3L)));
+
+        // When
+        groupCommitter.commit(List.of(reserveFirst, reserveSecond));
+
+        // Then
+        assertEquals(Optional.empty(), reserveFirst.future().join());
+        assertEquals(Optional.of(result(2L, 50, 4, 3L)), reserveSecond.future().join());
+        verify(eventPublisher, times(1)).publishEvent(any(StockChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should hand every mutation back when the batch transaction fails")
+    void testCommit_TransactionFails() {
+        // Given
+        var reserveFirst = pending(StockOperation.RESERVE, 1L, 5);
+        var increaseSecond = pending(StockOperation.INCREASE, 2L, 4);
+        when(transactionTemplate.execute(any())).thenThrow(new QueryTimeoutException("Lock timeout"));
+
+        // When
+        groupCommitter.commit(List.of(reserveFirst, increaseSecond));
+
+        // Then
+        assertEquals(Optional.empty(), reserveFirst.future().join());
+        assertEquals(Optional.empty(), increaseSecond.future().join());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should run a mutation of a striped variant on the caller's thread")
+    void testSubmit_StripedVariant() throws InterruptedException {
+        // Given
+        groupCommitter.start();
+        when(stockStripes.isStriped(1L)).thenReturn(true);
+
+        // When
+        VariantStockResult result;
+        try {
+            result = groupCommitter.submit(StockOperation.RESERVE, new VariantStockSpec(1L, 5), () -> firstResult);
+        } finally {
+            groupCommitter.stop();
+        }
+
+        // Then
+        assertEquals(firstResult, result);
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should run a queued mutation on the caller's thread when the group did not apply it")
+    void testSubmit_FallsBackWhenNotApplied() throws InterruptedException {
+        // Given
+        runTransactionsInline();
+        groupCommitter.start();
+        when(itemVariantStockRepository.applyDeltas(anyList())).thenReturn(new int[] {0});
+
+        // When
+        VariantStockResult result;
+        try {
+            result = groupCommitter.submit(StockOperation.DECREASE, new VariantStockSpec(1L, 5), () -> firstResult);
+        } finally {
+            groupCommitter.stop();
+        }
+
+        // Then
+        assertEquals(firstResult, result);
+        verify(itemVariantStockRepository, times(1)).applyDeltas(List.of(new StockDelta(1L, -5, 0, 5, Integer.MIN_VALUE)));
+    }
+
+    private VariantStockResult result(Long variantId, int available, int allocated, long version) {
+        return VariantStockResult.builder().variantId(variantId).availableStock(available)
+                .allocatedStock(allocated).sellableStock(available - allocated).version(version).build();
+    }
+
+    private StockGroupCommitter.PendingMutation pending(StockOperation operation, Long variantId, int quantity) {
+        return new StockGroupCommitter.PendingMutation(operation, new VariantStockSpec(variantId, quantity),
+                new CompletableFuture<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        lenient().doAnswer(invocation -> ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+    }
+}
@@ -0,0 +1,80 @@
+package com.checkproof.serviceimpl.hold;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HierarchicalTimingWheel Unit Tests")
+class HierarchicalTimingWheelTest {
+
+    @Test
+    @DisplayName("Should return entries once their deadline has passed, never before")
+    void testAdvance_FiresAtDeadline() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 30);
+
+        // When & Then
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of("a", "b"), wheel.advance(30));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should cascade far deadlines down the levels")
+    void testAdvance_CascadesAcrossLevels() {
+        // Given: 4 slots of 10ms per level, so 1000ms lands three levels up
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        List<Long> deadlines = List.of(1000L, 15L, 170L, 640L, 650L, 40L, 990L);
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+
+        // When
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 1000; now += 10) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now, "fired early: " + deadline);
+                assertTrue(deadline > now - 10, "fired late: " + deadline);
+                fired.add(deadline);
+            }
+        }
+
+        // Then
+        assertEquals(List.of(15L, 40L, 170L, 640L, 650L, 990L, 1000L), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should return past deadlines on the next advance")
+    void testSchedule_Overdue() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 100);
+        wheel.schedule("late", 50);
+
+        // When & Then
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("late"), wheel.advance(100));
+    }
+
+    @Test
+    @DisplayName("Should catch up when advanced over a long pause")
+    void testAdvance_CatchesUp() {
+        // Given
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 4, 0);
+        for (int i = 1; i <= 100; i++) {
+            wheel.schedule(i, i * 37L);
+        }
+
+        // When
+        List<Integer> fired = wheel.advance(2000);
+
+        // Then
+        assertEquals(54, fired.size());
+        assertEquals(46, wheel.size());
+        assertEquals(46, wheel.advance(3700).size());
+    }
+}
@@ -0,0 +1,252 @@
+package com.checkproof.serviceimpl.hold;
+
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.entity.StockHold;
+import com.checkproof.entity.StockHoldStatus;
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.StockHoldRepository;
+import com.checkproof.repository.model.HoldDeadline;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.servicemodel.StockHoldResult;
+import com.checkproof.servicemodel.StockHoldSpec;
+import com.checkproof.servicemodel.VariantStockSpec;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockHoldService Unit Tests")
+class StockHoldServiceImplTest {
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private ItemVariantRepository itemVariantRepository;
+
+    @Mock
+    private ItemVariantService itemVariantService;
+
+    @Mock
+    private StockConverter stockConverter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private StockHoldServiceImpl stockHoldService;
+
+    private ItemVariant testVariant;
+    private StockHold testHold;
+    private StockHoldResult testHoldResult;
+
+    @BeforeEach
+    void setUp() {
+        StockHoldProperties properties = new StockHoldProperties();
+        properties.setTickDuration(Duration.ofMillis(10));
+        properties.setExpiryBatchSize(2);
+        stockHoldService = new StockHoldServiceImpl(stockHoldRepository, itemVariantRepository, itemVariantService,
+                stockConverter, transactionTemplate, properties);
+        stockHoldService.loadActiveHolds();
+
+        testVariant = new ItemVariant();
+        testVariant.setId(1L);
+
+        testHold = new StockHold();
+        testHold.setId(10L);
+        testHold.setItemVariant(testVariant);
+        testHold.setQuantity(5);
+        testHold.setStatus(StockHoldStatus.ACTIVE);
+        testHold.setExpiresAt(LocalDateTime.now().plusMinutes(15));
+
+        testHoldResult = StockHoldResult.builder().id(10L).variantId(1L).quantity(5).status("ACTIVE").build();
+    }
+
+    @Test
+    @DisplayName("Should reserve stock and record an active hold")
+    void testPlaceHold_Success() {
+        // Given
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(stockHoldRepository.save(any(StockHold.class))).thenReturn(testHold);
+        when(stockConverter.toStockHoldResult(testHold)).thenReturn(testHoldResult);
+
+        // When
+        StockHoldResult result = stockHoldService.placeHold(new StockHoldSpec(1L, 5, Duration.ofMinutes(2)));
+
+        // Then
+        assertEquals(testHoldResult, result);
+        verify(itemVariantService, times(1)).reserveStock(new VariantStockSpec(1L, 5));
+        ArgumentCaptor<StockHold> captor = ArgumentCaptor.forClass(StockHold.class);
+        verify(stockHoldRepository).save(captor.capture());
+        assertEquals(StockHoldStatus.ACTIVE, captor.getValue().getStatus());
+        assertTrue(captor.getValue().getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(3)));
+    }
+
+    @Test
+    @DisplayName("Should not record a hold when the stock cannot be reserved")
+    void testPlaceHold_InsufficientStock() {
+        // Given
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(itemVariantService.reserveStock(any())).thenThrow(new OutOfStockException("Insufficient stock"));
+
+        // When & Then
+        assertThrows(OutOfStockException.class,
+                () -> stockHoldService.placeHold(new StockHoldSpec(1L, 5, null)));
+        verify(stockHoldRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a TTL above the configured maximum")
+    void testPlaceHold_TtlTooLong() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> stockHoldService.placeHold(new StockHoldSpec(1L, 5, Duration.ofDays(2))));
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("Should commit the held stock of an active hold")
+    void testCommitHold_Success() {
+        // Given
+        when(stockHoldRepository.commitIfActive(eq(10L), any())).thenReturn(1);
+        when(stockHoldRepository.findById(10L)).thenReturn(Optional.of(testHold));
+        when(stockConverter.toStockHoldResult(testHold)).thenReturn(testHoldResult);
+
+        // When
+        stockHoldService.commitHold(10L);
+
+        // Then
+        verify(itemVariantService, times(1)).commitStock(new VariantStockSpec(1L, 5));
+    }
+
+    @Test
+    @DisplayName("Should refuse to commit a hold that has expired")
+    void testCommitHold_Expired() {
+        // Given
+        when(stockHoldRepository.commitIfActive(eq(10L), any())).thenReturn(0);
+        when(stockHoldRepository.findById(10L)).thenReturn(Optional.of(testHold));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> stockHoldService.commitHold(10L));
+        assertEquals("Hold 10 is expired", exception.getMessage());
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("Should refuse to release a hold twice")
+    void testReleaseHold_AlreadyReleased() {
+        // Given
+        testHold.setStatus(StockHoldStatus.RELEASED);
+        when(stockHoldRepository.releaseIfActive(10L)).thenReturn(0);
+        when(stockHoldRepository.findById(10L)).thenReturn(Optional.of(testHold));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> stockHoldService.releaseHold(10L));
+        assertEquals("Hold 10 is released", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException for an unknown hold")
+    void testGetHold_NotFound() {
+        // Given
+        when(stockHoldRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // When & Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> stockHoldService.getHold(99L));
+        assertEquals("stock hold not found", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should release expired holds in batches")
+    void testExpireDueHolds_Batches() {
+        // Given
+        runTransactionsInline();
+        testHold.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(stockHoldRepository.save(any(StockHold.class))).thenReturn(testHold);
+        for (int i = 0; i < 3; i++) {
+            stockHoldService.placeHold(new StockHoldSpec(1L, 5, Duration.ofMillis(1)));
+        }
+        when(stockHoldRepository.lockExpired(anyList(), any())).thenReturn(List.of(testHold));
+
+        // When
+        stockHoldService.expireDueHolds();
+
+        // Then: three due holds in batches of two
+        verify(stockHoldRepository, times(2)).lockExpired(anyList(), any());
+        verify(stockHoldRepository, times(2)).expire(List.of(10L));
+        verify(itemVariantService, times(2)).releaseStockLines(List.of(new VariantStockSpec(1L, 5)));
+    }
+
+    @Test
+    @DisplayName("Should expire a hold alone when its stock can no longer be released")
+    void testExpireDueHolds_ReleaseFails() {
+        // Given
+        runTransactionsInline();
+        testHold.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testVariant));
+        when(stockHoldRepository.save(any(StockHold.class))).thenReturn(testHold);
+        stockHoldService.placeHold(new StockHoldSpec(1L, 5, Duration.ofMillis(1)));
+        when(stockHoldRepository.lockExpired(anyList(), any())).thenReturn(List.of(testHold));
+        when(itemVariantService.releaseStockLines(anyList()))
+                .thenThrow(new IllegalArgumentException("Cannot release more stock than allocated"));
+
+        // When
+        stockHoldService.expireDueHolds();
+
+        // Then: once for the batch, once on its own, then the hold alone
+        verify(itemVariantService, times(2)).releaseStockLines(anyList());
+        verify(stockHoldRepository, times(3)).expire(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("Should put a hold that is still active and not yet due back on the wheel")
+    void testExpireDueHolds_ReschedulesHoldNotYetDue() throws InterruptedException {
+        // Given: the wheel hands the hold over before its deadline, as after the clock was set back
+        runTransactionsInline();
+        when(stockHoldRepository.lockExpired(anyList(), any())).thenReturn(List.of());
+        when(stockHoldRepository.findDeadlinesByIdsAndStatus(List.of(10L), StockHoldStatus.ACTIVE))
+                .thenReturn(List.of(new HoldDeadline(10L, LocalDateTime.now().plus(Duration.ofMillis(30)))));
+        stockHoldService.expire(List.of(10L));
+        testHold.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(stockHoldRepository.lockExpired(anyList(), any())).thenReturn(List.of(testHold));
+
+        // When
+        Thread.sleep(60);
+        stockHoldService.expireDueHolds();
+
+        // Then
+        verify(stockHoldRepository, times(1)).expire(List.of(10L));
+        verify(itemVariantService, times(1)).releaseStockLines(List.of(new VariantStockSpec(1L, 5)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        lenient().doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
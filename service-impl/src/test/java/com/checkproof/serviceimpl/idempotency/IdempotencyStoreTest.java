@@ -0,0 +1,174 @@
+package com.checkproof.serviceimpl.idempotency;
+
+import com.checkproof.entity.IdempotencyRecord;
+import com.checkproof.repository.IdempotencyRecordRepository;
+import com.checkproof.service.exception.IdempotencyKeyInUseException;
+import com.checkproof.servicemodel.IdempotentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyStore Unit Tests")
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private IdempotencyStore idempotencyStore;
+
+    private IdempotentResponse response;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setCacheSize(2);
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, transactionTemplate, properties);
+        idempotencyStore.createCache();
+
+        response = new IdempotentResponse("abc", 200, "application/json", "{\"id\":1}");
+    }
+
+    @Test
+    @DisplayName("Should claim a new key by inserting its row")
+    void testClaim_NewKey() {
+        // When
+        Optional<IdempotentResponse> recorded = idempotencyStore.claim("key-1", "abc");
+
+        // Then
+        assertTrue(recorded.isEmpty());
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should replay a completed key from the cache without touching the database")
+    void testClaim_ReplayFromCache() {
+        // Given
+        when(idempotencyRecordRepository.complete("key-1", 200, "application/json", "{\"id\":1}")).thenReturn(1);
+        idempotencyStore.complete("key-1", response);
+
+        // When
+        Optional<IdempotentResponse> recorded = idempotencyStore.claim("key-1", "abc");
+
+        // Then
+        assertEquals(Optional.of(response), recorded);
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+        verify(idempotencyRecordRepository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    @DisplayName("Should replay a completed key from its row after a lost insert")
+    void testClaim_ReplayFromTable() {
+        // Given
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(idempotencyRecordRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(record(200)));
+
+        // When
+        Optional<IdempotentResponse> recorded = idempotencyStore.claim("key-1", "abc");
+
+        // Then
+        assertTrue(recorded.isPresent());
+        assertEquals("{\"id\":1}", recorded.get().getBody());
+    }
+
+    @Test
+    @DisplayName("Should refuse a key whose request is still in flight")
+    void testClaim_InFlight() {
+        // Given
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(idempotencyRecordRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(record(null)));
+
+        // When & Then
+        assertThrows(IdempotencyKeyInUseException.class, () -> idempotencyStore.claim("key-1", "abc"));
+    }
+
+    @Test
+    @DisplayName("Should take over a key whose in-flight claim has outlived the in-flight timeout")
+    void testClaim_StaleInFlight() {
+        // Given
+        IdempotencyRecord stale = record(null);
+        stale.setClaimedAt(LocalDateTime.now().minusMinutes(5));
+        when(idempotencyRecordRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(stale);
+        when(idempotencyRecordRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(stale));
+        runTransactionsInline();
+
+        // When
+        Optional<IdempotentResponse> recorded = idempotencyStore.claim("key-1", "abc");
+
+        // Then
+        assertTrue(recorded.isEmpty());
+        verify(idempotencyRecordRepository, times(1)).deleteReclaimable(eq("key-1"), any(), any());
+        verify(idempotencyRecordRepository, times(2)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a key reused for a different request")
+    void testClaim_DifferentRequest() {
+        // Given
+        when(idempotencyRecordRepository.complete("key-1", 200, "application/json", "{\"id\":1}")).thenReturn(1);
+        idempotencyStore.complete("key-1", response);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> idempotencyStore.claim("key-1", "other"));
+        assertEquals("Idempotency key key-1 was already used for a different request", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used response once the cache is full")
+    void testCache_EvictsLeastRecentlyUsed() {
+        // Given
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2);
+        cache.put("a", "1", 1_000);
+        cache.put("b", "2", 1_000);
+        cache.get("a", 0);
+
+        // When
+        cache.put("c", "3", 1_000);
+
+        // Then
+        assertEquals("1", cache.get("a", 0));
+        assertNull(cache.get("b", 0));
+        assertNull(cache.get("c", 1_000), "expired entries are dropped");
+        assertEquals(1, cache.size());
+    }
+
+    private IdempotencyRecord record(Integer status) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("key-1");
+        record.setFingerprint("abc");
+        record.setResponseStatus(status);
+        record.setContentType("application/json");
+        record.setResponseBody("{\"id\":1}");
+        record.setClaimedAt(LocalDateTime.now());
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
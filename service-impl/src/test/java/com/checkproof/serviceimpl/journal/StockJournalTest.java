@@ -0,0 +1,131 @@
+package com.checkproof.serviceimpl.journal;
+
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockMovementResult;
+import com.checkproof.servicemodel.StockMovementsSpec;
+import com.checkproof.servicemodel.StockOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StockJournal Unit Tests")
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private StockJournalProperties properties;
+
+    private StockJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new StockJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofBytes(4L * JournalSegment.RECORD_SIZE));
+        journal = new StockJournal(properties);
+        journal.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Should roll over to a new segment when the active one is full")
+    void testAppend_RollsSegments() throws Exception {
+        // When
+        for (int i = 1; i <= 10; i++) {
+            journal.onStockChanged(new StockChangedEvent((long) (i % 2) + 1, StockOperation.INCREASE, i, i, 0, i + 1L));
+        }
+
+        // Then
+        try (var files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+        List<StockMovementResult> movements = journal.findMovements(new StockMovementsSpec(null, null, null, null));
+        assertEquals(10, movements.size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L),
+                movements.stream().map(StockMovementResult::getSequence).toList());
+        assertEquals("INCREASE", movements.get(0).getOperation());
+    }
+
+    @Test
+    @DisplayName("Should filter movements by variant and stop at the limit")
+    void testFindMovements_ByVariant() {
+        // Given
+        for (int i = 1; i <= 10; i++) {
+            journal.onStockChanged(new StockChangedEvent((long) (i % 2) + 1, StockOperation.RESERVE, 1, 10, i, i + 1L));
+        }
+
+        // When
+        List<StockMovementResult> movements = journal.findMovements(new StockMovementsSpec(2L, null, null, 3));
+
+        // Then
+        assertEquals(List.of(1L, 3L, 5L), movements.stream().map(StockMovementResult::getSequence).toList());
+        assertTrue(movements.stream().allMatch(movement -> movement.getVariantId() == 2L));
+    }
+
+    @Test
+    @DisplayName("Should only return movements within the time range")
+    void testFindMovements_ByTimeRange() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            journal.onStockChanged(new StockChangedEvent(1L, StockOperation.DECREASE, 1, 10 - i, 0, i + 1L));
+        }
+        Thread.sleep(5);
+        Instant from = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            journal.onStockChanged(new StockChangedEvent(1L, StockOperation.INCREASE, 1, 6 + i, 0, i + 5L));
+        }
+
+        // When
+        List<StockMovementResult> movements = journal.findMovements(new StockMovementsSpec(null, from, null, null));
+        List<StockMovementResult> before = journal.findMovements(
+                new StockMovementsSpec(null, null, from.minusMillis(1), null));
+
+        // Then
+        assertEquals(List.of(6L, 7L, 8L), movements.stream().map(StockMovementResult::getSequence).toList());
+        assertEquals(5, before.size());
+    }
+
+    @Test
+    @DisplayName("Should continue the sequence after reopening the journal")
+    void testOpen_ContinuesSequence() throws Exception {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            journal.onStockChanged(new StockChangedEvent(1L, StockOperation.SET, i, i, 0, i + 1L));
+        }
+        journal.close();
+
+        // When
+        journal = new StockJournal(properties);
+        journal.open();
+        journal.onStockChanged(new StockChangedEvent(1L, StockOperation.SET, 6, 6, 0, 7L));
+
+        // Then
+        List<StockMovementResult> movements = journal.findMovements(new StockMovementsSpec(null, null, null, null));
+        assertEquals(7, movements.size());
+        assertEquals(7L, movements.get(6).getSequence());
+        assertEquals(6, movements.get(6).getAvailableStock());
+    }
+
+    @Test
+    @DisplayName("Should reject a limit above the configured maximum")
+    void testFindMovements_LimitTooHigh() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> journal.findMovements(new StockMovementsSpec(null, null, null, 10_001)));
+    }
+}
@@ -0,0 +1,44 @@
+package com.checkproof.serviceimpl.outbox;
+
+import com.checkproof.servicemodel.OutboundMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("FileMessagePublisher Unit Tests")
+class FileMessagePublisherTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Should append each message as one JSON line with its payload embedded")
+    void testPublish_AppendsLines() throws Exception {
+        // Given
+        OutboxProperties properties = new OutboxProperties();
+        properties.setFile(directory.resolve("outbox/messages.ndjson").toString());
+        FileMessagePublisher publisher = new FileMessagePublisher(new ObjectMapper(), properties);
+        publisher.open();
+
+        // When
+        publisher.publish(List.of(message(1L, "{\"itemId\":1}")));
+        publisher.publish(List.of(message(2L, "{\"itemId\":2}")));
+
+        // Then
+        assertEquals(List.of(
+                "{\"id\":1,\"topic\":\"catalog\",\"key\":\"1\",\"payload\":{\"itemId\":1}}",
+                "{\"id\":2,\"topic\":\"catalog\",\"key\":\"1\",\"payload\":{\"itemId\":2}}"),
+                Files.readAllLines(Path.of(properties.getFile())));
+    }
+
+    private OutboundMessage message(Long id, String payload) {
+        return OutboundMessage.builder().id(id).topic("catalog").key("1").payload(payload).build();
+    }
+}
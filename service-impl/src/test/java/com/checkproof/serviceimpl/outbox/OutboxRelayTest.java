@@ -0,0 +1,108 @@
+package com.checkproof.serviceimpl.outbox;
+
+import com.checkproof.entity.OutboxMessage;
+import com.checkproof.helper.converter.OutboxConverter;
+import com.checkproof.repository.OutboxMessageRepository;
+import com.checkproof.service.MessagePublisher;
+import com.checkproof.servicemodel.OutboundMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private OutboxConverter outboxConverter;
+
+    @Mock
+    private MessagePublisher messagePublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        relay = new OutboxRelay(outboxMessageRepository, outboxConverter, messagePublisher, transactionTemplate,
+                properties);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should publish a claimed batch and delete it in one statement")
+    void testRelayBatch_Success() {
+        // Given
+        OutboxMessage first = message(1L);
+        OutboxMessage second = message(2L);
+        when(outboxMessageRepository.claimBatch(Limit.of(2))).thenReturn(List.of(first, second));
+        when(outboxConverter.toOutboundMessage(any()))
+                .thenAnswer(invocation -> OutboundMessage.builder()
+                        .id(invocation.getArgument(0, OutboxMessage.class).getId()).build());
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(2, relayed);
+        verify(messagePublisher, times(1)).publish(List.of(
+                OutboundMessage.builder().id(1L).build(), OutboundMessage.builder().id(2L).build()));
+        verify(outboxMessageRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should keep the messages when publishing fails")
+    void testRelayBatch_PublishFails() {
+        // Given
+        when(outboxMessageRepository.claimBatch(Limit.of(2))).thenReturn(List.of(message(1L)));
+        doThrow(new IllegalStateException("broker unavailable")).when(messagePublisher).publish(anyList());
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(0, relayed);
+        verify(outboxMessageRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Should not call the publisher when the outbox is empty")
+    void testRelayBatch_Empty() {
+        // Given
+        when(outboxMessageRepository.claimBatch(Limit.of(2))).thenReturn(List.of());
+
+        // When
+        int relayed = relay.relayBatch();
+
+        // Then
+        assertEquals(0, relayed);
+        verifyNoInteractions(messagePublisher);
+    }
+
+    private OutboxMessage message(Long id) {
+        OutboxMessage message = new OutboxMessage("stock", "1", "{}");
+        message.setId(id);
+        return message;
+    }
+}
@@ -0,0 +1,97 @@
+package com.checkproof.serviceimpl.outbox;
+
+import com.checkproof.entity.OutboxMessage;
+import com.checkproof.repository.OutboxMessageRepository;
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.servicemodel.CatalogChangedEvent;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Outbox Unit Tests")
+class OutboxTest {
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    private OutboxProperties properties;
+
+    private Outbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        outbox = new Outbox(outboxMessageRepository, new ObjectMapper(), properties);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Should write a stock event keyed by variant")
+    void testOnStockChanged() {
+        // When
+        outbox.onStockChanged(new StockChangedEvent(7L, StockOperation.RESERVE, 2, 10, 2, 3L));
+
+        // Then
+        verify(outboxMessageRepository, times(1)).save(new OutboxMessage("stock", "7",
+                "{\"variantId\":7,\"operation\":\"RESERVE\",\"quantity\":2,\"availableStock\":10,"
+                        + "\"allocatedStock\":2,\"version\":3}"));
+    }
+
+    @Test
+    @DisplayName("Should write a catalog event keyed by item")
+    void testOnCatalogChanged() {
+        // When
+        outbox.onCatalogChanged(new CatalogChangedEvent(1L));
+
+        // Then
+        verify(outboxMessageRepository, times(1)).save(new OutboxMessage("catalog", "1", "{\"itemId\":1}"));
+    }
+
+    @Test
+    @DisplayName("Should write stock events for flushed counters")
+    void testWriteStockCounters() {
+        // When
+        outbox.writeStockCounters(List.of(new StockCounters(7L, 10, 2)));
+
+        // Then
+        verify(outboxMessageRepository, times(1)).saveAll(List.of(new OutboxMessage("stock", "7",
+                "{\"variantId\":7,\"operation\":null,\"quantity\":null,\"availableStock\":10,"
+                        + "\"allocatedStock\":2,\"version\":null}")));
+    }
+
+    @Test
+    @DisplayName("Should write nothing outside of a transaction or when disabled")
+    void testOnStockChanged_NotWritten() {
+        // Given
+        StockChangedEvent event = new StockChangedEvent(7L, StockOperation.RESERVE, 2, 10, 2, 3L);
+
+        // When
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        outbox.onStockChanged(event);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        properties.setEnabled(false);
+        outbox.onStockChanged(event);
+
+        // Then
+        verify(outboxMessageRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,145 @@
+package com.checkproof.serviceimpl.search;
+
+import com.checkproof.repository.ItemRepository;
+import com.checkproof.repository.model.ItemTextRow;
+import com.checkproof.servicemodel.CatalogChangedEvent;
+import com.checkproof.servicemodel.SearchHitResult;
+import com.checkproof.servicemodel.SearchSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SearchService Unit Tests")
+class SearchServiceImplTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SearchProperties properties;
+
+    private SearchServiceImpl searchService;
+
+    private List<ItemTextRow> rows;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties = new SearchProperties();
+        properties.setRebuildThreads(2);
+        searchService = new SearchServiceImpl(itemRepository, transactionTemplate, properties);
+
+        rows = new ArrayList<>(List.of(
+                new ItemTextRow(1L, "Cotton Shirt", "A soft shirt", "Clothing", "Red"),
+                new ItemTextRow(1L, "Cotton Shirt", "A soft shirt", "Clothing", "Blue"),
+                new ItemTextRow(2L, "Coffee Mug", "Red ceramic mug", "Kitchen", null),
+                new ItemTextRow(5L, "Red Mug", null, "Kitchen", "Large")));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(itemRepository.findMaxId()).thenReturn(5L);
+        lenient().when(itemRepository.streamItemText(anyLong(), anyLong())).thenAnswer(invocation ->
+                rowsBetween(invocation.getArgument(0), invocation.getArgument(1)).stream());
+        lenient().when(itemRepository.findItemText(anyLong(), anyLong())).thenAnswer(invocation ->
+                rowsBetween(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    @DisplayName("Should build the index from slices of the item id range and rank hits")
+    void testBuildIndex_Search() {
+        // When
+        searchService.buildIndex();
+        List<SearchHitResult> hits = searchService.search(new SearchSpec("red MUG", null));
+
+        // Then
+        verify(itemRepository, times(5)).streamItemText(anyLong(), anyLong());
+        assertEquals(List.of(5L, 2L), hits.stream().map(SearchHitResult::getItemId).toList());
+        assertEquals("Red Mug", hits.get(0).getName());
+        assertEquals("Kitchen", hits.get(0).getCategory());
+    }
+
+    @Test
+    @DisplayName("Should match an item by the names of its variants")
+    void testSearch_VariantName() {
+        // Given
+        searchService.buildIndex();
+
+        // When
+        List<SearchHitResult> hits = searchService.search(new SearchSpec("blue shirt", 10));
+
+        // Then
+        assertEquals(List.of(1L), hits.stream().map(SearchHitResult::getItemId).toList());
+    }
+
+    @Test
+    @DisplayName("Should re-read an item after a catalog change and drop it once deleted")
+    void testOnCatalogChanged() {
+        // Given
+        searchService.buildIndex();
+        rows.add(new ItemTextRow(7L, "Teapot", "Cast iron", "Kitchen", null));
+
+        // When
+        searchService.onCatalogChanged(new CatalogChangedEvent(7L));
+
+        // Then
+        assertEquals(1, searchService.search(new SearchSpec("teapot", 10)).size());
+
+        // When
+        rows.removeIf(row -> row.getItemId() == 7L);
+        searchService.onCatalogChanged(new CatalogChangedEvent(7L));
+
+        // Then
+        assertTrue(searchService.search(new SearchSpec("teapot", 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index once too many entries are dead")
+    void testRebuildIfFragmented() {
+        // Given
+        searchService.buildIndex();
+        searchService.onCatalogChanged(new CatalogChangedEvent(1L));
+        searchService.rebuildIfFragmented(); // 1 of 4 entries dead
+        verify(itemRepository, times(1)).findMaxId();
+
+        // When
+        searchService.onCatalogChanged(new CatalogChangedEvent(2L));
+        searchService.rebuildIfFragmented();
+
+        // Then
+        verify(itemRepository, times(2)).findMaxId();
+        assertEquals(List.of(5L, 2L), searchService.search(new SearchSpec("red mug", 10)).stream()
+                .map(SearchHitResult::getItemId).toList());
+    }
+
+    @Test
+    @DisplayName("Should reject a blank query or a limit out of range")
+    void testSearch_Invalid() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> searchService.search(new SearchSpec(" ", null)));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> searchService.search(new SearchSpec("mug", 101)));
+        assertEquals("Limit must be between 1 and 100", exception.getMessage());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private List<ItemTextRow> rowsBetween(long fromId, long toId) {
+        return rows.stream().filter(row -> row.getItemId() >= fromId && row.getItemId() < toId).toList();
+    }
+}
@@ -0,0 +1,35 @@
+package com.checkproof.serviceimpl.sku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BloomFilter Unit Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should report every added hash and few others")
+    void testMightContain() {
+        // Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(SkuIndex.hash("SKU-" + i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(SkuIndex.hash("SKU-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(SkuIndex.hash("SKU-" + i)));
+        }
+        assertEquals(7, filter.hashCount());
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,82 @@
+package com.checkproof.serviceimpl.sku;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OffHeapSkuTable Unit Tests")
+class OffHeapSkuTableTest {
+
+    @Test
+    @DisplayName("Should find, replace and remove entries")
+    void testPutGetRemove() {
+        // Given
+        OffHeapSkuTable table = new OffHeapSkuTable(4);
+        table.put(SkuIndex.hash("SKU-1"), 1L);
+        table.put(SkuIndex.hash("SKU-2"), 2L);
+
+        // When
+        table.put(SkuIndex.hash("SKU-1"), 3L);
+
+        // Then
+        assertEquals(3L, table.get(SkuIndex.hash("SKU-1")));
+        assertEquals(2, table.size());
+        assertFalse(table.remove(SkuIndex.hash("SKU-2"), 9L), "mapped to another variant");
+        assertTrue(table.remove(SkuIndex.hash("SKU-2"), 2L));
+        assertEquals(OffHeapSkuTable.NOT_FOUND, table.get(SkuIndex.hash("SKU-2")));
+    }
+
+    @Test
+    @DisplayName("Should keep colliding entries reachable after removals in the middle of a probe run")
+    void testRemove_ShiftsProbeRun() {
+        // Given: hashes with the same home slot and one that wraps around the end of the table
+        OffHeapSkuTable table = new OffHeapSkuTable(4);
+        int capacity = table.capacity();
+        long[] hashes = {capacity + 3, 2L * capacity + 3, 3L * capacity + 3, capacity - 1, 2L * capacity - 1};
+        for (int i = 0; i < hashes.length; i++) {
+            table.put(hashes[i], i);
+        }
+
+        // When
+        table.remove(hashes[0], 0);
+        table.remove(hashes[3], 3);
+
+        // Then
+        assertEquals(OffHeapSkuTable.NOT_FOUND, table.get(hashes[0]));
+        assertEquals(1, table.get(hashes[1]));
+        assertEquals(2, table.get(hashes[2]));
+        assertEquals(4, table.get(hashes[4]));
+    }
+
+    @Test
+    @DisplayName("Should match a map through growth and random removals")
+    void testRandomOperations() {
+        // Given
+        OffHeapSkuTable table = new OffHeapSkuTable(16);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            long hash = SkuIndex.hash("SKU-" + random.nextInt(5_000));
+            if (random.nextInt(3) == 0) {
+                Long variantId = expected.get(hash);
+                assertEquals(variantId != null, variantId != null && table.remove(hash, variantId));
+                expected.remove(hash);
+            } else {
+                table.put(hash, i);
+                expected.put(hash, (long) i);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), table.size());
+        expected.forEach((hash, variantId) -> assertEquals(variantId, table.get(hash)));
+        assertTrue(table.capacity() > 16);
+    }
+}
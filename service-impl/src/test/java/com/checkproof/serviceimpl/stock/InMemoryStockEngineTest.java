@@ -0,0 +1,435 @@
+package com.checkproof.serviceimpl.stock;
+
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.entity.ItemVariantStock;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.repository.model.StockCounters;
+import com.checkproof.repository.model.StockLevel;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.serviceimpl.ItemVariantServiceImpl;
+import com.checkproof.serviceimpl.changes.ChangeRecorder;
+import com.checkproof.serviceimpl.outbox.Outbox;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InMemoryStockEngine Unit Tests")
+class InMemoryStockEngineTest {
+
+    @Mock
+    private ItemVariantServiceImpl delegate;
+
+    @Mock
+    private ItemVariantRepository itemVariantRepository;
+
+    @Mock
+    private ItemVariantStockRepository itemVariantStockRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeRecorder changeRecorder;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private InMemoryStockEngine engine;
+
+    private ItemVariantStock testStock;
+
+    @BeforeEach
+    void setUp() {
+        StockEngineProperties properties = new StockEngineProperties();
+        properties.setFlushBatchSize(2);
+        engine = new InMemoryStockEngine(delegate, itemVariantRepository, itemVariantStockRepository,
+                properties, eventPublisher, changeRecorder, outbox, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+
+        ItemVariant testVariant = new ItemVariant();
+        testVariant.setId(1L);
+        testVariant.setName("Small - Blue");
+
+        testStock = new ItemVariantStock();
+        testStock.setItemVariant(testVariant);
+        testStock.setAvailableStock(100);
+        testStock.setAllocatedStock(10);
+        testStock.setVersion(3L);
+    }
+
+    @Test
+    @DisplayName("Should load the stock row once and decide later operations in memory")
+    void testReserveStock_LoadsOnce() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+
+        // When
+        VariantStockResult first = engine.reserveStock(new VariantStockSpec(1L, 30));
+        VariantStockResult second = engine.reserveStock(new VariantStockSpec(1L, 30));
+
+        // Then
+        assertEquals(VariantStockResult.builder()
+                .variantId(1L).availableStock(100).allocatedStock(40).sellableStock(60).version(4L).build(), first);
+        assertEquals(70, second.getAllocatedStock());
+        assertEquals(5L, second.getVersion());
+        verify(itemVariantStockRepository, times(1)).findLevelByVariantId(1L);
+        verify(itemVariantStockRepository, never()).writeCounters(anyList());
+    }
+
+    @Test
+    @DisplayName("Should publish each applied mutation with the counters it produced")
+    void testReserveStock_PublishesChange() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+
+        // When
+        engine.reserveStock(new VariantStockSpec(1L, 30));
+        assertThrows(OutOfStockException.class, () -> engine.reserveStock(new VariantStockSpec(1L, 61)));
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        verify(eventPublisher).publishEvent(new StockChangedEvent(1L, StockOperation.RESERVE, 30, 100, 40, 4L));
+    }
+
+    @Test
+    @DisplayName("Should throw OutOfStockException without touching the database")
+    void testReserveStock_InsufficientStock() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+
+        // When & Then
+        OutOfStockException exception = assertThrows(OutOfStockException.class,
+            () -> engine.reserveStock(new VariantStockSpec(1L, 91)));
+        assertTrue(exception.getMessage().contains("Available: 90"));
+        assertTrue(exception.getMessage().contains("Requested: 91"));
+
+        engine.flush();
+        verify(itemVariantStockRepository, never()).writeCounters(anyList());
+    }
+
+    @Test
+    @DisplayName("Should apply commit and release against allocated stock")
+    void testCommitAndReleaseStock() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        when(itemVariantStockRepository.writeCounters(anyList())).thenReturn(new int[] {1});
+
+        // When
+        engine.commitStock(new VariantStockSpec(1L, 4));
+        engine.releaseStock(new VariantStockSpec(1L, 6));
+        assertThrows(IllegalArgumentException.class, () -> engine.releaseStock(new VariantStockSpec(1L, 1)));
+        engine.flush();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockCounters>> captor = ArgumentCaptor.forClass(List.class);
+        verify(itemVariantStockRepository, times(1)).writeCounters(captor.capture());
+        assertEquals(List.of(new StockCounters(1L, 96, 0)), captor.getValue());
+        verify(changeRecorder, times(1)).recordStockUpdates(List.of(1L));
+        verify(outbox, times(1)).writeStockCounters(List.of(new StockCounters(1L, 96, 0)));
+    }
+
+    @Test
+    @DisplayName("Should write dirty counters behind in batches")
+    void testFlush_WritesBatches() {
+        // Given
+        for (long variantId = 1; variantId <= 3; variantId++) {
+            ItemVariant variant = new ItemVariant();
+            variant.setId(variantId);
+            ItemVariantStock stock = new ItemVariantStock();
+            stock.setItemVariant(variant);
+            stock.setAvailableStock(10);
+            stock.setAllocatedStock(0);
+            when(itemVariantStockRepository.findLevelByVariantId(variantId)).thenReturn(Optional.of(levelOf(stock)));
+        }
+        when(itemVariantStockRepository.writeCounters(anyList()))
+                .thenAnswer(invocation -> new int[((List<?>) invocation.getArgument(0)).size()]);
+
+        // When
+        engine.increaseStock(new VariantStockSpec(1L, 5));
+        engine.decreaseStock(new VariantStockSpec(2L, 5));
+        engine.reserveStock(new VariantStockSpec(3L, 5));
+        engine.flush();
+        engine.flush();
+
+        // Then
+        verify(itemVariantStockRepository, times(2)).writeCounters(anyList());
+    }
+
+    @Test
+    @DisplayName("Should keep counters dirty when the flush fails")
+    void testFlush_RetriesAfterFailure() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        when(itemVariantStockRepository.writeCounters(anyList()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(new int[] {1});
+        engine.increaseStock(new VariantStockSpec(1L, 5));
+
+        // When
+        engine.flush();
+        engine.flush();
+
+        // Then
+        verify(itemVariantStockRepository, times(2)).writeCounters(List.of(new StockCounters(1L, 105, 10)));
+    }
+
+    @Test
+    @DisplayName("Should insert a zero stock row without publishing it when increasing stock of a variant without one")
+    void testIncreaseStock_CreatesMissingStock() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.empty());
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testStock.getItemVariant()));
+        when(itemVariantStockRepository.saveAndFlush(any(ItemVariantStock.class))).thenAnswer(invocation -> {
+            ItemVariantStock stock = invocation.getArgument(0);
+            stock.setVersion(0L);
+            return stock;
+        });
+
+        // When
+        VariantStockResult result = engine.increaseStock(new VariantStockSpec(1L, 5));
+
+        // Then
+        assertEquals(5, result.getAvailableStock());
+        assertEquals(1L, result.getVersion());
+        ArgumentCaptor<ItemVariantStock> captor = ArgumentCaptor.forClass(ItemVariantStock.class);
+        verify(itemVariantStockRepository, times(1)).saveAndFlush(captor.capture());
+        assertEquals(0, captor.getValue().getAvailableStock());
+        assertEquals(0, captor.getValue().getAllocatedStock());
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        verify(eventPublisher).publishEvent(new StockChangedEvent(1L, StockOperation.INCREASE, 5, 5, 0, 1L));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should reject an increase past the largest stock level as an illegal argument")
+    void testIncreaseStock_Overflow() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.increaseStock(new VariantStockSpec(1L, Integer.MAX_VALUE - 50)));
+        assertEquals(100, engine.getStock(1L).getAvailableStock());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the first loaded cell when another load of the variant wins the race")
+    void testIncreaseStock_ConcurrentLoadKeepsFirstCell() {
+        // Given
+        doReturn(Optional.empty()).doReturn(Optional.empty()).doReturn(Optional.of(new StockLevel(1L, 0, 0, 0L)))
+                .when(itemVariantStockRepository).findLevelByVariantId(1L);
+        when(itemVariantRepository.findById(1L)).thenReturn(Optional.of(testStock.getItemVariant()));
+        AtomicInteger inserts = new AtomicInteger();
+        when(itemVariantStockRepository.saveAndFlush(any(ItemVariantStock.class))).thenAnswer(invocation -> {
+            if (inserts.incrementAndGet() == 1) {
+                engine.increaseStock(new VariantStockSpec(1L, 5));
+                throw new DataIntegrityViolationException("duplicate variant_id");
+            }
+            ItemVariantStock stock = invocation.getArgument(0);
+            stock.setVersion(0L);
+            return stock;
+        });
+
+        // When
+        VariantStockResult result = engine.increaseStock(new VariantStockSpec(1L, 3));
+        engine.flush();
+
+        // Then
+        assertEquals(8, result.getAvailableStock());
+        verify(itemVariantStockRepository, times(1)).writeCounters(List.of(new StockCounters(1L, 8, 0)));
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException when the variant does not exist")
+    void testReserveStock_VariantNotFound() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(999L)).thenReturn(Optional.empty());
+        when(itemVariantRepository.existsById(999L)).thenReturn(false);
+
+        // When & Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+            () -> engine.reserveStock(new VariantStockSpec(999L, 1)));
+        assertEquals("item_variant not found", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should apply no line of a reservation when one of its lines fails")
+    void testReserveStockLines_AllOrNothing() {
+        // Given
+        ItemVariant otherVariant = new ItemVariant();
+        otherVariant.setId(2L);
+        ItemVariantStock otherStock = new ItemVariantStock();
+        otherStock.setItemVariant(otherVariant);
+        otherStock.setAvailableStock(5);
+        otherStock.setAllocatedStock(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        when(itemVariantStockRepository.findLevelByVariantId(2L)).thenReturn(Optional.of(levelOf(otherStock)));
+
+        // When
+        OutOfStockException exception = assertThrows(OutOfStockException.class, () -> engine.reserveStockLines(
+                List.of(new VariantStockSpec(2L, 6), new VariantStockSpec(1L, 90))));
+        engine.reserveStockLines(List.of(new VariantStockSpec(1L, 90), new VariantStockSpec(2L, 5)));
+
+        // Then
+        assertTrue(exception.getMessage().startsWith("Variant 2: Insufficient stock to reserve"));
+        assertThrows(OutOfStockException.class, () -> engine.reserveStock(new VariantStockSpec(1L, 1)));
+        assertThrows(OutOfStockException.class, () -> engine.reserveStock(new VariantStockSpec(2L, 1)));
+    }
+
+    @Test
+    @DisplayName("Should never over-reserve under concurrent reservations")
+    void testReserveStock_Concurrent() throws Exception {
+        // Given
+        testStock.setAllocatedStock(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    engine.reserveStock(new VariantStockSpec(1L, 1));
+                    reserved.incrementAndGet();
+                } catch (OutOfStockException ignored) {
+                    // expected once the 100 units are gone
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(100, reserved.get());
+        assertThrows(OutOfStockException.class, () -> engine.reserveStock(new VariantStockSpec(1L, 1)));
+    }
+
+    @Test
+    @DisplayName("Should never refuse a reservation because of lines that a failing reservation did not apply")
+    void testReserveStockLines_ConcurrentFailuresInvisible() throws Exception {
+        // Given
+        testStock.setAllocatedStock(0);
+        ItemVariant otherVariant = new ItemVariant();
+        otherVariant.setId(2L);
+        ItemVariantStock otherStock = new ItemVariantStock();
+        otherStock.setItemVariant(otherVariant);
+        otherStock.setAvailableStock(0);
+        otherStock.setAllocatedStock(0);
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        when(itemVariantStockRepository.findLevelByVariantId(2L)).thenReturn(Optional.of(levelOf(otherStock)));
+        AtomicInteger refused = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> {
+                start.await();
+                assertThrows(OutOfStockException.class, () -> engine.reserveStockLines(
+                        List.of(new VariantStockSpec(1L, 1), new VariantStockSpec(2L, 1))));
+                return null;
+            });
+        }
+        for (int i = 0; i < 100; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    engine.reserveStock(new VariantStockSpec(1L, 1));
+                } catch (OutOfStockException e) {
+                    refused.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(0, refused.get());
+        assertEquals(100, engine.getStock(1L).getAllocatedStock());
+        assertEquals(0, engine.getStock(2L).getAllocatedStock());
+    }
+
+    @Test
+    @DisplayName("Should read stock from memory once the variant is loaded")
+    void testGetStock() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        engine.reserveStock(new VariantStockSpec(1L, 5));
+
+        // When
+        VariantStockResult result = engine.getStock(1L);
+
+        // Then
+        assertEquals(85, result.getSellableStock());
+        assertEquals(4L, result.getVersion());
+        verify(itemVariantStockRepository, times(1)).findLevelByVariantId(1L);
+    }
+
+    @Test
+    @DisplayName("Should report in-memory counters for variants in a batch read")
+    void testGetVariants_OverlaysCells() {
+        // Given
+        when(itemVariantStockRepository.findLevelByVariantId(1L)).thenReturn(Optional.of(levelOf(testStock)));
+        engine.reserveStock(new VariantStockSpec(1L, 30));
+        VariantStockResult stale = VariantStockResult.builder().variantId(1L).availableStock(100).allocatedStock(10).build();
+        VariantBatchSpec spec = new VariantBatchSpec(List.of(1L, 2L), null);
+        when(delegate.getVariants(spec)).thenReturn(List.of(
+                VariantBatchEntryResult.builder().variantId(1L).found(true).stock(stale).build(),
+                VariantBatchEntryResult.builder().variantId(2L).found(false).build()));
+
+        // When
+        List<VariantBatchEntryResult> result = engine.getVariants(spec);
+
+        // Then
+        assertEquals(40, result.get(0).getStock().getAllocatedStock());
+        assertEquals(4L, result.get(0).getStock().getVersion());
+        assertNull(result.get(1).getStock());
+    }
+
+    private StockLevel levelOf(ItemVariantStock stock) {
+        return new StockLevel(stock.getItemVariant().getId(), stock.getAvailableStock(), stock.getAllocatedStock(),
+                stock.getVersion() != null ? stock.getVersion() : 0L);
+    }
+}
@@ -0,0 +1,49 @@
+package com.checkproof.serviceimpl.stock;
+
+import com.checkproof.service.exception.OutOfStockException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StockCell Unit Tests")
+class StockCellTest {
+
+    @Test
+    @DisplayName("Should hold a mutation and a read until the multi-line operation unlocks the cell")
+    void testLock_HoldsMutations() throws Exception {
+        // Given
+        StockCell cell = new StockCell(1L, 10, 0, 0L);
+        long before = cell.lock();
+
+        // When
+        CompletableFuture<Long> reserve = CompletableFuture.supplyAsync(() -> cell.update(StockCell::reserve, 10));
+        CompletableFuture<Long> read = CompletableFuture.supplyAsync(cell::get);
+
+        // Then
+        assertThrows(TimeoutException.class, () -> reserve.get(200, TimeUnit.MILLISECONDS));
+        assertFalse(read.isDone());
+        cell.unlock(StockCell.reserve(before, 4));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> reserve.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OutOfStockException.class, exception.getCause());
+        assertEquals(StockCell.pack(10, 4), read.get(5, TimeUnit.SECONDS));
+        assertEquals(StockCell.pack(10, 4), cell.get());
+    }
+
+    @Test
+    @DisplayName("Should leave the value unchanged when a check fails")
+    void testUpdate_CheckFails() {
+        // Given
+        StockCell cell = new StockCell(1L, 10, 8, 0L);
+
+        // When & Then
+        assertThrows(OutOfStockException.class, () -> cell.update(StockCell::reserve, 3));
+        assertThrows(IllegalArgumentException.class, () -> cell.update(StockCell::release, 9));
+        assertEquals(StockCell.pack(10, 8), cell.get());
+    }
+}
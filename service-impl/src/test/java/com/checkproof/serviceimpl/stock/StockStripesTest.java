@@ -0,0 +1,255 @@
+package com.checkproof.serviceimpl.stock;
+
+import com.checkproof.entity.ItemVariant;
+import com.checkproof.entity.ItemVariantStock;
+import com.checkproof.entity.ItemVariantStockBucket;
+import com.checkproof.repository.ItemVariantRepository;
+import com.checkproof.repository.ItemVariantStockBucketRepository;
+import com.checkproof.repository.ItemVariantStockRepository;
+import com.checkproof.servicemodel.StockStripesResult;
+import com.checkproof.servicemodel.StockStripesSpec;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockStripes Unit Tests")
+class StockStripesTest {
+
+    @Mock
+    private ItemVariantRepository itemVariantRepository;
+
+    @Mock
+    private ItemVariantStockRepository itemVariantStockRepository;
+
+    @Mock
+    private ItemVariantStockBucketRepository bucketRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private StockEngineProperties engineProperties;
+
+    private StockStripes stockStripes;
+
+    private ItemVariantStock testStock;
+
+    @BeforeEach
+    void setUp() {
+        StockStripeProperties properties = new StockStripeProperties();
+        properties.setMaxBuckets(8);
+        engineProperties = new StockEngineProperties();
+        stockStripes = new StockStripes(itemVariantRepository, itemVariantStockRepository, bucketRepository,
+                transactionTemplate, properties, engineProperties);
+
+        ItemVariant variant = new ItemVariant();
+        variant.setId(1L);
+        testStock = new ItemVariantStock();
+        testStock.setItemVariant(variant);
+        testStock.setAvailableStock(10);
+        testStock.setAllocatedStock(3);
+    }
+
+    @Test
+    @DisplayName("Should spill a reservation over to the next bucket")
+    void testReserveStock_SpillsToNextBucket() {
+        // Given
+        stockStripes.refresh(1L, 2);
+        when(bucketRepository.reserveStock(eq(1L), anyInt(), eq(5)))
+                .thenAnswer(invocation -> invocation.getArgument(1, Integer.class) == 1 ? 1 : 0); // bucket 0 is exhausted
+
+        // When
+        int updated = stockStripes.reserveStock(1L, 5);
+
+        // Then
+        assertEquals(1, updated);
+        verify(bucketRepository, times(1)).reserveStock(1L, 1, 5);
+        verify(bucketRepository, never()).lockByVariantId(1L);
+    }
+
+    @Test
+    @DisplayName("Should draw a reservation from several buckets when no single bucket covers it")
+    void testReserveStock_DrawsFromSeveralBuckets() {
+        // Given
+        stockStripes.refresh(1L, 2);
+        when(bucketRepository.reserveStock(eq(1L), anyInt(), eq(6))).thenReturn(0);
+        when(bucketRepository.lockByVariantId(1L)).thenReturn(List.of(bucket(0, 5, 2), bucket(1, 4, 0)));
+
+        // When
+        int updated = stockStripes.reserveStock(1L, 6);
+
+        // Then
+        assertEquals(1, updated);
+        verify(bucketRepository, times(1)).reserveStock(1L, 0, 3);
+        verify(bucketRepository, times(1)).reserveStock(1L, 1, 3);
+    }
+
+    @Test
+    @DisplayName("Should change nothing when all buckets together cannot cover the quantity")
+    void testCommitStock_InsufficientAllocated() {
+        // Given
+        stockStripes.refresh(1L, 2);
+        when(bucketRepository.lockByVariantId(1L)).thenReturn(List.of(bucket(0, 5, 2), bucket(1, 4, 1)));
+
+        // When
+        int updated = stockStripes.commitStock(1L, 4);
+
+        // Then
+        assertEquals(0, updated);
+        verify(bucketRepository, times(2)).commitStock(eq(1L), anyInt(), eq(4));
+        verify(bucketRepository, never()).commitStock(eq(1L), anyInt(), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should split the stock row's counters evenly across new buckets")
+    void testEnableStripes_Success() {
+        // Given
+        when(itemVariantStockRepository.lockByVariantIds(List.of(1L))).thenReturn(List.of(1L));
+        when(bucketRepository.lockByVariantId(1L)).thenReturn(List.of());
+        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        StockStripesResult result;
+        try {
+            result = stockStripes.enableStripes(new StockStripesSpec(1L, 3));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ItemVariantStockBucket>> captor = ArgumentCaptor.forClass(List.class);
+        verify(bucketRepository).saveAll(captor.capture());
+        List<ItemVariantStockBucket> buckets = captor.getValue();
+        assertEquals(List.of(4, 3, 3), buckets.stream().map(ItemVariantStockBucket::getAvailableStock).toList());
+        assertEquals(List.of(1, 1, 1), buckets.stream().map(ItemVariantStockBucket::getAllocatedStock).toList());
+        assertEquals(3, testStock.getBucketCount());
+        assertEquals(3, result.getBucketCount());
+        assertEquals(10, result.getAvailableStock());
+        assertTrue(stockStripes.isStriped(1L));
+    }
+
+    @Test
+    @DisplayName("Should carry the versions of collapsed buckets over to the stock row")
+    void testDisableStripes_KeepsVersionGrowing() {
+        // Given
+        ItemVariantStockBucket first = bucket(0, 5, 2);
+        first.setVersion(4L);
+        ItemVariantStockBucket second = bucket(1, 4, 0);
+        second.setVersion(3L);
+        when(itemVariantStockRepository.lockByVariantIds(List.of(1L))).thenReturn(List.of(1L));
+        when(bucketRepository.lockByVariantId(1L)).thenReturn(List.of(first, second));
+        when(itemVariantStockRepository.findByItemVariant_Id(1L)).thenReturn(Optional.of(testStock));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        StockStripesResult result;
+        try {
+            result = stockStripes.disableStripes(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        var order = inOrder(bucketRepository, itemVariantStockRepository);
+        order.verify(bucketRepository).deleteByVariantId(1L);
+        order.verify(itemVariantStockRepository).addVersions(1L, 7L);
+        order.verify(itemVariantStockRepository).save(testStock);
+        assertEquals(9, result.getAvailableStock());
+        assertEquals(0, testStock.getBucketCount());
+    }
+
+    @Test
+    @DisplayName("Should reject bucket counts outside the configured range")
+    void testEnableStripes_InvalidBucketCount() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> stockStripes.enableStripes(new StockStripesSpec(1L, 9)));
+        verifyNoInteractions(itemVariantStockRepository, bucketRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject striping with the in-memory stock engine")
+    void testEnableStripes_MemoryEngine() {
+        // Given
+        engineProperties.setType("memory");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> stockStripes.enableStripes(new StockStripesSpec(1L, 4)));
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException when the variant has no stock row")
+    void testDisableStripes_NotFound() {
+        // Given
+        when(itemVariantStockRepository.lockByVariantIds(List.of(1L))).thenReturn(List.of());
+        when(itemVariantRepository.existsById(1L)).thenReturn(false);
+
+        // When & Then
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> stockStripes.disableStripes(1L));
+        assertEquals("item_variant not found", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should even out free stock across buckets and refresh the row totals")
+    void testRebalance() {
+        // Given
+        stockStripes.refresh(1L, 2);
+        List<ItemVariantStockBucket> buckets = List.of(bucket(0, 10, 2), bucket(1, 3, 3));
+        when(bucketRepository.lockByVariantId(1L)).thenReturn(buckets);
+
+        // When
+        stockStripes.rebalance(1L);
+
+        // Then
+        assertEquals(6, buckets.get(0).getAvailableStock());
+        assertEquals(7, buckets.get(1).getAvailableStock());
+        verify(bucketRepository, times(1)).saveAll(anyList());
+        verify(itemVariantStockRepository, times(1)).refreshStripedTotals(1L, 13, 5);
+    }
+
+    @Test
+    @DisplayName("Should forget a variant whose buckets are gone")
+    void testRebalance_NoBuckets() {
+        // Given
+        stockStripes.refresh(1L, 2);
+        when(bucketRepository.lockByVariantId(1L)).thenReturn(List.of());
+
+        // When
+        stockStripes.rebalance(1L);
+
+        // Then
+        assertFalse(stockStripes.isStriped(1L));
+        verify(itemVariantStockRepository, never()).refreshStripedTotals(anyLong(), anyInt(), anyInt());
+    }
+
+    private ItemVariantStockBucket bucket(int index, int available, int allocated) {
+        ItemVariantStockBucket bucket = new ItemVariantStockBucket();
+        bucket.setBucketIndex(index);
+        bucket.setAvailableStock(available);
+        bucket.setAllocatedStock(allocated);
+        return bucket;
+    }
+}
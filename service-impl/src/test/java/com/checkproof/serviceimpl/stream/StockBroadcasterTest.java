@@ -0,0 +1,285 @@
+package com.checkproof.serviceimpl.stream;
+
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockStreamListener;
+import com.checkproof.service.exception.CapacityExceededException;
+import com.checkproof.servicemodel.StockChangedEvent;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockResult;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockBroadcaster Unit Tests")
+class StockBroadcasterTest {
+
+    @Mock
+    private ItemVariantService itemVariantService;
+
+    private StockStreamProperties properties;
+
+    private StockBroadcaster broadcaster;
+
+    private RecordingListener listener;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StockStreamProperties();
+        properties.setMaxVariants(3);
+        properties.setMaxSubscribers(1);
+        properties.setCoalesceWindow(Duration.ofMillis(300));
+        properties.setSendQueueSize(2);
+        broadcaster = new StockBroadcaster(itemVariantService, properties);
+        broadcaster.start();
+        listener = new RecordingListener();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    @DisplayName("Should send the current levels of the variants that have stock on subscribe")
+    void testSubscribe_SendsCurrentLevels() throws Exception {
+        // Given
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        when(itemVariantService.getStock(2L)).thenThrow(new EntityNotFoundException("stock not found for variant"));
+
+        // When
+        broadcaster.subscribe(List.of(1L, 2L), listener);
+
+        // Then
+        assertEquals(List.of(level(1L, 10, 3L)), listener.next());
+    }
+
+    @Test
+    @DisplayName("Should coalesce a burst of changes into the latest level of each variant")
+    void testOnStockChanged_CoalescesBurst() throws Exception {
+        // Given
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        when(itemVariantService.getStock(2L)).thenReturn(level(2L, 5, 1L));
+        broadcaster.subscribe(List.of(1L, 2L), listener);
+        listener.next();
+
+        // When
+        broadcaster.onStockChanged(changed(2L, 4, 2L));
+        broadcaster.onStockChanged(changed(1L, 9, 4L));
+        broadcaster.onStockChanged(changed(1L, 8, 5L));
+        broadcaster.onStockChanged(changed(3L, 1, 1L));
+
+        // Then
+        assertEquals(List.of(level(1L, 8, 5L), level(2L, 4, 2L)), listener.next());
+        assertNull(listener.poll());
+    }
+
+    @Test
+    @DisplayName("Should drop a change older than the level already sent")
+    void testOnStockChanged_DropsOlderVersion() throws Exception {
+        // Given
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        broadcaster.subscribe(List.of(1L), listener);
+        listener.next();
+
+        // When
+        broadcaster.onStockChanged(changed(1L, 12, 2L));
+
+        // Then
+        assertNull(listener.poll());
+    }
+
+    @Test
+    @DisplayName("Should keep streaming a variant whose stripes were collapsed")
+    void testOnStockChanged_AfterStripesCollapsed() throws Exception {
+        // Given: striped, the version is the row's 3 plus its buckets' 40
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 43L));
+        broadcaster.subscribe(List.of(1L), listener);
+        listener.next();
+
+        // When: collapsing carries the bucket versions over to the row (44), the next change makes it 45
+        broadcaster.onStockChanged(changed(1L, 9, 45L));
+
+        // Then
+        assertEquals(List.of(level(1L, 9, 45L)), listener.next());
+    }
+
+    @Test
+    @DisplayName("Should stop sending once unsubscribed and free the subscriber's slot")
+    void testUnsubscribe() throws Exception {
+        // Given
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        Runnable unsubscribe = broadcaster.subscribe(List.of(1L), listener);
+        listener.next();
+
+        // When
+        unsubscribe.run();
+        broadcaster.onStockChanged(changed(1L, 9, 4L));
+
+        // Then
+        assertNull(listener.poll());
+        assertEquals(0, broadcaster.subscriberCount());
+        assertFalse(listener.closed);
+    }
+
+    @Test
+    @DisplayName("Should close the stream of a listener that fails")
+    void testOnStockChanged_ListenerFails() throws Exception {
+        // Given
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        listener.failing = true;
+
+        // When
+        broadcaster.subscribe(List.of(1L), listener);
+
+        // Then
+        assertEquals(List.of(level(1L, 10, 3L)), listener.next());
+        assertTrue(waitUntilClosed());
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    @Test
+    @DisplayName("Should close a stream whose send takes too long while other streams keep receiving")
+    void testSend_TimesOut() throws Exception {
+        // Given
+        properties.setMaxSubscribers(2);
+        properties.setSendTimeout(Duration.ofMillis(200));
+        restart();
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        listener.stalled = new CountDownLatch(1);
+        RecordingListener other = new RecordingListener();
+
+        try {
+            // When
+            broadcaster.subscribe(List.of(1L), listener);
+            listener.next();
+            broadcaster.subscribe(List.of(1L), other);
+            other.next();
+            broadcaster.onStockChanged(changed(1L, 9, 4L));
+
+            // Then
+            assertEquals(List.of(level(1L, 9, 4L)), other.next());
+            assertTrue(waitUntilClosed());
+            assertEquals(1, broadcaster.subscriberCount());
+        } finally {
+            listener.stalled.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should close a stream that falls more batches behind than its queue holds")
+    void testSend_FallsBehind() throws Exception {
+        // Given
+        properties.setCoalesceWindow(Duration.ofMillis(10));
+        restart();
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        listener.stalled = new CountDownLatch(1);
+
+        try {
+            broadcaster.subscribe(List.of(1L), listener);
+            listener.next();
+
+            // When
+            for (long version = 4; version <= 6 && !listener.closed; version++) {
+                broadcaster.onStockChanged(changed(1L, 9, version));
+                Thread.sleep(100);
+            }
+
+            // Then
+            assertTrue(waitUntilClosed());
+            assertEquals(0, broadcaster.subscriberCount());
+        } finally {
+            listener.stalled.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject more variant ids than allowed and more streams than allowed")
+    void testSubscribe_Limits() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> broadcaster.subscribe(List.of(1L, 2L, 3L, 4L), listener));
+        assertEquals("Between 1 and 3 variant ids can be streamed", exception.getMessage());
+
+        when(itemVariantService.getStock(1L)).thenReturn(level(1L, 10, 3L));
+        broadcaster.subscribe(List.of(1L), listener);
+        assertThrows(CapacityExceededException.class, () -> broadcaster.subscribe(List.of(2L), new RecordingListener()));
+    }
+
+    private void restart() {
+        broadcaster.stop();
+        broadcaster = new StockBroadcaster(itemVariantService, properties);
+        broadcaster.start();
+    }
+
+    private boolean waitUntilClosed() throws InterruptedException {
+        for (int i = 0; i < 100 && !listener.closed; i++) {
+            Thread.sleep(10);
+        }
+        return listener.closed;
+    }
+
+    private VariantStockResult level(Long variantId, int available, long version) {
+        return new VariantStockResult(variantId, available, 0, available, version);
+    }
+
+    private StockChangedEvent changed(Long variantId, int available, long version) {
+        return new StockChangedEvent(variantId, StockOperation.SET, available, available, 0, version);
+    }
+
+    private static class RecordingListener implements StockStreamListener {
+        private final BlockingQueue<List<VariantStockResult>> batches = new LinkedBlockingQueue<>();
+        private volatile boolean failing;
+        private volatile CountDownLatch stalled;
+        private volatile boolean closed;
+
+        @Override
+        public void onLevels(List<VariantStockResult> levels) {
+            batches.add(levels);
+            if (failing) {
+                throw new IllegalStateException("client went away");
+            }
+            if (stalled != null) {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onHeartbeat() {
+        }
+
+        @Override
+        public void onClose() {
+            closed = true;
+        }
+
+        List<VariantStockResult> next() throws InterruptedException {
+            var batch = batches.poll(2, TimeUnit.SECONDS);
+            assertNotNull(batch, "no batch was sent");
+            return batch;
+        }
+
+        List<VariantStockResult> poll() throws InterruptedException {
+            return batches.poll(500, TimeUnit.MILLISECONDS);
+        }
+    }
+}
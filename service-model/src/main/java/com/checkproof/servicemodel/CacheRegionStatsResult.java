@@ -0,0 +1,21 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheRegionStatsResult {
+  private String region;
+  private long size;
+  private long maxSize;
+  private long ttlSeconds;
+  private long hits;
+  private long misses;
+  private double hitRatio;
+  private long evictions;
+}
@@ -0,0 +1,11 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Published whenever an item or one of its variants is created, updated or deleted. */
+@Data
+@AllArgsConstructor
+public class CatalogChangedEvent {
+  private Long itemId;
+}
@@ -0,0 +1,20 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogItemResult {
+  private Long id;
+  private String name;
+  private String description;
+  private String category;
+  private List<CatalogVariantResult> variants;
+}
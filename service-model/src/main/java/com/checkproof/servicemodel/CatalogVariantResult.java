@@ -0,0 +1,20 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogVariantResult {
+  private Long id;
+  private String name;
+  private String sku;
+  private Double price;
+  private Integer availableStock;
+  private Integer allocatedStock;
+  private Integer sellableStock;
+}
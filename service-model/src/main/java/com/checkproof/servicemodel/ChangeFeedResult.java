@@ -0,0 +1,18 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeFeedResult {
+  private List<ChangeResult> changes;
+  private Long cursor;
+  private boolean hasMore;
+}
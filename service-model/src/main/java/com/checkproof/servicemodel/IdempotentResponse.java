@@ -0,0 +1,13 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class IdempotentResponse {
+  private String fingerprint;
+  private Integer status;
+  private String contentType;
+  private String body;
+}
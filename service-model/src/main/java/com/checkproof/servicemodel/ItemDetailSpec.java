@@ -0,0 +1,13 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemDetailSpec {
+  private Long id;
+  private List<String> expand;
+}
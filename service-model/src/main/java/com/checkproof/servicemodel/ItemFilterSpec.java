@@ -0,0 +1,16 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemFilterSpec {
+  private String category;
+  private String namePrefix;
+  private Double minPrice;
+  private Double maxPrice;
+  private Boolean inStock;
+}
@@ -0,0 +1,21 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboundMessage {
+  private Long id;
+  private String topic;
+  private String key;
+  // JSON.
+  private String payload;
+  private Date createdAt;
+}
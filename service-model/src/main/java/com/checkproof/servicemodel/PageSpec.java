@@ -0,0 +1,12 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PageSpec {
+  private String cursor;
+  private Integer limit;
+  private String sort;
+}
@@ -0,0 +1,17 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchHitResult {
+  private Long itemId;
+  private String name;
+  private String category;
+  private Float score;
+}
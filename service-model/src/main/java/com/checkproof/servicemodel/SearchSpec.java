@@ -0,0 +1,11 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SearchSpec {
+  private String query;
+  private Integer limit;
+}
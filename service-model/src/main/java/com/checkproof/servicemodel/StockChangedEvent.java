@@ -0,0 +1,16 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/** Published for every applied stock mutation, with the variant's counters and stock version right after it. */
+@Data
+@AllArgsConstructor
+public class StockChangedEvent {
+  private Long variantId;
+  private StockOperation operation;
+  private Integer quantity;
+  private Integer availableStock;
+  private Integer allocatedStock;
+  private Long version;
+}
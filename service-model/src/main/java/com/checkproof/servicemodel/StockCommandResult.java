@@ -0,0 +1,23 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockCommandResult {
+  private String id;
+  private String operation;
+  private String status;
+  private List<VariantStockResult> results;
+  private String error;
+  private Date submittedAt;
+  private Date completedAt;
+}
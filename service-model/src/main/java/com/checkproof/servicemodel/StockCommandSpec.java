@@ -0,0 +1,13 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StockCommandSpec {
+  private StockOperation operation;
+  private List<VariantStockSpec> lines;
+}
@@ -0,0 +1,22 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockHoldResult {
+  private Long id;
+  private Long variantId;
+  private Integer quantity;
+  private String status;
+  private Date expiresAt;
+  private Date createdAt;
+  private Date updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+@AllArgsConstructor
+public class StockHoldSpec {
+  private Long variantId;
+  private Integer quantity;
+  private Duration ttl;
+}
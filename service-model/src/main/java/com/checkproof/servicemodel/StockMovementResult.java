@@ -0,0 +1,22 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovementResult {
+  private Long sequence;
+  private Long variantId;
+  private String operation;
+  private Integer quantity;
+  private Integer availableStock;
+  private Integer allocatedStock;
+  private Date timestamp;
+}
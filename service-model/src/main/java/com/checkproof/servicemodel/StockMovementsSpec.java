@@ -0,0 +1,15 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class StockMovementsSpec {
+  private Long variantId;
+  private Instant from;
+  private Instant to;
+  private Integer limit;
+}
@@ -0,0 +1,11 @@
+package com.checkproof.servicemodel;
+
+// The stock journal stores the ordinal, so new operations must only be appended.
+public enum StockOperation {
+  SET,
+  INCREASE,
+  DECREASE,
+  RESERVE,
+  COMMIT,
+  RELEASE
+}
@@ -0,0 +1,17 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockStripesResult {
+  private Long variantId;
+  private int bucketCount;
+  private int availableStock;
+  private int allocatedStock;
+}
@@ -0,0 +1,18 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VariantBatchEntryResult {
+  private Long variantId;
+  private String sku;
+  private boolean found;
+  private ItemVariantResult variant;
+  private VariantStockResult stock;
+}
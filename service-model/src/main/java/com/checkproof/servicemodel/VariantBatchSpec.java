@@ -0,0 +1,13 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class VariantBatchSpec {
+  private List<Long> ids;
+  private List<String> skus;
+}
@@ -0,0 +1,20 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VariantContentionResult {
+  private Long variantId;
+  private String lockMode;
+  private long attempts;
+  private long conflicts;
+  private long retries;
+  private long modeSwitches;
+  private double conflictRate;
+}
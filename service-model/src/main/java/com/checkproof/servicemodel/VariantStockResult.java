@@ -0,0 +1,18 @@
+package com.checkproof.servicemodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VariantStockResult {
+  private Long variantId;
+  private int availableStock;
+  private int allocatedStock;
+  private int sellableStock;
+  private long version;
+}
@@ -0,0 +1,9 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.CacheRegionStatsResult;
+
+import java.util.List;
+
+public interface CacheStatsService {
+  List<CacheRegionStatsResult> getRegionStats();
+}
@@ -0,0 +1,9 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.CatalogItemResult;
+
+import java.util.function.Consumer;
+
+public interface CatalogExportService {
+  long exportCatalog(Consumer<CatalogItemResult> sink);
+}
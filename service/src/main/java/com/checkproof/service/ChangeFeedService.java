@@ -0,0 +1,8 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.ChangeFeedResult;
+import com.checkproof.servicemodel.ChangeFeedSpec;
+
+public interface ChangeFeedService {
+  ChangeFeedResult getChanges(ChangeFeedSpec spec);
+}
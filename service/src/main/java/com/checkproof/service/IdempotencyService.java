@@ -0,0 +1,15 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.IdempotentResponse;
+
+import java.util.Optional;
+
+public interface IdempotencyService {
+  /**
+   * Claims the key for a new request, or returns the response recorded for an earlier request
+   * with the same key and fingerprint.
+   */
+  Optional<IdempotentResponse> claim(String key, String fingerprint);
+  void complete(String key, IdempotentResponse response);
+  void abandon(String key);
+}
@@ -1,14 +1,20 @@
 package com.checkproof.service;
 
+import com.checkproof.servicemodel.ItemDetailResult;
+import com.checkproof.servicemodel.ItemDetailSpec;
+import com.checkproof.servicemodel.ItemFilterSpec;
 import com.checkproof.servicemodel.ItemResult;
 import com.checkproof.servicemodel.ItemSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
 import com.checkproof.servicemodel.UpdateItemSpec;
 
-import java.util.List;
-
 public interface ItemService {
-  List<ItemResult> getListItem();
+  PageResult<ItemResult> getListItem(ItemFilterSpec filter, PageSpec spec);
   ItemResult getItem(Long id);
+  ItemDetailResult getItemDetail(ItemDetailSpec spec);
+  String getListItemTag(ItemFilterSpec filter);
+  String getItemTag(ItemDetailSpec spec);
   ItemResult createItem(ItemSpec spec);
   ItemResult updateItem(UpdateItemSpec spec);
   Void deleteItem(Long id);
@@ -2,20 +2,35 @@ package com.checkproof.service;
 
 import com.checkproof.servicemodel.ItemVariantResult;
 import com.checkproof.servicemodel.ItemVariantSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
 import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
+import com.checkproof.servicemodel.VariantStockResult;
 import com.checkproof.servicemodel.VariantStockSpec;
 
 import java.util.List;
 
 public interface ItemVariantService {
   ItemVariantResult createVariant(ItemVariantSpec spec);
-  List<ItemVariantResult> getVariantsOfItem(Long itemId);
+  PageResult<ItemVariantResult> getVariantsOfItem(Long itemId, VariantFilterSpec filter, PageSpec spec);
+  ItemVariantResult getVariantBySku(String sku);
+  String getVariantsOfItemTag(Long itemId, VariantFilterSpec filter);
+  String getVariantTagBySku(String sku);
+  List<VariantBatchEntryResult> getVariants(VariantBatchSpec spec);
   ItemVariantResult updateVariant(UpdateItemVariantSpec spec);
   Void deleteVariant(Long variantId);
-  ItemVariantResult setManualStock(VariantStockSpec spec);
-  ItemVariantResult increaseStock(VariantStockSpec spec);
-  ItemVariantResult decreaseStock(VariantStockSpec spec);
-  ItemVariantResult reserveStock(VariantStockSpec spec);
-  ItemVariantResult commitStock(VariantStockSpec spec);
-  ItemVariantResult releaseStock(VariantStockSpec spec);
+  VariantStockResult getStock(Long variantId);
+  List<VariantStockResult> getStockOfItem(Long itemId);
+  VariantStockResult setManualStock(VariantStockSpec spec);
+  VariantStockResult increaseStock(VariantStockSpec spec);
+  VariantStockResult decreaseStock(VariantStockSpec spec);
+  VariantStockResult reserveStock(VariantStockSpec spec);
+  VariantStockResult commitStock(VariantStockSpec spec);
+  VariantStockResult releaseStock(VariantStockSpec spec);
+  List<VariantStockResult> reserveStockLines(List<VariantStockSpec> lines);
+  List<VariantStockResult> commitStockLines(List<VariantStockSpec> lines);
+  List<VariantStockResult> releaseStockLines(List<VariantStockSpec> lines);
 }
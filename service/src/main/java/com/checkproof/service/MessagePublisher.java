@@ -0,0 +1,15 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.OutboundMessage;
+
+import java.util.List;
+
+/**
+ * Delivers outbox messages to a broker. The relay calls it from its own thread with batches in
+ * outbox order. An implementation either delivers the whole batch or throws, in which case the
+ * batch is delivered again later, so delivery is at least once and consumers must tolerate
+ * duplicates.
+ */
+public interface MessagePublisher {
+  void publish(List<OutboundMessage> messages);
+}
@@ -0,0 +1,10 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.SearchHitResult;
+import com.checkproof.servicemodel.SearchSpec;
+
+import java.util.List;
+
+public interface SearchService {
+  List<SearchHitResult> search(SearchSpec spec);
+}
@@ -0,0 +1,15 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.StockCommandResult;
+import com.checkproof.servicemodel.StockCommandSpec;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface StockCommandService {
+  StockCommandResult submitCommand(StockCommandSpec spec);
+  StockCommandResult getCommand(String commandId);
+  /**
+   * Completes with the command's final result once it has succeeded or failed.
+   */
+  CompletableFuture<StockCommandResult> awaitCommand(String commandId);
+}
@@ -0,0 +1,10 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.VariantContentionResult;
+
+import java.util.List;
+
+public interface StockContentionService {
+  VariantContentionResult getContention(Long variantId);
+  List<VariantContentionResult> getMostContended(int limit);
+}
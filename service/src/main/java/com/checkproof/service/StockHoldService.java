@@ -0,0 +1,11 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.StockHoldResult;
+import com.checkproof.servicemodel.StockHoldSpec;
+
+public interface StockHoldService {
+  StockHoldResult placeHold(StockHoldSpec spec);
+  StockHoldResult getHold(Long holdId);
+  StockHoldResult commitHold(Long holdId);
+  StockHoldResult releaseHold(Long holdId);
+}
@@ -0,0 +1,10 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.StockMovementResult;
+import com.checkproof.servicemodel.StockMovementsSpec;
+
+import java.util.List;
+
+public interface StockJournalService {
+  List<StockMovementResult> findMovements(StockMovementsSpec spec);
+}
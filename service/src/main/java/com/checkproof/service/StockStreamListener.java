@@ -0,0 +1,19 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.VariantStockResult;
+
+import java.util.List;
+
+/**
+ * Receives a stock stream. Calls for one stream never overlap and may block on a slow client; a
+ * listener that throws, falls too far behind or blocks for too long is closed.
+ */
+public interface StockStreamListener {
+  /** The latest level of each variant that changed since the previous call, ordered by variant id. */
+  void onLevels(List<VariantStockResult> levels);
+
+  void onHeartbeat();
+
+  /** The server ended the stream, because the listener failed or the node is shutting down. */
+  void onClose();
+}
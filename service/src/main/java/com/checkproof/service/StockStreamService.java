@@ -0,0 +1,11 @@
+package com.checkproof.service;
+
+import java.util.List;
+
+public interface StockStreamService {
+  /**
+   * Sends the current stock level of each variant that has one, then its committed changes, to
+   * the listener until the returned handle is run or the stream is closed by the server.
+   */
+  Runnable subscribe(List<Long> variantIds, StockStreamListener listener);
+}
@@ -0,0 +1,10 @@
+package com.checkproof.service;
+
+import com.checkproof.servicemodel.StockStripesResult;
+import com.checkproof.servicemodel.StockStripesSpec;
+
+public interface StockStripeService {
+  StockStripesResult getStripes(Long variantId);
+  StockStripesResult enableStripes(StockStripesSpec spec);
+  StockStripesResult disableStripes(Long variantId);
+}
@@ -0,0 +1,7 @@
+package com.checkproof.service.exception;
+
+public class IdempotencyKeyInUseException extends RuntimeException {
+  public IdempotencyKeyInUseException(String message) {
+    super(message);
+  }
+}
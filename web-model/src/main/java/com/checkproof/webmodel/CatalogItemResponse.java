@@ -0,0 +1,20 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogItemResponse {
+  private Long id;
+  private String name;
+  private String description;
+  private String category;
+  private List<CatalogVariantResponse> variants;
+}
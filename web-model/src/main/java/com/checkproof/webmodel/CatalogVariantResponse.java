@@ -0,0 +1,20 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogVariantResponse {
+  private Long id;
+  private String name;
+  private String sku;
+  private Double price;
+  private Integer availableStock;
+  private Integer allocatedStock;
+  private Integer sellableStock;
+}
@@ -0,0 +1,18 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeFeedResponse {
+  private List<ChangeResponse> changes;
+  private Long cursor;
+  private boolean hasMore;
+}
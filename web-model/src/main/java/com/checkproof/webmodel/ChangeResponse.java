@@ -0,0 +1,21 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeResponse {
+  private Long sequence;
+  private String subject;
+  private Long subjectId;
+  private Long itemId;
+  private String kind;
+  private Date changedAt;
+}
@@ -0,0 +1,17 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchHitResponse {
+  private Long itemId;
+  private String name;
+  private String category;
+  private Float score;
+}
@@ -0,0 +1,27 @@
+package com.checkproof.webmodel;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBatchCommandRequest {
+  @NotNull(message = "Operation is required")
+  @Pattern(regexp = "SET|INCREASE|DECREASE|RESERVE|COMMIT|RELEASE",
+      message = "Operation must be one of SET, INCREASE, DECREASE, RESERVE, COMMIT, RELEASE")
+  private String operation;
+
+  @NotNull(message = "Variant id is required")
+  private Long variantId;
+
+  @NotNull(message = "Quantity is required")
+  @Positive(message = "Quantity must be positive")
+  private Integer quantity;
+}
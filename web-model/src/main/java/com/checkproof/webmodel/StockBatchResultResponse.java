@@ -0,0 +1,21 @@
+package com.checkproof.webmodel;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockBatchResultResponse {
+  private long line;
+  private int status;
+  private VariantStockResponse stock;
+  private Map<String, Object> error;
+}
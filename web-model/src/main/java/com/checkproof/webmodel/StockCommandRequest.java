@@ -0,0 +1,26 @@
+package com.checkproof.webmodel;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCommandRequest {
+  @NotNull(message = "Operation is required")
+  @Pattern(regexp = "SET|INCREASE|DECREASE|RESERVE|COMMIT|RELEASE",
+      message = "Operation must be one of SET, INCREASE, DECREASE, RESERVE, COMMIT, RELEASE")
+  private String operation;
+
+  @NotEmpty(message = "At least one line is required")
+  private List<@Valid StockLineRequest> lines;
+}
@@ -0,0 +1,23 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockCommandResponse {
+  private String id;
+  private String operation;
+  private String status;
+  private List<VariantStockResponse> results;
+  private String error;
+  private Date submittedAt;
+  private Date completedAt;
+}
@@ -0,0 +1,22 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldResponse {
+  private Long id;
+  private Long variantId;
+  private Integer quantity;
+  private String status;
+  private Date expiresAt;
+  private Date createdAt;
+  private Date updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.checkproof.webmodel;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLineRequest {
+  @NotNull(message = "Variant id is required")
+  private Long variantId;
+
+  @NotNull(message = "Quantity is required")
+  @Positive(message = "Quantity must be positive")
+  private Integer quantity;
+}
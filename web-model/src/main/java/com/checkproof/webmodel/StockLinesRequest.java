@@ -0,0 +1,21 @@
+package com.checkproof.webmodel;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLinesRequest {
+  @NotEmpty(message = "At least one line is required")
+  @Size(max = 100, message = "At most 100 lines are allowed")
+  private List<@Valid StockLineRequest> lines;
+}
@@ -0,0 +1,22 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementResponse {
+  private Long sequence;
+  private Long variantId;
+  private String operation;
+  private Integer quantity;
+  private Integer availableStock;
+  private Integer allocatedStock;
+  private Date timestamp;
+}
@@ -0,0 +1,18 @@
+package com.checkproof.webmodel;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockStripesRequest {
+  @NotNull(message = "Bucket count is required")
+  @Min(value = 2, message = "Bucket count must be at least 2")
+  private Integer bucketCount;
+}
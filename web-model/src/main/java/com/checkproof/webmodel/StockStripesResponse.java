@@ -0,0 +1,17 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockStripesResponse {
+  private Long variantId;
+  private int bucketCount;
+  private int availableStock;
+  private int allocatedStock;
+}
@@ -0,0 +1,18 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantBatchEntryResponse {
+  private Long variantId;
+  private String sku;
+  private boolean found;
+  private ItemVariantResponse variant;
+  private VariantStockResponse stock;
+}
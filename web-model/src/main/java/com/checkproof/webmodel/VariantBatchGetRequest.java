@@ -0,0 +1,19 @@
+package com.checkproof.webmodel;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantBatchGetRequest {
+  private List<@NotNull(message = "Variant id is required") Long> ids;
+  private List<@NotBlank(message = "SKU must not be blank") String> skus;
+}
@@ -0,0 +1,20 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantContentionResponse {
+  private Long variantId;
+  private String lockMode;
+  private long attempts;
+  private long conflicts;
+  private long retries;
+  private long modeSwitches;
+  private double conflictRate;
+}
@@ -0,0 +1,18 @@
+package com.checkproof.webmodel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VariantStockResponse {
+  private Long variantId;
+  private int availableStock;
+  private int allocatedStock;
+  private int sellableStock;
+  private long version;
+}
@@ -0,0 +1,26 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.CacheConverter;
+import com.checkproof.service.CacheStatsService;
+import com.checkproof.webmodel.CacheRegionStatsResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "api/v1/cache")
+@AllArgsConstructor
+public class CacheController {
+  private final CacheStatsService cacheStatsService;
+  private final CacheConverter cacheConverter;
+
+  @GetMapping("/stats")
+  public ResponseEntity<List<CacheRegionStatsResponse>> getRegionStats() {
+    var result = cacheStatsService.getRegionStats();
+    return ResponseEntity.ok(result.stream().map(cacheConverter::toCacheRegionStatsResponse).toList());
+  }
+}
@@ -0,0 +1,104 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.CatalogConverter;
+import com.checkproof.service.CatalogExportService;
+import com.checkproof.webmodel.CatalogItemResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping(value = "api/v1/catalog")
+@AllArgsConstructor
+@Slf4j
+public class CatalogExportController {
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int FLUSH_EVERY = 500;
+
+  private final CatalogExportService catalogExportService;
+  private final CatalogConverter catalogConverter;
+  private final ObjectMapper objectMapper;
+
+  // Writes one item per line straight to the response as it comes off the database cursor,
+  // pushing what has been written to the client every FLUSH_EVERY items.
+  @GetMapping(value = "/export", produces = NDJSON)
+  public void exportCatalog(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response) throws IOException {
+    boolean gzip = acceptsGzip(acceptEncoding);
+    log.info("Exporting catalog{}", gzip ? " gzipped" : "");
+    response.setContentType(NDJSON);
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), BUFFER_SIZE, true)
+        : new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+    var writer = objectMapper.writerFor(CatalogItemResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    var written = new AtomicLong();
+    try (var generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.setRootValueSeparator(null);
+      catalogExportService.exportCatalog(item -> {
+        try {
+          writer.writeValue(generator, catalogConverter.toCatalogItemResponse(item));
+          generator.writeRaw('\n');
+          if (written.incrementAndGet() % FLUSH_EVERY == 0) {
+            generator.flush();
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+    log.info("Catalog export of {} items completed", written.get());
+  }
+
+  // Follows the q-values of Accept-Encoding: an explicit gzip entry decides, otherwise "*" does,
+  // and a q of 0 (or one that does not parse) refuses the coding.
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Double wildcard = null;
+    for (var coding : acceptEncoding.split(",")) {
+      var params = coding.split(";");
+      var name = params[0].trim().toLowerCase(Locale.ROOT);
+      if (name.equals("gzip")) {
+        return quality(params) > 0;
+      }
+      if (name.equals("*")) {
+        wildcard = quality(params);
+      }
+    }
+    return wildcard != null && wildcard > 0;
+  }
+
+  private static double quality(String[] params) {
+    for (int i = 1; i < params.length; i++) {
+      var param = params[i].trim();
+      if (param.length() > 1 && Character.toLowerCase(param.charAt(0)) == 'q' && param.charAt(1) == '=') {
+        try {
+          return Double.parseDouble(param.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
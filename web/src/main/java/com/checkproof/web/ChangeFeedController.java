@@ -0,0 +1,28 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.ChangeConverter;
+import com.checkproof.service.ChangeFeedService;
+import com.checkproof.servicemodel.ChangeFeedSpec;
+import com.checkproof.webmodel.ChangeFeedResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "api/v1/changes")
+@AllArgsConstructor
+public class ChangeFeedController {
+  private final ChangeFeedService changeFeedService;
+  private final ChangeConverter changeConverter;
+
+  @GetMapping
+  public ResponseEntity<ChangeFeedResponse> getChanges(
+      @RequestParam(required = false) Long since,
+      @RequestParam(required = false) Integer limit) {
+    var result = changeFeedService.getChanges(new ChangeFeedSpec(since, limit));
+    return ResponseEntity.ok(changeConverter.toChangeFeedResponse(result));
+  }
+}
@@ -4,10 +4,15 @@ import com.checkproof.helper.converter.ItemConverter;
 import com.checkproof.helper.converter.ItemVariantConverter;
 import com.checkproof.service.ItemService;
 import com.checkproof.service.ItemVariantService;
+import com.checkproof.servicemodel.ItemDetailSpec;
+import com.checkproof.servicemodel.ItemFilterSpec;
+import com.checkproof.servicemodel.PageSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
 import com.checkproof.webmodel.ItemRequest;
 import com.checkproof.webmodel.ItemResponse;
 import com.checkproof.webmodel.ItemVariantRequest;
 import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.webmodel.PageResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -18,7 +23,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
 import java.util.List;
@@ -33,15 +40,39 @@ public class ItemController {
   private final ItemVariantConverter itemVariantConverter;
 
   @GetMapping
-  public ResponseEntity<List<ItemResponse>> getListItems() {
-    var result = itemService.getListItem();
-    return ResponseEntity.ok(result.stream().map(itemConverter::toItemResponse).toList());
+  public ResponseEntity<PageResponse<ItemResponse>> getListItems(
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) String namePrefix,
+      @RequestParam(required = false) Double minPrice,
+      @RequestParam(required = false) Double maxPrice,
+      @RequestParam(required = false) Boolean inStock,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String sort,
+      WebRequest request) {
+    var filter = new ItemFilterSpec(category, namePrefix, minPrice, maxPrice, inStock);
+    var tag = itemService.getListItemTag(filter);
+    if (tag != null && request.checkNotModified(tag)) {
+      return null;
+    }
+    var result = itemService.getListItem(filter, new PageSpec(cursor, limit, sort));
+    return ResponseEntity.ok(new PageResponse<>(
+        result.getItems().stream().map(itemConverter::toItemResponse).toList(), result.getNextCursor()));
   }
 
   @GetMapping("/{id}")
-  public ResponseEntity<ItemResponse> getItem(@PathVariable Long id) {
-    var result = itemService.getItem(id);
-    return ResponseEntity.ok(itemConverter.toItemResponse(result));
+  public ResponseEntity<Object> getItem(@PathVariable Long id, @RequestParam(required = false) List<String> expand,
+      WebRequest request) {
+    var tag = itemService.getItemTag(new ItemDetailSpec(id, expand));
+    if (tag != null && request.checkNotModified(tag)) {
+      return null;
+    }
+    if (expand == null || expand.isEmpty()) {
+      var result = itemService.getItem(id);
+      return ResponseEntity.ok(itemConverter.toItemResponse(result));
+    }
+    var result = itemService.getItemDetail(new ItemDetailSpec(id, expand));
+    return ResponseEntity.ok(itemConverter.toItemDetailResponse(result));
   }
 
   @PostMapping
@@ -74,8 +105,22 @@ public class ItemController {
   }
 
   @GetMapping("/{itemId}/variants")
-  public ResponseEntity<List<ItemVariantResponse>> getVariantsOfItem(@PathVariable Long itemId) {
-    var result = itemVariantService.getVariantsOfItem(itemId);
-    return ResponseEntity.ok(result.stream().map(itemVariantConverter::toItemVariantResponse).toList());
+  public ResponseEntity<PageResponse<ItemVariantResponse>> getVariantsOfItem(@PathVariable Long itemId,
+      @RequestParam(required = false) String namePrefix,
+      @RequestParam(required = false) Double minPrice,
+      @RequestParam(required = false) Double maxPrice,
+      @RequestParam(required = false) Boolean inStock,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String sort,
+      WebRequest request) {
+    var filter = new VariantFilterSpec(namePrefix, minPrice, maxPrice, inStock);
+    var tag = itemVariantService.getVariantsOfItemTag(itemId, filter);
+    if (tag != null && request.checkNotModified(tag)) {
+      return null;
+    }
+    var result = itemVariantService.getVariantsOfItem(itemId, filter, new PageSpec(cursor, limit, sort));
+    return ResponseEntity.ok(new PageResponse<>(
+        result.getItems().stream().map(itemVariantConverter::toItemVariantResponse).toList(), result.getNextCursor()));
   }
 }
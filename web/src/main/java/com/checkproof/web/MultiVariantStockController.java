@@ -0,0 +1,134 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockContentionService;
+import com.checkproof.service.StockJournalService;
+import com.checkproof.service.StockStreamListener;
+import com.checkproof.service.StockStreamService;
+import com.checkproof.servicemodel.StockMovementsSpec;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.webmodel.StockLinesRequest;
+import com.checkproof.webmodel.StockMovementResponse;
+import com.checkproof.webmodel.VariantContentionResponse;
+import com.checkproof.webmodel.VariantStockResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "api/v1/variants/stock")
+@AllArgsConstructor
+@Slf4j
+@Validated
+public class MultiVariantStockController {
+  private final ItemVariantService itemVariantService;
+  private final StockContentionService stockContentionService;
+  private final StockConverter stockConverter;
+  private final StockJournalService stockJournalService;
+  private final StockStreamService stockStreamService;
+
+  @PostMapping("/reserve")
+  public ResponseEntity<List<VariantStockResponse>> reserveStock(@Valid @RequestBody StockLinesRequest body) {
+    log.info("Reserving stock for {} lines", body.getLines().size());
+    var result = itemVariantService.reserveStockLines(toVariantStockSpecs(body));
+    log.info("Stock reserved successfully for {} variants", result.size());
+    return ResponseEntity.ok(result.stream().map(stockConverter::toVariantStockResponse).toList());
+  }
+
+  @PostMapping("/commit")
+  public ResponseEntity<List<VariantStockResponse>> commitStock(@Valid @RequestBody StockLinesRequest body) {
+    log.info("Committing stock for {} lines", body.getLines().size());
+    var result = itemVariantService.commitStockLines(toVariantStockSpecs(body));
+    log.info("Stock committed successfully for {} variants", result.size());
+    return ResponseEntity.ok(result.stream().map(stockConverter::toVariantStockResponse).toList());
+  }
+
+  @PostMapping("/release")
+  public ResponseEntity<List<VariantStockResponse>> releaseStock(@Valid @RequestBody StockLinesRequest body) {
+    log.info("Releasing stock for {} lines", body.getLines().size());
+    var result = itemVariantService.releaseStockLines(toVariantStockSpecs(body));
+    log.info("Stock released successfully for {} variants", result.size());
+    return ResponseEntity.ok(result.stream().map(stockConverter::toVariantStockResponse).toList());
+  }
+
+  @GetMapping("/contention")
+  public ResponseEntity<List<VariantContentionResponse>> getMostContended(
+      @RequestParam(defaultValue = "20") @Min(1) @Max(500) int limit) {
+    var result = stockContentionService.getMostContended(limit);
+    return ResponseEntity.ok(result.stream().map(stockConverter::toVariantContentionResponse).toList());
+  }
+
+  @GetMapping("/movements")
+  public ResponseEntity<List<StockMovementResponse>> getMovements(
+      @RequestParam(required = false) Long variantId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+      @RequestParam(defaultValue = "1000") @Min(1) int limit) {
+    var result = stockJournalService.findMovements(new StockMovementsSpec(variantId, from, to, limit));
+    return ResponseEntity.ok(result.stream().map(stockConverter::toStockMovementResponse).toList());
+  }
+
+  // Server-sent events: a "stock" event carrying a JSON array of the latest levels of the variants
+  // that changed, starting with the current ones, and a comment line as heartbeat. The stream
+  // has no timeout; it ends when the client disconnects, or is completed by the server when the
+  // client reads too slowly.
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamStock(@RequestParam List<Long> variantIds) {
+    var emitter = new SseEmitter(0L);
+    var unsubscribe = stockStreamService.subscribe(variantIds, new StockStreamListener() {
+      @Override
+      public void onLevels(List<VariantStockResult> levels) {
+        send(emitter, SseEmitter.event().name("stock")
+            .data(levels.stream().map(stockConverter::toVariantStockResponse).toList(), MediaType.APPLICATION_JSON));
+      }
+
+      @Override
+      public void onHeartbeat() {
+        send(emitter, SseEmitter.event().comment("heartbeat"));
+      }
+
+      @Override
+      public void onClose() {
+        emitter.complete();
+      }
+    });
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(e -> unsubscribe.run());
+    return emitter;
+  }
+
+  private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+    try {
+      emitter.send(event);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private List<VariantStockSpec> toVariantStockSpecs(StockLinesRequest body) {
+    return body.getLines().stream()
+        .map(line -> new VariantStockSpec(line.getVariantId(), line.getQuantity()))
+        .toList();
+  }
+}
@@ -0,0 +1,32 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.SearchConverter;
+import com.checkproof.service.SearchService;
+import com.checkproof.servicemodel.SearchSpec;
+import com.checkproof.webmodel.SearchHitResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "api/v1/search")
+@AllArgsConstructor
+@Slf4j
+public class SearchController {
+  private final SearchService searchService;
+  private final SearchConverter searchConverter;
+
+  @GetMapping
+  public ResponseEntity<List<SearchHitResponse>> search(@RequestParam(required = false) String q,
+      @RequestParam(required = false) Integer limit) {
+    var result = searchService.search(new SearchSpec(q, limit));
+    log.debug("Search for '{}' found {} items", q, result.size());
+    return ResponseEntity.ok(result.stream().map(searchConverter::toSearchHitResponse).toList());
+  }
+}
@@ -0,0 +1,158 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.web.exception.GlobalExceptionHandler;
+import com.checkproof.webmodel.StockBatchCommandRequest;
+import com.checkproof.webmodel.StockBatchResultResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping(value = "api/v1/variants/stock")
+@AllArgsConstructor
+@Slf4j
+public class StockBatchController {
+  private static final String NDJSON = "application/x-ndjson";
+  private static final int BUFFER_SIZE = 16 * 1024;
+  private static final int MAX_LINE_LENGTH = 1024;
+
+  private final ItemVariantService itemVariantService;
+  private final StockConverter stockConverter;
+  private final GlobalExceptionHandler exceptionHandler;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  // Reads one command per line and runs it before reading the next, writing one result line per
+  // command line. Only the current line is held, so memory does not grow with the body. Results
+  // are pushed to the client whenever the next command has not arrived yet, so a client that
+  // keeps sending gets them in batches and one that waits for each result gets it right away.
+  @PostMapping(value = "/batch", consumes = NDJSON, produces = NDJSON)
+  public void runBatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    response.setContentType(NDJSON);
+    var in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), BUFFER_SIZE);
+    var out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+    var writer = objectMapper.writerFor(StockBatchResultResponse.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    var line = new StringBuilder();
+    long lines = 0;
+    long failed = 0;
+    try (var generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.setRootValueSeparator(null);
+      while (readLine(in, line)) {
+        lines++;
+        if (line.toString().isBlank()) {
+          continue;
+        }
+        var result = execute(lines, line);
+        if (result.getStatus() != HttpStatus.OK.value()) {
+          failed++;
+        }
+        writer.writeValue(generator, result);
+        generator.writeRaw('\n');
+        if (!in.ready()) {
+          generator.flush();
+        }
+      }
+    }
+    log.info("Stock batch of {} lines completed, {} failed", lines, failed);
+  }
+
+  private StockBatchResultResponse execute(long lineNumber, StringBuilder line) {
+    if (line.length() > MAX_LINE_LENGTH) {
+      return failure(lineNumber, badRequest("Bad Request",
+          String.format("Command lines cannot exceed %d characters", MAX_LINE_LENGTH), null));
+    }
+    StockBatchCommandRequest command;
+    try {
+      command = objectMapper.readValue(line.toString(), StockBatchCommandRequest.class);
+    } catch (JsonProcessingException e) {
+      return failure(lineNumber, badRequest("Bad Request", "Malformed command", null));
+    }
+    var violations = validator.validate(command);
+    if (!violations.isEmpty()) {
+      Map<String, String> errors = new HashMap<>();
+      violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+      return failure(lineNumber, badRequest("Validation Failed", "Invalid input parameters", errors));
+    }
+    try {
+      var spec = new VariantStockSpec(command.getVariantId(), command.getQuantity());
+      var result = switch (StockOperation.valueOf(command.getOperation())) {
+        case SET -> itemVariantService.setManualStock(spec);
+        case INCREASE -> itemVariantService.increaseStock(spec);
+        case DECREASE -> itemVariantService.decreaseStock(spec);
+        case RESERVE -> itemVariantService.reserveStock(spec);
+        case COMMIT -> itemVariantService.commitStock(spec);
+        case RELEASE -> itemVariantService.releaseStock(spec);
+      };
+      return StockBatchResultResponse.builder()
+          .line(lineNumber)
+          .status(HttpStatus.OK.value())
+          .stock(stockConverter.toVariantStockResponse(result))
+          .build();
+    } catch (RuntimeException e) {
+      // A failed command gets the status and body its single-command endpoint would answer with.
+      return failure(lineNumber, exceptionHandler.toErrorResponse(e));
+    }
+  }
+
+  private static ResponseEntity<Map<String, Object>> badRequest(String error, String message,
+      Map<String, String> errors) {
+    Map<String, Object> body = new HashMap<>();
+    body.put("error", error);
+    body.put("message", message);
+    if (errors != null) {
+      body.put("errors", errors);
+    }
+    body.put("status", HttpStatus.BAD_REQUEST.value());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+  }
+
+  private static StockBatchResultResponse failure(long lineNumber, ResponseEntity<Map<String, Object>> error) {
+    return StockBatchResultResponse.builder()
+        .line(lineNumber)
+        .status(error.getStatusCode().value())
+        .error(error.getBody())
+        .build();
+  }
+
+  // Reads the next line into the buffer, without its terminator, and returns false at the end of
+  // the body. Of a line longer than MAX_LINE_LENGTH only one character more is kept.
+  private static boolean readLine(BufferedReader in, StringBuilder line) throws IOException {
+    line.setLength(0);
+    int c = in.read();
+    if (c == -1) {
+      return false;
+    }
+    for (; c != -1 && c != '\n'; c = in.read()) {
+      if (line.length() <= MAX_LINE_LENGTH) {
+        line.append((char) c);
+      }
+    }
+    if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+      line.setLength(line.length() - 1);
+    }
+    return true;
+  }
+}
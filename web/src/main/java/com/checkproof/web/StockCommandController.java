@@ -0,0 +1,70 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.StockCommandService;
+import com.checkproof.servicemodel.StockCommandResult;
+import com.checkproof.servicemodel.StockCommandSpec;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.webmodel.StockCommandRequest;
+import com.checkproof.webmodel.StockCommandResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping(value = "api/v1/commands")
+@AllArgsConstructor
+@Slf4j
+@Validated
+public class StockCommandController {
+  private final StockCommandService stockCommandService;
+  private final StockConverter stockConverter;
+
+  @PostMapping
+  public ResponseEntity<StockCommandResponse> submitCommand(@Valid @RequestBody StockCommandRequest body) {
+    var lines = body.getLines().stream()
+        .map(line -> new VariantStockSpec(line.getVariantId(), line.getQuantity()))
+        .toList();
+    var result = stockCommandService.submitCommand(
+        new StockCommandSpec(StockOperation.valueOf(body.getOperation()), lines));
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/commands/" + result.getId()))
+        .body(stockConverter.toStockCommandResponse(result));
+  }
+
+  // With waitSeconds, the response is held back until the command completes or the wait is over,
+  // whichever comes first, and then carries the command's state at that moment. The request
+  // thread is released while waiting.
+  @GetMapping("/{commandId}")
+  public DeferredResult<ResponseEntity<StockCommandResponse>> getCommand(@PathVariable String commandId,
+      @RequestParam(defaultValue = "0") @Min(0) @Max(60) int waitSeconds) {
+    var current = stockCommandService.getCommand(commandId);
+    var deferred = new DeferredResult<ResponseEntity<StockCommandResponse>>(waitSeconds * 1000L);
+    if (waitSeconds == 0 || current.getCompletedAt() != null) {
+      deferred.setResult(toResponse(current));
+      return deferred;
+    }
+    deferred.onTimeout(() -> deferred.setResult(toResponse(stockCommandService.getCommand(commandId))));
+    stockCommandService.awaitCommand(commandId).thenAccept(result -> deferred.setResult(toResponse(result)));
+    return deferred;
+  }
+
+  private ResponseEntity<StockCommandResponse> toResponse(StockCommandResult result) {
+    return ResponseEntity.ok(stockConverter.toStockCommandResponse(result));
+  }
+}
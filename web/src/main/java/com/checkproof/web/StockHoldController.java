@@ -0,0 +1,57 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.StockHoldService;
+import com.checkproof.servicemodel.StockHoldSpec;
+import com.checkproof.webmodel.StockHoldRequest;
+import com.checkproof.webmodel.StockHoldResponse;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping(value = "api/v1/variants/stock/holds")
+@AllArgsConstructor
+@Slf4j
+public class StockHoldController {
+  private final StockHoldService stockHoldService;
+  private final StockConverter stockConverter;
+
+  @PostMapping
+  public ResponseEntity<StockHoldResponse> placeHold(@Valid @RequestBody StockHoldRequest body) {
+    log.info("Placing hold on variant {} with quantity {}", body.getVariantId(), body.getQuantity());
+    var ttl = body.getTtlSeconds() != null ? Duration.ofSeconds(body.getTtlSeconds()) : null;
+    var result = stockHoldService.placeHold(new StockHoldSpec(body.getVariantId(), body.getQuantity(), ttl));
+    log.info("Hold {} placed on variant {}", result.getId(), body.getVariantId());
+    return ResponseEntity.ok(stockConverter.toStockHoldResponse(result));
+  }
+
+  @GetMapping("/{holdId}")
+  public ResponseEntity<StockHoldResponse> getHold(@PathVariable Long holdId) {
+    var result = stockHoldService.getHold(holdId);
+    return ResponseEntity.ok(stockConverter.toStockHoldResponse(result));
+  }
+
+  @PostMapping("/{holdId}/commit")
+  public ResponseEntity<StockHoldResponse> commitHold(@PathVariable Long holdId) {
+    log.info("Committing hold {}", holdId);
+    var result = stockHoldService.commitHold(holdId);
+    return ResponseEntity.ok(stockConverter.toStockHoldResponse(result));
+  }
+
+  @PostMapping("/{holdId}/release")
+  public ResponseEntity<StockHoldResponse> releaseHold(@PathVariable Long holdId) {
+    log.info("Releasing hold {}", holdId);
+    var result = stockHoldService.releaseHold(holdId);
+    return ResponseEntity.ok(stockConverter.toStockHoldResponse(result));
+  }
+}
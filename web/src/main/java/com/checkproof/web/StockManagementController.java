@@ -1,14 +1,21 @@
 package com.checkproof.web;
 
-import com.checkproof.helper.converter.ItemVariantConverter;
+import com.checkproof.helper.converter.StockConverter;
 import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockContentionService;
+import com.checkproof.service.StockStripeService;
+import com.checkproof.servicemodel.StockStripesSpec;
 import com.checkproof.servicemodel.VariantStockSpec;
-import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.webmodel.StockStripesRequest;
+import com.checkproof.webmodel.StockStripesResponse;
+import com.checkproof.webmodel.VariantContentionResponse;
 import com.checkproof.webmodel.VariantStockRequest;
+import com.checkproof.webmodel.VariantStockResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -23,59 +30,94 @@ import jakarta.validation.Valid;
 @Slf4j
 public class StockManagementController {
   private final ItemVariantService itemVariantService;
-  private final ItemVariantConverter itemVariantConverter;
+  private final StockContentionService stockContentionService;
+  private final StockStripeService stockStripeService;
+  private final StockConverter stockConverter;
+
+  @GetMapping
+  public ResponseEntity<VariantStockResponse> getStock(@PathVariable Long variantId) {
+    var result = itemVariantService.getStock(variantId);
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
+  }
 
   @PutMapping
-  public ResponseEntity<ItemVariantResponse> setManualStock(@PathVariable Long variantId,
+  public ResponseEntity<VariantStockResponse> setManualStock(@PathVariable Long variantId,
       @Valid @RequestBody VariantStockRequest body) {
     var request = new VariantStockSpec(variantId, body.getQuantity());
     var result = itemVariantService.setManualStock(request);
-    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
   }
 
   @PostMapping("/increase")
-  public ResponseEntity<ItemVariantResponse> increaseStock(@PathVariable Long variantId,
+  public ResponseEntity<VariantStockResponse> increaseStock(@PathVariable Long variantId,
       @Valid @RequestBody VariantStockRequest body) {
     var request = new VariantStockSpec(variantId, body.getQuantity());
     var result = itemVariantService.increaseStock(request);
-    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
   }
 
   @PostMapping("/decrease")
-  public ResponseEntity<ItemVariantResponse> decreaseStock(@PathVariable Long variantId,
+  public ResponseEntity<VariantStockResponse> decreaseStock(@PathVariable Long variantId,
       @Valid @RequestBody VariantStockRequest body) {
     var request = new VariantStockSpec(variantId, body.getQuantity());
     var result = itemVariantService.decreaseStock(request);
-    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
   }
 
   @PostMapping("/reserve")
-  public ResponseEntity<ItemVariantResponse> reserveStock(@PathVariable Long variantId,
+  public ResponseEntity<VariantStockResponse> reserveStock(@PathVariable Long variantId,
       @Valid @RequestBody VariantStockRequest body) {
     log.info("Reserving stock for variant {} with quantity {}", variantId, body.getQuantity());
     var request = new VariantStockSpec(variantId, body.getQuantity());
     var result = itemVariantService.reserveStock(request);
     log.info("Stock reserved successfully for variant {}", variantId);
-    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
   }
 
   @PostMapping("/commit")
-  public ResponseEntity<ItemVariantResponse> commitStock(@PathVariable Long variantId,
+  public ResponseEntity<VariantStockResponse> commitStock(@PathVariable Long variantId,
       @Valid @RequestBody VariantStockRequest body) {
     log.info("Committing stock for variant {} with quantity {}", variantId, body.getQuantity());
     var request = new VariantStockSpec(variantId, body.getQuantity());
     var result = itemVariantService.commitStock(request);
     log.info("Stock committed successfully for variant {}", variantId);
-    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
   }
 
   @PostMapping("/release")
-  public ResponseEntity<ItemVariantResponse> releaseStock(@PathVariable Long variantId,
+  public ResponseEntity<VariantStockResponse> releaseStock(@PathVariable Long variantId,
       @Valid @RequestBody VariantStockRequest body) {
     log.info("Releasing stock for variant {} with quantity {}", variantId, body.getQuantity());
     var request = new VariantStockSpec(variantId, body.getQuantity());
     var result = itemVariantService.releaseStock(request);
     log.info("Stock released successfully for variant {}", variantId);
-    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+    return ResponseEntity.ok(stockConverter.toVariantStockResponse(result));
+  }
+
+  @GetMapping("/contention")
+  public ResponseEntity<VariantContentionResponse> getContention(@PathVariable Long variantId) {
+    var result = stockContentionService.getContention(variantId);
+    return ResponseEntity.ok(stockConverter.toVariantContentionResponse(result));
+  }
+
+  @GetMapping("/stripes")
+  public ResponseEntity<StockStripesResponse> getStripes(@PathVariable Long variantId) {
+    var result = stockStripeService.getStripes(variantId);
+    return ResponseEntity.ok(stockConverter.toStockStripesResponse(result));
+  }
+
+  @PutMapping("/stripes")
+  public ResponseEntity<StockStripesResponse> enableStripes(@PathVariable Long variantId,
+      @Valid @RequestBody StockStripesRequest body) {
+    log.info("Striping stock of variant {} across {} buckets", variantId, body.getBucketCount());
+    var result = stockStripeService.enableStripes(new StockStripesSpec(variantId, body.getBucketCount()));
+    return ResponseEntity.ok(stockConverter.toStockStripesResponse(result));
+  }
+
+  @DeleteMapping("/stripes")
+  public ResponseEntity<StockStripesResponse> disableStripes(@PathVariable Long variantId) {
+    log.info("Collapsing stock buckets of variant {}", variantId);
+    var result = stockStripeService.disableStripes(variantId);
+    return ResponseEntity.ok(stockConverter.toStockStripesResponse(result));
   }
 }
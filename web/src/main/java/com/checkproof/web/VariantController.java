@@ -3,20 +3,28 @@ package com.checkproof.web;
 import com.checkproof.helper.converter.ItemVariantConverter;
 import com.checkproof.service.ItemVariantService;
 import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchSpec;
 import com.checkproof.webmodel.ItemResponse;
 import com.checkproof.webmodel.ItemVariantRequest;
 import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.webmodel.VariantBatchEntryResponse;
+import com.checkproof.webmodel.VariantBatchGetRequest;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 @RestController
 @RequestMapping(value = "api/v1/variants")
 @AllArgsConstructor
@@ -25,6 +33,22 @@ public class VariantController {
   private final ItemVariantService itemVariantService;
   private final ItemVariantConverter itemVariantConverter;
 
+  @GetMapping("/by-sku/{sku}")
+  public ResponseEntity<ItemVariantResponse> getVariantBySku(@PathVariable String sku, WebRequest request) {
+    var tag = itemVariantService.getVariantTagBySku(sku);
+    if (tag != null && request.checkNotModified(tag)) {
+      return null;
+    }
+    var result = itemVariantService.getVariantBySku(sku);
+    return ResponseEntity.ok(itemVariantConverter.toItemVariantResponse(result));
+  }
+
+  @PostMapping("/batch-get")
+  public ResponseEntity<List<VariantBatchEntryResponse>> getVariants(@Valid @RequestBody VariantBatchGetRequest body) {
+    var result = itemVariantService.getVariants(new VariantBatchSpec(body.getIds(), body.getSkus()));
+    return ResponseEntity.ok(result.stream().map(itemVariantConverter::toVariantBatchEntryResponse).toList());
+  }
+
   @PutMapping("/{id}")
   public ResponseEntity<ItemVariantResponse> updateVariant(@PathVariable Long id, @Valid @RequestBody ItemVariantRequest body) {
     var request = itemVariantConverter.toUpdateItemVariantSpec(body);
@@ -1,9 +1,11 @@
 package com.checkproof.web.exception;
 
+import com.checkproof.service.exception.CapacityExceededException;
 import com.checkproof.service.exception.OutOfStockException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -20,70 +22,94 @@ public class GlobalExceptionHandler {
 
   @ExceptionHandler(EntityNotFoundException.class)
   public ResponseEntity<Map<String, Object>> handleEntityNotFound(EntityNotFoundException ex) {
-    log.error("Entity not found: {}", ex.getMessage());
-    Map<String, Object> response = new HashMap<>();
-    response.put("error", "Entity Not Found");
-    response.put("message", ex.getMessage());
-    response.put("status", HttpStatus.NOT_FOUND.value());
-    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    return toErrorResponse(ex);
   }
 
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
-    log.error("Illegal argument: {}", ex.getMessage());
-    Map<String, Object> response = new HashMap<>();
-    response.put("error", "Bad Request");
-    response.put("message", ex.getMessage());
-    response.put("status", HttpStatus.BAD_REQUEST.value());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    return toErrorResponse(ex);
   }
 
   @ExceptionHandler(OutOfStockException.class)
   public ResponseEntity<Map<String, Object>> handleOutOfStock(OutOfStockException ex) {
-    log.error("Out of stock: {}", ex.getMessage());
-    Map<String, Object> response = new HashMap<>();
-    response.put("error", "Out of Stock");
-    response.put("message", ex.getMessage());
-    response.put("status", HttpStatus.BAD_REQUEST.value());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    return toErrorResponse(ex);
+  }
+
+  @ExceptionHandler(ConcurrencyFailureException.class)
+  public ResponseEntity<Map<String, Object>> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+    return toErrorResponse(ex);
+  }
+
+  @ExceptionHandler(CapacityExceededException.class)
+  public ResponseEntity<Map<String, Object>> handleCapacityExceeded(CapacityExceededException ex) {
+    return toErrorResponse(ex);
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Map<String, Object>> handleValidationExceptions(
       MethodArgumentNotValidException ex) {
-    Map<String, String> errors = new HashMap<>();
-    ex.getBindingResult().getAllErrors().forEach((error) -> {
-      String fieldName = ((FieldError) error).getField();
-      String errorMessage = error.getDefaultMessage();
-      errors.put(fieldName, errorMessage);
-    });
-    
-    Map<String, Object> response = new HashMap<>();
-    response.put("error", "Validation Failed");
-    response.put("message", "Invalid input parameters");
-    response.put("errors", errors);
-    response.put("status", HttpStatus.BAD_REQUEST.value());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    return toErrorResponse(ex);
   }
 
   @ExceptionHandler(ConstraintViolationException.class)
   public ResponseEntity<Map<String, Object>> handleConstraintViolation(ConstraintViolationException ex) {
-    log.error("Constraint violation: {}", ex.getMessage());
-    Map<String, Object> response = new HashMap<>();
-    response.put("error", "Validation Failed");
-    response.put("message", ex.getMessage());
-    response.put("status", HttpStatus.BAD_REQUEST.value());
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    return toErrorResponse(ex);
   }
 
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+    return toErrorResponse(ex);
+  }
+
+  /**
+   * The status and body a failure is answered with, for the handlers above and for endpoints that
+   * report failures per entry instead of throwing them.
+   */
+  public ResponseEntity<Map<String, Object>> toErrorResponse(Throwable ex) {
+    if (ex instanceof EntityNotFoundException) {
+      log.error("Entity not found: {}", ex.getMessage());
+      return error(HttpStatus.NOT_FOUND, "Entity Not Found", ex.getMessage());
+    }
+    if (ex instanceof IllegalArgumentException) {
+      log.error("Illegal argument: {}", ex.getMessage());
+      return error(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+    }
+    if (ex instanceof OutOfStockException) {
+      log.error("Out of stock: {}", ex.getMessage());
+      return error(HttpStatus.BAD_REQUEST, "Out of Stock", ex.getMessage());
+    }
+    if (ex instanceof ConcurrencyFailureException) {
+      log.error("Concurrency failure: {}", ex.getMessage());
+      return error(HttpStatus.CONFLICT, "Conflict", "The resource was modified concurrently, please retry");
+    }
+    if (ex instanceof CapacityExceededException) {
+      log.warn("Capacity exceeded: {}", ex.getMessage());
+      return error(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage());
+    }
+    if (ex instanceof MethodArgumentNotValidException validation) {
+      Map<String, String> errors = new HashMap<>();
+      validation.getBindingResult().getAllErrors().forEach((error) -> {
+        String fieldName = ((FieldError) error).getField();
+        String errorMessage = error.getDefaultMessage();
+        errors.put(fieldName, errorMessage);
+      });
+      var response = error(HttpStatus.BAD_REQUEST, "Validation Failed", "Invalid input parameters");
+      response.getBody().put("errors", errors);
+      return response;
+    }
+    if (ex instanceof ConstraintViolationException) {
+      log.error("Constraint violation: {}", ex.getMessage());
+      return error(HttpStatus.BAD_REQUEST, "Validation Failed", ex.getMessage());
+    }
     log.error("Unexpected error: ", ex);
+    return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred");
+  }
+
+  private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String error, String message) {
     Map<String, Object> response = new HashMap<>();
-    response.put("error", "Internal Server Error");
-    response.put("message", "An unexpected error occurred");
-    response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    response.put("error", error);
+    response.put("message", message);
+    response.put("status", status.value());
+    return ResponseEntity.status(status).body(response);
   }
 }
-
@@ -0,0 +1,215 @@
+package com.checkproof.web.filter;
+
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.exception.IdempotencyKeyInUseException;
+import com.checkproof.servicemodel.IdempotentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Makes the stock mutations of StockManagementController safe to retry. A request carrying an
+ * Idempotency-Key header claims the key before it runs; a later request with the same key and
+ * the same method, path and body gets the recorded response back instead of running again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+  private static final int MAX_KEY_LENGTH = 128;
+  private static final PathPattern STOCK_PATHS =
+      PathPatternParser.defaultInstance.parse("/api/v1/variants/{variantId}/stock/**");
+  private static final Set<String> MUTATIONS =
+      Set.of(HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.DELETE.name());
+
+  private final IdempotencyService idempotencyService;
+  private final ObjectMapper objectMapper;
+  private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+        || !MUTATIONS.contains(request.getMethod())
+        || !STOCK_PATHS.matches(PathContainer.parsePath(urlPathHelper.getPathWithinApplication(request)));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    var key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      writeError(response, HttpStatus.BAD_REQUEST, "Bad Request",
+          String.format("Idempotency-Key must be between 1 and %d characters", MAX_KEY_LENGTH));
+      return;
+    }
+    var body = request.getInputStream().readAllBytes();
+    var fingerprint = fingerprint(request, body);
+
+    Optional<IdempotentResponse> recorded;
+    try {
+      recorded = idempotencyService.claim(key, fingerprint);
+    } catch (IllegalArgumentException e) {
+      writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity", e.getMessage());
+      return;
+    } catch (IdempotencyKeyInUseException e) {
+      writeError(response, HttpStatus.CONFLICT, "Conflict", e.getMessage());
+      return;
+    }
+    if (recorded.isPresent()) {
+      replay(response, recorded.get());
+      return;
+    }
+
+    var cachingResponse = new ContentCachingResponseWrapper(response);
+    boolean succeeded = false;
+    try {
+      chain.doFilter(new CachedBodyRequest(request, body), cachingResponse);
+      succeeded = HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful();
+    } finally {
+      if (succeeded) {
+        record(key, fingerprint, cachingResponse);
+      } else {
+        idempotencyService.abandon(key);
+      }
+      cachingResponse.copyBodyToResponse();
+    }
+  }
+
+  private void record(String key, String fingerprint, ContentCachingResponseWrapper response) {
+    var body = new String(response.getContentAsByteArray(), StandardCharsets.UTF_8);
+    try {
+      idempotencyService.complete(key,
+          new IdempotentResponse(fingerprint, response.getStatus(), response.getContentType(), body));
+    } catch (RuntimeException e) {
+      // The mutation went through, so the key must not be given up: retries get a conflict until
+      // the key expires instead of applying the mutation twice.
+      log.error("Recording the response for idempotency key {} failed", key, e);
+    }
+  }
+
+  private void replay(HttpServletResponse response, IdempotentResponse recorded) throws IOException {
+    response.setStatus(recorded.getStatus());
+    if (recorded.getContentType() != null) {
+      response.setContentType(recorded.getContentType());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    var body = recorded.getBody() != null ? recorded.getBody().getBytes(StandardCharsets.UTF_8) : new byte[0];
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private void writeError(HttpServletResponse response, HttpStatus status, String error, String message)
+      throws IOException {
+    log.error("Idempotency check failed: {}", message);
+    Map<String, Object> body = new HashMap<>();
+    body.put("error", error);
+    body.put("message", message);
+    body.put("status", status.value());
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), body);
+  }
+
+  private String fingerprint(HttpServletRequest request, byte[] body) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256");
+      var target = request.getQueryString() == null ? request.getRequestURI()
+          : request.getRequestURI() + "?" + request.getQueryString();
+      digest.update((request.getMethod() + " " + target + "\n").getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest(body));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // The body has to be read up front for the fingerprint, so the rest of the chain reads it from here.
+  private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+
+    private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      var in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        // The whole body is already in memory, so it is available at once; it is fully read as
+        // soon as the listener has drained it.
+        @Override
+        public void setReadListener(ReadListener listener) {
+          try {
+            if (!isFinished()) {
+              listener.onDataAvailable();
+            }
+            if (isFinished()) {
+              listener.onAllDataRead();
+            }
+          } catch (IOException e) {
+            listener.onError(e);
+          }
+        }
+
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          return in.read(buffer, offset, length);
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      var encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+      return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+    }
+  }
+}
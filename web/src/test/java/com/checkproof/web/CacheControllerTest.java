@@ -0,0 +1,57 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.CacheConverter;
+import com.checkproof.service.CacheStatsService;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.servicemodel.CacheRegionStatsResult;
+import com.checkproof.webmodel.CacheRegionStatsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("CacheController Unit Tests")
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheStatsService cacheStatsService;
+
+    @MockBean
+    private CacheConverter cacheConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Test
+    @DisplayName("GET /api/v1/cache/stats - Should return the statistics of every region")
+    void testGetRegionStats_Success() throws Exception {
+        // Given
+        CacheRegionStatsResult stats = CacheRegionStatsResult.builder()
+                .region("items").size(120).hits(900).misses(100).hitRatio(0.9).evictions(4).build();
+        when(cacheStatsService.getRegionStats()).thenReturn(List.of(stats));
+        when(cacheConverter.toCacheRegionStatsResponse(stats)).thenReturn(CacheRegionStatsResponse.builder()
+                .region("items").size(120).hits(900).misses(100).hitRatio(0.9).evictions(4).build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].region").value("items"))
+                .andExpect(jsonPath("$[0].hitRatio").value(0.9))
+                .andExpect(jsonPath("$[0].evictions").value(4));
+    }
+}
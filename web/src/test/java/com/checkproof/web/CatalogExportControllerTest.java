@@ -0,0 +1,119 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.CatalogConverter;
+import com.checkproof.service.CatalogExportService;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.servicemodel.CatalogItemResult;
+import com.checkproof.webmodel.CatalogItemResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CatalogExportController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("CatalogExportController Unit Tests")
+class CatalogExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CatalogExportService catalogExportService;
+
+    @MockBean
+    private CatalogConverter catalogConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        CatalogItemResult first = CatalogItemResult.builder().id(1L).name("Shirt").variants(List.of()).build();
+        CatalogItemResult second = CatalogItemResult.builder().id(2L).name("Mug").variants(List.of()).build();
+        when(catalogConverter.toCatalogItemResponse(first))
+                .thenReturn(CatalogItemResponse.builder().id(1L).name("Shirt").variants(List.of()).build());
+        when(catalogConverter.toCatalogItemResponse(second))
+                .thenReturn(CatalogItemResponse.builder().id(2L).name("Mug").variants(List.of()).build());
+        when(catalogExportService.exportCatalog(any())).thenAnswer(invocation -> {
+            Consumer<CatalogItemResult> sink = invocation.getArgument(0);
+            sink.accept(first);
+            sink.accept(second);
+            return 2L;
+        });
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/catalog/export - Should write one item per line")
+    void testExportCatalog_Ndjson() throws Exception {
+        // When
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/catalog/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse();
+
+        // Then
+        String[] lines = response.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"name\":\"Shirt\""));
+        assertTrue(lines[1].startsWith("{\"id\":2,\"name\":\"Mug\""));
+        assertTrue(response.getContentAsString().endsWith("\n"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/catalog/export - Should gzip the stream when the client accepts it")
+    void testExportCatalog_Gzip() throws Exception {
+        // When
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/catalog/export")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse();
+
+        // Then
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+        String[] lines = new String(unzipped, StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{\"id\":2"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/catalog/export - Should not gzip when the client refuses it with q=0")
+    void testExportCatalog_GzipRefused() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/catalog/export")
+                        .header("Accept-Encoding", "*, gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/catalog/export - Should gzip when the client accepts any coding")
+    void testExportCatalog_GzipByWildcard() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/catalog/export")
+                        .header("Accept-Encoding", "identity, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.ChangeConverter;
+import com.checkproof.service.ChangeFeedService;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.servicemodel.ChangeFeedResult;
+import com.checkproof.servicemodel.ChangeFeedSpec;
+import com.checkproof.webmodel.ChangeFeedResponse;
+import com.checkproof.webmodel.ChangeResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChangeFeedController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("ChangeFeedController Unit Tests")
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    @MockBean
+    private ChangeConverter changeConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should return the changes after the cursor")
+    void testGetChanges_Success() throws Exception {
+        // Given
+        ChangeFeedResult result = ChangeFeedResult.builder().changes(List.of()).cursor(43L).build();
+        when(changeFeedService.getChanges(new ChangeFeedSpec(42L, 10))).thenReturn(result);
+        when(changeConverter.toChangeFeedResponse(result)).thenReturn(ChangeFeedResponse.builder()
+                .changes(List.of(ChangeResponse.builder()
+                        .sequence(43L).subject("VARIANT").subjectId(7L).itemId(1L).kind("DELETED").build()))
+                .cursor(43L)
+                .hasMore(false)
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/changes").param("since", "42").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].sequence").value(43))
+                .andExpect(jsonPath("$.changes[0].subject").value("VARIANT"))
+                .andExpect(jsonPath("$.changes[0].kind").value("DELETED"))
+                .andExpect(jsonPath("$.cursor").value(43))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/changes - Should return 400 for an invalid limit")
+    void testGetChanges_InvalidLimit() throws Exception {
+        // Given
+        when(changeFeedService.getChanges(any()))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 1000"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/changes").param("limit", "5000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Limit must be between 1 and 1000"));
+    }
+}
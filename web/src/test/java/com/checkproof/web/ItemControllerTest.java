@@ -2,17 +2,27 @@ package com.checkproof.web;
 
 import com.checkproof.helper.converter.ItemConverter;
 import com.checkproof.helper.converter.ItemVariantConverter;
+import com.checkproof.service.IdempotencyService;
 import com.checkproof.service.ItemService;
 import com.checkproof.service.ItemVariantService;
+import com.checkproof.servicemodel.ItemDetailResult;
+import com.checkproof.servicemodel.ItemDetailSpec;
+import com.checkproof.servicemodel.ItemFilterSpec;
 import com.checkproof.servicemodel.ItemResult;
 import com.checkproof.servicemodel.ItemSpec;
 import com.checkproof.servicemodel.ItemVariantResult;
 import com.checkproof.servicemodel.ItemVariantSpec;
+import com.checkproof.servicemodel.PageResult;
+import com.checkproof.servicemodel.PageSpec;
 import com.checkproof.servicemodel.UpdateItemSpec;
+import com.checkproof.servicemodel.VariantFilterSpec;
+import com.checkproof.webmodel.ItemDetailResponse;
 import com.checkproof.webmodel.ItemRequest;
 import com.checkproof.webmodel.ItemResponse;
 import com.checkproof.webmodel.ItemVariantRequest;
 import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.webmodel.VariantDetailResponse;
+import com.checkproof.webmodel.VariantStockResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,6 +39,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +64,9 @@ class ItemControllerTest {
     @MockBean
     private ItemVariantConverter itemVariantConverter;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -110,31 +124,54 @@ class ItemControllerTest {
     void testGetListItems_Success() throws Exception {
         // Given
         List<ItemResult> results = Collections.singletonList(itemResult);
-        when(itemService.getListItem()).thenReturn(results);
+        when(itemService.getListItem(any(), any())).thenReturn(new PageResult<>(results, "bmFtZToxOlRlc3QgSXRlbQ"));
         when(itemConverter.toItemResponse(itemResult)).thenReturn(itemResponse);
 
         // When & Then
         mockMvc.perform(get("/api/v1/items"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Test Item"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].name").value("Test Item"))
+                .andExpect(jsonPath("$.nextCursor").value("bmFtZToxOlRlc3QgSXRlbQ"));
 
-        verify(itemService, times(1)).getListItem();
+        verify(itemService, times(1)).getListItem(new ItemFilterSpec(), new PageSpec(null, null, null));
         verify(itemConverter, times(1)).toItemResponse(itemResult);
     }
 
+    @Test
+    @DisplayName("GET /api/v1/items - Should pass filters and sort to the service")
+    void testGetListItems_Filtered() throws Exception {
+        // Given
+        when(itemService.getListItem(any(), any())).thenReturn(new PageResult<>(List.of(), null));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/items")
+                        .param("category", "Apparel")
+                        .param("namePrefix", "T-")
+                        .param("maxPrice", "50")
+                        .param("inStock", "false")
+                        .param("sort", "category"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+
+        verify(itemService, times(1)).getListItem(new ItemFilterSpec("Apparel", "T-", null, 50.0, false),
+                new PageSpec(null, null, "category"));
+    }
+
     @Test
     @DisplayName("GET /api/v1/items/{id} - Should return item by ID")
     void testGetItem_Success() throws Exception {
         // Given
         Long itemId = 1L;
+        when(itemService.getItemTag(new ItemDetailSpec(itemId, null))).thenReturn("item-1-abc");
         when(itemService.getItem(itemId)).thenReturn(itemResult);
         when(itemConverter.toItemResponse(itemResult)).thenReturn(itemResponse);
 
         // When & Then
         mockMvc.perform(get("/api/v1/items/{id}", itemId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"item-1-abc\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Test Item"));
 
@@ -142,6 +179,48 @@ class ItemControllerTest {
         verify(itemConverter, times(1)).toItemResponse(itemResult);
     }
 
+    @Test
+    @DisplayName("GET /api/v1/items/{id} - Should return 304 without loading the item when the tag matches")
+    void testGetItem_NotModified() throws Exception {
+        // Given
+        when(itemService.getItemTag(new ItemDetailSpec(1L, List.of("variants")))).thenReturn("item-1-abc-5.f.0");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/items/{id}", 1L).param("expand", "variants")
+                        .header("If-None-Match", "\"item-1-abc-5.f.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"item-1-abc-5.f.0\""))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getItemDetail(any());
+        verifyNoInteractions(itemConverter);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/items/{id}?expand=variants,stock - Should return the item with its variants and stock")
+    void testGetItem_Expanded() throws Exception {
+        // Given
+        ItemDetailResult detail = ItemDetailResult.builder().id(1L).build();
+        when(itemService.getItemDetail(new ItemDetailSpec(1L, List.of("variants", "stock")))).thenReturn(detail);
+        when(itemConverter.toItemDetailResponse(detail)).thenReturn(ItemDetailResponse.builder()
+                .id(1L)
+                .name("Test Item")
+                .variants(List.of(VariantDetailResponse.builder()
+                        .id(10L)
+                        .stock(VariantStockResponse.builder().variantId(10L).sellableStock(4).build())
+                        .build()))
+                .build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/items/{id}", 1L).param("expand", "variants,stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Item"))
+                .andExpect(jsonPath("$.variants[0].id").value(10))
+                .andExpect(jsonPath("$.variants[0].stock.sellableStock").value(4));
+
+        verify(itemService, never()).getItem(any());
+    }
+
     @Test
     @DisplayName("POST /api/v1/items - Should create item successfully")
     void testCreateItem_Success() throws Exception {
@@ -255,17 +334,24 @@ class ItemControllerTest {
         // Given
         Long itemId = 1L;
         List<ItemVariantResult> results = Collections.singletonList(variantResult);
-        when(itemVariantService.getVariantsOfItem(itemId)).thenReturn(results);
+        when(itemVariantService.getVariantsOfItem(eq(itemId), any(), any())).thenReturn(new PageResult<>(results, null));
         when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
 
         // When & Then
-        mockMvc.perform(get("/api/v1/items/{itemId}/variants", itemId))
+        mockMvc.perform(get("/api/v1/items/{itemId}/variants", itemId)
+                        .param("minPrice", "10")
+                        .param("inStock", "true")
+                        .param("cursor", "aWQ6MTox")
+                        .param("limit", "20")
+                        .param("sort", "id"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Small - Blue"));
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].id").value(1L))
+                .andExpect(jsonPath("$.items[0].name").value("Small - Blue"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
 
-        verify(itemVariantService, times(1)).getVariantsOfItem(itemId);
+        verify(itemVariantService, times(1)).getVariantsOfItem(itemId,
+                new VariantFilterSpec(null, 10.0, null, true), new PageSpec("aWQ6MTox", 20, "id"));
     }
 }
 
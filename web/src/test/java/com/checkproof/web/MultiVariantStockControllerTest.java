@@ -0,0 +1,290 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.StockContentionService;
+import com.checkproof.service.StockJournalService;
+import com.checkproof.service.StockStreamListener;
+import com.checkproof.service.StockStreamService;
+import com.checkproof.service.exception.CapacityExceededException;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.servicemodel.StockMovementResult;
+import com.checkproof.servicemodel.StockMovementsSpec;
+import com.checkproof.servicemodel.VariantContentionResult;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.webmodel.VariantContentionResponse;
+import com.checkproof.webmodel.VariantStockResponse;
+import com.checkproof.webmodel.StockLineRequest;
+import com.checkproof.webmodel.StockLinesRequest;
+import com.checkproof.webmodel.StockMovementResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MultiVariantStockController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("MultiVariantStockController Unit Tests")
+class MultiVariantStockControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemVariantService itemVariantService;
+
+    @MockBean
+    private StockContentionService stockContentionService;
+
+    @MockBean
+    private StockConverter stockConverter;
+
+    @MockBean
+    private StockJournalService stockJournalService;
+
+    @MockBean
+    private StockStreamService stockStreamService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private StockLinesRequest linesRequest;
+    private VariantStockResponse stockResponse;
+    private VariantStockResult stockResult;
+
+    @BeforeEach
+    void setUp() {
+        linesRequest = StockLinesRequest.builder()
+                .lines(List.of(
+                        StockLineRequest.builder().variantId(1L).quantity(2).build(),
+                        StockLineRequest.builder().variantId(2L).quantity(3).build()))
+                .build();
+
+        stockResponse = VariantStockResponse.builder()
+                .variantId(1L)
+                .availableStock(100)
+                .allocatedStock(30)
+                .sellableStock(70)
+                .version(4L)
+                .build();
+
+        stockResult = VariantStockResult.builder()
+                .variantId(1L)
+                .availableStock(100)
+                .allocatedStock(30)
+                .sellableStock(70)
+                .version(4L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/reserve - Should reserve all lines in one call")
+    void testReserveStock_Success() throws Exception {
+        // Given
+        when(itemVariantService.reserveStockLines(any())).thenReturn(List.of(stockResult));
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(linesRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].variantId").value(1L));
+
+        verify(itemVariantService, times(1)).reserveStockLines(
+                List.of(new VariantStockSpec(1L, 2), new VariantStockSpec(2L, 3)));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/reserve - Should return 400 when a line is out of stock")
+    void testReserveStock_OutOfStock() throws Exception {
+        // Given
+        when(itemVariantService.reserveStockLines(any()))
+                .thenThrow(new OutOfStockException("Variant 2: Insufficient stock to reserve. Available: 1, Requested: 3"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(linesRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Out of Stock"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/commit - Should commit all lines in one call")
+    void testCommitStock_Success() throws Exception {
+        // Given
+        when(itemVariantService.commitStockLines(any())).thenReturn(List.of(stockResult));
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/commit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(linesRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].variantId").value(1L));
+
+        verify(itemVariantService, times(1)).commitStockLines(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/release - Should release all lines in one call")
+    void testReleaseStock_Success() throws Exception {
+        // Given
+        when(itemVariantService.releaseStockLines(any())).thenReturn(List.of(stockResult));
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/release")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(linesRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].variantId").value(1L));
+
+        verify(itemVariantService, times(1)).releaseStockLines(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/reserve - Should return 400 when a line is invalid")
+    void testReserveStock_ValidationError() throws Exception {
+        // Given
+        StockLinesRequest invalidRequest = StockLinesRequest.builder()
+                .lines(List.of(StockLineRequest.builder().variantId(1L).quantity(0).build()))
+                .build();
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/reserve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalidRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(itemVariantService, never()).reserveStockLines(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/contention - Should return the most contended variants")
+    void testGetMostContended_Success() throws Exception {
+        // Given
+        VariantContentionResult contentionResult = VariantContentionResult.builder()
+                .variantId(1L).lockMode("OPTIMISTIC").conflicts(3).build();
+        VariantContentionResponse contentionResponse = VariantContentionResponse.builder()
+                .variantId(1L).lockMode("OPTIMISTIC").conflicts(3).build();
+        when(stockContentionService.getMostContended(5)).thenReturn(List.of(contentionResult));
+        when(stockConverter.toVariantContentionResponse(contentionResult)).thenReturn(contentionResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/stock/contention").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].variantId").value(1L))
+                .andExpect(jsonPath("$[0].conflicts").value(3));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/contention - Should return 400 when limit is out of range")
+    void testGetMostContended_InvalidLimit() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/stock/contention").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(stockContentionService, never()).getMostContended(anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/movements - Should return the journaled movements of a variant")
+    void testGetMovements_Success() throws Exception {
+        // Given
+        StockMovementResult movementResult = StockMovementResult.builder()
+                .sequence(7L).variantId(1L).operation("RESERVE").quantity(2).availableStock(10).allocatedStock(2).build();
+        StockMovementResponse movementResponse = StockMovementResponse.builder()
+                .sequence(7L).variantId(1L).operation("RESERVE").quantity(2).availableStock(10).allocatedStock(2).build();
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        when(stockJournalService.findMovements(new StockMovementsSpec(1L, from, null, 1000)))
+                .thenReturn(List.of(movementResult));
+        when(stockConverter.toStockMovementResponse(movementResult)).thenReturn(movementResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/stock/movements")
+                        .param("variantId", "1")
+                        .param("from", "2026-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sequence").value(7L))
+                .andExpect(jsonPath("$[0].operation").value("RESERVE"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/movements - Should return 400 when the journal is disabled")
+    void testGetMovements_JournalDisabled() throws Exception {
+        // Given
+        when(stockJournalService.findMovements(any()))
+                .thenThrow(new IllegalArgumentException("The stock journal is disabled"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/stock/movements"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("The stock journal is disabled"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/stream - Should stream stock levels as server-sent events")
+    void testStreamStock_Success() throws Exception {
+        // Given
+        Runnable unsubscribe = mock(Runnable.class);
+        ArgumentCaptor<StockStreamListener> listener = ArgumentCaptor.forClass(StockStreamListener.class);
+        when(stockStreamService.subscribe(eq(List.of(1L, 2L)), listener.capture())).thenReturn(unsubscribe);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/variants/stock/stream").param("variantIds", "1,2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        listener.getValue().onLevels(List.of(stockResult));
+        listener.getValue().onHeartbeat();
+        listener.getValue().onClose();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString(
+                        "event:stock\ndata:[{\"variantId\":1,\"availableStock\":100,\"allocatedStock\":30,"
+                                + "\"sellableStock\":70,\"version\":4}]\n\n:heartbeat\n\n")));
+        verify(unsubscribe, times(1)).run();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/stream - Should return 429 when too many streams are open")
+    void testStreamStock_TooManyStreams() throws Exception {
+        // Given
+        when(stockStreamService.subscribe(any(), any()))
+                .thenThrow(new CapacityExceededException("Too many open stock streams, retry later"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/stock/stream").param("variantIds", "1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message").value("Too many open stock streams, retry later"));
+    }
+}
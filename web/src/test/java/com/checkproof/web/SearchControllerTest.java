@@ -0,0 +1,68 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.SearchConverter;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.SearchService;
+import com.checkproof.servicemodel.SearchHitResult;
+import com.checkproof.servicemodel.SearchSpec;
+import com.checkproof.webmodel.SearchHitResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("SearchController Unit Tests")
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchService searchService;
+
+    @MockBean
+    private SearchConverter searchConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Test
+    @DisplayName("GET /api/v1/search - Should return ranked hits")
+    void testSearch_Success() throws Exception {
+        // Given
+        SearchHitResult hit = SearchHitResult.builder().itemId(5L).name("Red Mug").category("Kitchen").score(1.4f).build();
+        when(searchService.search(new SearchSpec("red mug", 5))).thenReturn(List.of(hit));
+        when(searchConverter.toSearchHitResponse(hit))
+                .thenReturn(SearchHitResponse.builder().itemId(5L).name("Red Mug").category("Kitchen").score(1.4f).build());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/search").param("q", "red mug").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].itemId").value(5))
+                .andExpect(jsonPath("$[0].name").value("Red Mug"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/search - Should return 400 without a query")
+    void testSearch_NoQuery() throws Exception {
+        // Given
+        when(searchService.search(new SearchSpec(null, null)))
+                .thenThrow(new IllegalArgumentException("Query cannot be blank"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/search"))
+                .andExpect(status().isBadRequest());
+    }
+}
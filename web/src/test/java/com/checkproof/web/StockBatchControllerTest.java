@@ -0,0 +1,128 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.ItemVariantService;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.webmodel.VariantStockResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockBatchController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("StockBatchController Unit Tests")
+class StockBatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemVariantService itemVariantService;
+
+    @MockBean
+    private StockConverter stockConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/batch - Should run each command in order and answer one line per command")
+    void testRunBatch_MixedCommands() throws Exception {
+        // Given
+        VariantStockResult reserved = VariantStockResult.builder().variantId(1L).availableStock(10).allocatedStock(2).build();
+        VariantStockResult committed = VariantStockResult.builder().variantId(1L).availableStock(8).allocatedStock(0).build();
+        when(itemVariantService.reserveStock(new VariantStockSpec(1L, 2))).thenReturn(reserved);
+        when(itemVariantService.reserveStock(new VariantStockSpec(2L, 5)))
+                .thenThrow(new OutOfStockException("Insufficient stock"));
+        when(itemVariantService.commitStock(new VariantStockSpec(1L, 2))).thenReturn(committed);
+        when(stockConverter.toVariantStockResponse(reserved))
+                .thenReturn(VariantStockResponse.builder().variantId(1L).availableStock(10).allocatedStock(2).build());
+        when(stockConverter.toVariantStockResponse(committed))
+                .thenReturn(VariantStockResponse.builder().variantId(1L).availableStock(8).allocatedStock(0).build());
+        String body = """
+                {"operation":"RESERVE","variantId":1,"quantity":2}
+                {"operation":"RESERVE","variantId":2,"quantity":5}
+
+                {"operation":"COMMIT","variantId":1,"quantity":2}
+                """;
+
+        // When
+        String content = mockMvc.perform(post("/api/v1/variants/stock/batch")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        List<JsonNode> results = parse(content);
+        assertEquals(3, results.size());
+        assertEquals(1, results.get(0).get("line").asInt());
+        assertEquals(200, results.get(0).get("status").asInt());
+        assertEquals(2, results.get(0).get("stock").get("allocatedStock").asInt());
+        assertEquals(2, results.get(1).get("line").asInt());
+        assertEquals(400, results.get(1).get("status").asInt());
+        assertEquals("Out of Stock", results.get(1).get("error").get("error").asText());
+        assertEquals("Insufficient stock", results.get(1).get("error").get("message").asText());
+        assertEquals(4, results.get(2).get("line").asInt());
+        assertEquals(8, results.get(2).get("stock").get("availableStock").asInt());
+        var order = inOrder(itemVariantService);
+        order.verify(itemVariantService).reserveStock(new VariantStockSpec(1L, 2));
+        order.verify(itemVariantService).reserveStock(new VariantStockSpec(2L, 5));
+        order.verify(itemVariantService).commitStock(new VariantStockSpec(1L, 2));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/batch - Should answer malformed and invalid lines without running them")
+    void testRunBatch_InvalidLines() throws Exception {
+        // Given
+        String body = "not json\n"
+                + "{\"operation\":\"TRANSFER\",\"variantId\":1,\"quantity\":0}\n"
+                + "{\"operation\":\"SET\",\"variantId\":1,\"quantity\":1,\"note\":\"" + "x".repeat(1024) + "\"}";
+
+        // When
+        String content = mockMvc.perform(post("/api/v1/variants/stock/batch")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        List<JsonNode> results = parse(content);
+        assertEquals(3, results.size());
+        assertEquals("Malformed command", results.get(0).get("error").get("message").asText());
+        assertEquals("Validation Failed", results.get(1).get("error").get("error").asText());
+        assertEquals("Quantity must be positive", results.get(1).get("error").get("errors").get("quantity").asText());
+        assertEquals("Command lines cannot exceed 1024 characters", results.get(2).get("error").get("message").asText());
+        results.forEach(result -> assertEquals(400, result.get("status").asInt()));
+        verifyNoInteractions(itemVariantService);
+    }
+
+    private List<JsonNode> parse(String content) throws Exception {
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+}
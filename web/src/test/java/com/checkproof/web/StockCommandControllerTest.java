@@ -0,0 +1,132 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.StockCommandService;
+import com.checkproof.service.exception.CapacityExceededException;
+import com.checkproof.servicemodel.StockCommandResult;
+import com.checkproof.servicemodel.StockCommandSpec;
+import com.checkproof.servicemodel.StockOperation;
+import com.checkproof.servicemodel.VariantStockSpec;
+import com.checkproof.webmodel.StockCommandRequest;
+import com.checkproof.webmodel.StockCommandResponse;
+import com.checkproof.webmodel.StockLineRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockCommandController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("StockCommandController Unit Tests")
+class StockCommandControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockCommandService stockCommandService;
+
+    @MockBean
+    private StockConverter stockConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final StockCommandRequest request = StockCommandRequest.builder()
+            .operation("SET")
+            .lines(List.of(StockLineRequest.builder().variantId(1L).quantity(10).build()))
+            .build();
+
+    @Test
+    @DisplayName("POST /api/v1/commands - Should accept a command and point to its status")
+    void testSubmitCommand_Accepted() throws Exception {
+        // Given
+        StockCommandResult queued = StockCommandResult.builder().id("abc").operation("SET").status("QUEUED").build();
+        when(stockCommandService.submitCommand(
+                new StockCommandSpec(StockOperation.SET, List.of(new VariantStockSpec(1L, 10))))).thenReturn(queued);
+        when(stockConverter.toStockCommandResponse(queued)).thenReturn(
+                StockCommandResponse.builder().id("abc").operation("SET").status("QUEUED").build());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/commands")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/commands/abc"))
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/commands - Should return 429 when the command queue is full")
+    void testSubmitCommand_QueueFull() throws Exception {
+        // Given
+        when(stockCommandService.submitCommand(any()))
+                .thenThrow(new CapacityExceededException("Too many queued stock commands, retry later"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/commands")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.message").value("Too many queued stock commands, retry later"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/commands - Should return 400 for an unknown operation")
+    void testSubmitCommand_InvalidOperation() throws Exception {
+        // Given
+        request.setOperation("TRANSFER");
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/commands")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.operation").exists());
+        verifyNoInteractions(stockCommandService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/commands/{commandId} - Should wait for the command to complete")
+    void testGetCommand_LongPoll() throws Exception {
+        // Given
+        StockCommandResult running = StockCommandResult.builder().id("abc").status("RUNNING").build();
+        StockCommandResult done = StockCommandResult.builder().id("abc").status("SUCCEEDED").completedAt(new Date()).build();
+        CompletableFuture<StockCommandResult> future = new CompletableFuture<>();
+        when(stockCommandService.getCommand("abc")).thenReturn(running);
+        when(stockCommandService.awaitCommand("abc")).thenReturn(future);
+        when(stockConverter.toStockCommandResponse(done)).thenReturn(
+                StockCommandResponse.builder().id("abc").status("SUCCEEDED").build());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/commands/{commandId}", "abc").param("waitSeconds", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        future.complete(done);
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCEEDED"));
+    }
+}
@@ -0,0 +1,127 @@
+package com.checkproof.web;
+
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.IdempotencyService;
+import com.checkproof.service.StockHoldService;
+import com.checkproof.servicemodel.StockHoldResult;
+import com.checkproof.servicemodel.StockHoldSpec;
+import com.checkproof.webmodel.StockHoldRequest;
+import com.checkproof.webmodel.StockHoldResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockHoldController.class)
+@ContextConfiguration(classes = WebTestConfiguration.class)
+@DisplayName("StockHoldController Unit Tests")
+class StockHoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StockHoldService stockHoldService;
+
+    @MockBean
+    private StockConverter stockConverter;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private StockHoldResult holdResult;
+    private StockHoldResponse holdResponse;
+
+    @BeforeEach
+    void setUp() {
+        holdResult = StockHoldResult.builder().id(10L).variantId(1L).quantity(5).status("ACTIVE").build();
+        holdResponse = StockHoldResponse.builder().id(10L).variantId(1L).quantity(5).status("ACTIVE").build();
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/holds - Should place a hold with the requested TTL")
+    void testPlaceHold_Success() throws Exception {
+        // Given
+        StockHoldRequest request = StockHoldRequest.builder().variantId(1L).quantity(5).ttlSeconds(120L).build();
+        when(stockHoldService.placeHold(new StockHoldSpec(1L, 5, Duration.ofSeconds(120)))).thenReturn(holdResult);
+        when(stockConverter.toStockHoldResponse(holdResult)).thenReturn(holdResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(10L))
+                .andExpect(jsonPath("$.status").value("ACTIVE"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/holds - Should return 400 without a quantity")
+    void testPlaceHold_ValidationError() throws Exception {
+        // Given
+        StockHoldRequest request = StockHoldRequest.builder().variantId(1L).build();
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(stockHoldService, never()).placeHold(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/holds/{holdId}/commit - Should commit the hold")
+    void testCommitHold_Success() throws Exception {
+        // Given
+        holdResult.setStatus("COMMITTED");
+        holdResponse.setStatus("COMMITTED");
+        when(stockHoldService.commitHold(10L)).thenReturn(holdResult);
+        when(stockConverter.toStockHoldResponse(holdResult)).thenReturn(holdResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/holds/{holdId}/commit", 10L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMMITTED"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/stock/holds/{holdId}/release - Should return 400 for an expired hold")
+    void testReleaseHold_NotActive() throws Exception {
+        // Given
+        when(stockHoldService.releaseHold(10L)).thenThrow(new IllegalArgumentException("Hold 10 is expired"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/stock/holds/{holdId}/release", 10L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Hold 10 is expired"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/stock/holds/{holdId} - Should return 404 for an unknown hold")
+    void testGetHold_NotFound() throws Exception {
+        // Given
+        when(stockHoldService.getHold(99L)).thenThrow(new EntityNotFoundException("stock hold not found"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/stock/holds/{holdId}", 99L))
+                .andExpect(status().isNotFound());
+    }
+}
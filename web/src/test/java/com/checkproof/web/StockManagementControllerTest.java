@@ -1,22 +1,44 @@
 package com.checkproof.web;
 
-import com.checkproof.helper.converter.ItemVariantConverter;
+import com.checkproof.helper.converter.StockConverter;
+import com.checkproof.service.IdempotencyService;
 import com.checkproof.service.ItemVariantService;
-import com.checkproof.servicemodel.ItemVariantResult;
-import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.service.StockContentionService;
+import com.checkproof.service.StockStripeService;
+import com.checkproof.service.exception.IdempotencyKeyInUseException;
+import com.checkproof.service.exception.OutOfStockException;
+import com.checkproof.servicemodel.IdempotentResponse;
+import com.checkproof.servicemodel.StockStripesResult;
+import com.checkproof.servicemodel.StockStripesSpec;
+import com.checkproof.servicemodel.VariantContentionResult;
+import com.checkproof.servicemodel.VariantStockResult;
+import com.checkproof.webmodel.StockStripesRequest;
+import com.checkproof.webmodel.StockStripesResponse;
+import com.checkproof.webmodel.VariantContentionResponse;
+import com.checkproof.webmodel.VariantStockResponse;
 import com.checkproof.webmodel.VariantStockRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,14 +55,23 @@ class StockManagementControllerTest {
     private ItemVariantService itemVariantService;
 
     @MockBean
-    private ItemVariantConverter itemVariantConverter;
+    private StockContentionService stockContentionService;
+
+    @MockBean
+    private StockConverter stockConverter;
+
+    @MockBean
+    private StockStripeService stockStripeService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
     private VariantStockRequest stockRequest;
-    private ItemVariantResponse variantResponse;
-    private ItemVariantResult variantResult;
+    private VariantStockResponse stockResponse;
+    private VariantStockResult stockResult;
 
     @BeforeEach
     void setUp() {
@@ -48,18 +79,47 @@ class StockManagementControllerTest {
                 .quantity(100)
                 .build();
 
-        variantResponse = ItemVariantResponse.builder()
-                .id(1L)
-                .name("Small - Blue")
-                .sku("TSHIRT-SM-BLUE-001")
-                .price(29.99)
+        stockResponse = VariantStockResponse.builder()
+                .variantId(1L)
+                .availableStock(100)
+                .allocatedStock(30)
+                .sellableStock(70)
+                .version(4L)
                 .build();
 
-        variantResult = new ItemVariantResult();
-        variantResult.setId(1L);
-        variantResult.setName("Small - Blue");
-        variantResult.setSku("TSHIRT-SM-BLUE-001");
-        variantResult.setPrice(29.99);
+        stockResult = VariantStockResult.builder()
+                .variantId(1L)
+                .availableStock(100)
+                .allocatedStock(30)
+                .sellableStock(70)
+                .version(4L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/{variantId}/stock - Should return the stock level of a variant")
+    void testGetStock_Success() throws Exception {
+        // Given
+        when(itemVariantService.getStock(1L)).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/{variantId}/stock", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.variantId").value(1L))
+                .andExpect(jsonPath("$.sellableStock").value(70))
+                .andExpect(jsonPath("$.version").value(4L));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/{variantId}/stock - Should return 404 when the variant does not exist")
+    void testGetStock_NotFound() throws Exception {
+        // Given
+        when(itemVariantService.getStock(999L)).thenThrow(new EntityNotFoundException("item_variant not found"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/{variantId}/stock", 999L))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -67,18 +127,18 @@ class StockManagementControllerTest {
     void testSetManualStock_Success() throws Exception {
         // Given
         Long variantId = 1L;
-        when(itemVariantService.setManualStock(any())).thenReturn(variantResult);
-        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+        when(itemVariantService.setManualStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
 
         // When & Then
         mockMvc.perform(put("/api/v1/variants/{variantId}/stock", variantId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1L));
+                .andExpect(jsonPath("$.variantId").value(1L));
 
         verify(itemVariantService, times(1)).setManualStock(any());
-        verify(itemVariantConverter, times(1)).toItemVariantResponse(variantResult);
+        verify(stockConverter, times(1)).toVariantStockResponse(stockResult);
     }
 
     @Test
@@ -86,18 +146,18 @@ class StockManagementControllerTest {
     void testIncreaseStock_Success() throws Exception {
         // Given
         Long variantId = 1L;
-        when(itemVariantService.increaseStock(any())).thenReturn(variantResult);
-        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+        when(itemVariantService.increaseStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
 
         // When & Then
         mockMvc.perform(post("/api/v1/variants/{variantId}/stock/increase", variantId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1L));
+                .andExpect(jsonPath("$.variantId").value(1L));
 
         verify(itemVariantService, times(1)).increaseStock(any());
-        verify(itemVariantConverter, times(1)).toItemVariantResponse(variantResult);
+        verify(stockConverter, times(1)).toVariantStockResponse(stockResult);
     }
 
     @Test
@@ -105,18 +165,18 @@ class StockManagementControllerTest {
     void testDecreaseStock_Success() throws Exception {
         // Given
         Long variantId = 1L;
-        when(itemVariantService.decreaseStock(any())).thenReturn(variantResult);
-        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+        when(itemVariantService.decreaseStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
 
         // When & Then
         mockMvc.perform(post("/api/v1/variants/{variantId}/stock/decrease", variantId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1L));
+                .andExpect(jsonPath("$.variantId").value(1L));
 
         verify(itemVariantService, times(1)).decreaseStock(any());
-        verify(itemVariantConverter, times(1)).toItemVariantResponse(variantResult);
+        verify(stockConverter, times(1)).toVariantStockResponse(stockResult);
     }
 
     @Test
@@ -160,18 +220,18 @@ class StockManagementControllerTest {
     void testReserveStock_Success() throws Exception {
         // Given
         Long variantId = 1L;
-        when(itemVariantService.reserveStock(any())).thenReturn(variantResult);
-        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+        when(itemVariantService.reserveStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
 
         // When & Then
         mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve", variantId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1L));
+                .andExpect(jsonPath("$.variantId").value(1L));
 
         verify(itemVariantService, times(1)).reserveStock(any());
-        verify(itemVariantConverter, times(1)).toItemVariantResponse(variantResult);
+        verify(stockConverter, times(1)).toVariantStockResponse(stockResult);
     }
 
     @Test
@@ -179,18 +239,18 @@ class StockManagementControllerTest {
     void testCommitStock_Success() throws Exception {
         // Given
         Long variantId = 1L;
-        when(itemVariantService.commitStock(any())).thenReturn(variantResult);
-        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+        when(itemVariantService.commitStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
 
         // When & Then
         mockMvc.perform(post("/api/v1/variants/{variantId}/stock/commit", variantId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1L));
+                .andExpect(jsonPath("$.variantId").value(1L));
 
         verify(itemVariantService, times(1)).commitStock(any());
-        verify(itemVariantConverter, times(1)).toItemVariantResponse(variantResult);
+        verify(stockConverter, times(1)).toVariantStockResponse(stockResult);
     }
 
     @Test
@@ -198,18 +258,209 @@ class StockManagementControllerTest {
     void testReleaseStock_Success() throws Exception {
         // Given
         Long variantId = 1L;
-        when(itemVariantService.releaseStock(any())).thenReturn(variantResult);
-        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+        when(itemVariantService.releaseStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
 
         // When & Then
         mockMvc.perform(post("/api/v1/variants/{variantId}/stock/release", variantId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(stockRequest)))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(1L));
+                .andExpect(jsonPath("$.variantId").value(1L));
 
         verify(itemVariantService, times(1)).releaseStock(any());
-        verify(itemVariantConverter, times(1)).toItemVariantResponse(variantResult);
+        verify(stockConverter, times(1)).toVariantStockResponse(stockResult);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/{variantId}/stock/contention - Should return contention statistics")
+    void testGetContention_Success() throws Exception {
+        // Given
+        Long variantId = 1L;
+        VariantContentionResult contentionResult = VariantContentionResult.builder()
+                .variantId(variantId).lockMode("PESSIMISTIC").conflicts(12).retries(10).build();
+        VariantContentionResponse contentionResponse = VariantContentionResponse.builder()
+                .variantId(variantId).lockMode("PESSIMISTIC").conflicts(12).retries(10).build();
+        when(stockContentionService.getContention(variantId)).thenReturn(contentionResult);
+        when(stockConverter.toVariantContentionResponse(contentionResult)).thenReturn(contentionResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/{variantId}/stock/contention", variantId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lockMode").value("PESSIMISTIC"))
+                .andExpect(jsonPath("$.conflicts").value(12));
+
+        verify(stockContentionService, times(1)).getContention(variantId);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/{variantId}/stock/reserve - Should return 409 when retries are exhausted")
+    void testReserveStock_ConcurrencyFailure() throws Exception {
+        // Given
+        Long variantId = 1L;
+        when(itemVariantService.reserveStock(any()))
+                .thenThrow(new CannotAcquireLockException("lock wait timeout"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve", variantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/variants/{variantId}/stock/stripes - Should stripe stock across buckets")
+    void testEnableStripes_Success() throws Exception {
+        // Given
+        Long variantId = 1L;
+        StockStripesResult stripesResult = StockStripesResult.builder()
+                .variantId(variantId).bucketCount(8).availableStock(100).allocatedStock(10).build();
+        StockStripesResponse stripesResponse = StockStripesResponse.builder()
+                .variantId(variantId).bucketCount(8).availableStock(100).allocatedStock(10).build();
+        when(stockStripeService.enableStripes(new StockStripesSpec(variantId, 8))).thenReturn(stripesResult);
+        when(stockConverter.toStockStripesResponse(stripesResult)).thenReturn(stripesResponse);
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/variants/{variantId}/stock/stripes", variantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockStripesRequest(8))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucketCount").value(8))
+                .andExpect(jsonPath("$.availableStock").value(100));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/variants/{variantId}/stock/stripes - Should return 400 for a single bucket")
+    void testEnableStripes_InvalidBucketCount() throws Exception {
+        // When & Then
+        mockMvc.perform(put("/api/v1/variants/{variantId}/stock/stripes", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new StockStripesRequest(1))))
+                .andExpect(status().isBadRequest());
+
+        verify(stockStripeService, never()).enableStripes(any());
     }
-}
 
+    @Test
+    @DisplayName("DELETE /api/v1/variants/{variantId}/stock/stripes - Should collapse the buckets")
+    void testDisableStripes_Success() throws Exception {
+        // Given
+        Long variantId = 1L;
+        StockStripesResult stripesResult = StockStripesResult.builder()
+                .variantId(variantId).availableStock(100).allocatedStock(10).build();
+        StockStripesResponse stripesResponse = StockStripesResponse.builder()
+                .variantId(variantId).availableStock(100).allocatedStock(10).build();
+        when(stockStripeService.disableStripes(variantId)).thenReturn(stripesResult);
+        when(stockConverter.toStockStripesResponse(stripesResult)).thenReturn(stripesResponse);
+
+        // When & Then
+        mockMvc.perform(delete("/api/v1/variants/{variantId}/stock/stripes", variantId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucketCount").value(0));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/{variantId}/stock/reserve - Should record the response of an idempotent request")
+    void testReserveStock_IdempotencyKeyRecorded() throws Exception {
+        // Given
+        when(idempotencyService.claim(eq("order-42"), anyString())).thenReturn(Optional.empty());
+        when(itemVariantService.reserveStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve", 1L)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.variantId").value(1L));
+
+        ArgumentCaptor<IdempotentResponse> captor = ArgumentCaptor.forClass(IdempotentResponse.class);
+        verify(idempotencyService, times(1)).complete(eq("order-42"), captor.capture());
+        assertEquals(200, captor.getValue().getStatus());
+        assertTrue(captor.getValue().getBody().contains("\"sellableStock\":70"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/{variantId}/stock/reserve - Should replay the recorded response without reserving again")
+    void testReserveStock_IdempotencyKeyReplayed() throws Exception {
+        // Given
+        IdempotentResponse recorded = new IdempotentResponse("fingerprint", 200, MediaType.APPLICATION_JSON_VALUE,
+                "{\"id\":1,\"sku\":\"TSHIRT-SM-BLUE-001\"}");
+        when(idempotencyService.claim(eq("order-42"), anyString())).thenReturn(Optional.of(recorded));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve", 1L)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.sku").value("TSHIRT-SM-BLUE-001"));
+
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/{variantId}/stock/reserve - Should fingerprint the query string with the key")
+    void testReserveStock_IdempotencyFingerprintIncludesQuery() throws Exception {
+        // Given
+        when(idempotencyService.claim(eq("order-42"), anyString())).thenReturn(Optional.empty());
+        when(itemVariantService.reserveStock(any())).thenReturn(stockResult);
+        when(stockConverter.toVariantStockResponse(stockResult)).thenReturn(stockResponse);
+
+        // When
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve?source=web", 1L)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve?source=app", 1L)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isOk());
+
+        // Then
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyService, times(2)).claim(eq("order-42"), captor.capture());
+        assertNotEquals(captor.getAllValues().get(0), captor.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/{variantId}/stock/commit - Should return 409 while the same key is in flight")
+    void testCommitStock_IdempotencyKeyInUse() throws Exception {
+        // Given
+        when(idempotencyService.claim(eq("order-42"), anyString()))
+                .thenThrow(new IdempotencyKeyInUseException("A request with idempotency key order-42 is still in progress"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/commit", 1L)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict"));
+
+        verifyNoInteractions(itemVariantService);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/{variantId}/stock/reserve - Should give the key up when the request fails")
+    void testReserveStock_IdempotencyKeyAbandoned() throws Exception {
+        // Given
+        when(idempotencyService.claim(eq("order-42"), anyString())).thenReturn(Optional.empty());
+        when(itemVariantService.reserveStock(any())).thenThrow(new OutOfStockException("Insufficient stock"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/{variantId}/stock/reserve", 1L)
+                        .header("Idempotency-Key", "order-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stockRequest)))
+                .andExpect(status().isBadRequest());
+
+        verify(idempotencyService, times(1)).abandon("order-42");
+        verify(idempotencyService, never()).complete(any(), any());
+    }
+}
@@ -1,12 +1,18 @@
 package com.checkproof.web;
 
 import com.checkproof.helper.converter.ItemVariantConverter;
+import com.checkproof.service.IdempotencyService;
 import com.checkproof.service.ItemVariantService;
 import com.checkproof.servicemodel.ItemVariantResult;
 import com.checkproof.servicemodel.UpdateItemVariantSpec;
+import com.checkproof.servicemodel.VariantBatchEntryResult;
+import com.checkproof.servicemodel.VariantBatchSpec;
 import com.checkproof.webmodel.ItemVariantRequest;
 import com.checkproof.webmodel.ItemVariantResponse;
+import com.checkproof.webmodel.VariantBatchEntryResponse;
+import com.checkproof.webmodel.VariantBatchGetRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +23,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -36,6 +44,9 @@ class VariantControllerTest {
     @MockBean
     private ItemVariantConverter itemVariantConverter;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -65,6 +76,87 @@ class VariantControllerTest {
         variantResult.setPrice(29.99);
     }
 
+    @Test
+    @DisplayName("GET /api/v1/variants/by-sku/{sku} - Should return the variant with the SKU")
+    void testGetVariantBySku_Success() throws Exception {
+        // Given
+        when(itemVariantService.getVariantBySku("TSHIRT-SM-BLUE-001")).thenReturn(variantResult);
+        when(itemVariantConverter.toItemVariantResponse(variantResult)).thenReturn(variantResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/by-sku/TSHIRT-SM-BLUE-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.sku").value("TSHIRT-SM-BLUE-001"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/by-sku/{sku} - Should return 304 when the variant is unchanged")
+    void testGetVariantBySku_NotModified() throws Exception {
+        // Given
+        when(itemVariantService.getVariantTagBySku("TSHIRT-SM-BLUE-001")).thenReturn("variant-1.1.3");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/by-sku/TSHIRT-SM-BLUE-001").header("If-None-Match", "\"variant-1.1.3\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemVariantService, never()).getVariantBySku(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/variants/by-sku/{sku} - Should return 404 for an unknown SKU")
+    void testGetVariantBySku_NotFound() throws Exception {
+        // Given
+        when(itemVariantService.getVariantBySku("UNKNOWN"))
+                .thenThrow(new EntityNotFoundException("item_variant not found"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/variants/by-sku/UNKNOWN"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/batch-get - Should return an entry per requested id and SKU")
+    void testGetVariants_Success() throws Exception {
+        // Given
+        VariantBatchEntryResult found = VariantBatchEntryResult.builder().variantId(1L).found(true).build();
+        VariantBatchEntryResult missing = VariantBatchEntryResult.builder().sku("UNKNOWN").found(false).build();
+        when(itemVariantService.getVariants(new VariantBatchSpec(List.of(1L), List.of("UNKNOWN"))))
+                .thenReturn(List.of(found, missing));
+        when(itemVariantConverter.toVariantBatchEntryResponse(found)).thenReturn(
+                VariantBatchEntryResponse.builder().variantId(1L).sku("TSHIRT-SM-BLUE-001").found(true)
+                        .variant(variantResponse).build());
+        when(itemVariantConverter.toVariantBatchEntryResponse(missing)).thenReturn(
+                VariantBatchEntryResponse.builder().sku("UNKNOWN").found(false).build());
+        VariantBatchGetRequest request = VariantBatchGetRequest.builder()
+                .ids(List.of(1L))
+                .skus(List.of("UNKNOWN"))
+                .build();
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].variant.sku").value("TSHIRT-SM-BLUE-001"))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].sku").value("UNKNOWN"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/variants/batch-get - Should return 400 for a blank SKU")
+    void testGetVariants_BlankSku() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/api/v1/variants/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"skus\":[\" \"]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemVariantService, never()).getVariants(any());
+    }
+
     @Test
     @DisplayName("PUT /api/v1/variants/{id} - Should update variant successfully")
     void testUpdateVariant_Success() throws Exception {